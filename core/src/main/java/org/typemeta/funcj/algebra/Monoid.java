@@ -3,6 +3,8 @@
 import org.typemeta.funcj.functions.Functions;
 import org.typemeta.funcj.util.Folds;
 
+import java.util.ArrayList;
+import java.util.function.*;
 import java.util.stream.Stream;
 
 /**
@@ -55,6 +57,19 @@ default T combineAll(Iterable<T> iter) {
         return Folds.foldLeft(this::combine, zero(), iter);
     }
 
+    /**
+     * Create a builder, which combines a sequence of values using this monoid.
+     * <p>
+     * The default builder combines the values pairwise, in a balanced tree,
+     * so that building from {@code n} values with a monoid whose {@code combine} copies its arguments,
+     * such as list or string concatenation, takes O(n log n) time rather than O(n<sup>2</sup>).
+     * Instances may override this with a builder which appends to a mutable buffer.
+     * @return          a new builder
+     */
+    default Builder<T> builder() {
+        return new MonoidUtils.BalancedBuilder<T>(this);
+    }
+
     /**
      * Combine all elements in a stream.
      * @param str       the stream of values
@@ -63,4 +78,209 @@ default T combineAll(Iterable<T> iter) {
     default T combineAll(Stream<T> str) {
         return Folds.foldLeft(this::combine, zero(), str);
     }
+
+    /**
+     * An accumulator for combining a sequence of values.
+     * @param <T>       the value type
+     */
+    interface Builder<T> {
+        /**
+         * Append a value.
+         * @param value     the value to be appended
+         * @return          this builder
+         */
+        Builder<T> add(T value);
+
+        /**
+         * @return          the combination of the values appended so far
+         */
+        T build();
+    }
+
+    /**
+     * A monoid over {@code int} values, which avoids boxing.
+     */
+    interface OfInt {
+        /**
+         * Create a {@code int} monoid instance from the given values.
+         * @param zero      the identity value
+         * @param combine   the combine function
+         * @return          the monoid instance
+         */
+        static OfInt of(int zero, IntBinaryOperator combine) {
+            return new OfInt() {
+                @Override
+                public int zero() {
+                    return zero;
+                }
+
+                @Override
+                public int combine(int x, int y) {
+                    return combine.applyAsInt(x, y);
+                }
+            };
+        }
+
+        /**
+         * The identity value for the {@code combine} operation.
+         * @return          the identity value
+         */
+        int zero();
+
+        /**
+         * An associative operation that combines two values to form a new value.
+         * @param x         the first value
+         * @param y         the second value
+         * @return          the combined value
+         */
+        int combine(int x, int y);
+
+        /**
+         * Convert this monoid into a {@link Monoid} over boxed values.
+         * @return          the boxed monoid
+         */
+        default Monoid<Integer> boxed() {
+            return Monoid.of(zero(), this::combine);
+        }
+    }
+
+    /**
+     * A monoid over {@code long} values, which avoids boxing.
+     */
+    interface OfLong {
+        /**
+         * Create a {@code long} monoid instance from the given values.
+         * @param zero      the identity value
+         * @param combine   the combine function
+         * @return          the monoid instance
+         */
+        static OfLong of(long zero, LongBinaryOperator combine) {
+            return new OfLong() {
+                @Override
+                public long zero() {
+                    return zero;
+                }
+
+                @Override
+                public long combine(long x, long y) {
+                    return combine.applyAsLong(x, y);
+                }
+            };
+        }
+
+        /**
+         * The identity value for the {@code combine} operation.
+         * @return          the identity value
+         */
+        long zero();
+
+        /**
+         * An associative operation that combines two values to form a new value.
+         * @param x         the first value
+         * @param y         the second value
+         * @return          the combined value
+         */
+        long combine(long x, long y);
+
+        /**
+         * Convert this monoid into a {@link Monoid} over boxed values.
+         * @return          the boxed monoid
+         */
+        default Monoid<Long> boxed() {
+            return Monoid.of(zero(), this::combine);
+        }
+    }
+
+    /**
+     * A monoid over {@code double} values, which avoids boxing.
+     */
+    interface OfDouble {
+        /**
+         * Create a {@code double} monoid instance from the given values.
+         * @param zero      the identity value
+         * @param combine   the combine function
+         * @return          the monoid instance
+         */
+        static OfDouble of(double zero, DoubleBinaryOperator combine) {
+            return new OfDouble() {
+                @Override
+                public double zero() {
+                    return zero;
+                }
+
+                @Override
+                public double combine(double x, double y) {
+                    return combine.applyAsDouble(x, y);
+                }
+            };
+        }
+
+        /**
+         * The identity value for the {@code combine} operation.
+         * @return          the identity value
+         */
+        double zero();
+
+        /**
+         * An associative operation that combines two values to form a new value.
+         * @param x         the first value
+         * @param y         the second value
+         * @return          the combined value
+         */
+        double combine(double x, double y);
+
+        /**
+         * Convert this monoid into a {@link Monoid} over boxed values.
+         * @return          the boxed monoid
+         */
+        default Monoid<Double> boxed() {
+            return Monoid.of(zero(), this::combine);
+        }
+    }
+}
+
+abstract class MonoidUtils {
+    /**
+     * A builder which keeps a stack of partial results, with sizes that are decreasing powers of two,
+     * and combines the top two whenever they have the same size.
+     */
+    static final class BalancedBuilder<T> implements Monoid.Builder<T> {
+        private final Monoid<T> monoid;
+        private final ArrayList<T> values = new ArrayList<T>();
+        private final ArrayList<Integer> sizes = new ArrayList<Integer>();
+
+        BalancedBuilder(Monoid<T> monoid) {
+            this.monoid = monoid;
+        }
+
+        @Override
+        public Monoid.Builder<T> add(T value) {
+            T acc = value;
+            int size = 1;
+            int top = values.size() - 1;
+            while (top >= 0 && sizes.get(top) == size) {
+                acc = monoid.combine(values.remove(top), acc);
+                sizes.remove(top);
+                size *= 2;
+                --top;
+            }
+            values.add(acc);
+            sizes.add(size);
+            return this;
+        }
+
+        @Override
+        public T build() {
+            int i = values.size() - 1;
+            if (i < 0) {
+                return monoid.zero();
+            } else {
+                T acc = values.get(i);
+                while (--i >= 0) {
+                    acc = monoid.combine(values.get(i), acc);
+                }
+                return acc;
+            }
+        }
+    }
 }
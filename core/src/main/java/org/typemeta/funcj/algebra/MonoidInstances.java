@@ -102,8 +102,44 @@ public String zero() {
         public String combine(String x, String y) {
             return (x + y);
         }
+
+        @Override
+        public Builder<String> builder() {
+            return new Builder<String>() {
+                final StringBuilder sb = new StringBuilder();
+
+                @Override
+                public Builder<String> add(String value) {
+                    sb.append(value);
+                    return this;
+                }
+
+                @Override
+                public String build() {
+                    return sb.toString();
+                }
+            };
+        }
     };
 
+    public static final Monoid.OfInt monoidIntSum = Monoid.OfInt.of(0, Integer::sum);
+
+    public static final Monoid.OfInt monoidIntMin = Monoid.OfInt.of(Integer.MAX_VALUE, Math::min);
+
+    public static final Monoid.OfInt monoidIntMax = Monoid.OfInt.of(Integer.MIN_VALUE, Math::max);
+
+    public static final Monoid.OfLong monoidLongSum = Monoid.OfLong.of(0L, Long::sum);
+
+    public static final Monoid.OfLong monoidLongMin = Monoid.OfLong.of(Long.MAX_VALUE, Math::min);
+
+    public static final Monoid.OfLong monoidLongMax = Monoid.OfLong.of(Long.MIN_VALUE, Math::max);
+
+    public static final Monoid.OfDouble monoidDoubleSum = Monoid.OfDouble.of(0d, Double::sum);
+
+    public static final Monoid.OfDouble monoidDoubleMin = Monoid.OfDouble.of(Double.POSITIVE_INFINITY, Math::min);
+
+    public static final Monoid.OfDouble monoidDoubleMax = Monoid.OfDouble.of(Double.NEGATIVE_INFINITY, Math::max);
+
     private static final Monoid<IList<Object>> monoidIList = new Monoid<IList<Object>>() {
         @Override
         public IList<Object> zero() {
@@ -114,6 +150,34 @@ public IList<Object> zero() {
         public IList<Object> combine(IList<Object> x, IList<Object> y) {
             return x.appendAll(y);
         }
+
+        /**
+         * Collects the lists, and then prepends each one, from last to first, onto the result,
+         * so that each element is copied at most once, and the last list is shared.
+         */
+        @Override
+        public Builder<IList<Object>> builder() {
+            return new Builder<IList<Object>>() {
+                final List<IList<Object>> lists = new ArrayList<>();
+
+                @Override
+                public Builder<IList<Object>> add(IList<Object> value) {
+                    if (!value.isEmpty()) {
+                        lists.add(value);
+                    }
+                    return this;
+                }
+
+                @Override
+                public IList<Object> build() {
+                    IList<Object> res = IList.empty();
+                    for (int i = lists.size() - 1; i >= 0; --i) {
+                        res = res.addAll(lists.get(i));
+                    }
+                    return res;
+                }
+            };
+        }
     };
 
     private static final Monoid<List<Object>> monoidList = new Monoid<List<Object>>() {
@@ -129,6 +193,24 @@ public List<Object> combine(List<Object> x, List<Object> y) {
             res.addAll(y);
             return res;
         }
+
+        @Override
+        public Builder<List<Object>> builder() {
+            return new Builder<List<Object>>() {
+                final List<Object> res = new ArrayList<>();
+
+                @Override
+                public Builder<List<Object>> add(List<Object> value) {
+                    res.addAll(value);
+                    return this;
+                }
+
+                @Override
+                public List<Object> build() {
+                    return new ArrayList<>(res);
+                }
+            };
+        }
     };
 
     @SuppressWarnings("unchecked")
@@ -6,6 +6,7 @@
 import org.typemeta.funcj.util.*;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 /**
@@ -139,6 +140,118 @@ static <E, T> Either<E, List<T>> sequence(List<Either<E, T>> let) {
         return res.map(l -> {Collections.reverse(l); return l;});
     }
 
+    /**
+     * Parallel applicative traversal.
+     * <p>
+     * Applies the function to the elements in parallel, on the given {@link ForkJoinPool},
+     * and combines the results in input order.
+     * Once a failure has been found, any remaining elements to its right are skipped,
+     * and the leftmost failure is returned.
+     * Note that this differs from {@link Either#traverse(IList, F)},
+     * which evaluates every element and returns the rightmost failure.
+     * The two agree when at most one of the results is a failure.
+     * @param ls        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param pool      the pool on which to evaluate the function
+     * @param <E>       the left-hand type of the {@code Either} returned by the function
+     * @param <S>       the type of list elements
+     * @param <T>       the right-hand type of the {@code Either} returned by the function
+     * @return          a {@code Either} which wraps an {@link IList} of values
+     */
+    @SuppressWarnings("unchecked")
+    static <E, S, T> Either<E, IList<T>> parTraverse(IList<S> ls, F<S, Either<E, T>> f, ForkJoinPool pool) {
+        final ParTraversal.Results<Either<E, T>> rs =
+                ParTraversal.run(pool, ParTraversal.toArray(ls, ls.size()), f, e -> !e.isRight(), true);
+        if (rs.failed()) {
+            return left(((Left<E, T>)rs.firstFailure()).value);
+        } else {
+            return right(ParTraversal.toIList(rs.values(e -> e.right())));
+        }
+    }
+
+    /**
+     * Variation of {@link Either#parTraverse(IList, F, ForkJoinPool)}
+     * which uses the {@link ForkJoinPool#commonPool()}.
+     * @param ls        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param <E>       the left-hand type of the {@code Either} returned by the function
+     * @param <S>       the type of list elements
+     * @param <T>       the right-hand type of the {@code Either} returned by the function
+     * @return          a {@code Either} which wraps an {@link IList} of values
+     */
+    static <E, S, T> Either<E, IList<T>> parTraverse(IList<S> ls, F<S, Either<E, T>> f) {
+        return parTraverse(ls, f, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel applicative traversal.
+     * <p>
+     * Applies the function to the elements in parallel, on the given {@link ForkJoinPool},
+     * and combines the results in input order.
+     * Once a failure has been found, any remaining elements to its right are skipped,
+     * and the leftmost failure is returned.
+     * Note that this differs from {@link Either#traverse(List, F)},
+     * which evaluates every element and returns the rightmost failure.
+     * The two agree when at most one of the results is a failure.
+     * @param ls        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param pool      the pool on which to evaluate the function
+     * @param <E>       the left-hand type of the {@code Either} returned by the function
+     * @param <S>       the type of list elements
+     * @param <T>       the right-hand type of the {@code Either} returned by the function
+     * @return          a {@code Either} which wraps an {@link List} of values
+     */
+    @SuppressWarnings("unchecked")
+    static <E, S, T> Either<E, List<T>> parTraverse(List<S> ls, F<S, Either<E, T>> f, ForkJoinPool pool) {
+        final ParTraversal.Results<Either<E, T>> rs =
+                ParTraversal.run(pool, ParTraversal.toArray(ls, ls.size()), f, e -> !e.isRight(), true);
+        if (rs.failed()) {
+            return left(((Left<E, T>)rs.firstFailure()).value);
+        } else {
+            return right(ParTraversal.toList(rs.values(e -> e.right())));
+        }
+    }
+
+    /**
+     * Variation of {@link Either#parTraverse(List, F, ForkJoinPool)}
+     * which uses the {@link ForkJoinPool#commonPool()}.
+     * @param ls        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param <E>       the left-hand type of the {@code Either} returned by the function
+     * @param <S>       the type of list elements
+     * @param <T>       the right-hand type of the {@code Either} returned by the function
+     * @return          a {@code Either} which wraps an {@link List} of values
+     */
+    static <E, S, T> Either<E, List<T>> parTraverse(List<S> ls, F<S, Either<E, T>> f) {
+        return parTraverse(ls, f, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel applicative sequencing,
+     * using the {@link ForkJoinPool#commonPool()}.
+     * @param let       the list of {@code Either} values
+     * @param <E>       the left-hand type
+     * @param <T>       the right-hand type of the {@code Either}s in the list
+     * @return          a {@code Either} which wraps an {@link IList} of values
+     * @see             Either#parTraverse(IList, F, ForkJoinPool)
+     */
+    static <E, T> Either<E, IList<T>> parSequence(IList<Either<E, T>> let) {
+        return parTraverse(let, F.id());
+    }
+
+    /**
+     * Parallel applicative sequencing,
+     * using the {@link ForkJoinPool#commonPool()}.
+     * @param let       the list of {@code Either} values
+     * @param <E>       the left-hand type
+     * @param <T>       the right-hand type of the {@code Either}s in the list
+     * @return          a {@code Either} which wraps an {@link List} of values
+     * @see             Either#parTraverse(List, F, ForkJoinPool)
+     */
+    static <E, T> Either<E, List<T>> parSequence(List<Either<E, T>> let) {
+        return parTraverse(let, F.id());
+    }
+
     /**
      * Repeatedly call the function {@code f} until it returns {@code Either.Right}.
      * <p>
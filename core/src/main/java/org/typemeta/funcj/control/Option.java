@@ -6,6 +6,7 @@
 import org.typemeta.funcj.util.*;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 /**
@@ -123,6 +124,108 @@ static <T> Option<List<T>> sequence(List<Option<T>> lot) {
         return res.map(l -> {Collections.reverse(l); return l;});
     }
 
+    /**
+     * Parallel applicative traversal.
+     * <p>
+     * Equivalent to {@link Option#traverse(IList, F)},
+     * except that the function is applied to the elements in parallel, on the given {@link ForkJoinPool}.
+     * The results are combined in input order.
+     * Once a failure has been found, any remaining elements to its right are skipped,
+     * and the leftmost failure is returned, as it would be by {@link Option#traverse(IList, F)}.
+     * @param lt        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param pool      the pool on which to evaluate the function
+     * @param <T>       the type of list elements
+     * @param <U>       the type wrapped by the {@code Option} returned by the function
+     * @return          a {@code Option} which wraps an {@link IList} of values
+     */
+    @SuppressWarnings("unchecked")
+    static <T, U> Option<IList<U>> parTraverse(IList<T> lt, F<T, Option<U>> f, ForkJoinPool pool) {
+        final ParTraversal.Results<Option<U>> rs =
+                ParTraversal.run(pool, ParTraversal.toArray(lt, lt.size()), f, o -> !o.isPresent(), true);
+        if (rs.failed()) {
+            return none();
+        } else {
+            return some(ParTraversal.toIList(rs.values(o -> o.get())));
+        }
+    }
+
+    /**
+     * Variation of {@link Option#parTraverse(IList, F, ForkJoinPool)}
+     * which uses the {@link ForkJoinPool#commonPool()}.
+     * @param lt        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param <T>       the type of list elements
+     * @param <U>       the type wrapped by the {@code Option} returned by the function
+     * @return          a {@code Option} which wraps an {@link IList} of values
+     */
+    static <T, U> Option<IList<U>> parTraverse(IList<T> lt, F<T, Option<U>> f) {
+        return parTraverse(lt, f, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel applicative traversal.
+     * <p>
+     * Equivalent to {@link Option#traverse(List, F)},
+     * except that the function is applied to the elements in parallel, on the given {@link ForkJoinPool}.
+     * The results are combined in input order.
+     * Once a failure has been found, any remaining elements to its right are skipped,
+     * and the leftmost failure is returned, as it would be by {@link Option#traverse(List, F)}.
+     * @param lt        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param pool      the pool on which to evaluate the function
+     * @param <T>       the type of list elements
+     * @param <U>       the type wrapped by the {@code Option} returned by the function
+     * @return          a {@code Option} which wraps an {@link List} of values
+     */
+    @SuppressWarnings("unchecked")
+    static <T, U> Option<List<U>> parTraverse(List<T> lt, F<T, Option<U>> f, ForkJoinPool pool) {
+        final ParTraversal.Results<Option<U>> rs =
+                ParTraversal.run(pool, ParTraversal.toArray(lt, lt.size()), f, o -> !o.isPresent(), true);
+        if (rs.failed()) {
+            return none();
+        } else {
+            return some(ParTraversal.toList(rs.values(o -> o.get())));
+        }
+    }
+
+    /**
+     * Variation of {@link Option#parTraverse(List, F, ForkJoinPool)}
+     * which uses the {@link ForkJoinPool#commonPool()}.
+     * @param lt        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param <T>       the type of list elements
+     * @param <U>       the type wrapped by the {@code Option} returned by the function
+     * @return          a {@code Option} which wraps an {@link List} of values
+     */
+    static <T, U> Option<List<U>> parTraverse(List<T> lt, F<T, Option<U>> f) {
+        return parTraverse(lt, f, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel applicative sequencing,
+     * using the {@link ForkJoinPool#commonPool()}.
+     * @param lot       the list of {@code Option} values
+     * @param <T>       the value type of the {@code Option}s in the list
+     * @return          a {@code Option} which wraps an {@link IList} of values
+     * @see             Option#parTraverse(IList, F, ForkJoinPool)
+     */
+    static <T> Option<IList<T>> parSequence(IList<Option<T>> lot) {
+        return parTraverse(lot, F.id());
+    }
+
+    /**
+     * Parallel applicative sequencing,
+     * using the {@link ForkJoinPool#commonPool()}.
+     * @param lot       the list of {@code Option} values
+     * @param <T>       the value type of the {@code Option}s in the list
+     * @return          a {@code Option} which wraps an {@link List} of values
+     * @see             Option#parTraverse(List, F, ForkJoinPool)
+     */
+    static <T> Option<List<T>> parSequence(List<Option<T>> lot) {
+        return parTraverse(lot, F.id());
+    }
+
     /**
      * Repeatedly call the function {@code f} until it returns {@code Either.Right}.
      * <p>
@@ -0,0 +1,306 @@
+package org.typemeta.funcj.control;
+
+import org.typemeta.funcj.functions.Functions.F0;
+import org.typemeta.funcj.functions.PrimitiveFunctions.*;
+
+import java.util.*;
+
+/**
+ * A specialisation of {@link Option} for {@code double} values,
+ * which holds the value unboxed.
+ * <p>
+ * A {@code OptionDouble} value is either
+ * the sub-type {@code OptionDouble.None} which indicates an absent value, or
+ * the sub-type {@code OptionDouble.Some} which holds a {@code double} value.
+ */
+public interface OptionDouble {
+
+    /**
+     * Create a {@code Some} value that holds a {@code double} value.
+     * @param value     the value
+     * @return          a {@code Some} value
+     */
+    static OptionDouble some(double value) {
+        return new Some(value);
+    }
+
+    /**
+     * Return the {@code None} value.
+     * @return          the {@code None} value
+     */
+    static OptionDouble none() {
+        return None.INSTANCE;
+    }
+
+    /**
+     * Convert an {@link Option} of boxed values into an {@code OptionDouble}.
+     * @param opt       the {@code Option}
+     * @return          the equivalent {@code OptionDouble}
+     */
+    static OptionDouble fromOption(Option<Double> opt) {
+        return opt.isPresent() ? some(opt.get()) : none();
+    }
+
+    /**
+     * Convert an {@link OptionalDouble} into an {@code OptionDouble}.
+     * @param opt       the {@code OptionalDouble}
+     * @return          the equivalent {@code OptionDouble}
+     */
+    static OptionDouble fromOptional(OptionalDouble opt) {
+        return opt.isPresent() ? some(opt.getAsDouble()) : none();
+    }
+
+    /**
+     * Indicates if this is a {@code Some} value.
+     * @return          true if this value is a {@code Some} value
+     */
+    boolean isPresent();
+
+    /**
+     * Return the value if it's a {@code Some}, otherwise throw a RuntimeException.
+     * @return          the value if this is a {@code Some}
+     */
+    double get();
+
+    /**
+     * Return the value if it's a {@code Some}, otherwise return the given default value.
+     * @param value     value to be returned if this is a {@code None}
+     * @return          the value if it's a {@code Some}, otherwise the given default value
+     */
+    double orElse(double value);
+
+    /**
+     * Return the value if it's a {@code Some},
+     * otherwise throw the exception provided by calling {@code exSupp}.
+     * @param exSupp    the exception supplier
+     * @param <X>       the exception type
+     * @return          the value if this is a {@code Some}
+     * @throws X        if no value is present
+     */
+    <X extends Throwable> double orElseThrow(F0<X> exSupp) throws X;
+
+    /**
+     * Apply one of two functions to this value, according to the type of value.
+     * @param noneF     the function to be applied to the {@code None} value
+     * @param someF     the function to be applied to the {@code Some} value
+     * @param <R>       the return type of functions
+     * @return          the result of applying either function
+     */
+    <R> R fold(F0<? extends R> noneF, DoubleF<? extends R> someF);
+
+    /**
+     * Functor function application.
+     * If this value is a {@code Some} then apply the operator to the value,
+     * otherwise if this is a {@code None} then leave it untouched.
+     * @param f         the operator to be applied
+     * @return          a {@code OptionDouble} that holds the operator result, or the original none
+     */
+    OptionDouble map(DoubleOp f);
+
+    /**
+     * Functor function application, to a function which returns a reference type.
+     * @param f         the function to be applied
+     * @param <U>       the function return type
+     * @return          an {@code Option} that wraps the function result, or a none
+     */
+    <U> Option<U> mapToObj(DoubleF<? extends U> f);
+
+    /**
+     * Monadic bind/flatMap.
+     * If this is a {@code Some} then apply the function to the value and return the result,
+     * otherwise return the {@code None} result.
+     * @param f         the function to be applied
+     * @return          the result of combining this value with the function {@code f}
+     */
+    OptionDouble flatMap(DoubleF<OptionDouble> f);
+
+    /**
+     * Return this value if it's a {@code Some} and the value satisfies the predicate,
+     * otherwise return {@code None}.
+     * @param pred      the predicate
+     * @return          this value, or {@code None}
+     */
+    OptionDouble filter(DoublePredicate pred);
+
+    /**
+     * Convert this value into an {@link Option} of the boxed value.
+     * @return          the equivalent {@code Option}
+     */
+    Option<Double> boxed();
+
+    /**
+     * Downgrade this value into an {@link OptionalDouble}.
+     * @return          the equivalent {@code OptionalDouble}
+     */
+    OptionalDouble asOptional();
+
+    /**
+     * Some type.
+     */
+    final class Some implements OptionDouble {
+
+        public final double value;
+
+        private Some(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return "Some(" + value + ")";
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null) {
+                return false;
+            } else if (!(obj instanceof OptionDouble.Some)) {
+                return false;
+            } else {
+                final Some rhs = (Some) obj;
+                return Double.compare(value, rhs.value) == 0;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Double.hashCode(value);
+        }
+
+        @Override
+        public boolean isPresent() {
+            return true;
+        }
+
+        @Override
+        public double get() {
+            return value;
+        }
+
+        @Override
+        public double orElse(double value) {
+            return this.value;
+        }
+
+        @Override
+        public <X extends Throwable> double orElseThrow(F0<X> exSupp) throws X {
+            return value;
+        }
+
+        @Override
+        public <R> R fold(F0<? extends R> noneF, DoubleF<? extends R> someF) {
+            return someF.apply(value);
+        }
+
+        @Override
+        public OptionDouble map(DoubleOp f) {
+            return some(f.apply(value));
+        }
+
+        @Override
+        public <U> Option<U> mapToObj(DoubleF<? extends U> f) {
+            return Option.some(f.apply(value));
+        }
+
+        @Override
+        public OptionDouble flatMap(DoubleF<OptionDouble> f) {
+            return f.apply(value);
+        }
+
+        @Override
+        public OptionDouble filter(DoublePredicate pred) {
+            return pred.test(value) ? this : none();
+        }
+
+        @Override
+        public Option<Double> boxed() {
+            return Option.some(value);
+        }
+
+        @Override
+        public OptionalDouble asOptional() {
+            return OptionalDouble.of(value);
+        }
+    }
+
+    /**
+     * None type.
+     */
+    final class None implements OptionDouble {
+
+        static final None INSTANCE = new None();
+
+        private None() {
+        }
+
+        @Override
+        public String toString() {
+            return "None";
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof OptionDouble.None;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+        @Override
+        public boolean isPresent() {
+            return false;
+        }
+
+        @Override
+        public double get() {
+            throw new RuntimeException("OptionDouble.get() called on OptionDouble.None");
+        }
+
+        @Override
+        public double orElse(double value) {
+            return value;
+        }
+
+        @Override
+        public <X extends Throwable> double orElseThrow(F0<X> exSupp) throws X {
+            throw exSupp.apply();
+        }
+
+        @Override
+        public <R> R fold(F0<? extends R> noneF, DoubleF<? extends R> someF) {
+            return noneF.apply();
+        }
+
+        @Override
+        public OptionDouble map(DoubleOp f) {
+            return this;
+        }
+
+        @Override
+        public <U> Option<U> mapToObj(DoubleF<? extends U> f) {
+            return Option.none();
+        }
+
+        @Override
+        public OptionDouble flatMap(DoubleF<OptionDouble> f) {
+            return this;
+        }
+
+        @Override
+        public OptionDouble filter(DoublePredicate pred) {
+            return this;
+        }
+
+        @Override
+        public Option<Double> boxed() {
+            return Option.none();
+        }
+
+        @Override
+        public OptionalDouble asOptional() {
+            return OptionalDouble.empty();
+        }
+    }
+}
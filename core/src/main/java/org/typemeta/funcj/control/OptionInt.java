@@ -0,0 +1,306 @@
+package org.typemeta.funcj.control;
+
+import org.typemeta.funcj.functions.Functions.F0;
+import org.typemeta.funcj.functions.PrimitiveFunctions.*;
+
+import java.util.*;
+
+/**
+ * A specialisation of {@link Option} for {@code int} values,
+ * which holds the value unboxed.
+ * <p>
+ * A {@code OptionInt} value is either
+ * the sub-type {@code OptionInt.None} which indicates an absent value, or
+ * the sub-type {@code OptionInt.Some} which holds a {@code int} value.
+ */
+public interface OptionInt {
+
+    /**
+     * Create a {@code Some} value that holds a {@code int} value.
+     * @param value     the value
+     * @return          a {@code Some} value
+     */
+    static OptionInt some(int value) {
+        return new Some(value);
+    }
+
+    /**
+     * Return the {@code None} value.
+     * @return          the {@code None} value
+     */
+    static OptionInt none() {
+        return None.INSTANCE;
+    }
+
+    /**
+     * Convert an {@link Option} of boxed values into an {@code OptionInt}.
+     * @param opt       the {@code Option}
+     * @return          the equivalent {@code OptionInt}
+     */
+    static OptionInt fromOption(Option<Integer> opt) {
+        return opt.isPresent() ? some(opt.get()) : none();
+    }
+
+    /**
+     * Convert an {@link OptionalInt} into an {@code OptionInt}.
+     * @param opt       the {@code OptionalInt}
+     * @return          the equivalent {@code OptionInt}
+     */
+    static OptionInt fromOptional(OptionalInt opt) {
+        return opt.isPresent() ? some(opt.getAsInt()) : none();
+    }
+
+    /**
+     * Indicates if this is a {@code Some} value.
+     * @return          true if this value is a {@code Some} value
+     */
+    boolean isPresent();
+
+    /**
+     * Return the value if it's a {@code Some}, otherwise throw a RuntimeException.
+     * @return          the value if this is a {@code Some}
+     */
+    int get();
+
+    /**
+     * Return the value if it's a {@code Some}, otherwise return the given default value.
+     * @param value     value to be returned if this is a {@code None}
+     * @return          the value if it's a {@code Some}, otherwise the given default value
+     */
+    int orElse(int value);
+
+    /**
+     * Return the value if it's a {@code Some},
+     * otherwise throw the exception provided by calling {@code exSupp}.
+     * @param exSupp    the exception supplier
+     * @param <X>       the exception type
+     * @return          the value if this is a {@code Some}
+     * @throws X        if no value is present
+     */
+    <X extends Throwable> int orElseThrow(F0<X> exSupp) throws X;
+
+    /**
+     * Apply one of two functions to this value, according to the type of value.
+     * @param noneF     the function to be applied to the {@code None} value
+     * @param someF     the function to be applied to the {@code Some} value
+     * @param <R>       the return type of functions
+     * @return          the result of applying either function
+     */
+    <R> R fold(F0<? extends R> noneF, IntF<? extends R> someF);
+
+    /**
+     * Functor function application.
+     * If this value is a {@code Some} then apply the operator to the value,
+     * otherwise if this is a {@code None} then leave it untouched.
+     * @param f         the operator to be applied
+     * @return          a {@code OptionInt} that holds the operator result, or the original none
+     */
+    OptionInt map(IntOp f);
+
+    /**
+     * Functor function application, to a function which returns a reference type.
+     * @param f         the function to be applied
+     * @param <U>       the function return type
+     * @return          an {@code Option} that wraps the function result, or a none
+     */
+    <U> Option<U> mapToObj(IntF<? extends U> f);
+
+    /**
+     * Monadic bind/flatMap.
+     * If this is a {@code Some} then apply the function to the value and return the result,
+     * otherwise return the {@code None} result.
+     * @param f         the function to be applied
+     * @return          the result of combining this value with the function {@code f}
+     */
+    OptionInt flatMap(IntF<OptionInt> f);
+
+    /**
+     * Return this value if it's a {@code Some} and the value satisfies the predicate,
+     * otherwise return {@code None}.
+     * @param pred      the predicate
+     * @return          this value, or {@code None}
+     */
+    OptionInt filter(IntPredicate pred);
+
+    /**
+     * Convert this value into an {@link Option} of the boxed value.
+     * @return          the equivalent {@code Option}
+     */
+    Option<Integer> boxed();
+
+    /**
+     * Downgrade this value into an {@link OptionalInt}.
+     * @return          the equivalent {@code OptionalInt}
+     */
+    OptionalInt asOptional();
+
+    /**
+     * Some type.
+     */
+    final class Some implements OptionInt {
+
+        public final int value;
+
+        private Some(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return "Some(" + value + ")";
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null) {
+                return false;
+            } else if (!(obj instanceof OptionInt.Some)) {
+                return false;
+            } else {
+                final Some rhs = (Some) obj;
+                return value == rhs.value;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Integer.hashCode(value);
+        }
+
+        @Override
+        public boolean isPresent() {
+            return true;
+        }
+
+        @Override
+        public int get() {
+            return value;
+        }
+
+        @Override
+        public int orElse(int value) {
+            return this.value;
+        }
+
+        @Override
+        public <X extends Throwable> int orElseThrow(F0<X> exSupp) throws X {
+            return value;
+        }
+
+        @Override
+        public <R> R fold(F0<? extends R> noneF, IntF<? extends R> someF) {
+            return someF.apply(value);
+        }
+
+        @Override
+        public OptionInt map(IntOp f) {
+            return some(f.apply(value));
+        }
+
+        @Override
+        public <U> Option<U> mapToObj(IntF<? extends U> f) {
+            return Option.some(f.apply(value));
+        }
+
+        @Override
+        public OptionInt flatMap(IntF<OptionInt> f) {
+            return f.apply(value);
+        }
+
+        @Override
+        public OptionInt filter(IntPredicate pred) {
+            return pred.test(value) ? this : none();
+        }
+
+        @Override
+        public Option<Integer> boxed() {
+            return Option.some(value);
+        }
+
+        @Override
+        public OptionalInt asOptional() {
+            return OptionalInt.of(value);
+        }
+    }
+
+    /**
+     * None type.
+     */
+    final class None implements OptionInt {
+
+        static final None INSTANCE = new None();
+
+        private None() {
+        }
+
+        @Override
+        public String toString() {
+            return "None";
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof OptionInt.None;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+        @Override
+        public boolean isPresent() {
+            return false;
+        }
+
+        @Override
+        public int get() {
+            throw new RuntimeException("OptionInt.get() called on OptionInt.None");
+        }
+
+        @Override
+        public int orElse(int value) {
+            return value;
+        }
+
+        @Override
+        public <X extends Throwable> int orElseThrow(F0<X> exSupp) throws X {
+            throw exSupp.apply();
+        }
+
+        @Override
+        public <R> R fold(F0<? extends R> noneF, IntF<? extends R> someF) {
+            return noneF.apply();
+        }
+
+        @Override
+        public OptionInt map(IntOp f) {
+            return this;
+        }
+
+        @Override
+        public <U> Option<U> mapToObj(IntF<? extends U> f) {
+            return Option.none();
+        }
+
+        @Override
+        public OptionInt flatMap(IntF<OptionInt> f) {
+            return this;
+        }
+
+        @Override
+        public OptionInt filter(IntPredicate pred) {
+            return this;
+        }
+
+        @Override
+        public Option<Integer> boxed() {
+            return Option.none();
+        }
+
+        @Override
+        public OptionalInt asOptional() {
+            return OptionalInt.empty();
+        }
+    }
+}
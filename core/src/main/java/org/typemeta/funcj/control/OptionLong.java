@@ -0,0 +1,306 @@
+package org.typemeta.funcj.control;
+
+import org.typemeta.funcj.functions.Functions.F0;
+import org.typemeta.funcj.functions.PrimitiveFunctions.*;
+
+import java.util.*;
+
+/**
+ * A specialisation of {@link Option} for {@code long} values,
+ * which holds the value unboxed.
+ * <p>
+ * A {@code OptionLong} value is either
+ * the sub-type {@code OptionLong.None} which indicates an absent value, or
+ * the sub-type {@code OptionLong.Some} which holds a {@code long} value.
+ */
+public interface OptionLong {
+
+    /**
+     * Create a {@code Some} value that holds a {@code long} value.
+     * @param value     the value
+     * @return          a {@code Some} value
+     */
+    static OptionLong some(long value) {
+        return new Some(value);
+    }
+
+    /**
+     * Return the {@code None} value.
+     * @return          the {@code None} value
+     */
+    static OptionLong none() {
+        return None.INSTANCE;
+    }
+
+    /**
+     * Convert an {@link Option} of boxed values into an {@code OptionLong}.
+     * @param opt       the {@code Option}
+     * @return          the equivalent {@code OptionLong}
+     */
+    static OptionLong fromOption(Option<Long> opt) {
+        return opt.isPresent() ? some(opt.get()) : none();
+    }
+
+    /**
+     * Convert an {@link OptionalLong} into an {@code OptionLong}.
+     * @param opt       the {@code OptionalLong}
+     * @return          the equivalent {@code OptionLong}
+     */
+    static OptionLong fromOptional(OptionalLong opt) {
+        return opt.isPresent() ? some(opt.getAsLong()) : none();
+    }
+
+    /**
+     * Indicates if this is a {@code Some} value.
+     * @return          true if this value is a {@code Some} value
+     */
+    boolean isPresent();
+
+    /**
+     * Return the value if it's a {@code Some}, otherwise throw a RuntimeException.
+     * @return          the value if this is a {@code Some}
+     */
+    long get();
+
+    /**
+     * Return the value if it's a {@code Some}, otherwise return the given default value.
+     * @param value     value to be returned if this is a {@code None}
+     * @return          the value if it's a {@code Some}, otherwise the given default value
+     */
+    long orElse(long value);
+
+    /**
+     * Return the value if it's a {@code Some},
+     * otherwise throw the exception provided by calling {@code exSupp}.
+     * @param exSupp    the exception supplier
+     * @param <X>       the exception type
+     * @return          the value if this is a {@code Some}
+     * @throws X        if no value is present
+     */
+    <X extends Throwable> long orElseThrow(F0<X> exSupp) throws X;
+
+    /**
+     * Apply one of two functions to this value, according to the type of value.
+     * @param noneF     the function to be applied to the {@code None} value
+     * @param someF     the function to be applied to the {@code Some} value
+     * @param <R>       the return type of functions
+     * @return          the result of applying either function
+     */
+    <R> R fold(F0<? extends R> noneF, LongF<? extends R> someF);
+
+    /**
+     * Functor function application.
+     * If this value is a {@code Some} then apply the operator to the value,
+     * otherwise if this is a {@code None} then leave it untouched.
+     * @param f         the operator to be applied
+     * @return          a {@code OptionLong} that holds the operator result, or the original none
+     */
+    OptionLong map(LongOp f);
+
+    /**
+     * Functor function application, to a function which returns a reference type.
+     * @param f         the function to be applied
+     * @param <U>       the function return type
+     * @return          an {@code Option} that wraps the function result, or a none
+     */
+    <U> Option<U> mapToObj(LongF<? extends U> f);
+
+    /**
+     * Monadic bind/flatMap.
+     * If this is a {@code Some} then apply the function to the value and return the result,
+     * otherwise return the {@code None} result.
+     * @param f         the function to be applied
+     * @return          the result of combining this value with the function {@code f}
+     */
+    OptionLong flatMap(LongF<OptionLong> f);
+
+    /**
+     * Return this value if it's a {@code Some} and the value satisfies the predicate,
+     * otherwise return {@code None}.
+     * @param pred      the predicate
+     * @return          this value, or {@code None}
+     */
+    OptionLong filter(LongPredicate pred);
+
+    /**
+     * Convert this value into an {@link Option} of the boxed value.
+     * @return          the equivalent {@code Option}
+     */
+    Option<Long> boxed();
+
+    /**
+     * Downgrade this value into an {@link OptionalLong}.
+     * @return          the equivalent {@code OptionalLong}
+     */
+    OptionalLong asOptional();
+
+    /**
+     * Some type.
+     */
+    final class Some implements OptionLong {
+
+        public final long value;
+
+        private Some(long value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return "Some(" + value + ")";
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null) {
+                return false;
+            } else if (!(obj instanceof OptionLong.Some)) {
+                return false;
+            } else {
+                final Some rhs = (Some) obj;
+                return value == rhs.value;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(value);
+        }
+
+        @Override
+        public boolean isPresent() {
+            return true;
+        }
+
+        @Override
+        public long get() {
+            return value;
+        }
+
+        @Override
+        public long orElse(long value) {
+            return this.value;
+        }
+
+        @Override
+        public <X extends Throwable> long orElseThrow(F0<X> exSupp) throws X {
+            return value;
+        }
+
+        @Override
+        public <R> R fold(F0<? extends R> noneF, LongF<? extends R> someF) {
+            return someF.apply(value);
+        }
+
+        @Override
+        public OptionLong map(LongOp f) {
+            return some(f.apply(value));
+        }
+
+        @Override
+        public <U> Option<U> mapToObj(LongF<? extends U> f) {
+            return Option.some(f.apply(value));
+        }
+
+        @Override
+        public OptionLong flatMap(LongF<OptionLong> f) {
+            return f.apply(value);
+        }
+
+        @Override
+        public OptionLong filter(LongPredicate pred) {
+            return pred.test(value) ? this : none();
+        }
+
+        @Override
+        public Option<Long> boxed() {
+            return Option.some(value);
+        }
+
+        @Override
+        public OptionalLong asOptional() {
+            return OptionalLong.of(value);
+        }
+    }
+
+    /**
+     * None type.
+     */
+    final class None implements OptionLong {
+
+        static final None INSTANCE = new None();
+
+        private None() {
+        }
+
+        @Override
+        public String toString() {
+            return "None";
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof OptionLong.None;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+        @Override
+        public boolean isPresent() {
+            return false;
+        }
+
+        @Override
+        public long get() {
+            throw new RuntimeException("OptionLong.get() called on OptionLong.None");
+        }
+
+        @Override
+        public long orElse(long value) {
+            return value;
+        }
+
+        @Override
+        public <X extends Throwable> long orElseThrow(F0<X> exSupp) throws X {
+            throw exSupp.apply();
+        }
+
+        @Override
+        public <R> R fold(F0<? extends R> noneF, LongF<? extends R> someF) {
+            return noneF.apply();
+        }
+
+        @Override
+        public OptionLong map(LongOp f) {
+            return this;
+        }
+
+        @Override
+        public <U> Option<U> mapToObj(LongF<? extends U> f) {
+            return Option.none();
+        }
+
+        @Override
+        public OptionLong flatMap(LongF<OptionLong> f) {
+            return this;
+        }
+
+        @Override
+        public OptionLong filter(LongPredicate pred) {
+            return this;
+        }
+
+        @Override
+        public Option<Long> boxed() {
+            return Option.none();
+        }
+
+        @Override
+        public OptionalLong asOptional() {
+            return OptionalLong.empty();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.typemeta.funcj.control;
+
+import org.typemeta.funcj.data.IList;
+import org.typemeta.funcj.functions.Functions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Support for the parallel traversals on {@link Try}, {@link Either}, {@link Option} and {@link Validated}.
+ * <p>
+ * The input is copied into an array, which is recursively split into ranges
+ * that are evaluated as {@link ForkJoinPool} tasks.
+ * The results are stored by index, so they are combined in input order.
+ * When short-circuiting, the index of the leftmost failure seen so far is shared between the tasks,
+ * and any work to the right of it is skipped,
+ * so the result is the leftmost failure.
+ * This is also the failure a sequential {@link Try} traversal returns,
+ * whereas a sequential {@link Either} traversal returns the rightmost failure.
+ */
+final class ParTraversal {
+
+    /**
+     * The number of leaf tasks per worker thread that the input is split into.
+     */
+    private static final int TASKS_PER_THREAD = 8;
+
+    private ParTraversal() {
+    }
+
+    /**
+     * The results of applying a function to each element of the input.
+     * @param <R>       the function return type
+     */
+    static final class Results<R> {
+        private final Object[] results;
+        private final int firstFailure;
+
+        Results(Object[] results, int firstFailure) {
+            this.results = results;
+            this.firstFailure = firstFailure;
+        }
+
+        /**
+         * @return          true if any result was a failure
+         */
+        boolean failed() {
+            return firstFailure != Integer.MAX_VALUE;
+        }
+
+        /**
+         * @return          the leftmost failure
+         */
+        @SuppressWarnings("unchecked")
+        R firstFailure() {
+            return (R)results[firstFailure];
+        }
+
+        /**
+         * @return          the results, in input order
+         */
+        @SuppressWarnings("unchecked")
+        Iterable<R> all() {
+            return Arrays.asList((R[])results);
+        }
+
+        /**
+         * Extract the successful values, in input order.
+         * @param value     the function which extracts the value from a result
+         * @return          the array of values
+         */
+        @SuppressWarnings("unchecked")
+        Object[] values(F<R, ?> value) {
+            final Object[] values = new Object[results.length];
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = value.apply((R)results[i]);
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Copy the elements of an {@code Iterable} into an array.
+     */
+    static Object[] toArray(Iterable<?> elems, int size) {
+        final Object[] arr = new Object[size];
+        int i = 0;
+        for (Object elem : elems) {
+            arr[i++] = elem;
+        }
+        return arr;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> IList<T> toIList(Object[] values) {
+        return IList.ofArray((T[])values);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> List<T> toList(Object[] values) {
+        return new ArrayList<T>(Arrays.asList((T[])values));
+    }
+
+    /**
+     * Apply a function to each element of the input in parallel.
+     * @param pool      the pool to run the tasks on
+     * @param elems     the input elements
+     * @param f         the function
+     * @param isFailure the predicate which identifies failed results
+     * @param shortCircuit if true then skip elements to the right of the leftmost failure seen so far
+     * @param <T>       the input element type
+     * @param <R>       the function return type
+     * @return          the results
+     */
+    static <T, R> Results<R> run(
+            ForkJoinPool pool,
+            Object[] elems,
+            F<? super T, R> f,
+            Predicate<? super R> isFailure,
+            boolean shortCircuit) {
+        final Object[] results = new Object[elems.length];
+        final AtomicInteger firstFailure = new AtomicInteger(Integer.MAX_VALUE);
+        if (elems.length > 0) {
+            final int threshold = Math.max(1, elems.length / (pool.getParallelism() * TASKS_PER_THREAD));
+            pool.invoke(new Chunk<T, R>(elems, results, f, isFailure, shortCircuit, firstFailure, threshold, 0, elems.length));
+        }
+        return new Results<R>(results, firstFailure.get());
+    }
+
+    private static final class Chunk<T, R> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] elems;
+        private final Object[] results;
+        private final F<? super T, R> f;
+        private final Predicate<? super R> isFailure;
+        private final boolean shortCircuit;
+        private final AtomicInteger firstFailure;
+        private final int threshold;
+        private final int lo;
+        private final int hi;
+
+        Chunk(
+                Object[] elems,
+                Object[] results,
+                F<? super T, R> f,
+                Predicate<? super R> isFailure,
+                boolean shortCircuit,
+                AtomicInteger firstFailure,
+                int threshold,
+                int lo,
+                int hi) {
+            this.elems = elems;
+            this.results = results;
+            this.f = f;
+            this.isFailure = isFailure;
+            this.shortCircuit = shortCircuit;
+            this.firstFailure = firstFailure;
+            this.threshold = threshold;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        private Chunk<T, R> sub(int lo, int hi) {
+            return new Chunk<T, R>(elems, results, f, isFailure, shortCircuit, firstFailure, threshold, lo, hi);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void compute() {
+            if (shortCircuit && lo > firstFailure.get()) {
+                return;
+            } else if (hi - lo <= threshold) {
+                for (int i = lo; i < hi; ++i) {
+                    if (shortCircuit && i > firstFailure.get()) {
+                        return;
+                    }
+                    final R r = f.apply((T)elems[i]);
+                    results[i] = r;
+                    if (isFailure.test(r)) {
+                        int curr;
+                        while (i < (curr = firstFailure.get()) && !firstFailure.compareAndSet(curr, i)) {
+                        }
+                        if (shortCircuit) {
+                            return;
+                        }
+                    }
+                }
+            } else {
+                final int mid = (lo + hi) >>> 1;
+                invokeAll(sub(lo, mid), sub(mid, hi));
+            }
+        }
+    }
+}
@@ -3,12 +3,9 @@
 import org.typemeta.funcj.data.*;
 import org.typemeta.funcj.functions.Functions.F;
 import org.typemeta.funcj.tuples.Tuple2;
-import org.typemeta.funcj.util.*;
 
 import java.util.*;
 
-import static org.typemeta.funcj.control.Trampoline.*;
-import static org.typemeta.funcj.data.Unit.UNIT;
 
 /**
  * State monad.
@@ -17,9 +14,15 @@
  * and produces a new state and a result of type {@code A}.
  * The state processor is represented by the {@link State#runState(Object)} SAM.
  * <p>
- * Note, this {@code State} type uses the {@link Trampoline} monad to
- * replace a recursive evaluation model into an iterative one,
- * thereby avoiding the issue of {@link StackOverflowError}s.
+ * {@code State} values constructed by the methods on this interface
+ * ({@link State#pure(Object)}, {@link State#get()}, {@link State#put(Object)},
+ * {@link State#map(F)}, {@link State#flatMap(F)} etc.)
+ * are represented as data, and are run by an interpreter which loops over them
+ * using an explicit continuation stack and a single mutable state slot.
+ * This avoids the issue of {@link StackOverflowError}s,
+ * without allocating a {@link Trampoline} and a {@link Tuple2} per step.
+ * {@code State} values implemented directly via {@link State#runState(Object)}
+ * are also supported, and use the {@link Trampoline} monad to run.
  * @param <S>       the state type
  * @param <A>       the result type
  */
@@ -34,7 +37,19 @@
      * @return          the new {@code State} instance
      */
     static <S, A> State<S, A> pure(A a) {
-        return st -> defer(() -> done(Tuple2.of(st, a)));
+        return new StateRunner.Pure<S, A>(a);
+    }
+
+    /**
+     * Construct a {@code State} from a state transition function,
+     * which maps the input state to a new state and a result.
+     * @param f         the state transition function
+     * @param <S>       the state type
+     * @param <A>       the result type
+     * @return          the new {@code State} instance
+     */
+    static <S, A> State<S, A> state(F<S, Tuple2<S, A>> f) {
+        return new StateRunner.Step<S, A>(f);
     }
 
     /**
@@ -57,7 +72,7 @@ static <S, A, B> State<S, B> ap(State<S, F<A, B>> sf, State<S, A> sa) {
      * @return          the new {@code State} instance
      */
     static <S> State<S, Unit> put(S st) {
-        return u -> defer(() -> done(Tuple2.of(st, UNIT)));
+        return new StateRunner.Put<S>(st);
     }
 
     /**
@@ -65,8 +80,9 @@ static <S> State<S, Unit> put(S st) {
      * @param <S>       the state type
      * @return          the new {@code State} instance
      */
+    @SuppressWarnings("unchecked")
     static <S> State<S, S> get() {
-        return s -> defer(() -> done(Tuple2.of(s, s)));
+        return (State<S, S>)StateRunner.Get.INSTANCE;
     }
 
     /**
@@ -77,9 +93,7 @@ static <S> State<S, S> get() {
      * @return          the new {@code State} instance
      */
     static <S> State<S, Unit> modify(F<S, S> f) {
-        return State.<S>get().flatMap(s ->
-            put(f.apply(s))
-        );
+        return new StateRunner.Modify<S>(f);
     }
 
     /**
@@ -91,13 +105,14 @@ static <S> State<S, Unit> modify(F<S, S> f) {
      * @return          the new {@code State} instance
      */
     static <S, A> State<S, A> inspect(F<S, A> f) {
-        return State.<S>get().map(f);
+        return new StateRunner.Inspect<S, A>(f);
     }
 
     /**
      * Standard applicative traversal for {@link IList}.
      * <p>
      * Equivalent to <pre>sequence(lt.map(f))</pre>.
+     * The results are accumulated into an array as the traversal runs.
      * @param la        list of values
      * @param f         function to be applied to each value in the list
      * @param <S>       the state type
@@ -106,16 +121,14 @@ static <S, A> State<S, A> inspect(F<S, A> f) {
      * @return          a {@code State} which wraps an {@link IList} of values
      */
     static <S, A, B> State<S, IList<B>> traverse(IList<A> la, F<A, State<S, B>> f) {
-        return la.foldRight(
-                (a, slb) -> slb.apply(f.apply(a).map(b -> l -> l.add(b))),
-                pure(IList.empty())
-        );
+        return new StateRunner.Traverse<S, A, B, IList<B>>(la, la.size(), f, false);
     }
 
     /**
      * Standard applicative traversal for {@link List}.
      * <p>
      * Equivalent to <pre>sequence(lt.map(f))</pre>.
+     * The results are accumulated into an array as the traversal runs.
      * @param la        list of values
      * @param f         function to be applied to each value in the list
      * @param <S>       the state type
@@ -124,24 +137,21 @@ static <S, A, B> State<S, IList<B>> traverse(IList<A> la, F<A, State<S, B>> f) {
      * @return          a {@code State} which wraps an {@link List} of values
      */
     static <S, A, B> State<S, List<B>> traverse(List<A> la, F<A, State<S, B>> f) {
-        return sequence(Functors.map(f, la));
+        return new StateRunner.Traverse<S, A, B, List<B>>(la, la.size(), f, true);
     }
 
     /**
      * Standard applicative sequencing.
      * <p>
      * Translate a {@link IList} of {@code State} into a {@code State} of an {@code IList},
-     * by composing each successive {@code State} using the {@link State#apply(State)} method.
+     * by running each successive {@code State} in turn.
      * @param lsa       the list of {@code State} values
      * @param <S>       the state type
      * @param <A>       the result type of the {@code State}s in the list
      * @return          a {@code State} which wraps an {@link IList} of values
      */
     static <S, A> State<S, IList<A>> sequence(IList<? extends State<S, A>> lsa) {
-        return lsa.foldRight(
-                (sa, sla) -> sla.apply(sa.map(a -> l -> l.add(a))),
-                pure(IList.empty())
-        );
+        return traverse(lsa, sa -> sa);
     }
 
     /**
@@ -152,12 +162,7 @@ static <S, A> State<S, IList<A>> sequence(IList<? extends State<S, A>> lsa) {
      * @return          a {@code State} which wraps an {@link List} of values
      */
     static <S, T> State<S, List<T>> sequence(List<State<S, T>> lst) {
-        final State<S, List<T>> res = Folds.foldRight(
-                (st, slt) -> slt.apply(st.map(t -> lt -> {lt.add(t); return lt;})),
-                pure(new ArrayList<>(lst.size())),
-                lst
-        );
-        return res.map(l -> {Collections.reverse(l); return l;});
+        return traverse(lst, sa -> sa);
     }
 
     /**
@@ -205,7 +210,7 @@ static <S, A, B> State<S, B> tailRecM(A a, F<A, State<S, Either<A, B>>> f) {
      * @return          the new {@code State}
      */
     default <B> State<S, B> map(F<? super A, ? extends B> f) {
-        return st -> runState(st).map(t2 -> t2.map2(f));
+        return new StateRunner.Mapped<S, A, B>(this, f);
     }
 
     /**
@@ -217,10 +222,7 @@ default <B> State<S, B> map(F<? super A, ? extends B> f) {
      * @return          a {@code State} that wraps the result of applying the function to the value
      */
     default <B> State<S, B> apply(State<S, F<A, B>> sf) {
-        return sf.flatMap(f ->
-                this.flatMap(a ->
-                        pure(f.apply(a)))
-        );
+        return sf.flatMap(this::map);
     }
 
     /**
@@ -234,11 +236,7 @@ default <B> State<S, B> apply(State<S, F<A, B>> sf) {
      * @return          a {@code State}
      */
     default <B> State<S, B> flatMap(F<A, State<S, B>> f) {
-        return st ->
-                defer(() -> runState(st)
-                        .flatMap(t2 ->
-                                defer(() -> f.apply(t2._2).runState(t2._1)))
-                );
+        return new StateRunner.FlatMapped<S, A, B>(this, f);
     }
 
     /**
@@ -247,7 +245,7 @@ default <B> State<S, B> flatMap(F<A, State<S, B>> f) {
      * @return          the state value yielded by running this state processor
      */
     default S exec(S s) {
-            return runState(s).runT()._1;
+        return StateRunner.run(this, s)._1;
     }
 
     /**
@@ -256,7 +254,224 @@ default S exec(S s) {
      * @return          the state result yielded by running this state processor
      */
     default A eval(S s) {
-        return runState(s).runT()._2;
+        return StateRunner.run(this, s)._2;
     }
 }
 
+
+/**
+ * Interpreter for {@link State} values.
+ * <p>
+ * The interpreter holds the current state in a local variable,
+ * and descends into the left-most sub-computation,
+ * pushing pending {@code Mapped} and {@code FlatMapped} nodes,
+ * along with per-run {@code Traverse} frames, onto an explicit stack.
+ */
+final class StateRunner {
+
+    /**
+     * Base class for {@code State} values which are interpreted by the {@code StateRunner}.
+     */
+    static abstract class Node<S, A> implements State<S, A> {
+        @Override
+        public Trampoline<Tuple2<S, A>> runState(S state) {
+            return Trampoline.defer(() -> Trampoline.done(run(this, state)));
+        }
+    }
+
+    static final class Pure<S, A> extends Node<S, A> {
+        final A value;
+
+        Pure(A value) {
+            this.value = value;
+        }
+    }
+
+    static final class Get<S> extends Node<S, S> {
+        static final Get<?> INSTANCE = new Get<Object>();
+    }
+
+    static final class Put<S> extends Node<S, Unit> {
+        final S state;
+
+        Put(S state) {
+            this.state = state;
+        }
+    }
+
+    static final class Modify<S> extends Node<S, Unit> {
+        final F<S, S> f;
+
+        Modify(F<S, S> f) {
+            this.f = f;
+        }
+    }
+
+    static final class Inspect<S, A> extends Node<S, A> {
+        final F<S, A> f;
+
+        Inspect(F<S, A> f) {
+            this.f = f;
+        }
+    }
+
+    static final class Step<S, A> extends Node<S, A> {
+        final F<S, Tuple2<S, A>> f;
+
+        Step(F<S, Tuple2<S, A>> f) {
+            this.f = f;
+        }
+    }
+
+    static final class Mapped<S, A, B> extends Node<S, B> {
+        final State<S, A> sub;
+        final F<? super A, ? extends B> f;
+
+        Mapped(State<S, A> sub, F<? super A, ? extends B> f) {
+            this.sub = sub;
+            this.f = f;
+        }
+    }
+
+    static final class FlatMapped<S, A, B> extends Node<S, B> {
+        final State<S, A> sub;
+        final F<A, State<S, B>> f;
+
+        FlatMapped(State<S, A> sub, F<A, State<S, B>> f) {
+            this.sub = sub;
+            this.f = f;
+        }
+    }
+
+    /**
+     * A traversal of a collection, yielding either an {@link IList} or a {@link List}.
+     */
+    static final class Traverse<S, A, B, R> extends Node<S, R> {
+        final Iterable<A> elems;
+        final int size;
+        final F<A, State<S, B>> f;
+        final boolean javaList;
+
+        Traverse(Iterable<A> elems, int size, F<A, State<S, B>> f, boolean javaList) {
+            this.elems = elems;
+            this.size = size;
+            this.f = f;
+            this.javaList = javaList;
+        }
+    }
+
+    /**
+     * The mutable per-run state of a {@code Traverse}.
+     */
+    private static final class TraverseFrame {
+        final Traverse<?, Object, ?, ?> node;
+        final Iterator<Object> iter;
+        final Object[] results;
+        int index = 0;
+
+        @SuppressWarnings("unchecked")
+        TraverseFrame(Traverse<?, ?, ?, ?> node) {
+            this.node = (Traverse<?, Object, ?, ?>)node;
+            this.iter = this.node.elems.iterator();
+            this.results = new Object[node.size];
+        }
+
+        Object result() {
+            if (node.javaList) {
+                return new ArrayList<Object>(Arrays.asList(results));
+            } else {
+                return IList.ofArray(results);
+            }
+        }
+    }
+
+    /**
+     * Run a {@code State} value.
+     * @param state     the {@code State} value
+     * @param init      the initial state
+     * @param <S>       the state type
+     * @param <A>       the result type
+     * @return          the final state and the result
+     */
+    @SuppressWarnings("unchecked")
+    static <S, A> Tuple2<S, A> run(State<S, A> state, S init) {
+        Object[] stack = new Object[16];
+        int sp = 0;
+
+        Object st = init;
+        State<Object, Object> curr = (State<Object, Object>)state;
+
+        while (true) {
+            final Object value;
+            if (curr instanceof FlatMapped || curr instanceof Mapped) {
+                if (sp == stack.length) {
+                    stack = Arrays.copyOf(stack, sp * 2);
+                }
+                stack[sp++] = curr;
+                curr = curr instanceof FlatMapped
+                        ? ((FlatMapped<Object, Object, Object>)curr).sub
+                        : ((Mapped<Object, Object, Object>)curr).sub;
+                continue;
+            } else if (curr instanceof Pure) {
+                value = ((Pure<Object, Object>)curr).value;
+            } else if (curr instanceof Get) {
+                value = st;
+            } else if (curr instanceof Put) {
+                st = ((Put<?>)(State<?, ?>)curr).state;
+                value = Unit.UNIT;
+            } else if (curr instanceof Modify) {
+                st = ((Modify<Object>)(State<?, ?>)curr).f.apply(st);
+                value = Unit.UNIT;
+            } else if (curr instanceof Inspect) {
+                value = ((Inspect<Object, Object>)curr).f.apply(st);
+            } else if (curr instanceof Step) {
+                final Tuple2<Object, Object> t2 = ((Step<Object, Object>)curr).f.apply(st);
+                st = t2._1;
+                value = t2._2;
+            } else if (curr instanceof Traverse) {
+                final TraverseFrame frame = new TraverseFrame((Traverse<?, ?, ?, ?>)curr);
+                if (frame.iter.hasNext()) {
+                    if (sp == stack.length) {
+                        stack = Arrays.copyOf(stack, sp * 2);
+                    }
+                    stack[sp++] = frame;
+                    curr = (State<Object, Object>)frame.node.f.apply(frame.iter.next());
+                    continue;
+                } else {
+                    value = frame.result();
+                }
+            } else {
+                // A State implemented directly via runState.
+                final Tuple2<Object, Object> t2 = curr.runState(st).runT();
+                st = t2._1;
+                value = t2._2;
+            }
+
+            // Apply pending continuations until one yields the next State to be run.
+            Object v = value;
+            while (true) {
+                if (sp == 0) {
+                    return Tuple2.of((S)st, (A)v);
+                }
+                final Object k = stack[--sp];
+                stack[sp] = null;
+                if (k instanceof Mapped) {
+                    v = ((Mapped<Object, Object, Object>)k).f.apply(v);
+                } else if (k instanceof FlatMapped) {
+                    curr = ((FlatMapped<Object, Object, Object>)k).f.apply(v);
+                    break;
+                } else {
+                    final TraverseFrame frame = (TraverseFrame)k;
+                    frame.results[frame.index++] = v;
+                    if (frame.iter.hasNext()) {
+                        stack[sp++] = frame;
+                        curr = (State<Object, Object>)frame.node.f.apply(frame.iter.next());
+                        break;
+                    } else {
+                        v = frame.result();
+                    }
+                }
+            }
+        }
+    }
+}
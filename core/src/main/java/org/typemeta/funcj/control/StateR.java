@@ -3,7 +3,6 @@
 import org.typemeta.funcj.data.*;
 import org.typemeta.funcj.functions.Functions.F;
 import org.typemeta.funcj.tuples.Tuple2;
-import org.typemeta.funcj.util.*;
 
 import java.util.*;
 
@@ -117,10 +116,19 @@ static <S, A> StateR<S, A> gets(F<S, A> f) {
      * @return          a {@code StateR} which wraps a {@code IList} of values
      */
     static <S, A, B> StateR<S, IList<B>> traverse(IList<A> la, F<A, StateR<S, B>> f) {
-        return la.foldRight(
-                (a, slb) -> slb.app(f.apply(a).map(b -> l -> l.add(b))),
-                pure(IList.empty())
-        );
+        return st -> {
+            final Object[] results = new Object[la.size()];
+            S s = st;
+            int i = 0;
+            for (A a : la) {
+                final Tuple2<S, B> t2 = f.apply(a).runState(s);
+                s = t2._1;
+                results[i++] = t2._2;
+            }
+            @SuppressWarnings("unchecked")
+            final IList<B> lb = IList.ofArray((B[])results);
+            return Tuple2.of(s, lb);
+        };
     }
 
     /**
@@ -135,7 +143,16 @@ static <S, A, B> StateR<S, IList<B>> traverse(IList<A> la, F<A, StateR<S, B>> f)
      * @return          a {@code StateR} which wraps a {@code List} of values
      */
     static <S, A, B> StateR<S, List<B>> traverse(List<A> la, F<A, StateR<S, B>> f) {
-        return sequence(Functors.map(f, la));
+        return st -> {
+            final List<B> results = new ArrayList<>(la.size());
+            S s = st;
+            for (A a : la) {
+                final Tuple2<S, B> t2 = f.apply(a).runState(s);
+                s = t2._1;
+                results.add(t2._2);
+            }
+            return Tuple2.of(s, results);
+        };
     }
 
     /**
@@ -146,10 +163,7 @@ static <S, A, B> StateR<S, List<B>> traverse(List<A> la, F<A, StateR<S, B>> f) {
      * @return          a {@code StateR} which wraps a {@code IList} of values
      */
     static <S, A> StateR<S, IList<A>> sequence(IList<? extends StateR<S, A>> lsa) {
-        return lsa.foldRight(
-                (sa, sla) -> sla.app(sa.map(a -> l -> l.add(a))),
-                pure(IList.empty())
-        );
+        return traverse(lsa, sa -> sa);
     }
 
     /**
@@ -160,12 +174,7 @@ static <S, A> StateR<S, IList<A>> sequence(IList<? extends StateR<S, A>> lsa) {
      * @return          a {@code StateR} which wraps an {@code List} of values
      */
     static <S, T> StateR<S, List<T>> sequence(List<StateR<S, T>> lst) {
-        final StateR<S, List<T>> res = Folds.foldRight(
-                (st, slt) -> slt.app(st.map(t -> lt -> {lt.add(t); return lt;})),
-                pure(new ArrayList<>(lst.size())),
-                lst
-        );
-        return res.map(l -> {Collections.reverse(l); return l;});
+        return traverse(lst, sa -> sa);
     }
 
     /**
@@ -0,0 +1,788 @@
+package org.typemeta.funcj.control;
+
+import org.typemeta.funcj.data.*;
+import org.typemeta.funcj.functions.Functions.*;
+import org.typemeta.funcj.functions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * A lazy, possibly asynchronous, computation which either yields a value or fails with an exception.
+ * <p>
+ * A {@code Task} is a description of a computation - nothing happens until it is run,
+ * via one of the {@code run} methods, and it may be run any number of times.
+ * <p>
+ * Tasks are run by an interpreter which loops over an explicit continuation stack,
+ * so long chains of {@link Task#map(F)} and {@link Task#flatMap(F)} are stack-safe.
+ * Asynchronous steps, such as {@link Task#parZip(Task, Task, F2)} and {@link Task#sleep(long, TimeUnit)},
+ * suspend the interpreter without blocking a thread.
+ * The interpreter is then resumed on the {@link Executor} the task is running on, once the step completes.
+ * <p>
+ * The executor is pluggable.
+ * By default the {@link ForkJoinPool#commonPool()} is used,
+ * but any {@code Executor} can be supplied to the {@code run} methods or to {@link Task#evalOn(Executor)},
+ * for example a {@code ForkJoinPool}, the work-stealing pool returned by {@link Executors#newWorkStealingPool()},
+ * or, on Java 21 and later, a virtual-thread-per-task executor.
+ * <p>
+ * A running task can be cancelled by cancelling the {@link CompletableFuture} returned by
+ * {@link Task#runAsync(Executor)}.
+ * Cancellation is propagated to any child tasks and pending timers.
+ * @param <T>       the result type
+ */
+public abstract class Task<T> {
+
+    /**
+     * A callback which is used to complete an asynchronous task.
+     * Only the first call to either method has any effect.
+     * @param <T>       the result type
+     */
+    public interface Callback<T> {
+        /**
+         * Complete the task with a value.
+         * @param value     the value
+         */
+        void success(T value);
+
+        /**
+         * Complete the task with an error.
+         * @param error     the error
+         */
+        void failure(Throwable error);
+    }
+
+    /**
+     * Construct a task which yields the given value.
+     * @param value     the value
+     * @param <T>       the result type
+     * @return          the new task
+     */
+    public static <T> Task<T> pure(T value) {
+        return new Pure<T>(value);
+    }
+
+    /**
+     * Construct a task which fails with the given error.
+     * @param error     the error
+     * @param <T>       the result type
+     * @return          the new task
+     */
+    public static <T> Task<T> failure(Throwable error) {
+        return new Fail<T>(Objects.requireNonNull(error));
+    }
+
+    /**
+     * Construct a task which, when run, invokes the function and yields its result.
+     * If the function throws then the task fails with the exception.
+     * @param f         the function
+     * @param <T>       the result type
+     * @return          the new task
+     */
+    public static <T> Task<T> of(FunctionsEx.F0<T> f) {
+        return new Delay<T>(f);
+    }
+
+    /**
+     * Construct a task which, when run, invokes the function and runs the task it returns.
+     * @param f         the function which yields a task
+     * @param <T>       the result type
+     * @return          the new task
+     */
+    public static <T> Task<T> defer(F0<Task<T>> f) {
+        return new Suspend<T>(f);
+    }
+
+    /**
+     * Construct a task from a {@link Try} value.
+     * @param tt        the {@code Try} value
+     * @param <T>       the result type
+     * @return          the new task
+     */
+    public static <T> Task<T> fromTry(Try<T> tt) {
+        return tt.fold(Task::failure, Task::pure);
+    }
+
+    /**
+     * Construct a task from an {@link Either} value.
+     * @param et        the {@code Either} value
+     * @param <T>       the result type
+     * @return          the new task
+     */
+    public static <T> Task<T> fromEither(Either<? extends Throwable, T> et) {
+        return et.fold(Task::failure, Task::pure);
+    }
+
+    /**
+     * Construct a task from a function which starts an asynchronous operation.
+     * The function is passed a {@link Callback}, which the operation should invoke when it completes.
+     * @param register  the function which starts the operation
+     * @param <T>       the result type
+     * @return          the new task
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Task<T> async(SideEffect.F<Callback<T>> register) {
+        return new Async<T>((fiber, cb) -> register.apply((Callback<T>)cb));
+    }
+
+    /**
+     * Construct a task from a function which starts an operation that yields a {@link CompletableFuture}.
+     * Cancelling the task cancels the future.
+     * @param f         the function which starts the operation
+     * @param <T>       the result type
+     * @return          the new task
+     */
+    public static <T> Task<T> fromFuture(F0<CompletableFuture<T>> f) {
+        return new Async<T>((fiber, cb) -> {
+            final CompletableFuture<T> future = f.apply();
+            fiber.onCancel(() -> future.cancel(true));
+            future.whenComplete((v, e) -> {
+                if (e == null) {
+                    cb.success(v);
+                } else {
+                    cb.failure(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                }
+            });
+        });
+    }
+
+    /**
+     * Construct a task which completes after the given delay, without blocking a thread.
+     * @param duration  the delay
+     * @param unit      the unit of {@code duration}
+     * @return          the new task
+     */
+    public static Task<Unit> sleep(long duration, TimeUnit unit) {
+        return new Async<Unit>((fiber, cb) -> {
+            final ScheduledFuture<?> timer = Timer.INSTANCE.schedule(() -> cb.success(Unit.UNIT), duration, unit);
+            fiber.onCancel(() -> timer.cancel(false));
+        });
+    }
+
+    /**
+     * Construct a task which runs two tasks in parallel, and combines their results with a function.
+     * If either task fails then the other is cancelled.
+     * @param ta        the first task
+     * @param tb        the second task
+     * @param f         the function which combines the results
+     * @param <A>       the result type of the first task
+     * @param <B>       the result type of the second task
+     * @param <R>       the result type
+     * @return          the new task
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, B, R> Task<R> parZip(Task<A> ta, Task<B> tb, F2<? super A, ? super B, ? extends R> f) {
+        return parAll(new Task<?>[]{ta, tb}, rs -> f.apply((A)rs[0], (B)rs[1]));
+    }
+
+    /**
+     * Construct a task which applies a function to each element of a list,
+     * and runs the resultant tasks in parallel.
+     * If any task fails then the others are cancelled.
+     * @param la        the list of values
+     * @param f         the function which yields a task for each value
+     * @param <A>       the list element type
+     * @param <B>       the task result type
+     * @return          the new task, which yields the list of results
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, B> Task<IList<B>> parTraverse(IList<A> la, F<? super A, Task<B>> f) {
+        return defer(() -> {
+            final Task<?>[] tasks = new Task<?>[la.size()];
+            int i = 0;
+            for (A a : la) {
+                tasks[i++] = f.apply(a);
+            }
+            return parAll(tasks, rs -> IList.ofArray((B[])rs));
+        });
+    }
+
+    /**
+     * Construct a task which applies a function to each element of a list,
+     * and runs the resultant tasks in parallel.
+     * If any task fails then the others are cancelled.
+     * @param la        the list of values
+     * @param f         the function which yields a task for each value
+     * @param <A>       the list element type
+     * @param <B>       the task result type
+     * @return          the new task, which yields the list of results
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, B> Task<List<B>> parTraverse(List<A> la, F<? super A, Task<B>> f) {
+        return defer(() -> {
+            final Task<?>[] tasks = new Task<?>[la.size()];
+            int i = 0;
+            for (A a : la) {
+                tasks[i++] = f.apply(a);
+            }
+            return parAll(tasks, rs -> new ArrayList<B>(Arrays.asList((B[])rs)));
+        });
+    }
+
+    /**
+     * Construct a task which runs a list of tasks in parallel.
+     * If any task fails then the others are cancelled.
+     * @param lt        the list of tasks
+     * @param <T>       the task result type
+     * @return          the new task, which yields the list of results
+     */
+    public static <T> Task<IList<T>> parSequence(IList<Task<T>> lt) {
+        return parTraverse(lt, F.id());
+    }
+
+    /**
+     * Construct a task which runs a list of tasks in parallel.
+     * If any task fails then the others are cancelled.
+     * @param lt        the list of tasks
+     * @param <T>       the task result type
+     * @return          the new task, which yields the list of results
+     */
+    public static <T> Task<List<T>> parSequence(List<Task<T>> lt) {
+        return parTraverse(lt, F.id());
+    }
+
+    private static <R> Task<R> parAll(Task<?>[] tasks, F<Object[], R> combine) {
+        final int n = tasks.length;
+        if (n == 0) {
+            return of(() -> combine.apply(new Object[0]));
+        }
+        return new Async<R>((fiber, cb) -> {
+            final Object[] results = new Object[n];
+            final AtomicInteger remaining = new AtomicInteger(n);
+            final AtomicBoolean failed = new AtomicBoolean();
+            final Fiber<?>[] children = new Fiber<?>[n];
+            for (int i = 0; i < n; ++i) {
+                children[i] = new Fiber<Object>(tasks[i], fiber.executor);
+            }
+            final Runnable cancelAll = () -> {
+                for (Fiber<?> child : children) {
+                    child.cancel();
+                }
+            };
+            fiber.onCancel(cancelAll);
+            for (int i = 0; i < n; ++i) {
+                final int index = i;
+                children[i].promise.whenComplete((v, e) -> {
+                    if (e == null) {
+                        results[index] = v;
+                        if (remaining.decrementAndGet() == 0) {
+                            final R r;
+                            try {
+                                r = combine.apply(results);
+                            } catch (Throwable t) {
+                                cb.failure(t);
+                                return;
+                            }
+                            cb.success(r);
+                        }
+                    } else if (failed.compareAndSet(false, true)) {
+                        cancelAll.run();
+                        cb.failure(e);
+                    }
+                });
+            }
+            for (Fiber<?> child : children) {
+                child.start();
+            }
+        });
+    }
+
+    Task() {
+    }
+
+    /**
+     * Map a function over the result of this task.
+     * @param f         the function
+     * @param <U>       the function return type
+     * @return          the new task
+     */
+    public <U> Task<U> map(F<? super T, ? extends U> f) {
+        return new Mapped<T, U>(this, f);
+    }
+
+    /**
+     * FlatMap a function over the result of this task.
+     * @param f         the function, which yields the next task
+     * @param <U>       the result type of the next task
+     * @return          the new task
+     */
+    public <U> Task<U> flatMap(F<? super T, Task<U>> f) {
+        return new FlatMapped<T, U>(this, f);
+    }
+
+    /**
+     * Handle a failure of this task, by running the task returned by the function.
+     * @param f         the function which handles the error
+     * @return          the new task
+     */
+    public Task<T> recoverWith(F<Throwable, Task<T>> f) {
+        return new Recover<T>(this, f);
+    }
+
+    /**
+     * Handle a failure of this task, by yielding the value returned by the function.
+     * @param f         the function which handles the error
+     * @return          the new task
+     */
+    public Task<T> recover(F<Throwable, ? extends T> f) {
+        return recoverWith(e -> pure(f.apply(e)));
+    }
+
+    /**
+     * Construct a task which yields the outcome of this task as a {@link Try}, and which never fails.
+     * @return          the new task
+     */
+    public Task<Try<T>> attempt() {
+        return this.<Try<T>>map(Try::success).recoverWith(e -> pure(Try.failure(e)));
+    }
+
+    /**
+     * Construct a task which runs this task and another in parallel,
+     * and combines their results with a function.
+     * @param tb        the other task
+     * @param f         the function which combines the results
+     * @param <B>       the result type of the other task
+     * @param <R>       the result type
+     * @return          the new task
+     */
+    public <B, R> Task<R> parZip(Task<B> tb, F2<? super T, ? super B, ? extends R> f) {
+        return parZip(this, tb, f);
+    }
+
+    /**
+     * Construct a task which fails with a {@link TimeoutException},
+     * if this task does not complete within the given time.
+     * In which case this task is cancelled.
+     * @param duration  the time limit
+     * @param unit      the unit of {@code duration}
+     * @return          the new task
+     */
+    public Task<T> timeout(long duration, TimeUnit unit) {
+        final Task<T> self = this;
+        return new Async<T>((fiber, cb) -> {
+            final AtomicBoolean done = new AtomicBoolean();
+            final Fiber<T> child = new Fiber<T>(self, fiber.executor);
+            final ScheduledFuture<?> timer = Timer.INSTANCE.schedule(() -> {
+                if (done.compareAndSet(false, true)) {
+                    child.cancel();
+                    cb.failure(new TimeoutException("Task timed out after " + duration + " " + unit));
+                }
+            }, duration, unit);
+            fiber.onCancel(() -> {
+                timer.cancel(false);
+                child.cancel();
+            });
+            child.promise.whenComplete((v, e) -> {
+                if (done.compareAndSet(false, true)) {
+                    timer.cancel(false);
+                    if (e == null) {
+                        cb.success(v);
+                    } else {
+                        cb.failure(e);
+                    }
+                }
+            });
+            child.start();
+        });
+    }
+
+    /**
+     * Construct a task which runs this task on the given executor,
+     * and then continues on the executor of the enclosing task.
+     * This is typically used to move blocking operations onto a dedicated executor.
+     * @param executor  the executor
+     * @return          the new task
+     */
+    public Task<T> evalOn(Executor executor) {
+        final Task<T> self = this;
+        return new Async<T>((fiber, cb) -> {
+            final Fiber<T> child = new Fiber<T>(self, executor);
+            fiber.onCancel(child::cancel);
+            child.promise.whenComplete((v, e) -> {
+                if (e == null) {
+                    cb.success(v);
+                } else {
+                    cb.failure(e);
+                }
+            });
+            child.start();
+        });
+    }
+
+    /**
+     * Start running this task on the given executor.
+     * Cancelling the returned future cancels the task.
+     * @param executor  the executor
+     * @return          a future which completes with the task result
+     */
+    public CompletableFuture<T> runAsync(Executor executor) {
+        final Fiber<T> fiber = new Fiber<T>(this, executor);
+        fiber.start();
+        return fiber.promise;
+    }
+
+    /**
+     * Start running this task on the {@link ForkJoinPool#commonPool()}.
+     * Cancelling the returned future cancels the task.
+     * @return          a future which completes with the task result
+     */
+    public CompletableFuture<T> runAsync() {
+        return runAsync(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Run this task on the given executor, and wait for the result.
+     * @param executor  the executor
+     * @return          the task result, as a {@link Try}
+     */
+    public Try<T> runTry(Executor executor) {
+        try {
+            return Try.success(runAsync(executor).get());
+        } catch (ExecutionException ex) {
+            return Try.failure(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Try.failure(ex);
+        } catch (CancellationException ex) {
+            return Try.failure(ex);
+        }
+    }
+
+    /**
+     * Run this task on the {@link ForkJoinPool#commonPool()}, and wait for the result.
+     * @return          the task result, as a {@link Try}
+     */
+    public Try<T> runTry() {
+        return runTry(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Run this task on the given executor, and wait for the result.
+     * @param executor  the executor
+     * @return          the task result, as an {@link Either}
+     */
+    public Either<Throwable, T> runEither(Executor executor) {
+        return runTry(executor).fold(Either::left, Either::right);
+    }
+
+    /**
+     * Run this task on the {@link ForkJoinPool#commonPool()}, and wait for the result.
+     * @return          the task result, as an {@link Either}
+     */
+    public Either<Throwable, T> runEither() {
+        return runEither(ForkJoinPool.commonPool());
+    }
+
+    static final class Pure<T> extends Task<T> {
+        final T value;
+
+        Pure(T value) {
+            this.value = value;
+        }
+    }
+
+    static final class Fail<T> extends Task<T> {
+        final Throwable error;
+
+        Fail(Throwable error) {
+            this.error = error;
+        }
+    }
+
+    static final class Delay<T> extends Task<T> {
+        final FunctionsEx.F0<T> f;
+
+        Delay(FunctionsEx.F0<T> f) {
+            this.f = f;
+        }
+    }
+
+    static final class Suspend<T> extends Task<T> {
+        final F0<Task<T>> f;
+
+        Suspend(F0<Task<T>> f) {
+            this.f = f;
+        }
+    }
+
+    static final class Mapped<S, T> extends Task<T> {
+        final Task<S> sub;
+        final F<? super S, ? extends T> f;
+
+        Mapped(Task<S> sub, F<? super S, ? extends T> f) {
+            this.sub = sub;
+            this.f = f;
+        }
+    }
+
+    static final class FlatMapped<S, T> extends Task<T> {
+        final Task<S> sub;
+        final F<? super S, Task<T>> f;
+
+        FlatMapped(Task<S> sub, F<? super S, Task<T>> f) {
+            this.sub = sub;
+            this.f = f;
+        }
+    }
+
+    static final class Recover<T> extends Task<T> {
+        final Task<T> sub;
+        final F<Throwable, Task<T>> f;
+
+        Recover(Task<T> sub, F<Throwable, Task<T>> f) {
+            this.sub = sub;
+            this.f = f;
+        }
+    }
+
+    /**
+     * Starts an asynchronous operation, which completes via the callback.
+     */
+    @FunctionalInterface
+    interface AsyncStart {
+        void start(Fiber<?> fiber, Callback<Object> cb) throws Exception;
+    }
+
+    static final class Async<T> extends Task<T> {
+        final AsyncStart start;
+
+        Async(AsyncStart start) {
+            this.start = start;
+        }
+    }
+
+    /**
+     * The daemon thread used to schedule timeouts and sleeps.
+     * Scheduled actions only complete callbacks, so never run user code on this thread.
+     */
+    static final class Timer {
+        static final ScheduledExecutorService INSTANCE;
+
+        static {
+            final ScheduledThreadPoolExecutor exec = new ScheduledThreadPoolExecutor(1, r -> {
+                final Thread thread = new Thread(r, "funcj-task-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            exec.setRemoveOnCancelPolicy(true);
+            INSTANCE = exec;
+        }
+    }
+
+    /**
+     * A running task.
+     * <p>
+     * The fiber interprets the task in a loop,
+     * pushing pending {@code Mapped}, {@code FlatMapped} and {@code Recover} nodes onto an explicit stack.
+     * At an {@code Async} node the fiber either continues immediately,
+     * if the operation completed synchronously,
+     * or returns and is later resumed on its executor by the callback.
+     * @param <T>       the result type
+     */
+    static final class Fiber<T> implements Runnable {
+        final Executor executor;
+        final CompletableFuture<T> promise = new CompletableFuture<T>();
+
+        private volatile boolean cancelled;
+        private volatile Runnable cancelHook;
+
+        // Only accessed by the thread currently running the fiber.
+        private Task<?> curr;
+        private Object[] stack = new Object[16];
+        private int sp = 0;
+
+        Fiber(Task<?> task, Executor executor) {
+            this.executor = Objects.requireNonNull(executor);
+            this.curr = task;
+            promise.whenComplete((v, e) -> {
+                if (e instanceof CancellationException) {
+                    cancel();
+                }
+            });
+        }
+
+        void start() {
+            submit();
+        }
+
+        /**
+         * Register an action to be invoked if the fiber is cancelled while the current async operation is pending.
+         */
+        void onCancel(Runnable hook) {
+            cancelHook = hook;
+            if (cancelled) {
+                hook.run();
+            }
+        }
+
+        void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                final Runnable hook = cancelHook;
+                if (hook != null) {
+                    hook.run();
+                }
+                promise.completeExceptionally(new CancellationException());
+            }
+        }
+
+        private void submit() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException ex) {
+                promise.completeExceptionally(ex);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void run() {
+            Task<?> c = curr;
+            curr = null;
+            while (c != null) {
+                if (cancelled) {
+                    promise.completeExceptionally(new CancellationException());
+                    return;
+                } else if (c instanceof Pure) {
+                    c = onValue(((Pure<?>)c).value);
+                } else if (c instanceof FlatMapped) {
+                    push(c);
+                    c = ((FlatMapped<?, ?>)c).sub;
+                } else if (c instanceof Mapped) {
+                    push(c);
+                    c = ((Mapped<?, ?>)c).sub;
+                } else if (c instanceof Delay) {
+                    Object value;
+                    try {
+                        value = ((Delay<?>)c).f.apply();
+                    } catch (Throwable t) {
+                        c = onError(t);
+                        continue;
+                    }
+                    c = onValue(value);
+                } else if (c instanceof Suspend) {
+                    try {
+                        c = ((Suspend<?>)c).f.apply();
+                    } catch (Throwable t) {
+                        c = onError(t);
+                    }
+                } else if (c instanceof Fail) {
+                    c = onError(((Fail<?>)c).error);
+                } else if (c instanceof Recover) {
+                    push(c);
+                    c = ((Recover<?>)c).sub;
+                } else {
+                    final AsyncCallback cb = new AsyncCallback();
+                    try {
+                        ((Async<?>)c).start.start(this, cb);
+                    } catch (Throwable t) {
+                        cb.failure(t);
+                    }
+                    if (cb.suspend()) {
+                        return;
+                    }
+                    cancelHook = null;
+                    c = cb.result.get();
+                }
+            }
+        }
+
+        /**
+         * Apply pending continuations to a value, until one yields the next task.
+         * @return          the next task, or null if the fiber has completed
+         */
+        @SuppressWarnings("unchecked")
+        private Task<?> onValue(Object value) {
+            Object v = value;
+            while (sp > 0) {
+                final Object k = pop();
+                try {
+                    if (k instanceof Mapped) {
+                        v = ((Mapped<Object, ?>)k).f.apply(v);
+                    } else if (k instanceof FlatMapped) {
+                        return ((FlatMapped<Object, ?>)k).f.apply(v);
+                    }
+                } catch (Throwable t) {
+                    return onError(t);
+                }
+            }
+            promise.complete((T)v);
+            return null;
+        }
+
+        /**
+         * Discard pending continuations until an error handler is found.
+         * @return          the next task, or null if the fiber has completed
+         */
+        private Task<?> onError(Throwable error) {
+            Throwable e = error;
+            while (sp > 0) {
+                final Object k = pop();
+                if (k instanceof Recover) {
+                    try {
+                        return ((Recover<?>)k).f.apply(e);
+                    } catch (Throwable t) {
+                        e = t;
+                    }
+                }
+            }
+            promise.completeExceptionally(e);
+            return null;
+        }
+
+        private void push(Object k) {
+            if (sp == stack.length) {
+                stack = Arrays.copyOf(stack, sp * 2);
+            }
+            stack[sp++] = k;
+        }
+
+        private Object pop() {
+            final Object k = stack[--sp];
+            stack[sp] = null;
+            return k;
+        }
+
+        /**
+         * The callback for an async operation.
+         * If the operation completes before the fiber suspends then the fiber continues synchronously,
+         * otherwise the callback resumes the fiber on its executor.
+         */
+        private final class AsyncCallback implements Callback<Object> {
+            private static final int STARTING = 0;
+            private static final int SUSPENDED = 1;
+            private static final int COMPLETED = 2;
+
+            final AtomicReference<Task<?>> result = new AtomicReference<>();
+            private final AtomicInteger state = new AtomicInteger(STARTING);
+
+            @Override
+            public void success(Object value) {
+                complete(new Pure<Object>(value));
+            }
+
+            @Override
+            public void failure(Throwable error) {
+                complete(new Fail<Object>(error));
+            }
+
+            private void complete(Task<?> r) {
+                if (result.compareAndSet(null, r)) {
+                    if (!state.compareAndSet(STARTING, COMPLETED)) {
+                        state.set(COMPLETED);
+                        cancelHook = null;
+                        curr = r;
+                        submit();
+                    }
+                }
+            }
+
+            /**
+             * @return          true if the fiber should suspend, as the operation has not yet completed
+             */
+            boolean suspend() {
+                return state.compareAndSet(STARTING, SUSPENDED);
+            }
+        }
+    }
+}
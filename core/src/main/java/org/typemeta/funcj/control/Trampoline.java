@@ -2,6 +2,8 @@
 
 import org.typemeta.funcj.functions.Functions.*;
 
+import java.util.Arrays;
+
 /**
  * Trampoline monad.
  * <p>
@@ -115,13 +117,38 @@ protected FlatMapped(Trampoline<S> sub) {
         abstract Trampoline<T> k(S s);
 
         @Override
-        public <U> Trampoline<U> flatMap(F<T, Trampoline<U>> f) {
-            return flatMapOf(sub, x -> flatMapOf(k(x), f));
+        public String toString() {
+            return "FlatMapped{sub=" + sub + '}';
+        }
+    }
+
+    /**
+     * Represents a deferred map operation, namely a value and a pure function to be applied to the value.
+     * <p>
+     * Mapped values are interpreted directly,
+     * without constructing an intermediate {@code Trampoline} for the function result.
+     * @param <S>       the map value input type
+     * @param <T>       the map value output type
+     */
+    final class Mapped<S, T> implements Trampoline<T> {
+        /**
+         * The {@link Trampoline} value to which the function will get applied.
+         */
+        final Trampoline<S> sub;
+
+        /**
+         * The function to be applied to the map value.
+         */
+        final F<? super S, ? extends T> f;
+
+        public Mapped(Trampoline<S> sub, F<? super S, ? extends T> f) {
+            this.sub = sub;
+            this.f = f;
         }
 
         @Override
         public String toString() {
-            return "FlatMapped{sub=" + sub + '}';
+            return "Mapped{sub=" + sub + '}';
         }
     }
 
@@ -132,7 +159,7 @@ public String toString() {
      * @return          a {@code Trampoline} that wraps the result of applying the function
      */
     default <U> Trampoline<U> map(F<T, U> f) {
-        return flatMap(x -> defer(() -> done(f.apply(x))));
+        return new Mapped<T, U>(this, f);
     }
 
     /**
@@ -152,27 +179,13 @@ default <U> Trampoline<U> flatMap(F<T, Trampoline<U>> f) {
      */
     @SuppressWarnings("unchecked")
     default Either<F0<Trampoline<T>>, T> resume() {
-        Trampoline<T> next = this;
-        while (true) {
-            if (next instanceof Trampoline.Pure) {
-                final Pure<T> pure = (Pure<T>) next;
-                return Either.right(pure.result);
-            } else if (next instanceof Trampoline.Suspend) {
-                final Suspend<T> suspend = (Suspend<T>) next;
-                return Either.left(suspend.next);
-            } else {
-                final FlatMapped<Object, T> fm = (FlatMapped<Object, T>) next;
-                if (fm.sub instanceof Trampoline.Pure) {
-                    final Pure<T> pure = (Pure<T>) fm.sub;
-                    next = fm.k(pure.result);
-                } else if (fm.sub instanceof Trampoline.Suspend) {
-                    final Suspend<T> suspend = (Suspend<T>) fm.sub;
-                    return Either.left(() -> suspend.next.apply().flatMap(fm::k));
-                } else {
-                    final FlatMapped<Object, T> fm2 = (FlatMapped<Object, T>) fm.sub;
-                    next = fm2.sub.flatMap(x -> flatMapOf(fm2.k(x), fm::k));
-                }
-            }
+        final TrampolineInterpreter interp = new TrampolineInterpreter();
+        final Object r = interp.run(this, true);
+        if (r instanceof Suspend) {
+            final Suspend<Object> suspend = (Suspend<Object>) r;
+            return Either.left(() -> (Trampoline<T>)interp.reattach(suspend.next.apply()));
+        } else {
+            return Either.right((T)r);
         }
     }
 
@@ -180,17 +193,90 @@ default Either<F0<Trampoline<T>>, T> resume() {
      * Run the computation until it yields a final result.
      * @return          the final result of the computation
      */
+    @SuppressWarnings("unchecked")
     default T runT() {
-        Trampoline<T> next = this;
+        return (T)new TrampolineInterpreter().run(this, false);
+    }
+}
+
+/**
+ * Interpreter for {@code Trampoline} computations.
+ * <p>
+ * Rather than re-associating nested {@link Trampoline.FlatMapped} values,
+ * the interpreter descends into the left-most sub-computation,
+ * pushing the pending {@link Trampoline.FlatMapped} and {@link Trampoline.Mapped} nodes onto an explicit stack.
+ * When a {@link Trampoline.Pure} value is reached the pending map functions are applied in a tight loop,
+ * until a {@code Trampoline.FlatMapped} continuation yields the next computation.
+ */
+final class TrampolineInterpreter {
+    private Trampoline<?>[] stack = new Trampoline<?>[16];
+    private int sp = 0;
+
+    /**
+     * Run a computation.
+     * @param tramp     the computation
+     * @param stopAtSuspend if true then stop at the first {@link Trampoline.Suspend} and return it,
+     *                  otherwise evaluate suspensions in-line
+     * @return          the final result, or the {@code Suspend} that was stopped at
+     */
+    @SuppressWarnings("unchecked")
+    Object run(Trampoline<?> tramp, boolean stopAtSuspend) {
+        Trampoline<?> curr = tramp;
         while (true) {
-            final Either<F0<Trampoline<T>>, T> result = next.resume();
-            if (result instanceof Either.Left) {
-                final Either.Left<F0<Trampoline<T>>, T> left = (Either.Left<F0<Trampoline<T>>, T>)result;
-                next = left.value.apply();
+            if (curr instanceof Trampoline.Pure) {
+                Object value = ((Trampoline.Pure<?>)curr).result;
+                while (true) {
+                    if (sp == 0) {
+                        return value;
+                    }
+                    final Trampoline<?> k = stack[--sp];
+                    stack[sp] = null;
+                    if (k instanceof Trampoline.Mapped) {
+                        value = ((Trampoline.Mapped<Object, ?>)k).f.apply(value);
+                    } else {
+                        curr = ((Trampoline.FlatMapped<Object, ?>)k).k(value);
+                        break;
+                    }
+                }
+            } else if (curr instanceof Trampoline.FlatMapped) {
+                push(curr);
+                curr = ((Trampoline.FlatMapped<?, ?>)curr).sub;
+            } else if (curr instanceof Trampoline.Mapped) {
+                push(curr);
+                curr = ((Trampoline.Mapped<?, ?>)curr).sub;
+            } else {
+                final Trampoline.Suspend<?> suspend = (Trampoline.Suspend<?>)curr;
+                if (stopAtSuspend) {
+                    return suspend;
+                }
+                curr = suspend.next.apply();
+            }
+        }
+    }
+
+    /**
+     * Rebuild the pending continuations around a computation,
+     * so that it can be resumed independently of this interpreter.
+     */
+    @SuppressWarnings("unchecked")
+    Trampoline<?> reattach(Trampoline<?> tramp) {
+        Trampoline<Object> curr = (Trampoline<Object>)tramp;
+        for (int i = sp - 1; i >= 0; --i) {
+            final Trampoline<?> k = stack[i];
+            if (k instanceof Trampoline.Mapped) {
+                curr = new Trampoline.Mapped<Object, Object>(curr, ((Trampoline.Mapped<Object, Object>)k).f);
             } else {
-                final Either.Right<F0<Trampoline<T>>, T> right = (Either.Right<F0<Trampoline<T>>, T>)result;
-                return right.value;
+                final Trampoline.FlatMapped<Object, Object> fm = (Trampoline.FlatMapped<Object, Object>)k;
+                curr = Trampoline.flatMapOf(curr, fm::k);
             }
         }
+        return curr;
+    }
+
+    private void push(Trampoline<?> k) {
+        if (sp == stack.length) {
+            stack = Arrays.copyOf(stack, sp * 2);
+        }
+        stack[sp++] = k;
     }
 }
@@ -6,6 +6,7 @@
 import org.typemeta.funcj.util.*;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 /**
@@ -133,6 +134,108 @@ static <T> Try<List<T>> sequence(List<Try<T>> ltt) {
         return res.map(l -> {Collections.reverse(l); return l;});
     }
 
+    /**
+     * Parallel applicative traversal.
+     * <p>
+     * Equivalent to {@link Try#traverse(IList, F)},
+     * except that the function is applied to the elements in parallel, on the given {@link ForkJoinPool}.
+     * The results are combined in input order.
+     * Once a failure has been found, any remaining elements to its right are skipped,
+     * and the leftmost failure is returned, as it would be by {@link Try#traverse(IList, F)}.
+     * @param lt        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param pool      the pool on which to evaluate the function
+     * @param <T>       the type of list elements
+     * @param <U>       the type wrapped by the {@code Try} returned by the function
+     * @return          a {@code Try} which wraps an {@link IList} of values
+     */
+    @SuppressWarnings("unchecked")
+    static <T, U> Try<IList<U>> parTraverse(IList<T> lt, F<T, Try<U>> f, ForkJoinPool pool) {
+        final ParTraversal.Results<Try<U>> rs =
+                ParTraversal.run(pool, ParTraversal.toArray(lt, lt.size()), f, t -> !t.isSuccess(), true);
+        if (rs.failed()) {
+            return failure(((Failure<U>)rs.firstFailure()).error);
+        } else {
+            return success(ParTraversal.toIList(rs.values(Try::orElseThrow)));
+        }
+    }
+
+    /**
+     * Variation of {@link Try#parTraverse(IList, F, ForkJoinPool)}
+     * which uses the {@link ForkJoinPool#commonPool()}.
+     * @param lt        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param <T>       the type of list elements
+     * @param <U>       the type wrapped by the {@code Try} returned by the function
+     * @return          a {@code Try} which wraps an {@link IList} of values
+     */
+    static <T, U> Try<IList<U>> parTraverse(IList<T> lt, F<T, Try<U>> f) {
+        return parTraverse(lt, f, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel applicative traversal.
+     * <p>
+     * Equivalent to {@link Try#traverse(List, F)},
+     * except that the function is applied to the elements in parallel, on the given {@link ForkJoinPool}.
+     * The results are combined in input order.
+     * Once a failure has been found, any remaining elements to its right are skipped,
+     * and the leftmost failure is returned, as it would be by {@link Try#traverse(List, F)}.
+     * @param lt        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param pool      the pool on which to evaluate the function
+     * @param <T>       the type of list elements
+     * @param <U>       the type wrapped by the {@code Try} returned by the function
+     * @return          a {@code Try} which wraps an {@link List} of values
+     */
+    @SuppressWarnings("unchecked")
+    static <T, U> Try<List<U>> parTraverse(List<T> lt, F<T, Try<U>> f, ForkJoinPool pool) {
+        final ParTraversal.Results<Try<U>> rs =
+                ParTraversal.run(pool, ParTraversal.toArray(lt, lt.size()), f, t -> !t.isSuccess(), true);
+        if (rs.failed()) {
+            return failure(((Failure<U>)rs.firstFailure()).error);
+        } else {
+            return success(ParTraversal.toList(rs.values(Try::orElseThrow)));
+        }
+    }
+
+    /**
+     * Variation of {@link Try#parTraverse(List, F, ForkJoinPool)}
+     * which uses the {@link ForkJoinPool#commonPool()}.
+     * @param lt        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param <T>       the type of list elements
+     * @param <U>       the type wrapped by the {@code Try} returned by the function
+     * @return          a {@code Try} which wraps an {@link List} of values
+     */
+    static <T, U> Try<List<U>> parTraverse(List<T> lt, F<T, Try<U>> f) {
+        return parTraverse(lt, f, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel applicative sequencing,
+     * using the {@link ForkJoinPool#commonPool()}.
+     * @param ltt       the list of {@code Try} values
+     * @param <T>       the value type of the {@code Try}s in the list
+     * @return          a {@code Try} which wraps an {@link IList} of values
+     * @see             Try#parTraverse(IList, F, ForkJoinPool)
+     */
+    static <T> Try<IList<T>> parSequence(IList<Try<T>> ltt) {
+        return parTraverse(ltt, F.id());
+    }
+
+    /**
+     * Parallel applicative sequencing,
+     * using the {@link ForkJoinPool#commonPool()}.
+     * @param ltt       the list of {@code Try} values
+     * @param <T>       the value type of the {@code Try}s in the list
+     * @return          a {@code Try} which wraps an {@link List} of values
+     * @see             Try#parTraverse(List, F, ForkJoinPool)
+     */
+    static <T> Try<List<T>> parSequence(List<Try<T>> ltt) {
+        return parTraverse(ltt, F.id());
+    }
+
     /**
      * Repeatedly call the function {@code f} until it returns {@code Either.Right}.
      * <p>
@@ -6,6 +6,7 @@
 import org.typemeta.funcj.util.*;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 /**
@@ -165,6 +166,134 @@ static <E, T> Validated<E, List<T>> sequence(List<Validated<E, T>> lvt) {
         return res.map(l -> {Collections.reverse(l); return l;});
     }
 
+    /**
+     * Parallel applicative traversal.
+     * <p>
+     * Applies the function to the elements in parallel, on the given {@link ForkJoinPool},
+     * and combines the results in input order.
+     * Every element is evaluated, and if any results are failures
+     * then the errors of all of the failures are accumulated, in input order.
+     * Note that this differs from {@link Validated#traverse(IList, F)},
+     * which returns only the errors of the last failure in the list.
+     * The two agree when at most one of the results is a failure.
+     * @param lt        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param pool      the pool on which to evaluate the function
+     * @param <E>       the error type
+     * @param <T>       the type of list elements
+     * @param <U>       the type wrapped by the {@code Validated} returned by the function
+     * @return          a {@code Validated} which wraps an {@link IList} of values
+     */
+    @SuppressWarnings("unchecked")
+    static <E, T, U> Validated<E, IList<U>> parTraverse(IList<T> lt, F<T, Validated<E, U>> f, ForkJoinPool pool) {
+        final ParTraversal.Results<Validated<E, U>> rs =
+                ParTraversal.run(pool, ParTraversal.toArray(lt, lt.size()), f, v -> !v.isSuccess(), false);
+        if (rs.failed()) {
+            final List<E> errors = new ArrayList<>();
+            for (Validated<E, U> v : rs.all()) {
+                if (!v.isSuccess()) {
+                    for (E e : ((Failure<E, U>)v).errors) {
+                        errors.add(e);
+                    }
+                }
+            }
+            return Validated.<E, IList<U>>failure(IList.ofIterable(errors));
+        } else {
+            return success(ParTraversal.toIList(rs.values(v -> v.orElseThrow())));
+        }
+    }
+
+    /**
+     * Variation of {@link Validated#parTraverse(IList, F, ForkJoinPool)}
+     * which uses the {@link ForkJoinPool#commonPool()}.
+     * @param lt        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param <E>       the error type
+     * @param <T>       the type of list elements
+     * @param <U>       the type wrapped by the {@code Validated} returned by the function
+     * @return          a {@code Validated} which wraps an {@link IList} of values
+     */
+    static <E, T, U> Validated<E, IList<U>> parTraverse(IList<T> lt, F<T, Validated<E, U>> f) {
+        return parTraverse(lt, f, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel applicative traversal.
+     * <p>
+     * Applies the function to the elements in parallel, on the given {@link ForkJoinPool},
+     * and combines the results in input order.
+     * Every element is evaluated, and if any results are failures
+     * then the errors of all of the failures are accumulated, in input order.
+     * Note that this differs from {@link Validated#traverse(List, F)},
+     * which returns only the errors of the last failure in the list.
+     * The two agree when at most one of the results is a failure.
+     * @param lt        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param pool      the pool on which to evaluate the function
+     * @param <E>       the error type
+     * @param <T>       the type of list elements
+     * @param <U>       the type wrapped by the {@code Validated} returned by the function
+     * @return          a {@code Validated} which wraps an {@link List} of values
+     */
+    @SuppressWarnings("unchecked")
+    static <E, T, U> Validated<E, List<U>> parTraverse(List<T> lt, F<T, Validated<E, U>> f, ForkJoinPool pool) {
+        final ParTraversal.Results<Validated<E, U>> rs =
+                ParTraversal.run(pool, ParTraversal.toArray(lt, lt.size()), f, v -> !v.isSuccess(), false);
+        if (rs.failed()) {
+            final List<E> errors = new ArrayList<>();
+            for (Validated<E, U> v : rs.all()) {
+                if (!v.isSuccess()) {
+                    for (E e : ((Failure<E, U>)v).errors) {
+                        errors.add(e);
+                    }
+                }
+            }
+            return Validated.<E, List<U>>failure(IList.ofIterable(errors));
+        } else {
+            return success(ParTraversal.toList(rs.values(v -> v.orElseThrow())));
+        }
+    }
+
+    /**
+     * Variation of {@link Validated#parTraverse(List, F, ForkJoinPool)}
+     * which uses the {@link ForkJoinPool#commonPool()}.
+     * @param lt        the list of values
+     * @param f         the function to be applied to each value in the list
+     * @param <E>       the error type
+     * @param <T>       the type of list elements
+     * @param <U>       the type wrapped by the {@code Validated} returned by the function
+     * @return          a {@code Validated} which wraps an {@link List} of values
+     */
+    static <E, T, U> Validated<E, List<U>> parTraverse(List<T> lt, F<T, Validated<E, U>> f) {
+        return parTraverse(lt, f, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel applicative sequencing,
+     * using the {@link ForkJoinPool#commonPool()}.
+     * @param lvt       the list of {@code Validated} values
+     * @param <E>       the error type
+     * @param <T>       the value type of the {@code Validated}s in the list
+     * @return          a {@code Validated} which wraps an {@link IList} of values
+     * @see             Validated#parTraverse(IList, F, ForkJoinPool)
+     */
+    static <E, T> Validated<E, IList<T>> parSequence(IList<Validated<E, T>> lvt) {
+        return parTraverse(lvt, F.id());
+    }
+
+    /**
+     * Parallel applicative sequencing,
+     * using the {@link ForkJoinPool#commonPool()}.
+     * @param lvt       the list of {@code Validated} values
+     * @param <E>       the error type
+     * @param <T>       the value type of the {@code Validated}s in the list
+     * @return          a {@code Validated} which wraps an {@link List} of values
+     * @see             Validated#parTraverse(List, F, ForkJoinPool)
+     */
+    static <E, T> Validated<E, List<T>> parSequence(List<Validated<E, T>> lvt) {
+        return parTraverse(lvt, F.id());
+    }
+
     /**
      * Repeatedly call the function {@code f} until it returns {@code Either.Right}.
      * <p>
@@ -3,6 +3,8 @@
 import org.typemeta.funcj.algebra.Monoid;
 import org.typemeta.funcj.functions.Functions;
 
+import java.util.ArrayDeque;
+
 public interface WriterM<W, A> {
     class Base<W, A> implements WriterM<W, A> {
         final Monoid<W> monoid;
@@ -31,6 +33,99 @@ public W written() {
         }
     }
 
+    /**
+     * A {@code WriterM} which accumulates its written output in a persistent rope.
+     * <p>
+     * Binding appends the written output of the two computations in constant time,
+     * without combining them.
+     * The output is only combined when {@link WriterM#written()} is called,
+     * using the monoid's {@link Monoid#builder()},
+     * so that a long chain of binds takes linear time overall, even for monoids such as list or string concatenation.
+     * @param <W>       the written output type
+     * @param <A>       the value type
+     */
+    class Rope<W, A> implements WriterM<W, A> {
+        final Monoid<W> monoid;
+        final A value;
+        final WriterLog<W> log;
+        volatile WriterLog.Leaf<W> written;
+
+        Rope(Monoid<W> monoid, A value, WriterLog<W> log) {
+            this.monoid = monoid;
+            this.value = value;
+            this.log = log;
+        }
+
+        @Override
+        public Monoid<W> monoid() {
+            return monoid;
+        }
+
+        @Override
+        public A value() {
+            return value;
+        }
+
+        @Override
+        public W written() {
+            WriterLog.Leaf<W> w = written;
+            if (w == null) {
+                written = w = new WriterLog.Leaf<W>(log.build(monoid));
+            }
+            return w.value;
+        }
+
+        @Override
+        public <B> WriterM<W, B> writer(B value, W written) {
+            return new Rope<>(monoid, value, new WriterLog.Leaf<W>(written));
+        }
+
+        @Override
+        public <B> WriterM<W, B> flatMap(Functions.F<A, WriterM<W, B>> fb) {
+            final WriterM<W, B> wb = fb.apply(value);
+            return new Rope<>(monoid, wb.value(), WriterLog.concat(log, WriterLog.of(wb)));
+        }
+
+        @Override
+        public <B> WriterM<W, B> app(WriterM<W, Functions.F<A, B>> wtrF) {
+            final B b = wtrF.value().apply(value);
+            return new Rope<>(monoid, b, WriterLog.concat(WriterLog.of(wtrF), log));
+        }
+
+        @Override
+        public <B> WriterM<W, B> map(Functions.F<A, B> f) {
+            return new Rope<>(monoid, f.apply(value), log);
+        }
+    }
+
+    /**
+     * Construct a {@code WriterM} which accumulates its written output in a rope.
+     * @param monoid    the monoid for the written output
+     * @param value     the value
+     * @param written   the written output
+     * @param <W>       the written output type
+     * @param <A>       the value type
+     * @return          the new {@code WriterM}
+     * @see             Rope
+     */
+    static <W, A> WriterM<W, A> rope(Monoid<W> monoid, A value, W written) {
+        return new Rope<>(monoid, value, new WriterLog.Leaf<W>(written));
+    }
+
+    /**
+     * Construct a {@code WriterM} which accumulates its written output in a rope,
+     * and which has no written output.
+     * @param monoid    the monoid for the written output
+     * @param value     the value
+     * @param <W>       the written output type
+     * @param <A>       the value type
+     * @return          the new {@code WriterM}
+     * @see             Rope
+     */
+    static <W, A> WriterM<W, A> pureRope(Monoid<W> monoid, A value) {
+        return new Rope<>(monoid, value, WriterLog.empty());
+    }
+
     static <W, A> WriterM<W, A> of(Monoid<W> monoid, A value, W written) {
         return new Base<>(monoid, value, written);
     }
@@ -64,3 +159,76 @@ default <B> WriterM<W, B> map(Functions.F<A, B> f) {
         return writer(f.apply(value()), written());
     }
 }
+
+/**
+ * The written output of a {@link WriterM.Rope}, as a binary tree of output values.
+ */
+abstract class WriterLog<W> {
+    private static final WriterLog<?> EMPTY = new Empty<Object>();
+
+    @SuppressWarnings("unchecked")
+    static <W> WriterLog<W> empty() {
+        return (WriterLog<W>)EMPTY;
+    }
+
+    static <W> WriterLog<W> of(WriterM<W, ?> wm) {
+        if (wm instanceof WriterM.Rope) {
+            final WriterM.Rope<W, ?> rope = (WriterM.Rope<W, ?>)wm;
+            final WriterLog<W> written = rope.written;
+            return written != null ? written : rope.log;
+        } else {
+            return new Leaf<W>(wm.written());
+        }
+    }
+
+    static <W> WriterLog<W> concat(WriterLog<W> left, WriterLog<W> right) {
+        if (left == EMPTY) {
+            return right;
+        } else if (right == EMPTY) {
+            return left;
+        } else {
+            return new Concat<W>(left, right);
+        }
+    }
+
+    /**
+     * Combine the output values, in order, without recursion.
+     */
+    W build(Monoid<W> monoid) {
+        final Monoid.Builder<W> builder = monoid.builder();
+        final ArrayDeque<WriterLog<W>> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            final WriterLog<W> log = stack.pop();
+            if (log instanceof Concat) {
+                final Concat<W> concat = (Concat<W>)log;
+                stack.push(concat.right);
+                stack.push(concat.left);
+            } else if (log instanceof Leaf) {
+                builder.add(((Leaf<W>)log).value);
+            }
+        }
+        return builder.build();
+    }
+
+    static final class Empty<W> extends WriterLog<W> {
+    }
+
+    static final class Leaf<W> extends WriterLog<W> {
+        final W value;
+
+        Leaf(W value) {
+            this.value = value;
+        }
+    }
+
+    static final class Concat<W> extends WriterLog<W> {
+        final WriterLog<W> left;
+        final WriterLog<W> right;
+
+        Concat(WriterLog<W> left, WriterLog<W> right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+}
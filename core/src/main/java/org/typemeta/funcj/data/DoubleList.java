@@ -0,0 +1,546 @@
+package org.typemeta.funcj.data;
+
+import org.typemeta.funcj.control.OptionDouble;
+import org.typemeta.funcj.functions.PrimitiveFunctions.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.DoubleConsumer;
+import java.util.stream.*;
+
+/**
+ * Immutable list of {@code double} values.
+ * <p>
+ * An {@code DoubleList} is a linked list of array chunks, so the elements are held unboxed,
+ * and contiguously within each chunk.
+ * Adding an element to the front of a list writes it into the free space at the front of the list's first chunk,
+ * unless another list which shares the chunk has already claimed that space,
+ * in which case the element starts a new chunk, twice the size of the previous one (up to a limit).
+ * The bulk operations ({@code ofArray}, {@code map}, {@code filter}, {@code reverse}, ...)
+ * build lists which consist of a single chunk.
+ * <p>
+ * Use {@link #boxed()} and {@link #ofIList(IList)} to convert to and from an {@link IList}.
+ */
+public abstract class DoubleList implements Iterable<Double> {
+
+    static final int MIN_CHUNK_SIZE = 8;
+    static final int MAX_CHUNK_SIZE = 1024;
+
+    /**
+     * Construct an empty list.
+     * @return          an empty list
+     */
+    public static DoubleList empty() {
+        return Empty.EMPTY;
+    }
+
+    /**
+     * Construct a list from the given elements.
+     * @param elems     the elements
+     * @return          the new list
+     */
+    public static DoubleList of(double... elems) {
+        return ofArray(elems);
+    }
+
+    /**
+     * Construct a list from an array.
+     * The array is copied.
+     * @param elems     the array of elements
+     * @return          the new list
+     */
+    public static DoubleList ofArray(double[] elems) {
+        return ofArrayUnsafe(elems.clone(), empty());
+    }
+
+    /**
+     * Construct a list from a stream.
+     * @param s         the stream of elements
+     * @return          the new list
+     */
+    public static DoubleList ofStream(DoubleStream s) {
+        return ofArrayUnsafe(s.toArray(), empty());
+    }
+
+    /**
+     * Construct a list from a list of boxed values.
+     * @param l         the list of boxed values
+     * @return          the new list
+     */
+    public static DoubleList ofIList(IList<Double> l) {
+        final double[] elems = new double[l.size()];
+        int i = 0;
+        for (Double x : l) {
+            elems[i++] = x;
+        }
+        return ofArrayUnsafe(elems, empty());
+    }
+
+    /**
+     * Construct a list which consists of a single chunk holding the array (which is not copied),
+     * followed by the given list.
+     */
+    private static DoubleList ofArrayUnsafe(double[] elems, DoubleList tail) {
+        if (elems.length == 0) {
+            return tail;
+        } else {
+            return new Node(new Chunk(elems, 0), 0, tail);
+        }
+    }
+
+    /**
+     * An array chunk, which is filled from the end.
+     * Elements at indices below {@code free} have not been claimed by any list.
+     */
+    static final class Chunk {
+        private static final AtomicIntegerFieldUpdater<Chunk> FREE =
+                AtomicIntegerFieldUpdater.newUpdater(Chunk.class, "free");
+
+        final double[] elems;
+        volatile int free;
+
+        Chunk(double[] elems, int free) {
+            this.elems = elems;
+            this.free = free;
+        }
+
+        /**
+         * Attempt to claim the slot before {@code start}, for the list which starts at {@code start}.
+         */
+        boolean claim(int start) {
+            return start > 0 && free == start && FREE.compareAndSet(this, start, start - 1);
+        }
+    }
+
+    private DoubleList() {
+    }
+
+    /**
+     * Add an element to the front of this list.
+     * @param head      the new element
+     * @return          the new list
+     */
+    public abstract DoubleList add(double head);
+
+    /**
+     * Concatenate this list with another.
+     * @param l         the list to append
+     * @return          the concatenated list
+     */
+    public DoubleList appendAll(DoubleList l) {
+        return ofArrayUnsafe(toArray(), l);
+    }
+
+    /**
+     * @return          true if this list is empty
+     */
+    public abstract boolean isEmpty();
+
+    /**
+     * @return          the length of this list
+     */
+    public abstract int size();
+
+    /**
+     * @return          the first element of this list
+     * @throws UnsupportedOperationException if this list is empty
+     */
+    public abstract double head();
+
+    /**
+     * @return          this list with the first element removed
+     * @throws UnsupportedOperationException if this list is empty
+     */
+    public abstract DoubleList tail();
+
+    /**
+     * Return the element at the given index.
+     * @param index     the index
+     * @return          the element
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public double get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+        Node n = (Node)this;
+        while (true) {
+            final int len = n.chunk.elems.length - n.start;
+            if (index < len) {
+                return n.chunk.elems[n.start + index];
+            }
+            index -= len;
+            n = (Node)n.tail;
+        }
+    }
+
+    /**
+     * Apply the action to each element of this list, in order.
+     * @param action    the action
+     */
+    public void forEachDouble(DoubleConsumer action) {
+        for (DoubleList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final double[] elems = n.chunk.elems;
+            for (int i = n.start; i < elems.length; ++i) {
+                action.accept(elems[i]);
+            }
+            l = n.tail;
+        }
+    }
+
+    /**
+     * Copy the elements of this list into an array.
+     * @return          the array of elements
+     */
+    public double[] toArray() {
+        final double[] arr = new double[size()];
+        int i = 0;
+        for (DoubleList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final int len = n.chunk.elems.length - n.start;
+            System.arraycopy(n.chunk.elems, n.start, arr, i, len);
+            i += len;
+            l = n.tail;
+        }
+        return arr;
+    }
+
+    /**
+     * Apply an operator to each element of this list.
+     * @param f         the operator
+     * @return          the list of results
+     */
+    public DoubleList map(DoubleOp f) {
+        final double[] arr = new double[size()];
+        int i = 0;
+        for (DoubleList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final double[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                arr[i++] = f.apply(elems[j]);
+            }
+            l = n.tail;
+        }
+        return ofArrayUnsafe(arr, empty());
+    }
+
+    /**
+     * Apply a function to each element of this list, to produce a list of boxed values.
+     * @param f         the function
+     * @param <U>       the function return type
+     * @return          the list of results
+     */
+    public <U> IList<U> mapToObj(DoubleF<? extends U> f) {
+        final double[] arr = toArray();
+        IList<U> r = IList.empty();
+        for (int i = arr.length - 1; i >= 0; --i) {
+            r = r.add(f.apply(arr[i]));
+        }
+        return r;
+    }
+
+    /**
+     * Return the elements of this list which satisfy a predicate.
+     * @param pred      the predicate
+     * @return          the list of elements which satisfy the predicate
+     */
+    public DoubleList filter(DoublePredicate pred) {
+        final double[] arr = new double[size()];
+        int i = 0;
+        for (DoubleList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final double[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                if (pred.test(elems[j])) {
+                    arr[i++] = elems[j];
+                }
+            }
+            l = n.tail;
+        }
+        return ofArrayUnsafe(i == arr.length ? arr : Arrays.copyOf(arr, i), empty());
+    }
+
+    /**
+     * Return the first element of this list which satisfies a predicate.
+     * @param pred      the predicate
+     * @return          the first element which satisfies the predicate, if there is one
+     */
+    public OptionDouble find(DoublePredicate pred) {
+        for (DoubleList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final double[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                if (pred.test(elems[j])) {
+                    return OptionDouble.some(elems[j]);
+                }
+            }
+            l = n.tail;
+        }
+        return OptionDouble.none();
+    }
+
+    /**
+     * Left-fold an operator over this list.
+     * @param f         the operator
+     * @param z         the initial value
+     * @return          the folded value
+     */
+    public double foldLeft(DoubleOp2 f, double z) {
+        double acc = z;
+        for (DoubleList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final double[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                acc = f.apply(acc, elems[j]);
+            }
+            l = n.tail;
+        }
+        return acc;
+    }
+
+    /**
+     * Right-fold an operator over this list.
+     * @param f         the operator
+     * @param z         the initial value
+     * @return          the folded value
+     */
+    public double foldRight(DoubleOp2 f, double z) {
+        final double[] arr = toArray();
+        double acc = z;
+        for (int i = arr.length - 1; i >= 0; --i) {
+            acc = f.apply(arr[i], acc);
+        }
+        return acc;
+    }
+
+    /**
+     * @return          the sum of the elements of this list
+     */
+    public double sum() {
+        double sum = 0;
+        for (DoubleList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final double[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                sum += elems[j];
+            }
+            l = n.tail;
+        }
+        return sum;
+    }
+
+    /**
+     * @return          this list in reverse order
+     */
+    public DoubleList reverse() {
+        final double[] arr = toArray();
+        for (int i = 0, j = arr.length - 1; i < j; ++i, --j) {
+            final double t = arr[i];
+            arr[i] = arr[j];
+            arr[j] = t;
+        }
+        return ofArrayUnsafe(arr, empty());
+    }
+
+    /**
+     * Convert this list into a list of boxed values.
+     * @return          the list of boxed values
+     */
+    public IList<Double> boxed() {
+        return mapToObj(x -> x);
+    }
+
+    /**
+     * @return          a stream of the elements of this list
+     */
+    public DoubleStream stream() {
+        return StreamSupport.doubleStream(spliterator(), false);
+    }
+
+    /**
+     * @return          a parallel stream of the elements of this list
+     */
+    public DoubleStream parallelStream() {
+        return StreamSupport.doubleStream(spliterator(), true);
+    }
+
+    @Override
+    public Spliterator.OfDouble spliterator() {
+        final int chars = Spliterator.ORDERED | Spliterator.IMMUTABLE;
+        if (isEmpty()) {
+            return Spliterators.emptyDoubleSpliterator();
+        } else {
+            final Node n = (Node)this;
+            if (n.tail.isEmpty()) {
+                return Spliterators.spliterator(n.chunk.elems, n.start, n.chunk.elems.length, chars);
+            } else {
+                return Spliterators.spliterator(toArray(), chars);
+            }
+        }
+    }
+
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        return new PrimitiveIterator.OfDouble() {
+            DoubleList l = DoubleList.this;
+            int i = l.isEmpty() ? 0 : ((Node)l).start;
+
+            @Override
+            public boolean hasNext() {
+                return !l.isEmpty();
+            }
+
+            @Override
+            public double nextDouble() {
+                if (l.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                final Node n = (Node)l;
+                final double x = n.chunk.elems[i++];
+                if (i == n.chunk.elems.length) {
+                    l = n.tail;
+                    i = l.isEmpty() ? 0 : ((Node)l).start;
+                }
+                return x;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (!(obj instanceof DoubleList)) {
+            return false;
+        } else {
+            final DoubleList rhs = (DoubleList)obj;
+            if (size() != rhs.size()) {
+                return false;
+            }
+            final PrimitiveIterator.OfDouble lit = iterator();
+            final PrimitiveIterator.OfDouble rit = rhs.iterator();
+            while (lit.hasNext()) {
+                if (Double.compare(lit.nextDouble(), rit.nextDouble()) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (DoubleList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final double[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                hashCode = 31 * hashCode + Double.hashCode(elems[j]);
+            }
+            l = n.tail;
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        forEachDouble(x -> sb.append(x).append(','));
+        if (sb.length() > 1) {
+            sb.setLength(sb.length() - 1);
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * The empty list.
+     */
+    private static final class Empty extends DoubleList {
+        static final Empty EMPTY = new Empty();
+
+        @Override
+        public DoubleList add(double head) {
+            final double[] elems = new double[MIN_CHUNK_SIZE];
+            final int start = elems.length - 1;
+            elems[start] = head;
+            return new Node(new Chunk(elems, start), start, this);
+        }
+
+        @Override
+        public DoubleList appendAll(DoubleList l) {
+            return l;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+
+        @Override
+        public double head() {
+            throw new UnsupportedOperationException("Cannot take the head of an empty list");
+        }
+
+        @Override
+        public DoubleList tail() {
+            throw new UnsupportedOperationException("Cannot take the tail of an empty list");
+        }
+    }
+
+    /**
+     * A non-empty list, which consists of the elements of a chunk from {@code start} onwards,
+     * followed by the tail list.
+     */
+    private static final class Node extends DoubleList {
+        final Chunk chunk;
+        final int start;
+        final DoubleList tail;
+        final int size;
+
+        Node(Chunk chunk, int start, DoubleList tail) {
+            this.chunk = chunk;
+            this.start = start;
+            this.tail = tail;
+            this.size = chunk.elems.length - start + tail.size();
+        }
+
+        @Override
+        public DoubleList add(double head) {
+            if (chunk.claim(start)) {
+                chunk.elems[start - 1] = head;
+                return new Node(chunk, start - 1, tail);
+            } else {
+                final int len = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, 2 * (chunk.elems.length - start)));
+                final double[] elems = new double[len];
+                elems[len - 1] = head;
+                return new Node(new Chunk(elems, len - 1), len - 1, this);
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public double head() {
+            return chunk.elems[start];
+        }
+
+        @Override
+        public DoubleList tail() {
+            return start + 1 < chunk.elems.length ? new Node(chunk, start + 1, tail) : tail;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.typemeta.funcj.data;
+
+/**
+ * The edit token for a builder of a persistent data structure, such as {@link IVector.Builder}.
+ * Nodes created by a builder are tagged with its token, and may be mutated in place by that builder.
+ * The token is deactivated once the builder has built its data structure.
+ */
+final class Edit {
+    boolean active = true;
+
+    /**
+     * Check that the token is still active.
+     * @throws          IllegalStateException if the token has been deactivated.
+     */
+    void ensureActive() {
+        if (!active) {
+            throw new IllegalStateException("Builder has already been built");
+        }
+    }
+}
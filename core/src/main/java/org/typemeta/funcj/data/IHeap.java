@@ -0,0 +1,357 @@
+package org.typemeta.funcj.data;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.*;
+
+/**
+ * Immutable priority queue, implemented as a persistent leftist heap.
+ * <p>
+ * The least element, according to the heap's {@link Comparator}
+ * (or the natural ordering of the elements), is always at the root.
+ * The rank (the length of the rightmost path) of each left child is at least that of its sibling,
+ * so the rightmost path of a heap of size n has at most log(n+1) nodes.
+ * Since {@link IHeap#insert(Object)}, {@link IHeap#merge(IHeap)} and {@link IHeap#deleteMin()}
+ * only rebuild nodes along the rightmost paths, they are O(log n),
+ * and {@link IHeap#findMin()} is O(1).
+ * Heaps can be built from an arbitrary collection of elements in O(n)
+ * via {@link IHeap#ofIterable(Comparator, Iterable)}.
+ * <p>
+ * Iteration is in ascending order, and repeatedly deletes the minimum,
+ * so a full traversal is O(n log n).
+ * Null elements are not allowed.
+ * @param <T>       the element type
+ */
+public final class IHeap<T> implements Iterable<T> {
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final IHeap<?> EMPTY = new IHeap<Object>((Comparator)Comparator.naturalOrder(), null);
+
+    /**
+     * Construct an empty heap, ordered by the natural ordering of the elements.
+     * @param <T>       the element type
+     * @return          an empty heap
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> IHeap<T> empty() {
+        return (IHeap<T>)EMPTY;
+    }
+
+    /**
+     * Construct an empty heap, ordered by the given comparator.
+     * @param cmp       the element comparator
+     * @param <T>       the element type
+     * @return          an empty heap
+     */
+    public static <T> IHeap<T> empty(Comparator<? super T> cmp) {
+        return new IHeap<T>(cmp, null);
+    }
+
+    /**
+     * Construct a heap, ordered by the natural ordering of the elements, with one or more elements.
+     * @param elem      the first element
+     * @param elems     the remaining elements
+     * @param <T>       the element type
+     * @return          the new heap
+     */
+    @SafeVarargs
+    public static <T> IHeap<T> of(T elem, T... elems) {
+        final List<T> l = new ArrayList<>(elems.length + 1);
+        l.add(elem);
+        for (T t : elems) {
+            l.add(t);
+        }
+        return ofIterable(l);
+    }
+
+    /**
+     * Construct a heap, ordered by the natural ordering of the elements,
+     * from an {@link java.lang.Iterable} collection of elements.
+     * @param elems     the elements
+     * @param <T>       the element type
+     * @return          the new heap
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> IHeap<T> ofIterable(Iterable<? extends T> elems) {
+        return ofIterable((Comparator<? super T>)Comparator.naturalOrder(), elems);
+    }
+
+    /**
+     * Construct a heap from an {@link java.lang.Iterable} collection of elements, in O(n).
+     * Each element becomes a singleton heap,
+     * and the heaps are then merged pairwise, in rounds, until only one remains.
+     * @param cmp       the element comparator
+     * @param elems     the elements
+     * @param <T>       the element type
+     * @return          the new heap
+     */
+    public static <T> IHeap<T> ofIterable(Comparator<? super T> cmp, Iterable<? extends T> elems) {
+        final List<Node> nodes = new ArrayList<>();
+        for (T t : elems) {
+            nodes.add(new Node(Objects.requireNonNull(t), null, null));
+        }
+        final IHeap<T> h = new IHeap<T>(cmp, null);
+        int n = nodes.size();
+        while (n > 1) {
+            int j = 0;
+            for (int i = 0; i + 1 < n; i += 2) {
+                nodes.set(j++, h.merge(nodes.get(i), nodes.get(i + 1)));
+            }
+            if (n % 2 == 1) {
+                nodes.set(j++, nodes.get(n - 1));
+            }
+            n = j;
+        }
+        return n == 0 ? h : new IHeap<T>(cmp, nodes.get(0));
+    }
+
+    /**
+     * A heap node.
+     */
+    private static final class Node {
+        final Object elem;
+        final Node left;
+        final Node right;
+        final int rank;
+        final int size;
+
+        Node(Object elem, Node left, Node right) {
+            this.elem = elem;
+            this.left = left;
+            this.right = right;
+            this.rank = rank(right) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+
+    private static int rank(Node n) {
+        return n == null ? 0 : n.rank;
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    /**
+     * Construct a node, placing the child with the greater rank on the left.
+     */
+    private static Node make(Object elem, Node a, Node b) {
+        return rank(a) >= rank(b) ? new Node(elem, a, b) : new Node(elem, b, a);
+    }
+
+    private final Comparator<Object> cmp;
+    private final Node root;
+
+    @SuppressWarnings("unchecked")
+    private IHeap(Comparator<? super T> cmp, Node root) {
+        this.cmp = (Comparator<Object>)cmp;
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    private IHeap<T> withRoot(Node newRoot) {
+        if (newRoot == null && cmp == EMPTY.cmp) {
+            return empty();
+        } else {
+            return new IHeap<T>((Comparator<? super T>)cmp, newRoot);
+        }
+    }
+
+    private Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        } else if (b == null) {
+            return a;
+        } else if (cmp.compare(b.elem, a.elem) < 0) {
+            return make(b.elem, b.left, merge(b.right, a));
+        } else {
+            return make(a.elem, a.left, merge(a.right, b));
+        }
+    }
+
+    /**
+     * @return          the comparator which orders the elements of this heap
+     */
+    @SuppressWarnings("unchecked")
+    public Comparator<? super T> comparator() {
+        return (Comparator<? super T>)cmp;
+    }
+
+    /**
+     * Return true if this heap is empty otherwise false
+     * @return          true if this heap is empty otherwise false
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * @return          the number of elements in this heap.
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Create a new heap by inserting an element into this heap.
+     * @param elem      the element
+     * @return          the new heap
+     */
+    public IHeap<T> insert(T elem) {
+        return withRoot(merge(root, new Node(Objects.requireNonNull(elem), null, null)));
+    }
+
+    /**
+     * Create a new heap which contains the elements of this heap and those of another.
+     * The other heap is assumed to be ordered by the same comparator as this heap.
+     * @param other     the other heap
+     * @return          the new heap
+     */
+    public IHeap<T> merge(IHeap<T> other) {
+        if (other.root == null) {
+            return this;
+        } else if (root == null) {
+            return other;
+        } else {
+            return withRoot(merge(root, other.root));
+        }
+    }
+
+    /**
+     * Return the least element, if this heap is non-empty.
+     * @return          the least element, or {@code Optional.empty()}
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<T> findMin() {
+        return root == null ? Optional.empty() : Optional.of((T)root.elem);
+    }
+
+    /**
+     * Create a new heap by removing the least element from this heap.
+     * @return          the new heap
+     * @throws          UnsupportedOperationException if this heap is empty
+     */
+    public IHeap<T> deleteMin() {
+        if (root == null) {
+            throw new UnsupportedOperationException("Cannot delete the minimum of an empty heap");
+        } else {
+            return withRoot(merge(root.left, root.right));
+        }
+    }
+
+    /**
+     * Convert this heap into a list, in ascending order.
+     * @return          the list
+     */
+    public IList<T> toIList() {
+        final Object[] arr = new Object[size()];
+        int i = 0;
+        for (T t : this) {
+            arr[i++] = t;
+        }
+        return IList.ofArray(arr, arr.length, IList.<T>empty());
+    }
+
+    /**
+     * Create an {@link java.util.Iterator} over the elements in this heap, in ascending order.
+     * @return          the iterator
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            Node n = root;
+
+            @Override
+            public boolean hasNext() {
+                return n != null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (n == null) {
+                    throw new NoSuchElementException();
+                } else {
+                    final T t = (T)n.elem;
+                    n = merge(n.left, n.right);
+                    return t;
+                }
+            }
+        };
+    }
+
+    /**
+     * Create a {@link java.util.Spliterator} over the elements in this heap, in ascending order.
+     * Splitting removes a batch of the least elements into an array.
+     * @return          the spliterator
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        final Iterator<T> iter = iterator();
+        return new Spliterators.AbstractSpliterator<T>(
+                size(),
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.IMMUTABLE | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (iter.hasNext()) {
+                    action.accept(iter.next());
+                    return true;
+                } else {
+                    return false;
+                }
+            }
+        };
+    }
+
+    /**
+     * Create a {@link java.util.stream.Stream} onto the elements in this heap, in ascending order.
+     * @return          the new stream
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Create a parallel {@link java.util.stream.Stream} onto the elements in this heap.
+     * @return          the new stream
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        for (T t : this) {
+            sb.append(t).append(',');
+        }
+        if (isEmpty()) {
+            sb.append(']');
+        } else {
+            sb.setCharAt(sb.length() - 1, ']');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Verify the heap and leftist invariants, for testing.
+     */
+    void checkInvariants() {
+        checkInvariants(root);
+    }
+
+    private void checkInvariants(Node n) {
+        if (n != null) {
+            if (rank(n.left) < rank(n.right)) {
+                throw new IllegalStateException("Left rank less than right rank at " + n.elem);
+            } else if ((n.left != null && cmp.compare(n.left.elem, n.elem) < 0) ||
+                    (n.right != null && cmp.compare(n.right.elem, n.elem) < 0)) {
+                throw new IllegalStateException("Heap order violated at " + n.elem);
+            } else if (n.size != size(n.left) + size(n.right) + 1) {
+                throw new IllegalStateException("Incorrect size at " + n.elem);
+            }
+            checkInvariants(n.left);
+            checkInvariants(n.right);
+        }
+    }
+}
@@ -12,6 +12,10 @@
  * Each {@code IList} is either {@link Empty} or it is {@link NonEmpty},
  * in which case it has a head element value and a tail.
  * The tail is itself an {@code IList}.
+ * Each node caches the length of the list it heads, so {@link IList#size()} is O(1),
+ * and the bulk operations ({@code map}, {@code flatMap}, {@code foldRight}, {@code appendAll},
+ * {@code toList} and {@code stream}) operate over an array snapshot of the elements,
+ * rather than via an intermediate reversed list.
  * Null elements are not allowed.
  * @param <T>       the element type
  */
@@ -65,11 +69,15 @@ public static <T> NonEmpty<T> of(T elem, T... elems) {
      * @return          the new list with multiple elements
      */
     public static <T> IList<T> ofIterable(Iterable<T> elems) {
-        IList<T> r = empty();
-        for (T elem : elems) {
-            r = r.add(elem);
+        if (elems instanceof IList) {
+            return (IList<T>)elems;
+        } else {
+            final List<T> l = new ArrayList<T>();
+            for (T elem : elems) {
+                l.add(elem);
+            }
+            return ofArray(l.toArray(), l.size(), empty());
         }
-        return r.reverse();
     }
 
     /**
@@ -79,9 +87,17 @@ public static <T> IList<T> ofIterable(Iterable<T> elems) {
      * @return          the new list with multiple elements
      */
     public static <T> IList<T> ofArray(T[] elems) {
-        IList<T> r = empty();
-        for (int i = elems.length-1; i >= 0; --i) {
-            r = r.add(elems[i]);
+        return ofArray(elems, elems.length, empty());
+    }
+
+    /**
+     * Construct a list from the first {@code n} elements of an array, followed by the given list.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> IList<T> ofArray(Object[] elems, int n, IList<T> tail) {
+        IList<T> r = tail;
+        for (int i = n - 1; i >= 0; --i) {
+            r = r.add((T)elems[i]);
         }
         return r;
     }
@@ -93,13 +109,9 @@ public static <T> IList<T> ofArray(T[] elems) {
      * @param <T>       the element type
      * @return          the new concatenated list
      */
+    @SuppressWarnings("unchecked")
     public static <T> IList<T> concat(IList<? extends T> l1, IList<? extends T>  l2) {
-        @SuppressWarnings("unchecked")
-        IList<T> r = (IList<T>)l2;
-        for (T elem : l1.reverse()) {
-            r = r.add(elem);
-        }
-        return r;
+        return ofArray(l1.toArray(), l1.size(), (IList<T>)l2);
     }
 
     /**
@@ -144,11 +156,29 @@ public NonEmpty<T> add(T head) {
      * @return          the new list
      */
     public <S extends T> IList<T> addAll(IList<S> l) {
-        IList<T> r = this;
-        for(IList<S> next = l.reverse(); !next.isEmpty(); next = next.tail()) {
-            r = r.add(next.head());
+        return ofArray(l.toArray(), l.size(), this);
+    }
+
+    /**
+     * Copy the elements of this list into a new array.
+     * @return          the array snapshot of this list
+     */
+    Object[] toArray() {
+        final Object[] arr = new Object[size()];
+        int i = 0;
+        for (IList<T> n = this; !n.isEmpty(); n = n.tail()) {
+            arr[i++] = n.head();
         }
-        return r;
+        return arr;
+    }
+
+    /**
+     * Create a lazy view onto this list,
+     * through which a pipeline of operations can be run as a single pass, without intermediate lists.
+     * @return          the new view
+     */
+    public IListView<T> view() {
+        return IListView.of(this);
     }
 
     /**
@@ -472,10 +502,12 @@ public List<T> toList() {
 
         private final T head;
         private final IList<T> tail;
+        private final int size;
 
         NonEmpty(T head, IList<T> tail) {
             this.head = Objects.requireNonNull(head);
             this.tail = Objects.requireNonNull(tail);
+            this.size = tail.size() + 1;
         }
 
         @Override
@@ -500,24 +532,14 @@ public IList<T> tail() {
 
         @Override
         public T get(int index) {
-            if (index < 0) {
+            if (index < 0 || index >= size) {
                 throw new IndexOutOfBoundsException("Index " + index + " out of bounds");
-            } else if (index == 0) {
-                return head;
             } else {
-                IList<T> next = tail;
-                for (int i = 1; i < index; ++i) {
-                    if (next.isEmpty()) {
-                        throw new IndexOutOfBoundsException("Index " + index + " out of bounds");
-                    } else {
-                        next = ((NonEmpty<T>)next).tail;
-                    }
-                }
-                if (next.isEmpty()) {
-                    throw new IndexOutOfBoundsException("Index " + index + " out of bounds");
-                } else {
-                    return ((NonEmpty<T>)next).head;
+                IList<T> next = this;
+                for (int i = 0; i < index; ++i) {
+                    next = ((NonEmpty<T>)next).tail;
                 }
+                return ((NonEmpty<T>)next).head;
             }
         }
 
@@ -530,12 +552,15 @@ public String toString() {
 
         @Override
         public StringBuilder append(StringBuilder sb) {
-            return tail.append(sb.append(head).append(','));
+            for (IList<T> n = this; !n.isEmpty(); n = n.tail()) {
+                sb.append(n.head()).append(',');
+            }
+            return sb;
         }
 
         @Override
         public boolean equals(IList<T> rhs) {
-            if (rhs.isEmpty()) {
+            if (rhs.size() != size) {
                 return false;
             } else {
                 for (T lhs : this) {
@@ -566,19 +591,12 @@ public <S> S match(F<NonEmpty<T>, S> nonEmptyF, F<Empty<T>, S> emptyF) {
 
         @Override
         public IList<T> appendAll(IList<? extends T> l) {
-            return new NonEmpty<T>(head, tail.appendAll(l));
+            return concat(this, l);
         }
 
         @Override
         public int size() {
-            IList<T> pos = this;
-            int length = 0;
-            while (!pos.isEmpty()) {
-                ++length;
-                pos = pos.tail();
-            }
-
-            return length;
+            return size;
         }
 
         @Override
@@ -591,26 +609,41 @@ public NonEmpty<T> reverse() {
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public <U> NonEmpty<U> map(F<? super T, ? extends U> f) {
-            IList<U> r = empty();
-            for (IList<T> n = reverse(); !n.isEmpty(); n = n.tail()) {
-                r = r.add(f.apply(n.head()));
+            final Object[] arr = toArray();
+            for (int i = 0; i < arr.length; ++i) {
+                arr[i] = f.apply((T)arr[i]);
             }
-            return (NonEmpty<U>) r;
+            return (NonEmpty<U>)IList.ofArray(arr, arr.length, IList.<U>empty());
         }
 
         @Override
         public <U> IList<U> flatMap(F<? super T, IList<? extends U>> f) {
-            IList<U> r = empty();
-            for (IList<T> n = reverse(); !n.isEmpty(); n = n.tail()) {
-                r = r.addAll(f.apply(n.head()));
+            Object[] arr = new Object[size];
+            int n = 0;
+            for (IList<T> l = this; !l.isEmpty(); l = l.tail()) {
+                final IList<? extends U> r = f.apply(l.head());
+                final int rs = r.size();
+                if (n + rs > arr.length) {
+                    arr = Arrays.copyOf(arr, Math.max(n + rs, arr.length * 2));
+                }
+                for (IList<? extends U> m = r; !m.isEmpty(); m = m.tail()) {
+                    arr[n++] = m.head();
+                }
             }
-            return r;
+            return IList.ofArray(arr, n, IList.<U>empty());
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public <U> U foldRight(F2<T, U, U> f, U z) {
-            return reverse().foldLeft(f.flip(), z);
+            final Object[] arr = toArray();
+            U r = z;
+            for (int i = arr.length - 1; i >= 0; --i) {
+                r = f.apply((T)arr[i], r);
+            }
+            return r;
         }
 
         @Override
@@ -627,8 +660,14 @@ public <U> U foldLeft(F2<U, T, U> f, U z) {
          * @param f         the function to be folded
          * @return          the folded result
          */
+        @SuppressWarnings("unchecked")
         public T foldRight1(Op2<T> f) {
-            return reverse().foldLeft1(f.flip());
+            final Object[] arr = toArray();
+            T r = (T)arr[arr.length - 1];
+            for (int i = arr.length - 2; i >= 0; --i) {
+                r = f.apply((T)arr[i], r);
+            }
+            return r;
         }
 
         /**
@@ -645,11 +684,11 @@ public T foldLeft1(Op2<T> f) {
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public Spliterator<T> spliterator() {
-            return Spliterators.spliterator(
-                this.iterator(),
-                size(),
-                Spliterator.IMMUTABLE + Spliterator.SIZED
+            return (Spliterator<T>)Spliterators.spliterator(
+                toArray(),
+                Spliterator.IMMUTABLE + Spliterator.ORDERED + Spliterator.NONNULL
             );
         }
 
@@ -675,103 +714,36 @@ public T next() {
 
         @Override
         public List<T> toList() {
-            return new ListAdaptor<T>(this);
+            return new ListAdaptor<T>(toArray());
         }
     }
 
-    private static class ListAdaptor<T> extends AbstractSequentialList<T> {
+    static class ListAdaptor<T> extends AbstractList<T> implements RandomAccess {
 
-        private final IList<T> impl;
-        private final int size;
+        private final Object[] elems;
 
-        ListAdaptor(IList<T> impl) {
-            this.impl = impl;
-            size = impl.size();
+        ListAdaptor(Object[] elems) {
+            this.elems = elems;
         }
 
         @Override
-        public ListIterator<T> listIterator(int index) {
-
-            return new ListIterator<T>() {
-
-                private IList<T> move(IList<T> node, int count) {
-                    for (int i = 0; i < count; ++i) {
-                        node = node.tail();
-                    }
-                    return node;
-                }
-
-                private int pos = index;
-                private IList<T> node = move(impl, index);
-
-                @Override
-                public boolean hasNext() {
-                    return pos < size;
-                }
-
-                @Override
-                public T next() {
-                    if (!hasNext()) {
-                        throw new NoSuchElementException();
-                    } else {
-                        final T ret = node.head();
-                        node = node.tail();
-                        ++pos;
-                        return ret;
-                    }
-                }
-
-                @Override
-                public boolean hasPrevious() {
-                    return pos >= 0;
-                }
-
-                @Override
-                public T previous() {
-                    if (!hasPrevious()) {
-                        throw new NoSuchElementException();
-                    } else {
-                        --pos;
-                        node = move(impl, pos);
-                        ++pos;
-                        return node.head();
-                    }
-                }
-
-                @Override
-                public int nextIndex() {
-                    return pos;
-                }
-
-                @Override
-                public int previousIndex() {
-                    return pos - 1;
-                }
-
-                @Override
-                public void remove() {
-                    throw modError();
-                }
-
-                @Override
-                public void set(T t) {
-                    throw modError();
-                }
-
-                @Override
-                public void add(T t) {
-                    throw modError();
-                }
-
-                private UnsupportedOperationException modError() {
-                    return new UnsupportedOperationException("IList can not be modified");
-                }
-            };
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            return (T)elems[index];
         }
 
         @Override
         public int size() {
-            return size;
+            return elems.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Spliterator<T> spliterator() {
+            return (Spliterator<T>)Spliterators.spliterator(
+                elems,
+                Spliterator.IMMUTABLE + Spliterator.ORDERED + Spliterator.NONNULL
+            );
         }
     }
 }
@@ -0,0 +1,573 @@
+package org.typemeta.funcj.data;
+
+import org.typemeta.funcj.algebra.Monoid;
+import org.typemeta.funcj.control.Option;
+import org.typemeta.funcj.functions.Functions.*;
+import org.typemeta.funcj.tuples.Tuple2;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.stream.*;
+
+/**
+ * A lazy view onto an {@link IList}, which records a pipeline of
+ * {@code map}, {@code filter}, {@code flatMap}, {@code take}, {@code drop} and {@code zip} stages,
+ * and runs them as a single fused pass over the source list when a terminal operation is invoked.
+ * <p>
+ * Unlike chaining the equivalent {@code IList} operations, no intermediate list is built between stages.
+ * Each element is pushed through the whole pipeline before the next one is read,
+ * and the pass stops as soon as a stage, such as {@code take}, or the terminal operation,
+ * such as {@code findFirst}, needs no further elements.
+ * <p>
+ * Views are immutable - each stage method returns a new view, and each terminal operation
+ * re-runs the pipeline from the start of the source list.
+ * The {@code par} terminal operations split the source list into chunks and run the pipeline
+ * over each chunk as a {@link ForkJoinPool#commonPool()} task, provided every stage is stateless
+ * (i.e. the pipeline contains no {@code take}, {@code drop}, {@code takeWhile}, {@code dropWhile}
+ * or {@code zip} stages), otherwise they fall back to a sequential pass.
+ * @param <T>       the element type
+ */
+public final class IListView<T> {
+
+    /**
+     * Sources smaller than this are never split for the {@code par} terminal operations.
+     */
+    private static final int PAR_THRESHOLD = 1024;
+
+    private static final int TASKS_PER_THREAD = 4;
+
+    /**
+     * Receives the elements pushed through a pipeline.
+     * @param <T>       the element type
+     */
+    @FunctionalInterface
+    private interface Sink<T> {
+        /**
+         * Accept the next element.
+         * @param t         the element
+         * @return          false if no further elements are required, otherwise true
+         */
+        boolean accept(T t);
+    }
+
+    /**
+     * A pipeline stage, which wraps a downstream sink to produce an upstream sink.
+     * A fresh chain of sinks is built for each pass, so stateful stages keep their state in the sink.
+     * @param <A>       the upstream element type
+     * @param <B>       the downstream element type
+     */
+    @FunctionalInterface
+    private interface Stage<A, B> {
+        Sink<A> wrap(Sink<B> down);
+    }
+
+    /**
+     * Construct a view onto a list.
+     * @param list      the source list
+     * @param <T>       the element type
+     * @return          the new view
+     */
+    public static <T> IListView<T> of(IList<T> list) {
+        return new IListView<T>(list, (Stage<T, T>)down -> down, true);
+    }
+
+    private final IList<?> source;
+    private final Stage<Object, T> stage;
+    private final boolean stateless;
+
+    @SuppressWarnings("unchecked")
+    private IListView(IList<?> source, Stage<?, T> stage, boolean stateless) {
+        this.source = source;
+        this.stage = (Stage<Object, T>)stage;
+        this.stateless = stateless;
+    }
+
+    private <U> IListView<U> then(Stage<T, U> next, boolean nextStateless) {
+        return new IListView<U>(source, down -> stage.wrap(next.wrap(down)), stateless && nextStateless);
+    }
+
+    /**
+     * Push the elements of the source list through the pipeline into {@code sink},
+     * stopping early if the pipeline requires no further elements.
+     */
+    private void run(Sink<? super T> sink) {
+        final Sink<Object> head = stage.wrap(sink::accept);
+        for (IList<?> n = source; !n.isEmpty(); n = n.tail()) {
+            if (!head.accept(n.head())) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Push the elements from {@code src[lo]} up to (but excluding) {@code src[hi]} through the pipeline into {@code sink}.
+     */
+    private void run(Object[] src, int lo, int hi, Sink<? super T> sink) {
+        final Sink<Object> head = stage.wrap(sink::accept);
+        for (int i = lo; i < hi && head.accept(src[i]); ++i) {
+        }
+    }
+
+    /**
+     * Add a stage which applies a function to each element.
+     * @param f         the function
+     * @param <U>       the result element type
+     * @return          the new view
+     */
+    public <U> IListView<U> map(F<? super T, ? extends U> f) {
+        return then(down -> t -> down.accept(f.apply(t)), true);
+    }
+
+    /**
+     * Add a stage which discards the elements which don't satisfy a predicate.
+     * @param pred      the predicate
+     * @return          the new view
+     */
+    public IListView<T> filter(Predicate<? super T> pred) {
+        return then(down -> t -> !pred.test(t) || down.accept(t), true);
+    }
+
+    /**
+     * Add a stage which replaces each element with the elements of the list the function returns for it.
+     * @param f         the function
+     * @param <U>       the result element type
+     * @return          the new view
+     */
+    public <U> IListView<U> flatMap(F<? super T, IList<? extends U>> f) {
+        return then(down -> t -> {
+            for (IList<? extends U> l = f.apply(t); !l.isEmpty(); l = l.tail()) {
+                if (!down.accept(l.head())) {
+                    return false;
+                }
+            }
+            return true;
+        }, true);
+    }
+
+    /**
+     * Add a stage which passes on at most the first {@code n} elements.
+     * The pass stops once the {@code n}th element has been passed on.
+     * @param n         the maximum number of elements
+     * @return          the new view
+     */
+    public IListView<T> take(int n) {
+        return then(down -> {
+            if (n <= 0) {
+                return t -> false;
+            } else {
+                final int[] remaining = {n};
+                return t -> down.accept(t) && --remaining[0] > 0;
+            }
+        }, false);
+    }
+
+    /**
+     * Add a stage which discards the first {@code n} elements.
+     * @param n         the number of elements to discard
+     * @return          the new view
+     */
+    public IListView<T> drop(int n) {
+        return then(down -> {
+            final int[] remaining = {n};
+            return t -> {
+                if (remaining[0] > 0) {
+                    --remaining[0];
+                    return true;
+                } else {
+                    return down.accept(t);
+                }
+            };
+        }, false);
+    }
+
+    /**
+     * Add a stage which passes on elements while they satisfy a predicate,
+     * and stops the pass at the first one which doesn't.
+     * @param pred      the predicate
+     * @return          the new view
+     */
+    public IListView<T> takeWhile(Predicate<? super T> pred) {
+        return then(down -> t -> pred.test(t) && down.accept(t), false);
+    }
+
+    /**
+     * Add a stage which discards elements while they satisfy a predicate.
+     * @param pred      the predicate
+     * @return          the new view
+     */
+    public IListView<T> dropWhile(Predicate<? super T> pred) {
+        return then(down -> {
+            final boolean[] dropping = {true};
+            return t -> {
+                if (dropping[0]) {
+                    if (pred.test(t)) {
+                        return true;
+                    }
+                    dropping[0] = false;
+                }
+                return down.accept(t);
+            };
+        }, false);
+    }
+
+    /**
+     * Add a stage which pairs each element with the corresponding element of another list,
+     * using a function to combine each pair.
+     * The pass stops when either this view or the other list is exhausted.
+     * @param other     the other list
+     * @param f         the function which combines each pair of elements
+     * @param <U>       the other list element type
+     * @param <R>       the result element type
+     * @return          the new view
+     */
+    public <U, R> IListView<R> zipWith(IList<U> other, F2<? super T, ? super U, ? extends R> f) {
+        return then(down -> zipSink(other, f, down), false);
+    }
+
+    private static <T, U, R> Sink<T> zipSink(IList<U> other, F2<? super T, ? super U, ? extends R> f, Sink<R> down) {
+        if (other.isEmpty()) {
+            return t -> false;
+        } else {
+            return new Sink<T>() {
+                IList<U> cursor = other;
+
+                @Override
+                public boolean accept(T t) {
+                    final U u = cursor.head();
+                    cursor = cursor.tail();
+                    return down.accept(f.apply(t, u)) && !cursor.isEmpty();
+                }
+            };
+        }
+    }
+
+    /**
+     * Add a stage which pairs each element with the corresponding element of another list.
+     * @param other     the other list
+     * @param <U>       the other list element type
+     * @return          the new view
+     */
+    public <U> IListView<Tuple2<T, U>> zip(IList<U> other) {
+        return zipWith(other, Tuple2::of);
+    }
+
+    /**
+     * Add a stage which pairs each element with the corresponding element of another view.
+     * The other view is evaluated once, at the start of each pass.
+     * @param other     the other view
+     * @param <U>       the other view element type
+     * @return          the new view
+     */
+    public <U> IListView<Tuple2<T, U>> zip(IListView<U> other) {
+        return then(down -> zipSink(other.toIList(), Tuple2::of, down), false);
+    }
+
+    /**
+     * Evaluate the pipeline into a new list.
+     * @return          the new list
+     */
+    public IList<T> toIList() {
+        final Buffer buf = new Buffer();
+        run(buf);
+        return IList.ofArray(buf.elems, buf.size, IList.<T>empty());
+    }
+
+    /**
+     * Evaluate the pipeline into a Java List implementation, albeit an immutable one.
+     * @return          the Java List
+     */
+    public List<T> toList() {
+        return new IList.ListAdaptor<T>(toArray());
+    }
+
+    private Object[] toArray() {
+        final Buffer buf = new Buffer();
+        run(buf);
+        return buf.toArray();
+    }
+
+    /**
+     * Left-fold a function over the elements of the pipeline.
+     * @param f         the function to be folded
+     * @param z         the initial value for the fold (typically the identity value of {@code f})
+     * @param <U>       the fold result type
+     * @return          the folded result
+     */
+    public <U> U foldLeft(F2<U, ? super T, U> f, U z) {
+        final Object[] acc = {z};
+        run(t -> {
+            @SuppressWarnings("unchecked")
+            final U u = (U)acc[0];
+            acc[0] = f.apply(u, t);
+            return true;
+        });
+        @SuppressWarnings("unchecked")
+        final U r = (U)acc[0];
+        return r;
+    }
+
+    /**
+     * Apply an action to each element of the pipeline.
+     * @param action    the action
+     */
+    public void forEach(Consumer<? super T> action) {
+        run(t -> {
+            action.accept(t);
+            return true;
+        });
+    }
+
+    /**
+     * Count the elements of the pipeline.
+     * @return          the number of elements
+     */
+    public int count() {
+        final int[] n = {0};
+        run(t -> {
+            ++n[0];
+            return true;
+        });
+        return n[0];
+    }
+
+    /**
+     * Return the first element of the pipeline, if there is one.
+     * The pass stops at the first element.
+     * @return          the first element, or none if the pipeline is empty
+     * @throws          NullPointerException if the first element is null
+     */
+    public Option<T> findFirst() {
+        final Object[] r = {null};
+        final boolean[] found = {false};
+        run(t -> {
+            r[0] = t;
+            found[0] = true;
+            return false;
+        });
+        @SuppressWarnings("unchecked")
+        final T t = (T)r[0];
+        return found[0] ? Option.some(t) : Option.none();
+    }
+
+    /**
+     * Determine whether any element of the pipeline satisfies a predicate.
+     * The pass stops at the first element which does.
+     * @param pred      the predicate
+     * @return          true if any element satisfies the predicate, otherwise false
+     */
+    public boolean anyMatch(Predicate<? super T> pred) {
+        final boolean[] r = {false};
+        run(t -> !(r[0] = pred.test(t)));
+        return r[0];
+    }
+
+    /**
+     * Determine whether every element of the pipeline satisfies a predicate.
+     * The pass stops at the first element which doesn't.
+     * @param pred      the predicate
+     * @return          true if every element satisfies the predicate, otherwise false
+     */
+    public boolean allMatch(Predicate<? super T> pred) {
+        final boolean[] r = {true};
+        run(t -> r[0] = pred.test(t));
+        return r[0];
+    }
+
+    /**
+     * Create a {@link java.util.stream.Stream} onto the elements of the pipeline.
+     * A terminal operation on the stream which consumes every element runs the pipeline directly,
+     * otherwise the pipeline is evaluated into an array when the first element is requested.
+     * @return          the new stream
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(new ViewSpliterator(), false);
+    }
+
+    /**
+     * Evaluate the pipeline into a new list, in parallel if every stage is stateless.
+     * @return          the new list
+     */
+    public IList<T> parToIList() {
+        final Object[] src = source.toArray();
+        if (!stateless || src.length < PAR_THRESHOLD) {
+            return toIList();
+        } else {
+            final List<Buffer> parts = ForkJoinPool.commonPool().invoke(new ParTask<List<Buffer>>(
+                    src,
+                    0,
+                    src.length,
+                    granularity(src.length),
+                    (lo, hi) -> {
+                        final Buffer buf = new Buffer();
+                        run(src, lo, hi, buf);
+                        return Collections.singletonList(buf);
+                    },
+                    (l, r) -> {
+                        final List<Buffer> lr = new ArrayList<>(l);
+                        lr.addAll(r);
+                        return lr;
+                    }));
+            IList<T> r = IList.empty();
+            for (int i = parts.size() - 1; i >= 0; --i) {
+                final Buffer buf = parts.get(i);
+                r = IList.ofArray(buf.elems, buf.size, r);
+            }
+            return r;
+        }
+    }
+
+    /**
+     * Map each element of the pipeline into a monoid, and combine the results,
+     * in parallel if every stage is stateless.
+     * The order of the elements is preserved,
+     * so the monoid need only be associative, not commutative.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param <R>       the monoid type
+     * @return          the folded value
+     */
+    public <R> R parFoldMap(Monoid<R> m, F<? super T, R> f) {
+        final Object[] src = source.toArray();
+        if (!stateless || src.length < PAR_THRESHOLD) {
+            return foldLeft((acc, t) -> m.combine(acc, f.apply(t)), m.zero());
+        } else {
+            return ForkJoinPool.commonPool().invoke(new ParTask<R>(
+                    src,
+                    0,
+                    src.length,
+                    granularity(src.length),
+                    (lo, hi) -> {
+                        final Object[] acc = {m.zero()};
+                        run(src, lo, hi, t -> {
+                            @SuppressWarnings("unchecked")
+                            final R r = (R)acc[0];
+                            acc[0] = m.combine(r, f.apply(t));
+                            return true;
+                        });
+                        @SuppressWarnings("unchecked")
+                        final R r = (R)acc[0];
+                        return r;
+                    },
+                    m::combine));
+        }
+    }
+
+    private static int granularity(int size) {
+        return Math.max(PAR_THRESHOLD / 2, size / (ForkJoinPool.getCommonPoolParallelism() * TASKS_PER_THREAD));
+    }
+
+    /**
+     * A growable array, into which a pass is evaluated.
+     */
+    private static final class Buffer implements Sink<Object> {
+        Object[] elems = new Object[16];
+        int size = 0;
+
+        @Override
+        public boolean accept(Object t) {
+            if (size == elems.length) {
+                elems = Arrays.copyOf(elems, size * 2);
+            }
+            elems[size++] = t;
+            return true;
+        }
+
+        Object[] toArray() {
+            return size == elems.length ? elems : Arrays.copyOf(elems, size);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeF<R> {
+        R apply(int lo, int hi);
+    }
+
+    /**
+     * Splits a range of the source array in half until it is no larger than the granularity,
+     * evaluates each part with {@code leaf}, and combines the part results pairwise, in order.
+     */
+    private static final class ParTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        final Object[] src;
+        final int lo;
+        final int hi;
+        final int granularity;
+        final RangeF<R> leaf;
+        final Op2<R> combine;
+
+        ParTask(Object[] src, int lo, int hi, int granularity, RangeF<R> leaf, Op2<R> combine) {
+            this.src = src;
+            this.lo = lo;
+            this.hi = hi;
+            this.granularity = granularity;
+            this.leaf = leaf;
+            this.combine = combine;
+        }
+
+        @Override
+        protected R compute() {
+            if (hi - lo <= granularity) {
+                return leaf.apply(lo, hi);
+            } else {
+                final int mid = (lo + hi) >>> 1;
+                final ParTask<R> prefix = new ParTask<R>(src, lo, mid, granularity, leaf, combine);
+                prefix.fork();
+                final R suffix = new ParTask<R>(src, mid, hi, granularity, leaf, combine).compute();
+                return combine.apply(prefix.join(), suffix);
+            }
+        }
+    }
+
+    /**
+     * Runs the pipeline directly for {@code forEachRemaining},
+     * otherwise evaluates it into an array and delegates to a spliterator over that.
+     */
+    private final class ViewSpliterator implements Spliterator<T> {
+        private Spliterator<T> buffered;
+
+        @SuppressWarnings("unchecked")
+        private Spliterator<T> buffered() {
+            if (buffered == null) {
+                buffered = (Spliterator<T>)Spliterators.spliterator(
+                        IListView.this.toArray(),
+                        Spliterator.IMMUTABLE + Spliterator.ORDERED
+                );
+            }
+            return buffered;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            return buffered().tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (buffered == null) {
+                buffered = Spliterators.emptySpliterator();
+                forEach(action);
+            } else {
+                buffered.forEachRemaining(action);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return buffered().trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            return buffered == null ? Long.MAX_VALUE : buffered.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return buffered == null
+                    ? Spliterator.IMMUTABLE + Spliterator.ORDERED
+                    : buffered.characteristics();
+        }
+    }
+}
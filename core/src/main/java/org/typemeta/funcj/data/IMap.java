@@ -0,0 +1,996 @@
+package org.typemeta.funcj.data;
+
+import org.typemeta.funcj.functions.Functions.*;
+import org.typemeta.funcj.tuples.Tuple2;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.*;
+
+/**
+ * Immutable map, implemented as a hash array mapped trie (HAMT).
+ * <p>
+ * Each level of the trie consumes 5 bits of the key hash,
+ * and each node stores its entries and child nodes in an array
+ * which is compacted via a 32-bit bitmap.
+ * Lookups, insertions and removals are therefore O(log32 n),
+ * and updated maps share all but the modified path with the maps they were derived from.
+ * Keys whose hashes fully collide are held in collision nodes.
+ * <p>
+ * Maps can be built efficiently via a {@link Builder},
+ * which mutates the trie in place until the map is built.
+ * Null keys and values are not allowed.
+ * @param <K>       the key type
+ * @param <V>       the value type
+ */
+public final class IMap<K, V> implements Iterable<Tuple2<K, V>> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final BitmapNode EMPTY_NODE = new BitmapNode(null, 0, new Object[0]);
+    private static final IMap<?, ?> EMPTY = new IMap<Object, Object>(0, EMPTY_NODE);
+
+    /**
+     * Construct an empty map.
+     * @param <K>       the key type
+     * @param <V>       the value type
+     * @return          an empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> IMap<K, V> empty() {
+        return (IMap<K, V>)EMPTY;
+    }
+
+    /**
+     * Construct a map with one entry.
+     * @param key       the key
+     * @param value     the value
+     * @param <K>       the key type
+     * @param <V>       the value type
+     * @return          the new map
+     */
+    public static <K, V> IMap<K, V> of(K key, V value) {
+        return IMap.<K, V>empty().put(key, value);
+    }
+
+    /**
+     * Construct a map from a {@link java.util.Map}.
+     * @param map       the map
+     * @param <K>       the key type
+     * @param <V>       the value type
+     * @return          the new map
+     */
+    public static <K, V> IMap<K, V> ofMap(Map<? extends K, ? extends V> map) {
+        final Builder<K, V> b = builder();
+        map.forEach(b::put);
+        return b.build();
+    }
+
+    /**
+     * Construct a map from an {@link java.lang.Iterable} collection of entries.
+     * Later entries replace earlier entries with the same key.
+     * @param entries   the entries
+     * @param <K>       the key type
+     * @param <V>       the value type
+     * @return          the new map
+     */
+    public static <K, V> IMap<K, V> ofIterable(Iterable<Tuple2<K, V>> entries) {
+        final Builder<K, V> b = builder();
+        for (Tuple2<K, V> e : entries) {
+            b.put(e._1, e._2);
+        }
+        return b.build();
+    }
+
+    /**
+     * Construct a new {@link Builder}.
+     * @param <K>       the key type
+     * @param <V>       the value type
+     * @return          the new builder
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<K, V>(IMap.<K, V>empty());
+    }
+
+    /**
+     * A {@link java.util.stream.Collector} which collects a stream into a map.
+     * Values with the same key are merged with the {@code merge} function.
+     * @param keyF      the function which extracts the key from an element
+     * @param valueF    the function which extracts the value from an element
+     * @param merge     the function which merges values with the same key
+     * @param <T>       the stream element type
+     * @param <K>       the key type
+     * @param <V>       the value type
+     * @return          the collector
+     */
+    public static <T, K, V> Collector<T, ?, IMap<K, V>> collector(
+            F<? super T, ? extends K> keyF,
+            F<? super T, ? extends V> valueF,
+            Op2<V> merge) {
+        return Collector.<T, Builder<K, V>, IMap<K, V>>of(
+                IMap::builder,
+                (b, t) -> b.merge(keyF.apply(t), valueF.apply(t), merge),
+                (l, r) -> l.mergeAll(r.build(), merge),
+                Builder::build
+        );
+    }
+
+    static int hash(Object key) {
+        final int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitPos(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Records whether an operation changed the size of the trie.
+     */
+    static final class Box {
+        boolean changed;
+    }
+
+    /**
+     * A node in the trie.
+     * The {@code edit} token identifies the {@link Builder} (if any) which may mutate the node in place.
+     * Node arrays hold key/value pairs, where a null key indicates that the value is a child node.
+     */
+    abstract static class Node {
+        final Edit edit;
+
+        Node(Edit edit) {
+            this.edit = edit;
+        }
+
+        boolean isEditable(Edit edit) {
+            return edit != null && this.edit == edit;
+        }
+
+        abstract Object[] array();
+
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node put(Edit edit, int shift, int hash, Object key, Object value, Box added);
+
+        abstract Node remove(Edit edit, int shift, int hash, Object key, Box removed);
+
+        abstract Node mapValues(F<Object, Object> f);
+    }
+
+    static final class BitmapNode extends Node {
+        int bitmap;
+        Object[] array;
+
+        BitmapNode(Edit edit, int bitmap, Object[] array) {
+            super(edit);
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object[] array() {
+            return array;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            final int bit = bitPos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            } else {
+                final int idx = index(bit);
+                final Object k = array[2 * idx];
+                final Object v = array[2 * idx + 1];
+                if (k == null) {
+                    return ((Node)v).find(shift + BITS, hash, key);
+                } else {
+                    return key.equals(k) ? v : null;
+                }
+            }
+        }
+
+        private BitmapNode set(Edit edit, int i, Object a) {
+            if (isEditable(edit)) {
+                array[i] = a;
+                return this;
+            } else {
+                final Object[] newArray = array.clone();
+                newArray[i] = a;
+                return new BitmapNode(edit, bitmap, newArray);
+            }
+        }
+
+        private BitmapNode set(Edit edit, int i, Object a, int j, Object b) {
+            if (isEditable(edit)) {
+                array[i] = a;
+                array[j] = b;
+                return this;
+            } else {
+                final Object[] newArray = array.clone();
+                newArray[i] = a;
+                newArray[j] = b;
+                return new BitmapNode(edit, bitmap, newArray);
+            }
+        }
+
+        @Override
+        Node put(Edit edit, int shift, int hash, Object key, Object value, Box added) {
+            final int bit = bitPos(hash, shift);
+            final int idx = index(bit);
+            if ((bitmap & bit) != 0) {
+                final Object k = array[2 * idx];
+                final Object v = array[2 * idx + 1];
+                if (k == null) {
+                    final Node n = ((Node)v).put(edit, shift + BITS, hash, key, value, added);
+                    return n == v ? this : set(edit, 2 * idx + 1, n);
+                } else if (key.equals(k)) {
+                    return value == v ? this : set(edit, 2 * idx + 1, value);
+                } else {
+                    added.changed = true;
+                    final Node n = createNode(edit, shift + BITS, k, v, hash, key, value);
+                    return set(edit, 2 * idx, null, 2 * idx + 1, n);
+                }
+            } else {
+                added.changed = true;
+                final int n = Integer.bitCount(bitmap);
+                final Object[] newArray = new Object[2 * (n + 1)];
+                System.arraycopy(array, 0, newArray, 0, 2 * idx);
+                newArray[2 * idx] = key;
+                newArray[2 * idx + 1] = value;
+                System.arraycopy(array, 2 * idx, newArray, 2 * (idx + 1), 2 * (n - idx));
+                if (isEditable(edit)) {
+                    array = newArray;
+                    bitmap |= bit;
+                    return this;
+                } else {
+                    return new BitmapNode(edit, bitmap | bit, newArray);
+                }
+            }
+        }
+
+        @Override
+        Node remove(Edit edit, int shift, int hash, Object key, Box removed) {
+            final int bit = bitPos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            } else {
+                final int idx = index(bit);
+                final Object k = array[2 * idx];
+                final Object v = array[2 * idx + 1];
+                if (k == null) {
+                    final Node n = ((Node)v).remove(edit, shift + BITS, hash, key, removed);
+                    if (n == v) {
+                        return this;
+                    } else if (n != null) {
+                        return set(edit, 2 * idx + 1, n);
+                    } else {
+                        return removePair(edit, bit, idx);
+                    }
+                } else if (key.equals(k)) {
+                    removed.changed = true;
+                    return removePair(edit, bit, idx);
+                } else {
+                    return this;
+                }
+            }
+        }
+
+        private Node removePair(Edit edit, int bit, int idx) {
+            if (bitmap == bit) {
+                return null;
+            } else {
+                final Object[] newArray = new Object[array.length - 2];
+                System.arraycopy(array, 0, newArray, 0, 2 * idx);
+                System.arraycopy(array, 2 * (idx + 1), newArray, 2 * idx, newArray.length - 2 * idx);
+                if (isEditable(edit)) {
+                    array = newArray;
+                    bitmap ^= bit;
+                    return this;
+                } else {
+                    return new BitmapNode(edit, bitmap ^ bit, newArray);
+                }
+            }
+        }
+
+        @Override
+        Node mapValues(F<Object, Object> f) {
+            final Object[] newArray = new Object[array.length];
+            for (int i = 0; i < array.length; i += 2) {
+                final Object k = array[i];
+                newArray[i] = k;
+                newArray[i + 1] = k == null ?
+                        ((Node)array[i + 1]).mapValues(f) :
+                        Objects.requireNonNull(f.apply(array[i + 1]));
+            }
+            return new BitmapNode(null, bitmap, newArray);
+        }
+    }
+
+    static final class CollisionNode extends Node {
+        final int hash;
+        Object[] array;
+
+        CollisionNode(Edit edit, int hash, Object[] array) {
+            super(edit);
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object[] array() {
+            return array;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            final int i = indexOf(key);
+            return i == -1 ? null : array[i + 1];
+        }
+
+        private Node withArray(Edit edit, Object[] newArray) {
+            if (isEditable(edit)) {
+                array = newArray;
+                return this;
+            } else {
+                return new CollisionNode(edit, hash, newArray);
+            }
+        }
+
+        @Override
+        Node put(Edit edit, int shift, int hash, Object key, Object value, Box added) {
+            if (hash == this.hash) {
+                final int i = indexOf(key);
+                if (i != -1) {
+                    if (array[i + 1] == value) {
+                        return this;
+                    } else {
+                        final Object[] newArray = array.clone();
+                        newArray[i + 1] = value;
+                        return withArray(edit, newArray);
+                    }
+                } else {
+                    added.changed = true;
+                    final Object[] newArray = Arrays.copyOf(array, array.length + 2);
+                    newArray[array.length] = key;
+                    newArray[array.length + 1] = value;
+                    return withArray(edit, newArray);
+                }
+            } else {
+                // Nest this node inside a bitmap node, and then add the new entry to that.
+                return new BitmapNode(edit, bitPos(this.hash, shift), new Object[]{null, this})
+                        .put(edit, shift, hash, key, value, added);
+            }
+        }
+
+        @Override
+        Node remove(Edit edit, int shift, int hash, Object key, Box removed) {
+            final int i = indexOf(key);
+            if (i == -1) {
+                return this;
+            } else {
+                removed.changed = true;
+                if (array.length == 2) {
+                    return null;
+                } else {
+                    final Object[] newArray = new Object[array.length - 2];
+                    System.arraycopy(array, 0, newArray, 0, i);
+                    System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+                    return withArray(edit, newArray);
+                }
+            }
+        }
+
+        @Override
+        Node mapValues(F<Object, Object> f) {
+            final Object[] newArray = array.clone();
+            for (int i = 1; i < newArray.length; i += 2) {
+                newArray[i] = Objects.requireNonNull(f.apply(newArray[i]));
+            }
+            return new CollisionNode(null, hash, newArray);
+        }
+    }
+
+    private static Node createNode(Edit edit, int shift, Object k1, Object v1, int h2, Object k2, Object v2) {
+        final int h1 = hash(k1);
+        if (h1 == h2) {
+            return new CollisionNode(edit, h1, new Object[]{k1, v1, k2, v2});
+        } else {
+            final Box box = new Box();
+            return EMPTY_NODE
+                    .put(edit, shift, h1, k1, v1, box)
+                    .put(edit, shift, h2, k2, v2, box);
+        }
+    }
+
+    private final int size;
+    private final Node root;
+
+    private IMap(int size, Node root) {
+        this.size = size;
+        this.root = root;
+    }
+
+    /**
+     * Create a {@link Builder} which is initialised with the entries of this map.
+     * This map is unaffected by subsequent changes to the builder.
+     * @return          the new builder
+     */
+    public Builder<K, V> toBuilder() {
+        return new Builder<K, V>(this);
+    }
+
+    /**
+     * Return true if this map is empty otherwise false
+     * @return          true if this map is empty otherwise false
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return          the number of entries in this map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return the value associated with the key, if there is one.
+     * @param key       the key
+     * @return          the value associated with the key, or {@code Optional.empty()}
+     */
+    public Optional<V> get(K key) {
+        return Optional.ofNullable(getOrNull(key));
+    }
+
+    /**
+     * Return the value associated with the key, if there is one, otherwise the default value.
+     * @param key       the key
+     * @param defValue  the default value
+     * @return          the value associated with the key, or the default value
+     */
+    public V getOrElse(K key, V defValue) {
+        final V v = getOrNull(key);
+        return v == null ? defValue : v;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V getOrNull(Object key) {
+        return (V)root.find(0, hash(key), key);
+    }
+
+    /**
+     * Return true if this map contains an entry for the key.
+     * @param key       the key
+     * @return          true if this map contains an entry for the key
+     */
+    public boolean containsKey(K key) {
+        return getOrNull(key) != null;
+    }
+
+    /**
+     * Create a new map by associating the value with the key,
+     * replacing any existing value for the key.
+     * @param key       the key
+     * @param value     the value
+     * @return          the new map
+     */
+    public IMap<K, V> put(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        final Box added = new Box();
+        final Node newRoot = root.put(null, 0, hash(key), key, value, added);
+        return newRoot == root ? this : new IMap<K, V>(added.changed ? size + 1 : size, newRoot);
+    }
+
+    /**
+     * Create a new map by removing the entry for the key, if there is one.
+     * @param key       the key
+     * @return          the new map
+     */
+    public IMap<K, V> remove(K key) {
+        final Box removed = new Box();
+        final Node newRoot = root.remove(null, 0, hash(key), key, removed);
+        if (!removed.changed) {
+            return this;
+        } else if (newRoot == null) {
+            return empty();
+        } else {
+            return new IMap<K, V>(size - 1, newRoot);
+        }
+    }
+
+    /**
+     * Create a new map by associating the value with the key.
+     * If the map already contains a value for the key then the two values are combined
+     * via the {@code merge} function.
+     * @param key       the key
+     * @param value     the value
+     * @param merge     the function which combines the existing value with the new value
+     * @return          the new map
+     */
+    public IMap<K, V> merge(K key, V value, Op2<V> merge) {
+        final V v = getOrNull(key);
+        return put(key, v == null ? value : merge.apply(v, value));
+    }
+
+    /**
+     * Create a new map by merging the entries of this map with those of another.
+     * Where both maps contain a value for a key, the values are combined via the {@code merge} function,
+     * with the value from this map as the first argument.
+     * The entries of the smaller map are added to the larger, via a {@link Builder}.
+     * @param other     the other map
+     * @param merge     the function which combines values which have the same key
+     * @return          the new map
+     */
+    public IMap<K, V> merge(IMap<K, V> other, Op2<V> merge) {
+        if (other.size == 0) {
+            return this;
+        } else if (size == 0) {
+            return other;
+        } else if (size >= other.size) {
+            return toBuilder().mergeAll(other, merge).build();
+        } else {
+            return other.toBuilder().mergeAll(this, merge.flip()).build();
+        }
+    }
+
+    /**
+     * Create a new map by adding all the entries of another map to this one,
+     * replacing any existing values.
+     * @param other     the other map
+     * @return          the new map
+     */
+    public IMap<K, V> putAll(IMap<K, V> other) {
+        return merge(other, (l, r) -> r);
+    }
+
+    /**
+     * Apply the function {@code f} to each value in this map,
+     * and store the results in a new map with the same keys.
+     * The new map has the same trie structure as this map, so no keys are rehashed.
+     * @param f         the function to be applied to each value
+     * @param <U>       the function return type
+     * @return          the new map
+     */
+    @SuppressWarnings("unchecked")
+    public <U> IMap<K, U> mapValues(F<? super V, ? extends U> f) {
+        if (size == 0) {
+            return empty();
+        } else {
+            return new IMap<K, U>(size, root.mapValues(v -> f.apply((V)v)));
+        }
+    }
+
+    /**
+     * Left-fold a function over the entries in this map.
+     * The order of the entries is unspecified.
+     * @param f         the function to be folded
+     * @param z         the initial value for the fold
+     * @param <R>       the fold result type
+     * @return          the folded result
+     */
+    public <R> R foldLeft(F3<R, K, V, R> f, R z) {
+        R r = z;
+        for (Tuple2<K, V> e : this) {
+            r = f.apply(r, e._1, e._2);
+        }
+        return r;
+    }
+
+    /**
+     * Return the set of keys in this map.
+     * @return          the set of keys
+     */
+    public ISet<K> keySet() {
+        return new ISet<K>(this);
+    }
+
+    /**
+     * Create an {@link java.util.Iterator} over the entries in this map.
+     * The order of the entries is unspecified.
+     * @return          the iterator
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<Tuple2<K, V>> iterator() {
+        return new EntryIterator<Tuple2<K, V>>(root.array(), (k, v) -> Tuple2.of((K)k, (V)v));
+    }
+
+    @SuppressWarnings("unchecked")
+    Iterator<K> keyIterator() {
+        return new EntryIterator<K>(root.array(), (k, v) -> (K)k);
+    }
+
+    /**
+     * Create a {@link java.util.Spliterator} over the entries in this map.
+     * @return          the spliterator
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Spliterator<Tuple2<K, V>> spliterator() {
+        return new EntrySpliterator<Tuple2<K, V>>(root.array(), (k, v) -> Tuple2.of((K)k, (V)v), size);
+    }
+
+    @SuppressWarnings("unchecked")
+    Spliterator<K> keySpliterator() {
+        return new EntrySpliterator<K>(root.array(), (k, v) -> (K)k, size);
+    }
+
+    /**
+     * Create a {@link java.util.stream.Stream} onto the entries in this map.
+     * @return          the new stream
+     */
+    public Stream<Tuple2<K, V>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Create a parallel {@link java.util.stream.Stream} onto the entries in this map.
+     * @return          the new stream
+     */
+    public Stream<Tuple2<K, V>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Return an unmodifiable {@link java.util.Map} view of this map.
+     * @return          the {@code Map} view
+     */
+    public Map<K, V> asMap() {
+        return new MapAdaptor<K, V>(this);
+    }
+
+    /**
+     * Map equality.
+     * @return          true if this map and rhs contain the same entries.
+     */
+    @Override
+    public boolean equals(Object rhs) {
+        if (this == rhs) {
+            return true;
+        } else if (!(rhs instanceof IMap)) {
+            return false;
+        } else {
+            final IMap<?, ?> that = (IMap<?, ?>)rhs;
+            if (size != that.size) {
+                return false;
+            } else {
+                for (Tuple2<K, V> e : this) {
+                    if (!e._2.equals(that.getOrNull(e._1))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The hash code, which is consistent with that of a {@link java.util.Map} with the same entries.
+     * @return          the hash code
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (Tuple2<K, V> e : this) {
+            hashCode += e._1.hashCode() ^ e._2.hashCode();
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("{");
+        for (Tuple2<K, V> e : this) {
+            sb.append(e._1).append('=').append(e._2).append(',');
+        }
+        if (size == 0) {
+            sb.append('}');
+        } else {
+            sb.setCharAt(sb.length() - 1, '}');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Builder for {@link IMap}s.
+     * A builder mutates its trie in place, and so is not thread-safe.
+     * Once {@link Builder#build()} has been called the builder can no longer be used.
+     * @param <K>       the key type
+     * @param <V>       the value type
+     */
+    public static final class Builder<K, V> {
+        private final Edit edit = new Edit();
+        private final Box box = new Box();
+        private int size;
+        private Node root;
+
+        Builder(IMap<K, V> m) {
+            this.size = m.size;
+            this.root = m.root;
+        }
+
+        /**
+         * Associate the value with the key, replacing any existing value for the key.
+         * @param key       the key
+         * @param value     the value
+         * @return          this builder
+         */
+        public Builder<K, V> put(K key, V value) {
+            Objects.requireNonNull(key);
+            Objects.requireNonNull(value);
+            edit.ensureActive();
+            box.changed = false;
+            root = root.put(edit, 0, hash(key), key, value, box);
+            if (box.changed) {
+                ++size;
+            }
+            return this;
+        }
+
+        /**
+         * Associate the value with the key.
+         * If the builder already contains a value for the key then the two values are combined
+         * via the {@code merge} function.
+         * @param key       the key
+         * @param value     the value
+         * @param merge     the function which combines the existing value with the new value
+         * @return          this builder
+         */
+        @SuppressWarnings("unchecked")
+        public Builder<K, V> merge(K key, V value, Op2<V> merge) {
+            final V v = (V)root.find(0, hash(key), key);
+            return put(key, v == null ? value : merge.apply(v, value));
+        }
+
+        /**
+         * Merge the entries of a map into this builder.
+         * @param other     the map
+         * @param merge     the function which combines the existing value with the new value
+         * @return          this builder
+         */
+        public Builder<K, V> mergeAll(IMap<K, V> other, Op2<V> merge) {
+            for (Tuple2<K, V> e : other) {
+                merge(e._1, e._2, merge);
+            }
+            return this;
+        }
+
+        /**
+         * Remove the entry for the key, if there is one.
+         * @param key       the key
+         * @return          this builder
+         */
+        public Builder<K, V> remove(K key) {
+            edit.ensureActive();
+            box.changed = false;
+            final Node newRoot = root.remove(edit, 0, hash(key), key, box);
+            root = newRoot == null ? EMPTY_NODE : newRoot;
+            if (box.changed) {
+                --size;
+            }
+            return this;
+        }
+
+        /**
+         * @return          the number of entries added so far
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Construct the map.
+         * @return          the new map
+         */
+        public IMap<K, V> build() {
+            edit.ensureActive();
+            edit.active = false;
+            return size == 0 ? empty() : new IMap<K, V>(size, root);
+        }
+    }
+
+    /**
+     * Iterates over the entries in a subtree, depth-first.
+     */
+    static final class EntryIterator<T> implements Iterator<T> {
+        // The trie is at most 7 levels deep, plus a level for collision nodes.
+        private final Object[][] arrays = new Object[8][];
+        private final int[] indices = new int[8];
+        private final F2<Object, Object, T> f;
+        private int depth;
+        private T next;
+
+        EntryIterator(Object[] array, F2<Object, Object, T> f) {
+            this.arrays[0] = array;
+            this.f = f;
+            this.next = advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private T advance() {
+            while (depth >= 0) {
+                final Object[] array = arrays[depth];
+                final int i = indices[depth];
+                if (i >= array.length) {
+                    --depth;
+                } else {
+                    indices[depth] = i + 2;
+                    final Object k = array[i];
+                    if (k == null) {
+                        ++depth;
+                        arrays[depth] = ((Node)array[i + 1]).array();
+                        indices[depth] = 0;
+                    } else {
+                        return f.apply(k, array[i + 1]);
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            } else {
+                final T t = next;
+                next = advance();
+                return t;
+            }
+        }
+    }
+
+    /**
+     * Splits over the slots of a node array, descending into a child node
+     * when only one slot remains.
+     */
+    static final class EntrySpliterator<T> implements Spliterator<T> {
+        private Object[] array;
+        private int index;
+        private int end;
+        private final F2<Object, Object, T> f;
+        private long est;
+        private boolean sized;
+        private Iterator<T> current;
+
+        EntrySpliterator(Object[] array, F2<Object, Object, T> f, long size) {
+            this(array, 0, array.length, f, size, true);
+        }
+
+        private EntrySpliterator(Object[] array, int index, int end, F2<Object, Object, T> f, long est, boolean sized) {
+            this.array = array;
+            this.index = index;
+            this.end = end;
+            this.f = f;
+            this.est = est;
+            this.sized = sized;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (true) {
+                if (current != null) {
+                    if (current.hasNext()) {
+                        action.accept(current.next());
+                        return true;
+                    } else {
+                        current = null;
+                    }
+                }
+                if (index >= end) {
+                    return false;
+                } else {
+                    final Object k = array[index];
+                    final Object v = array[index + 1];
+                    index += 2;
+                    if (k == null) {
+                        current = new EntryIterator<T>(((Node)v).array(), f);
+                    } else {
+                        action.accept(f.apply(k, v));
+                        return true;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (current != null) {
+                return null;
+            }
+            // Descend through single-slot nodes.
+            while (end - index == 2 && array[index] == null) {
+                array = ((Node)array[index + 1]).array();
+                index = 0;
+                end = array.length;
+            }
+            final int slots = (end - index) / 2;
+            if (slots < 2) {
+                return null;
+            } else {
+                final int mid = index + 2 * (slots / 2);
+                final Spliterator<T> prefix = new EntrySpliterator<T>(array, index, mid, f, est / 2, false);
+                index = mid;
+                est -= est / 2;
+                sized = false;
+                return prefix;
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return est;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.IMMUTABLE |
+                    Spliterator.DISTINCT |
+                    Spliterator.NONNULL |
+                    (sized ? Spliterator.SIZED : 0);
+        }
+    }
+
+    private static class MapAdaptor<K, V> extends AbstractMap<K, V> {
+        private final IMap<K, V> impl;
+
+        MapAdaptor(IMap<K, V> impl) {
+            this.impl = impl;
+        }
+
+        @Override
+        public int size() {
+            return impl.size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key != null && impl.getOrNull(key) != null;
+        }
+
+        @Override
+        public V get(Object key) {
+            return key == null ? null : impl.getOrNull(key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Set<Entry<K, V>> entrySet() {
+            return new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new EntryIterator<Entry<K, V>>(
+                            impl.root.array(),
+                            (k, v) -> new SimpleImmutableEntry<K, V>((K)k, (V)v));
+                }
+
+                @Override
+                public int size() {
+                    return impl.size;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package org.typemeta.funcj.data;
+
+import org.typemeta.funcj.functions.Functions.*;
+
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Immutable set, implemented as a hash array mapped trie (HAMT).
+ * <p>
+ * An {@code ISet} is a view onto the keys of an {@link IMap},
+ * and so shares its performance characteristics.
+ * Null elements are not allowed.
+ * @param <T>       the element type
+ */
+public final class ISet<T> implements Iterable<T> {
+
+    private static final ISet<?> EMPTY = new ISet<Object>(IMap.empty());
+
+    /**
+     * Construct an empty set.
+     * @param <T>       the element type
+     * @return          an empty set
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ISet<T> empty() {
+        return (ISet<T>)EMPTY;
+    }
+
+    /**
+     * Construct a set with one element.
+     * @param elem      element
+     * @param <T>       element type
+     * @return          the new set
+     */
+    public static <T> ISet<T> of(T elem) {
+        return ISet.<T>empty().add(elem);
+    }
+
+    /**
+     * Construct a set with one or more elements.
+     * @param elem      the first element
+     * @param elems     the remaining elements
+     * @param <T>       the element type
+     * @return          the new set
+     */
+    @SafeVarargs
+    public static <T> ISet<T> of(T elem, T... elems) {
+        final Builder<T> b = ISet.<T>builder().add(elem);
+        for (T t : elems) {
+            b.add(t);
+        }
+        return b.build();
+    }
+
+    /**
+     * Construct a set from an {@link java.lang.Iterable} collection of elements.
+     * @param elems     the iterable collection of elements
+     * @param <T>       the element type
+     * @return          the new set
+     */
+    public static <T> ISet<T> ofIterable(Iterable<? extends T> elems) {
+        return ISet.<T>builder().addAll(elems).build();
+    }
+
+    /**
+     * Construct a new {@link Builder}.
+     * @param <T>       the element type
+     * @return          the new builder
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<T>(IMap.builder());
+    }
+
+    /**
+     * A {@link java.util.stream.Collector} which collects a stream into a set.
+     * @param <T>       the element type
+     * @return          the collector
+     */
+    public static <T> Collector<T, ?, ISet<T>> collector() {
+        return Collector.<T, Builder<T>, ISet<T>>of(
+                ISet::builder,
+                Builder::add,
+                (l, r) -> l.addAll(r.build()),
+                Builder::build,
+                Collector.Characteristics.UNORDERED
+        );
+    }
+
+    private final IMap<T, Object> map;
+
+    @SuppressWarnings("unchecked")
+    ISet(IMap<T, ?> map) {
+        this.map = (IMap<T, Object>)map;
+    }
+
+    /**
+     * Create a {@link Builder} which is initialised with the elements of this set.
+     * This set is unaffected by subsequent changes to the builder.
+     * @return          the new builder
+     */
+    public Builder<T> toBuilder() {
+        return new Builder<T>(map.toBuilder());
+    }
+
+    /**
+     * Return true if this set is empty otherwise false
+     * @return          true if this set is empty otherwise false
+     */
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    /**
+     * @return          the number of elements in this set.
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Return true if this set contains the element.
+     * @param elem      the element
+     * @return          true if this set contains the element
+     */
+    public boolean contains(T elem) {
+        return map.containsKey(elem);
+    }
+
+    /**
+     * Create a new set by adding an element to this set.
+     * @param elem      the element
+     * @return          the new set
+     */
+    public ISet<T> add(T elem) {
+        if (map.containsKey(elem)) {
+            return this;
+        } else {
+            return new ISet<T>(map.put(elem, Unit.UNIT));
+        }
+    }
+
+    /**
+     * Create a new set by removing an element from this set.
+     * @param elem      the element
+     * @return          the new set
+     */
+    public ISet<T> remove(T elem) {
+        final IMap<T, Object> newMap = map.remove(elem);
+        return newMap == map ? this : new ISet<T>(newMap);
+    }
+
+    /**
+     * Create a new set which contains the elements of this set and those of another.
+     * The elements of the smaller set are added to the larger, via a {@link Builder}.
+     * @param other     the other set
+     * @return          the new set
+     */
+    public ISet<T> union(ISet<T> other) {
+        if (other.isEmpty()) {
+            return this;
+        } else if (isEmpty()) {
+            return other;
+        } else if (size() >= other.size()) {
+            return toBuilder().addAll(other).build();
+        } else {
+            return other.toBuilder().addAll(this).build();
+        }
+    }
+
+    /**
+     * Create a new set which contains the elements which are in both this set and another.
+     * @param other     the other set
+     * @return          the new set
+     */
+    public ISet<T> intersection(ISet<T> other) {
+        final ISet<T> small = size() <= other.size() ? this : other;
+        final ISet<T> large = small == this ? other : this;
+        final Builder<T> b = builder();
+        for (T t : small) {
+            if (large.contains(t)) {
+                b.add(t);
+            }
+        }
+        return b.size() == small.size() ? small : b.build();
+    }
+
+    /**
+     * Create a new set which contains the elements of this set which are not in another.
+     * @param other     the other set
+     * @return          the new set
+     */
+    public ISet<T> difference(ISet<T> other) {
+        if (other.size() < size()) {
+            final Builder<T> b = toBuilder();
+            for (T t : other) {
+                b.remove(t);
+            }
+            return b.size() == size() ? this : b.build();
+        } else {
+            return filter(t -> !other.contains(t));
+        }
+    }
+
+    /**
+     * Create a new set which contains the elements of this set that satisfy the predicate.
+     * @param pred      the predicate
+     * @return          the new set
+     */
+    public ISet<T> filter(Predicate<? super T> pred) {
+        final Builder<T> b = builder();
+        for (T t : this) {
+            if (pred.test(t)) {
+                b.add(t);
+            }
+        }
+        return b.size() == size() ? this : b.build();
+    }
+
+    /**
+     * Apply the function {@code f} to each element in this set,
+     * and store the results in a new set.
+     * @param f         the function to be applied to each element
+     * @param <U>       the function return type
+     * @return          the new set
+     */
+    public <U> ISet<U> map(F<? super T, ? extends U> f) {
+        final Builder<U> b = builder();
+        for (T t : this) {
+            b.add(f.apply(t));
+        }
+        return b.build();
+    }
+
+    /**
+     * Left-fold a function over the elements in this set.
+     * The order of the elements is unspecified.
+     * @param f         the function to be folded
+     * @param z         the initial value for the fold
+     * @param <R>       the fold result type
+     * @return          the folded result
+     */
+    public <R> R foldLeft(F2<R, T, R> f, R z) {
+        R r = z;
+        for (T t : this) {
+            r = f.apply(r, t);
+        }
+        return r;
+    }
+
+    /**
+     * Create an {@link java.util.Iterator} over the elements in this set.
+     * The order of the elements is unspecified.
+     * @return          the iterator
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return map.keyIterator();
+    }
+
+    /**
+     * Create a {@link java.util.Spliterator} over the elements in this set.
+     * @return          the spliterator
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return map.keySpliterator();
+    }
+
+    /**
+     * Create a {@link java.util.stream.Stream} onto the elements in this set.
+     * @return          the new stream
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Create a parallel {@link java.util.stream.Stream} onto the elements in this set.
+     * @return          the new stream
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Return an unmodifiable {@link java.util.Set} view of this set.
+     * @return          the {@code Set} view
+     */
+    public Set<T> asSet() {
+        return map.asMap().keySet();
+    }
+
+    /**
+     * Set equality.
+     * @return          true if this set and rhs contain the same elements.
+     */
+    @Override
+    public boolean equals(Object rhs) {
+        if (this == rhs) {
+            return true;
+        } else if (!(rhs instanceof ISet)) {
+            return false;
+        } else {
+            @SuppressWarnings("unchecked")
+            final ISet<T> that = (ISet<T>)rhs;
+            if (size() != that.size()) {
+                return false;
+            } else {
+                for (T t : this) {
+                    if (!that.contains(t)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The hash code, which is consistent with that of a {@link java.util.Set} with the same elements.
+     * @return          the hash code
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (T t : this) {
+            hashCode += t.hashCode();
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("{");
+        for (T t : this) {
+            sb.append(t).append(',');
+        }
+        if (isEmpty()) {
+            sb.append('}');
+        } else {
+            sb.setCharAt(sb.length() - 1, '}');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Builder for {@link ISet}s.
+     * A builder mutates its trie in place, and so is not thread-safe.
+     * Once {@link Builder#build()} has been called the builder can no longer be used.
+     * @param <T>       the element type
+     */
+    public static final class Builder<T> {
+        private final IMap.Builder<T, Object> impl;
+
+        Builder(IMap.Builder<T, Object> impl) {
+            this.impl = impl;
+        }
+
+        /**
+         * Add an element.
+         * @param elem      the element
+         * @return          this builder
+         */
+        public Builder<T> add(T elem) {
+            impl.put(elem, Unit.UNIT);
+            return this;
+        }
+
+        /**
+         * Add multiple elements.
+         * @param elems     the elements
+         * @return          this builder
+         */
+        public Builder<T> addAll(Iterable<? extends T> elems) {
+            for (T elem : elems) {
+                add(elem);
+            }
+            return this;
+        }
+
+        /**
+         * Remove an element.
+         * @param elem      the element
+         * @return          this builder
+         */
+        public Builder<T> remove(T elem) {
+            impl.remove(elem);
+            return this;
+        }
+
+        /**
+         * @return          the number of elements added so far
+         */
+        public int size() {
+            return impl.size();
+        }
+
+        /**
+         * Construct the set.
+         * @return          the new set
+         */
+        public ISet<T> build() {
+            final IMap<T, Object> m = impl.build();
+            return m.isEmpty() ? empty() : new ISet<T>(m);
+        }
+    }
+}
@@ -0,0 +1,886 @@
+package org.typemeta.funcj.data;
+
+import org.typemeta.funcj.functions.Functions.*;
+import org.typemeta.funcj.tuples.Tuple2;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.*;
+
+/**
+ * Immutable sorted map, implemented as a persistent red-black tree.
+ * <p>
+ * The entries are ordered by key, according to the map's {@link Comparator}
+ * (or the natural ordering of the keys).
+ * Lookups, insertions and removals are O(log n),
+ * and updated maps share all but the modified path with the maps they were derived from.
+ * Insertion follows Okasaki's balancing scheme and removal follows Kahrs'.
+ * <p>
+ * Each node also caches the size of the subtree it roots, so {@link ITreeMap#size()} is O(1),
+ * {@link ITreeMap#rank(Object)} is O(log n),
+ * and the spliterators split exactly, at the midpoint of their range of entries, in O(log n).
+ * Maps can be built from sorted input in O(n) via {@link ITreeMap#ofSorted(Comparator, Iterable)}.
+ * Null keys and values are not allowed.
+ * @param <K>       the key type
+ * @param <V>       the value type
+ */
+public final class ITreeMap<K, V> implements Iterable<Tuple2<K, V>> {
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final ITreeMap<?, ?> EMPTY = new ITreeMap<Object, Object>((Comparator)Comparator.naturalOrder(), null);
+
+    /**
+     * Construct an empty map, ordered by the natural ordering of the keys.
+     * @param <K>       the key type
+     * @param <V>       the value type
+     * @return          an empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> ITreeMap<K, V> empty() {
+        return (ITreeMap<K, V>)EMPTY;
+    }
+
+    /**
+     * Construct an empty map, ordered by the given comparator.
+     * @param cmp       the key comparator
+     * @param <K>       the key type
+     * @param <V>       the value type
+     * @return          an empty map
+     */
+    public static <K, V> ITreeMap<K, V> empty(Comparator<? super K> cmp) {
+        return new ITreeMap<K, V>(cmp, null);
+    }
+
+    /**
+     * Construct a map with one entry.
+     * @param key       the key
+     * @param value     the value
+     * @param <K>       the key type
+     * @param <V>       the value type
+     * @return          the new map
+     */
+    public static <K, V> ITreeMap<K, V> of(K key, V value) {
+        return ITreeMap.<K, V>empty().put(key, value);
+    }
+
+    /**
+     * Construct a map, ordered by the natural ordering of the keys,
+     * from an {@link java.lang.Iterable} collection of entries.
+     * Later entries replace earlier entries with the same key.
+     * @param entries   the entries
+     * @param <K>       the key type
+     * @param <V>       the value type
+     * @return          the new map
+     */
+    public static <K, V> ITreeMap<K, V> ofIterable(Iterable<Tuple2<K, V>> entries) {
+        ITreeMap<K, V> m = empty();
+        for (Tuple2<K, V> e : entries) {
+            m = m.put(e._1, e._2);
+        }
+        return m;
+    }
+
+    /**
+     * Construct a map, ordered by the natural ordering of the keys,
+     * from entries which are already sorted by key.
+     * @param entries   the entries, in strictly ascending order of key
+     * @param <K>       the key type
+     * @param <V>       the value type
+     * @return          the new map
+     * @throws          IllegalArgumentException if the keys are not in strictly ascending order
+     * @see             ITreeMap#ofSorted(Comparator, Iterable)
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> ITreeMap<K, V> ofSorted(Iterable<Tuple2<K, V>> entries) {
+        return ofSorted((Comparator<? super K>)Comparator.naturalOrder(), entries);
+    }
+
+    /**
+     * Construct a map from entries which are already sorted by key, in O(n).
+     * The tree is built perfectly balanced, without any comparisons beyond those which check the order.
+     * @param cmp       the key comparator
+     * @param entries   the entries, in strictly ascending order of key
+     * @param <K>       the key type
+     * @param <V>       the value type
+     * @return          the new map
+     * @throws          IllegalArgumentException if the keys are not in strictly ascending order
+     */
+    public static <K, V> ITreeMap<K, V> ofSorted(Comparator<? super K> cmp, Iterable<Tuple2<K, V>> entries) {
+        final List<Object> kvs = new ArrayList<>();
+        K prev = null;
+        for (Tuple2<K, V> e : entries) {
+            final K k = Objects.requireNonNull(e._1);
+            if (prev != null && cmp.compare(prev, k) >= 0) {
+                throw new IllegalArgumentException("Keys are not in strictly ascending order: " + prev + ", " + k);
+            }
+            kvs.add(k);
+            kvs.add(Objects.requireNonNull(e._2));
+            prev = k;
+        }
+        return new ITreeMap<K, V>(cmp, ofSortedArray(kvs.toArray(), kvs.size() / 2));
+    }
+
+    /**
+     * Build a balanced tree from the first {@code n} key/value pairs of an array,
+     * with the keys and values in alternate slots.
+     */
+    static Node ofSortedArray(Object[] kvs, int n) {
+        return n == 0 ? null : build(kvs, 0, n, 0, redDepth(n));
+    }
+
+    /**
+     * Nodes below this depth are coloured red,
+     * which is the depth of the last, and possibly incomplete, level of a balanced tree of size {@code n}.
+     */
+    private static int redDepth(int n) {
+        return 31 - Integer.numberOfLeadingZeros(n + 1);
+    }
+
+    private static Node build(Object[] kvs, int lo, int hi, int depth, int redDepth) {
+        if (lo == hi) {
+            return null;
+        } else {
+            final int mid = (lo + hi) >>> 1;
+            return new Node(
+                    depth == redDepth,
+                    build(kvs, lo, mid, depth + 1, redDepth),
+                    kvs[2 * mid],
+                    kvs[2 * mid + 1],
+                    build(kvs, mid + 1, hi, depth + 1, redDepth));
+        }
+    }
+
+    /**
+     * A tree node.
+     * The key and value types are erased so that nodes can be shared by {@link ITreeSet}.
+     */
+    static final class Node {
+        final boolean red;
+        final Node left;
+        final Object key;
+        final Object value;
+        final Node right;
+        final int size;
+
+        Node(boolean red, Node left, Object key, Object value, Node right) {
+            this.red = red;
+            this.left = left;
+            this.key = key;
+            this.value = value;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+        }
+
+        Node blacken() {
+            return red ? new Node(false, left, key, value, right) : this;
+        }
+
+        Node redden() {
+            return red ? this : new Node(true, left, key, value, right);
+        }
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static boolean isRed(Node n) {
+        return n != null && n.red;
+    }
+
+    private static boolean isBlack(Node n) {
+        return n != null && !n.red;
+    }
+
+    private static Node red(Node l, Object k, Object v, Node r) {
+        return new Node(true, l, k, v, r);
+    }
+
+    private static Node black(Node l, Object k, Object v, Node r) {
+        return new Node(false, l, k, v, r);
+    }
+
+    /**
+     * Construct a black node, rebalancing any red-red violation one level below it.
+     */
+    private static Node balance(Node l, Object k, Object v, Node r) {
+        if (isRed(l) && isRed(r)) {
+            return red(l.blacken(), k, v, r.blacken());
+        } else if (isRed(l) && isRed(l.left)) {
+            return red(l.left.blacken(), l.key, l.value, black(l.right, k, v, r));
+        } else if (isRed(l) && isRed(l.right)) {
+            return red(
+                    black(l.left, l.key, l.value, l.right.left),
+                    l.right.key, l.right.value,
+                    black(l.right.right, k, v, r));
+        } else if (isRed(r) && isRed(r.right)) {
+            return red(black(l, k, v, r.left), r.key, r.value, r.right.blacken());
+        } else if (isRed(r) && isRed(r.left)) {
+            return red(
+                    black(l, k, v, r.left.left),
+                    r.left.key, r.left.value,
+                    black(r.left.right, r.key, r.value, r.right));
+        } else {
+            return black(l, k, v, r);
+        }
+    }
+
+    /**
+     * Rebalance after the black height of the left subtree has decreased by one.
+     */
+    private static Node balLeft(Node l, Object k, Object v, Node r) {
+        if (isRed(l)) {
+            return red(l.blacken(), k, v, r);
+        } else if (isBlack(r)) {
+            return balance(l, k, v, r.redden());
+        } else if (isRed(r) && isBlack(r.left)) {
+            return red(
+                    black(l, k, v, r.left.left),
+                    r.left.key, r.left.value,
+                    balance(r.left.right, r.key, r.value, r.right.redden()));
+        } else {
+            throw new IllegalStateException("Red-black tree invariant violated");
+        }
+    }
+
+    /**
+     * Rebalance after the black height of the right subtree has decreased by one.
+     */
+    private static Node balRight(Node l, Object k, Object v, Node r) {
+        if (isRed(r)) {
+            return red(l, k, v, r.blacken());
+        } else if (isBlack(l)) {
+            return balance(l.redden(), k, v, r);
+        } else if (isRed(l) && isBlack(l.right)) {
+            return red(
+                    balance(l.left.redden(), l.key, l.value, l.right.left),
+                    l.right.key, l.right.value,
+                    black(l.right.right, k, v, r));
+        } else {
+            throw new IllegalStateException("Red-black tree invariant violated");
+        }
+    }
+
+    /**
+     * Join two trees of equal black height, all of whose keys in {@code l} precede those in {@code r}.
+     */
+    private static Node append(Node l, Node r) {
+        if (l == null) {
+            return r;
+        } else if (r == null) {
+            return l;
+        } else if (l.red && r.red) {
+            final Node lr = append(l.right, r.left);
+            if (isRed(lr)) {
+                return red(red(l.left, l.key, l.value, lr.left), lr.key, lr.value, red(lr.right, r.key, r.value, r.right));
+            } else {
+                return red(l.left, l.key, l.value, red(lr, r.key, r.value, r.right));
+            }
+        } else if (!l.red && !r.red) {
+            final Node lr = append(l.right, r.left);
+            if (isRed(lr)) {
+                return red(black(l.left, l.key, l.value, lr.left), lr.key, lr.value, black(lr.right, r.key, r.value, r.right));
+            } else {
+                return balLeft(l.left, l.key, l.value, black(lr, r.key, r.value, r.right));
+            }
+        } else if (r.red) {
+            return red(append(l, r.left), r.key, r.value, r.right);
+        } else {
+            return red(l.left, l.key, l.value, append(l.right, r));
+        }
+    }
+
+    private final Comparator<Object> cmp;
+    private final Node root;
+
+    @SuppressWarnings("unchecked")
+    ITreeMap(Comparator<? super K> cmp, Node root) {
+        this.cmp = (Comparator<Object>)cmp;
+        this.root = root;
+    }
+
+    private ITreeMap<K, V> withRoot(Node newRoot) {
+        if (newRoot == root) {
+            return this;
+        } else if (newRoot == null && cmp == EMPTY.cmp) {
+            return empty();
+        } else {
+            return new ITreeMap<K, V>(cmp, newRoot);
+        }
+    }
+
+    /**
+     * @return          the comparator which orders the keys of this map
+     */
+    @SuppressWarnings("unchecked")
+    public Comparator<? super K> comparator() {
+        return (Comparator<? super K>)cmp;
+    }
+
+    /**
+     * Return true if this map is empty otherwise false
+     * @return          true if this map is empty otherwise false
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * @return          the number of entries in this map.
+     */
+    public int size() {
+        return size(root);
+    }
+
+    Node findNode(Object key) {
+        Node n = root;
+        while (n != null) {
+            final int c = cmp.compare(key, n.key);
+            if (c < 0) {
+                n = n.left;
+            } else if (c > 0) {
+                n = n.right;
+            } else {
+                return n;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return the value associated with the key, if there is one.
+     * @param key       the key
+     * @return          the value associated with the key, or {@code Optional.empty()}
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<V> get(K key) {
+        final Node n = findNode(key);
+        return n == null ? Optional.empty() : Optional.of((V)n.value);
+    }
+
+    /**
+     * Return the value associated with the key, if there is one, otherwise the default value.
+     * @param key       the key
+     * @param defValue  the default value
+     * @return          the value associated with the key, or the default value
+     */
+    @SuppressWarnings("unchecked")
+    public V getOrElse(K key, V defValue) {
+        final Node n = findNode(key);
+        return n == null ? defValue : (V)n.value;
+    }
+
+    /**
+     * Return true if this map contains an entry for the key.
+     * @param key       the key
+     * @return          true if this map contains an entry for the key
+     */
+    public boolean containsKey(K key) {
+        return findNode(key) != null;
+    }
+
+    /**
+     * Create a new map by associating the value with the key,
+     * replacing any existing value for the key.
+     * @param key       the key
+     * @param value     the value
+     * @return          the new map
+     */
+    public ITreeMap<K, V> put(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        final Node newRoot = insert(root, key, value);
+        return newRoot == root ? this : new ITreeMap<K, V>(comparator(), newRoot.blacken());
+    }
+
+    private Node insert(Node n, Object key, Object value) {
+        if (n == null) {
+            return red(null, key, value, null);
+        } else {
+            final int c = cmp.compare(key, n.key);
+            if (c < 0) {
+                final Node l = insert(n.left, key, value);
+                return l == n.left ? n : n.red ? red(l, n.key, n.value, n.right) : balance(l, n.key, n.value, n.right);
+            } else if (c > 0) {
+                final Node r = insert(n.right, key, value);
+                return r == n.right ? n : n.red ? red(n.left, n.key, n.value, r) : balance(n.left, n.key, n.value, r);
+            } else if (value == n.value) {
+                return n;
+            } else {
+                return new Node(n.red, n.left, n.key, value, n.right);
+            }
+        }
+    }
+
+    /**
+     * Create a new map by removing the entry for the key, if there is one.
+     * @param key       the key
+     * @return          the new map
+     */
+    public ITreeMap<K, V> remove(K key) {
+        if (findNode(key) == null) {
+            return this;
+        } else {
+            final Node newRoot = delete(root, key);
+            return withRoot(newRoot == null ? null : newRoot.blacken());
+        }
+    }
+
+    /**
+     * Delete a key which is known to be present in the tree rooted at {@code n}.
+     */
+    private Node delete(Node n, Object key) {
+        final int c = cmp.compare(key, n.key);
+        if (c < 0) {
+            final Node l = delete(n.left, key);
+            return isBlack(n.left) ? balLeft(l, n.key, n.value, n.right) : red(l, n.key, n.value, n.right);
+        } else if (c > 0) {
+            final Node r = delete(n.right, key);
+            return isBlack(n.right) ? balRight(n.left, n.key, n.value, r) : red(n.left, n.key, n.value, r);
+        } else {
+            return append(n.left, n.right);
+        }
+    }
+
+    /**
+     * Create a new map by associating the value with the key.
+     * If the map already contains a value for the key then the two values are combined
+     * via the {@code merge} function.
+     * @param key       the key
+     * @param value     the value
+     * @param merge     the function which combines the existing value with the new value
+     * @return          the new map
+     */
+    @SuppressWarnings("unchecked")
+    public ITreeMap<K, V> merge(K key, V value, Op2<V> merge) {
+        final Node n = findNode(key);
+        return put(key, n == null ? value : merge.apply((V)n.value, value));
+    }
+
+    /**
+     * Return the entry with the least key, if this map is non-empty.
+     * @return          the first entry, or {@code Optional.empty()}
+     */
+    public Optional<Tuple2<K, V>> min() {
+        if (root == null) {
+            return Optional.empty();
+        } else {
+            Node n = root;
+            while (n.left != null) {
+                n = n.left;
+            }
+            return Optional.of(entry(n));
+        }
+    }
+
+    /**
+     * Return the entry with the greatest key, if this map is non-empty.
+     * @return          the last entry, or {@code Optional.empty()}
+     */
+    public Optional<Tuple2<K, V>> max() {
+        if (root == null) {
+            return Optional.empty();
+        } else {
+            Node n = root;
+            while (n.right != null) {
+                n = n.right;
+            }
+            return Optional.of(entry(n));
+        }
+    }
+
+    /**
+     * Create a new map by removing the entry with the least key.
+     * @return          the new map
+     */
+    public ITreeMap<K, V> removeMin() {
+        return min().map(e -> remove(e._1)).orElse(this);
+    }
+
+    /**
+     * Return the entry with the greatest key which is less than or equal to the given key, if there is one.
+     * @param key       the key
+     * @return          the entry, or {@code Optional.empty()}
+     */
+    public Optional<Tuple2<K, V>> floor(K key) {
+        Node n = root;
+        Node r = null;
+        while (n != null) {
+            final int c = cmp.compare(key, n.key);
+            if (c < 0) {
+                n = n.left;
+            } else if (c > 0) {
+                r = n;
+                n = n.right;
+            } else {
+                return Optional.of(entry(n));
+            }
+        }
+        return r == null ? Optional.empty() : Optional.of(entry(r));
+    }
+
+    /**
+     * Return the entry with the least key which is greater than or equal to the given key, if there is one.
+     * @param key       the key
+     * @return          the entry, or {@code Optional.empty()}
+     */
+    public Optional<Tuple2<K, V>> ceiling(K key) {
+        Node n = root;
+        Node r = null;
+        while (n != null) {
+            final int c = cmp.compare(key, n.key);
+            if (c < 0) {
+                r = n;
+                n = n.left;
+            } else if (c > 0) {
+                n = n.right;
+            } else {
+                return Optional.of(entry(n));
+            }
+        }
+        return r == null ? Optional.empty() : Optional.of(entry(r));
+    }
+
+    /**
+     * Return the number of keys in this map which are less than the given key.
+     * @param key       the key
+     * @return          the number of lesser keys
+     */
+    public int rank(K key) {
+        Node n = root;
+        int r = 0;
+        while (n != null) {
+            final int c = cmp.compare(key, n.key);
+            if (c < 0) {
+                n = n.left;
+            } else if (c > 0) {
+                r += size(n.left) + 1;
+                n = n.right;
+            } else {
+                return r + size(n.left);
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Create a new map containing the entries whose keys are greater than or equal to {@code from}
+     * and less than {@code to}.
+     * The range is located in O(log n), and the new map is built in time linear in the size of the range.
+     * @param from      the inclusive lower bound
+     * @param to        the exclusive upper bound
+     * @return          the new map
+     */
+    public ITreeMap<K, V> range(K from, K to) {
+        final int lo = rank(from);
+        final int hi = Math.max(lo, rank(to));
+        if (lo == 0 && hi == size()) {
+            return this;
+        } else {
+            final Object[] kvs = new Object[2 * (hi - lo)];
+            final Cursor cur = new Cursor(root, lo);
+            for (int i = 0; i < hi - lo; ++i) {
+                final Node n = cur.next();
+                kvs[2 * i] = n.key;
+                kvs[2 * i + 1] = n.value;
+            }
+            return withRoot(ofSortedArray(kvs, hi - lo));
+        }
+    }
+
+    /**
+     * Apply the function {@code f} to each value in this map,
+     * and store the results in a new map with the same keys.
+     * The new map has the same tree structure as this map, so no keys are compared.
+     * @param f         the function to be applied to each value
+     * @param <U>       the function return type
+     * @return          the new map
+     */
+    public <U> ITreeMap<K, U> mapValues(F<? super V, ? extends U> f) {
+        return new ITreeMap<K, U>(comparator(), mapValues(root, f));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V, U> Node mapValues(Node n, F<? super V, ? extends U> f) {
+        if (n == null) {
+            return null;
+        } else {
+            return new Node(n.red, mapValues(n.left, f), n.key, f.apply((V)n.value), mapValues(n.right, f));
+        }
+    }
+
+    /**
+     * Left-fold a function over the entries in this map, in key order.
+     * @param f         the function to be folded
+     * @param z         the initial value for the fold
+     * @param <R>       the fold result type
+     * @return          the folded result
+     */
+    public <R> R foldLeft(F3<R, K, V, R> f, R z) {
+        R r = z;
+        for (Tuple2<K, V> e : this) {
+            r = f.apply(r, e._1, e._2);
+        }
+        return r;
+    }
+
+    /**
+     * Return the set of keys in this map.
+     * @return          the set of keys
+     */
+    public ITreeSet<K> keySet() {
+        return new ITreeSet<K>(this);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Tuple2<K, V> entry(Node n) {
+        return Tuple2.of((K)n.key, (V)n.value);
+    }
+
+    /**
+     * Create an {@link java.util.Iterator} over the entries in this map, in key order.
+     * @return          the iterator
+     */
+    @Override
+    public Iterator<Tuple2<K, V>> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Create a {@link java.util.Spliterator} over the entries in this map, in key order.
+     * @return          the spliterator
+     */
+    @Override
+    public Spliterator<Tuple2<K, V>> spliterator() {
+        return new NodeSpliterator<Tuple2<K, V>>(root, 0, size(), this::entry, 0, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    Spliterator<K> keySpliterator() {
+        final Comparator<Object> spCmp = cmp == EMPTY.cmp ? null : cmp;
+        return new NodeSpliterator<K>(root, 0, size(), n -> (K)n.key, Spliterator.SORTED, spCmp);
+    }
+
+    /**
+     * Create a {@link java.util.stream.Stream} onto the entries in this map, in key order.
+     * @return          the new stream
+     */
+    public Stream<Tuple2<K, V>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Create a parallel {@link java.util.stream.Stream} onto the entries in this map.
+     * @return          the new stream
+     */
+    public Stream<Tuple2<K, V>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Map equality.
+     * @return          true if this map and rhs contain the same entries.
+     */
+    @Override
+    public boolean equals(Object rhs) {
+        if (this == rhs) {
+            return true;
+        } else if (!(rhs instanceof ITreeMap)) {
+            return false;
+        } else {
+            @SuppressWarnings("unchecked")
+            final ITreeMap<K, V> that = (ITreeMap<K, V>)rhs;
+            if (size() != that.size()) {
+                return false;
+            } else {
+                for (Tuple2<K, V> e : this) {
+                    final Node n = that.findNode(e._1);
+                    if (n == null || !e._2.equals(n.value)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The hash code, which is consistent with that of a {@link java.util.Map} with the same entries.
+     * @return          the hash code
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (Tuple2<K, V> e : this) {
+            hashCode += e._1.hashCode() ^ e._2.hashCode();
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("{");
+        for (Tuple2<K, V> e : this) {
+            sb.append(e._1).append('=').append(e._2).append(',');
+        }
+        if (isEmpty()) {
+            sb.append('}');
+        } else {
+            sb.setCharAt(sb.length() - 1, '}');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Verify the red-black invariants, for testing.
+     * @return          the black height of the tree
+     */
+    int checkInvariants() {
+        if (isRed(root)) {
+            throw new IllegalStateException("Red root");
+        }
+        return checkInvariants(root, null, null);
+    }
+
+    private int checkInvariants(Node n, Object lo, Object hi) {
+        if (n == null) {
+            return 1;
+        } else {
+            if ((lo != null && cmp.compare(lo, n.key) >= 0) || (hi != null && cmp.compare(n.key, hi) >= 0)) {
+                throw new IllegalStateException("Keys out of order at " + n.key);
+            } else if (n.red && (isRed(n.left) || isRed(n.right))) {
+                throw new IllegalStateException("Red node with a red child at " + n.key);
+            } else if (n.size != size(n.left) + size(n.right) + 1) {
+                throw new IllegalStateException("Incorrect size at " + n.key);
+            }
+            final int lh = checkInvariants(n.left, lo, n.key);
+            final int rh = checkInvariants(n.right, n.key, hi);
+            if (lh != rh) {
+                throw new IllegalStateException("Unequal black heights at " + n.key);
+            }
+            return lh + (n.red ? 0 : 1);
+        }
+    }
+
+    /**
+     * An in-order traversal of a tree, starting from the node at a given index,
+     * which keeps the path of pending ancestors on a stack.
+     */
+    static final class Cursor {
+        // The height of a red-black tree with at most 2^31 nodes is at most 62.
+        private final Node[] stack = new Node[64];
+        private int depth = 0;
+
+        Cursor(Node root, int index) {
+            Node n = root;
+            while (n != null) {
+                final int ls = size(n.left);
+                if (index < ls) {
+                    stack[depth++] = n;
+                    n = n.left;
+                } else if (index == ls) {
+                    stack[depth++] = n;
+                    n = null;
+                } else {
+                    index -= ls + 1;
+                    n = n.right;
+                }
+            }
+        }
+
+        Node next() {
+            final Node n = stack[--depth];
+            for (Node m = n.right; m != null; m = m.left) {
+                stack[depth++] = m;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Spliterator over the nodes from index {@code lo} (inclusive) to {@code hi} (exclusive),
+     * which splits at the midpoint of its range.
+     * The traversal cursor is only created once traversal begins.
+     */
+    static final class NodeSpliterator<T> implements Spliterator<T> {
+        private final Node root;
+        private int lo;
+        private final int hi;
+        private final F<Node, T> f;
+        private final int extraChars;
+        private final Comparator<? super T> cmp;
+        private Cursor cursor;
+
+        NodeSpliterator(Node root, int lo, int hi, F<Node, T> f, int extraChars, Comparator<? super T> cmp) {
+            this.root = root;
+            this.lo = lo;
+            this.hi = hi;
+            this.f = f;
+            this.extraChars = extraChars;
+            this.cmp = cmp;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (lo >= hi) {
+                return false;
+            } else {
+                if (cursor == null) {
+                    cursor = new Cursor(root, lo);
+                }
+                ++lo;
+                action.accept(f.apply(cursor.next()));
+                return true;
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (lo < hi) {
+                if (cursor == null) {
+                    cursor = new Cursor(root, lo);
+                }
+                for (; lo < hi; ++lo) {
+                    action.accept(f.apply(cursor.next()));
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            final int mid = (lo + hi) >>> 1;
+            if (cursor != null || mid == lo) {
+                return null;
+            } else {
+                final Spliterator<T> prefix = new NodeSpliterator<T>(root, lo, mid, f, extraChars, cmp);
+                lo = mid;
+                return prefix;
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return hi - lo;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED |
+                    Spliterator.SIZED |
+                    Spliterator.SUBSIZED |
+                    Spliterator.IMMUTABLE |
+                    Spliterator.DISTINCT |
+                    Spliterator.NONNULL |
+                    extraChars;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            if (hasCharacteristics(Spliterator.SORTED)) {
+                return cmp;
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package org.typemeta.funcj.data;
+
+import org.typemeta.funcj.functions.Functions.*;
+import org.typemeta.funcj.tuples.Tuple2;
+
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Immutable sorted set, implemented as a persistent red-black tree.
+ * <p>
+ * An {@code ITreeSet} is a view onto the keys of an {@link ITreeMap},
+ * and so shares its performance characteristics.
+ * Null elements are not allowed.
+ * @param <T>       the element type
+ */
+public final class ITreeSet<T> implements Iterable<T> {
+
+    private static final ITreeSet<?> EMPTY = new ITreeSet<Object>(ITreeMap.empty());
+
+    /**
+     * Construct an empty set, ordered by the natural ordering of the elements.
+     * @param <T>       the element type
+     * @return          an empty set
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ITreeSet<T> empty() {
+        return (ITreeSet<T>)EMPTY;
+    }
+
+    /**
+     * Construct an empty set, ordered by the given comparator.
+     * @param cmp       the element comparator
+     * @param <T>       the element type
+     * @return          an empty set
+     */
+    public static <T> ITreeSet<T> empty(Comparator<? super T> cmp) {
+        return new ITreeSet<T>(ITreeMap.empty(cmp));
+    }
+
+    /**
+     * Construct a set, ordered by the natural ordering of the elements, with one or more elements.
+     * @param elem      the first element
+     * @param elems     the remaining elements
+     * @param <T>       the element type
+     * @return          the new set
+     */
+    @SafeVarargs
+    public static <T> ITreeSet<T> of(T elem, T... elems) {
+        ITreeSet<T> s = ITreeSet.<T>empty().add(elem);
+        for (T t : elems) {
+            s = s.add(t);
+        }
+        return s;
+    }
+
+    /**
+     * Construct a set, ordered by the natural ordering of the elements,
+     * from an {@link java.lang.Iterable} collection of elements.
+     * @param elems     the elements
+     * @param <T>       the element type
+     * @return          the new set
+     */
+    public static <T> ITreeSet<T> ofIterable(Iterable<? extends T> elems) {
+        ITreeSet<T> s = empty();
+        for (T t : elems) {
+            s = s.add(t);
+        }
+        return s;
+    }
+
+    /**
+     * Construct a set from elements which are already sorted, in O(n).
+     * @param cmp       the element comparator
+     * @param elems     the elements, in strictly ascending order
+     * @param <T>       the element type
+     * @return          the new set
+     * @throws          IllegalArgumentException if the elements are not in strictly ascending order
+     * @see             ITreeMap#ofSorted(Comparator, Iterable)
+     */
+    public static <T> ITreeSet<T> ofSorted(Comparator<? super T> cmp, Iterable<? extends T> elems) {
+        final List<Tuple2<T, Object>> entries = new ArrayList<>();
+        for (T t : elems) {
+            entries.add(Tuple2.of(t, Unit.UNIT));
+        }
+        return new ITreeSet<T>(ITreeMap.ofSorted(cmp, entries));
+    }
+
+    /**
+     * Construct a set, ordered by the natural ordering of the elements,
+     * from elements which are already sorted, in O(n).
+     * @param elems     the elements, in strictly ascending order
+     * @param <T>       the element type
+     * @return          the new set
+     * @throws          IllegalArgumentException if the elements are not in strictly ascending order
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ITreeSet<T> ofSorted(Iterable<? extends T> elems) {
+        return ofSorted((Comparator<? super T>)Comparator.naturalOrder(), elems);
+    }
+
+    private final ITreeMap<T, Object> map;
+
+    @SuppressWarnings("unchecked")
+    ITreeSet(ITreeMap<T, ?> map) {
+        this.map = (ITreeMap<T, Object>)map;
+    }
+
+    private ITreeSet<T> withMap(ITreeMap<T, Object> newMap) {
+        return newMap == map ? this : new ITreeSet<T>(newMap);
+    }
+
+    /**
+     * @return          the comparator which orders the elements of this set
+     */
+    public Comparator<? super T> comparator() {
+        return map.comparator();
+    }
+
+    /**
+     * Return true if this set is empty otherwise false
+     * @return          true if this set is empty otherwise false
+     */
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    /**
+     * @return          the number of elements in this set.
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Return true if this set contains the element.
+     * @param elem      the element
+     * @return          true if this set contains the element
+     */
+    public boolean contains(T elem) {
+        return map.containsKey(elem);
+    }
+
+    /**
+     * Create a new set by adding an element to this set.
+     * @param elem      the element
+     * @return          the new set
+     */
+    public ITreeSet<T> add(T elem) {
+        if (map.containsKey(elem)) {
+            return this;
+        } else {
+            return new ITreeSet<T>(map.put(elem, Unit.UNIT));
+        }
+    }
+
+    /**
+     * Create a new set by removing an element from this set.
+     * @param elem      the element
+     * @return          the new set
+     */
+    public ITreeSet<T> remove(T elem) {
+        return withMap(map.remove(elem));
+    }
+
+    /**
+     * Return the least element, if this set is non-empty.
+     * @return          the least element, or {@code Optional.empty()}
+     */
+    public Optional<T> min() {
+        return map.min().map(e -> e._1);
+    }
+
+    /**
+     * Return the greatest element, if this set is non-empty.
+     * @return          the greatest element, or {@code Optional.empty()}
+     */
+    public Optional<T> max() {
+        return map.max().map(e -> e._1);
+    }
+
+    /**
+     * Create a new set by removing the least element.
+     * @return          the new set
+     */
+    public ITreeSet<T> removeMin() {
+        return withMap(map.removeMin());
+    }
+
+    /**
+     * Return the greatest element which is less than or equal to the given element, if there is one.
+     * @param elem      the element
+     * @return          the floor element, or {@code Optional.empty()}
+     */
+    public Optional<T> floor(T elem) {
+        return map.floor(elem).map(e -> e._1);
+    }
+
+    /**
+     * Return the least element which is greater than or equal to the given element, if there is one.
+     * @param elem      the element
+     * @return          the ceiling element, or {@code Optional.empty()}
+     */
+    public Optional<T> ceiling(T elem) {
+        return map.ceiling(elem).map(e -> e._1);
+    }
+
+    /**
+     * Return the number of elements in this set which are less than the given element.
+     * @param elem      the element
+     * @return          the number of lesser elements
+     */
+    public int rank(T elem) {
+        return map.rank(elem);
+    }
+
+    /**
+     * Create a new set containing the elements which are greater than or equal to {@code from}
+     * and less than {@code to}.
+     * @param from      the inclusive lower bound
+     * @param to        the exclusive upper bound
+     * @return          the new set
+     * @see             ITreeMap#range(Object, Object)
+     */
+    public ITreeSet<T> range(T from, T to) {
+        return withMap(map.range(from, to));
+    }
+
+    /**
+     * Create a new set which contains the elements of this set and those of another.
+     * The elements of the smaller set are added to the larger.
+     * @param other     the other set
+     * @return          the new set
+     */
+    public ITreeSet<T> union(ITreeSet<T> other) {
+        final ITreeSet<T> small = size() <= other.size() ? this : other;
+        ITreeSet<T> r = small == this ? other : this;
+        for (T t : small) {
+            r = r.add(t);
+        }
+        return r;
+    }
+
+    /**
+     * Create a new set which contains the elements of this set that satisfy the predicate.
+     * The result is built from the (already sorted) matching elements in O(n).
+     * @param pred      the predicate
+     * @return          the new set
+     */
+    public ITreeSet<T> filter(Predicate<? super T> pred) {
+        final List<T> elems = new ArrayList<>();
+        for (T t : this) {
+            if (pred.test(t)) {
+                elems.add(t);
+            }
+        }
+        return elems.size() == size() ? this : ofSorted(comparator(), elems);
+    }
+
+    /**
+     * Left-fold a function over the elements in this set, in ascending order.
+     * @param f         the function to be folded
+     * @param z         the initial value for the fold
+     * @param <R>       the fold result type
+     * @return          the folded result
+     */
+    public <R> R foldLeft(F2<R, T, R> f, R z) {
+        R r = z;
+        for (T t : this) {
+            r = f.apply(r, t);
+        }
+        return r;
+    }
+
+    /**
+     * Create an {@link java.util.Iterator} over the elements in this set, in ascending order.
+     * @return          the iterator
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Create a {@link java.util.Spliterator} over the elements in this set, in ascending order.
+     * @return          the spliterator
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return map.keySpliterator();
+    }
+
+    /**
+     * Create a {@link java.util.stream.Stream} onto the elements in this set, in ascending order.
+     * @return          the new stream
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Create a parallel {@link java.util.stream.Stream} onto the elements in this set.
+     * @return          the new stream
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Set equality.
+     * @return          true if this set and rhs contain the same elements.
+     */
+    @Override
+    public boolean equals(Object rhs) {
+        if (this == rhs) {
+            return true;
+        } else if (!(rhs instanceof ITreeSet)) {
+            return false;
+        } else {
+            final ITreeSet<?> that = (ITreeSet<?>)rhs;
+            return map.equals(that.map);
+        }
+    }
+
+    /**
+     * The hash code, which is consistent with that of a {@link java.util.Set} with the same elements.
+     * @return          the hash code
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (T t : this) {
+            hashCode += t.hashCode();
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("{");
+        for (T t : this) {
+            sb.append(t).append(',');
+        }
+        if (isEmpty()) {
+            sb.append('}');
+        } else {
+            sb.setCharAt(sb.length() - 1, '}');
+        }
+        return sb.toString();
+    }
+
+    int checkInvariants() {
+        return map.checkInvariants();
+    }
+}
@@ -0,0 +1,783 @@
+package org.typemeta.funcj.data;
+
+import org.typemeta.funcj.functions.Functions.*;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.*;
+
+/**
+ * Immutable vector, implemented as a persistent bit-partitioned trie.
+ * <p>
+ * The elements are stored in the leaves of a 32-way trie,
+ * plus a tail buffer of up to 32 elements which holds the last elements of the vector.
+ * Indexing, updating and appending are therefore O(log32 n),
+ * which in practice is effectively constant time,
+ * and appends usually only copy the tail buffer.
+ * Updated vectors share structure with the vectors they were derived from.
+ * <p>
+ * Vectors can be built efficiently via a {@link Builder},
+ * which mutates the trie in place until the vector is built.
+ * Null elements are not allowed.
+ * @param <T>       the element type
+ */
+public final class IVector<T> implements Iterable<T> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final Object[] EMPTY_ARRAY = new Object[0];
+    private static final Node EMPTY_NODE = new Node(null, new Object[WIDTH]);
+    private static final IVector<?> EMPTY = new IVector<Object>(0, BITS, EMPTY_NODE, EMPTY_ARRAY);
+
+    /**
+     * Construct an empty vector.
+     * @param <T>       the element type
+     * @return          an empty vector
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> IVector<T> empty() {
+        return (IVector<T>)EMPTY;
+    }
+
+    /**
+     * Construct an empty vector.
+     * @param <T>       the element type
+     * @return          an empty vector
+     */
+    public static <T> IVector<T> of() {
+        return empty();
+    }
+
+    /**
+     * Construct a vector with one element.
+     * @param elem      element
+     * @param <T>       element type
+     * @return          the new vector with one element
+     */
+    public static <T> IVector<T> of(T elem) {
+        return IVector.<T>empty().append(elem);
+    }
+
+    /**
+     * Construct a vector with one or more elements.
+     * @param elem      the first element
+     * @param elems     the remaining elements
+     * @param <T>       the element type
+     * @return          the new vector with one or more element
+     */
+    @SafeVarargs
+    public static <T> IVector<T> of(T elem, T... elems) {
+        final Builder<T> b = IVector.<T>builder().add(elem);
+        for (T t : elems) {
+            b.add(t);
+        }
+        return b.build();
+    }
+
+    /**
+     * Construct a vector from an {@link java.lang.Iterable} collection of elements,
+     * such as an {@link IList}.
+     * @param elems     the iterable collection of elements
+     * @param <T>       the element type
+     * @return          the new vector
+     */
+    public static <T> IVector<T> ofIterable(Iterable<? extends T> elems) {
+        return IVector.<T>builder().addAll(elems).build();
+    }
+
+    /**
+     * Construct a vector from an array.
+     * @param elems     the array of elements
+     * @param <T>       the element type
+     * @return          the new vector
+     */
+    public static <T> IVector<T> ofArray(T[] elems) {
+        return IVector.<T>builder().addAll(Arrays.asList(elems)).build();
+    }
+
+    /**
+     * Construct a new {@link Builder}.
+     * @param <T>       the element type
+     * @return          the new builder
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<T>(IVector.<T>empty());
+    }
+
+    /**
+     * A {@link java.util.stream.Collector} which collects a stream into a vector.
+     * @param <T>       the element type
+     * @return          the collector
+     */
+    public static <T> Collector<T, ?, IVector<T>> collector() {
+        return Collector.<T, Builder<T>, IVector<T>>of(
+                IVector::builder,
+                Builder::add,
+                (l, r) -> l.addAll(r.build()),
+                Builder::build
+        );
+    }
+
+    /**
+     * A node in the trie.
+     * The {@code edit} token identifies the {@link Builder} (if any) which may mutate the node in place.
+     */
+    static final class Node {
+        final Edit edit;
+        final Object[] array;
+
+        Node(Edit edit, Object[] array) {
+            this.edit = edit;
+            this.array = array;
+        }
+
+        Node(Edit edit) {
+            this(edit, new Object[WIDTH]);
+        }
+    }
+
+    private final int size;
+    private final int shift;
+    private final Node root;
+    private final Object[] tail;
+
+    private IVector(int size, int shift, Node root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    private static int tailOffset(int size) {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private static Node newPath(Edit edit, int level, Node node) {
+        if (level == 0) {
+            return node;
+        } else {
+            final Node ret = new Node(edit);
+            ret.array[0] = newPath(edit, level - BITS, node);
+            return ret;
+        }
+    }
+
+    /**
+     * Return the array which holds the element at the given index.
+     */
+    private Object[] arrayFor(int index) {
+        if (index >= tailOffset(size)) {
+            return tail;
+        } else {
+            Node node = root;
+            for (int level = shift; level > 0; level -= BITS) {
+                node = (Node)node.array[(index >>> level) & MASK];
+            }
+            return node.array;
+        }
+    }
+
+    private IndexOutOfBoundsException outOfBounds(int index) {
+        return new IndexOutOfBoundsException(
+                "Index " + index + " out of bounds for a " + size + " element vector");
+    }
+
+    /**
+     * Create a {@link Builder} which is initialised with the elements of this vector.
+     * This vector is unaffected by subsequent changes to the builder.
+     * @return          the new builder
+     */
+    public Builder<T> toBuilder() {
+        return new Builder<T>(this);
+    }
+
+    /**
+     * Return true if this vector is empty otherwise false
+     * @return          true if this vector is empty otherwise false
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return          the length of this vector.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the element at the specified position in this vector.
+     * @param index     the position of the element to return
+     * @return          the element of this vector at the specified position.
+     * @throws          IndexOutOfBoundsException if the index is out of bounds.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw outOfBounds(index);
+        } else {
+            return (T)arrayFor(index)[index & MASK];
+        }
+    }
+
+    /**
+     * Return the first element of this vector.
+     * @return          the first element of this vector.
+     * @throws          UnsupportedOperationException if the vector is empty.
+     */
+    public T head() {
+        if (size == 0) {
+            throw new UnsupportedOperationException("Cannot take the head of an empty vector");
+        } else {
+            return get(0);
+        }
+    }
+
+    /**
+     * Return the last element of this vector.
+     * @return          the last element of this vector.
+     * @throws          UnsupportedOperationException if the vector is empty.
+     */
+    public T last() {
+        if (size == 0) {
+            throw new UnsupportedOperationException("Cannot take the last element of an empty vector");
+        } else {
+            return get(size - 1);
+        }
+    }
+
+    /**
+     * Create a new vector by replacing the element at the specified position in this vector.
+     * @param index     the position of the element to replace
+     * @param elem      the new element
+     * @return          the new vector
+     * @throws          IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public IVector<T> set(int index, T elem) {
+        Objects.requireNonNull(elem);
+        if (index < 0 || index >= size) {
+            throw outOfBounds(index);
+        } else if (index >= tailOffset(size)) {
+            final Object[] newTail = tail.clone();
+            newTail[index & MASK] = elem;
+            return new IVector<T>(size, shift, root, newTail);
+        } else {
+            return new IVector<T>(size, shift, doSet(shift, root, index, elem), tail);
+        }
+    }
+
+    private static Node doSet(int level, Node node, int index, Object elem) {
+        final Node ret = new Node(null, node.array.clone());
+        if (level == 0) {
+            ret.array[index & MASK] = elem;
+        } else {
+            final int subIdx = (index >>> level) & MASK;
+            ret.array[subIdx] = doSet(level - BITS, (Node)node.array[subIdx], index, elem);
+        }
+        return ret;
+    }
+
+    /**
+     * Create a new vector by appending an element to the end of this vector.
+     * @param elem      the element to append
+     * @return          the new vector
+     */
+    public IVector<T> append(T elem) {
+        Objects.requireNonNull(elem);
+        if (size - tailOffset(size) < WIDTH) {
+            final Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = elem;
+            return new IVector<T>(size + 1, shift, root, newTail);
+        } else {
+            // The tail is full, so push it into the trie.
+            final Node tailNode = new Node(null, tail);
+            final Node newRoot;
+            int newShift = shift;
+            if ((size >>> BITS) > (1 << shift)) {
+                // The trie is full, so add a new root.
+                newRoot = new Node(null);
+                newRoot.array[0] = root;
+                newRoot.array[1] = newPath(null, shift, tailNode);
+                newShift += BITS;
+            } else {
+                newRoot = pushTail(shift, root, tailNode);
+            }
+            return new IVector<T>(size + 1, newShift, newRoot, new Object[]{elem});
+        }
+    }
+
+    private Node pushTail(int level, Node parent, Node tailNode) {
+        final int subIdx = ((size - 1) >>> level) & MASK;
+        final Node ret = new Node(null, parent.array.clone());
+        final Node nodeToInsert;
+        if (level == BITS) {
+            nodeToInsert = tailNode;
+        } else {
+            final Node child = (Node)parent.array[subIdx];
+            nodeToInsert = child != null ?
+                    pushTail(level - BITS, child, tailNode) :
+                    newPath(null, level - BITS, tailNode);
+        }
+        ret.array[subIdx] = nodeToInsert;
+        return ret;
+    }
+
+    /**
+     * Create a new vector by appending multiple elements to the end of this vector.
+     * @param elems     the elements to append
+     * @return          the new vector
+     */
+    public IVector<T> appendAll(Iterable<? extends T> elems) {
+        return toBuilder().addAll(elems).build();
+    }
+
+    /**
+     * Create a new vector by removing the last element of this vector.
+     * @return          the new vector
+     * @throws          UnsupportedOperationException if the vector is empty.
+     */
+    public IVector<T> removeLast() {
+        if (size == 0) {
+            throw new UnsupportedOperationException("Cannot remove the last element of an empty vector");
+        } else if (size == 1) {
+            return empty();
+        } else if (size - tailOffset(size) > 1) {
+            return new IVector<T>(size - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+        } else {
+            // The tail becomes empty, so pull the last leaf out of the trie to form the new tail.
+            final Object[] newTail = arrayFor(size - 2);
+            Node newRoot = popTail(shift, root);
+            int newShift = shift;
+            if (newRoot == null) {
+                newRoot = EMPTY_NODE;
+            }
+            if (shift > BITS && newRoot.array[1] == null) {
+                newRoot = (Node)newRoot.array[0];
+                newShift -= BITS;
+            }
+            return new IVector<T>(size - 1, newShift, newRoot, newTail);
+        }
+    }
+
+    private Node popTail(int level, Node node) {
+        final int subIdx = ((size - 2) >>> level) & MASK;
+        if (level > BITS) {
+            final Node newChild = popTail(level - BITS, (Node)node.array[subIdx]);
+            if (newChild == null && subIdx == 0) {
+                return null;
+            } else {
+                final Node ret = new Node(null, node.array.clone());
+                ret.array[subIdx] = newChild;
+                return ret;
+            }
+        } else if (subIdx == 0) {
+            return null;
+        } else {
+            final Node ret = new Node(null, node.array.clone());
+            ret.array[subIdx] = null;
+            return ret;
+        }
+    }
+
+    /**
+     * @return          this vector in reverse.
+     */
+    public IVector<T> reverse() {
+        final Builder<T> b = builder();
+        for (int i = size - 1; i >= 0; --i) {
+            b.add(get(i));
+        }
+        return b.build();
+    }
+
+    /**
+     * Apply the function {@code f} to each element in this vector,
+     * and store the results in a new vector.
+     * @param f         the function to be applied to each element
+     * @param <U>       the function return type
+     * @return          the new vector
+     */
+    public <U> IVector<U> map(F<? super T, ? extends U> f) {
+        final Builder<U> b = builder();
+        for (T t : this) {
+            b.add(f.apply(t));
+        }
+        return b.build();
+    }
+
+    /**
+     * Apply a function that returns an {@code IVector} to each element
+     * in this vector and concatenate the results into a single vector.
+     * @param f         the function to be applied
+     * @param <U>       the element type for the vector returned by the function
+     * @return          the new vector
+     */
+    public <U> IVector<U> flatMap(F<? super T, IVector<? extends U>> f) {
+        final Builder<U> b = builder();
+        for (T t : this) {
+            b.addAll(f.apply(t));
+        }
+        return b.build();
+    }
+
+    /**
+     * Right-fold a function over this vector.
+     * @param f         the function to be folded
+     * @param z         the initial value for the fold (typically the identity value of {@code f})
+     * @param <U>       the fold result type
+     * @return          the folded result
+     */
+    @SuppressWarnings("unchecked")
+    public <U> U foldRight(F2<T, U, U> f, U z) {
+        U r = z;
+        for (int i = size - 1; i >= 0; ) {
+            final Object[] arr = arrayFor(i);
+            for (int j = i & MASK; j >= 0; --j, --i) {
+                r = f.apply((T)arr[j], r);
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Left-fold a function over this vector.
+     * @param f         the function to be folded
+     * @param z         the initial value for the fold (typically the identity value of {@code f})
+     * @param <U>       the fold result type
+     * @return          the folded result
+     */
+    public <U> U foldLeft(F2<U, T, U> f, U z) {
+        U r = z;
+        for (T t : this) {
+            r = f.apply(r, t);
+        }
+        return r;
+    }
+
+    /**
+     * Convert this vector to an {@link IList}.
+     * @return          the list
+     */
+    public IList<T> toIList() {
+        return foldRight((t, l) -> l.add(t), IList.empty());
+    }
+
+    /**
+     * Convert to a Java List implementation, albeit an immutable one.
+     * @return          the Java List.
+     */
+    public List<T> toList() {
+        return new ListAdaptor<T>(this);
+    }
+
+    /**
+     * Create an {@link java.util.Iterator} over this vector.
+     * @return          the iterator
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index = 0;
+            private Object[] arr = size == 0 ? EMPTY_ARRAY : arrayFor(0);
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                } else {
+                    if (index != 0 && (index & MASK) == 0) {
+                        arr = arrayFor(index);
+                    }
+                    return (T)arr[index++ & MASK];
+                }
+            }
+        };
+    }
+
+    /**
+     * Create a {@link java.util.Spliterator},
+     * which splits by index range.
+     * @return          the spliterator
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new VectorSpliterator<T>(this, 0, size);
+    }
+
+    /**
+     * Create a {@link java.util.stream.Stream} onto this vector.
+     * @return          the new stream
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Create a parallel {@link java.util.stream.Stream} onto this vector.
+     * @return          the new stream
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Vector equality.
+     * @return          true if this vector and rhs are equal in terms of their size and elements.
+     */
+    @Override
+    public boolean equals(Object rhs) {
+        if (this == rhs) {
+            return true;
+        } else if (!(rhs instanceof IVector)) {
+            return false;
+        } else {
+            final IVector<?> that = (IVector<?>)rhs;
+            if (size != that.size) {
+                return false;
+            } else {
+                final Iterator<?> it = that.iterator();
+                for (T t : this) {
+                    if (!t.equals(it.next())) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The hash code, which is consistent with that of an {@link IList} with the same elements.
+     * @return          the hash code
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (T t : this) {
+            hashCode = 31 * hashCode + t.hashCode();
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        for (T t : this) {
+            sb.append(t).append(',');
+        }
+        if (size == 0) {
+            sb.append(']');
+        } else {
+            sb.setCharAt(sb.length() - 1, ']');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Builder for {@link IVector}s.
+     * A builder mutates its trie in place, and so is not thread-safe.
+     * Once {@link Builder#build()} has been called the builder can no longer be used.
+     * @param <T>       the element type
+     */
+    public static final class Builder<T> {
+        private final Edit edit = new Edit();
+        private int size;
+        private int shift;
+        private Node root;
+        private Object[] tail;
+
+        Builder(IVector<T> v) {
+            this.size = v.size;
+            this.shift = v.shift;
+            this.root = new Node(edit, v.root.array.clone());
+            this.tail = Arrays.copyOf(v.tail, WIDTH);
+        }
+
+        private Node ensureEditable(Node node) {
+            return node.edit == edit ? node : new Node(edit, node.array.clone());
+        }
+
+        /**
+         * Append an element.
+         * @param elem      the element to append
+         * @return          this builder
+         */
+        public Builder<T> add(T elem) {
+            Objects.requireNonNull(elem);
+            edit.ensureActive();
+            if (size - tailOffset(size) < WIDTH) {
+                tail[size & MASK] = elem;
+            } else {
+                final Node tailNode = new Node(edit, tail);
+                tail = new Object[WIDTH];
+                tail[0] = elem;
+                if ((size >>> BITS) > (1 << shift)) {
+                    final Node newRoot = new Node(edit);
+                    newRoot.array[0] = root;
+                    newRoot.array[1] = newPath(edit, shift, tailNode);
+                    root = newRoot;
+                    shift += BITS;
+                } else {
+                    root = pushTail(shift, root, tailNode);
+                }
+            }
+            ++size;
+            return this;
+        }
+
+        private Node pushTail(int level, Node parent, Node tailNode) {
+            final Node ret = ensureEditable(parent);
+            final int subIdx = ((size - 1) >>> level) & MASK;
+            final Node nodeToInsert;
+            if (level == BITS) {
+                nodeToInsert = tailNode;
+            } else {
+                final Node child = (Node)ret.array[subIdx];
+                nodeToInsert = child != null ?
+                        pushTail(level - BITS, child, tailNode) :
+                        newPath(edit, level - BITS, tailNode);
+            }
+            ret.array[subIdx] = nodeToInsert;
+            return ret;
+        }
+
+        /**
+         * Append multiple elements.
+         * @param elems     the elements to append
+         * @return          this builder
+         */
+        public Builder<T> addAll(Iterable<? extends T> elems) {
+            for (T elem : elems) {
+                add(elem);
+            }
+            return this;
+        }
+
+        /**
+         * @return          the number of elements added so far
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Construct the vector.
+         * @return          the new vector
+         */
+        public IVector<T> build() {
+            edit.ensureActive();
+            edit.active = false;
+            if (size == 0) {
+                return empty();
+            } else {
+                final Object[] newTail = Arrays.copyOf(tail, size - tailOffset(size));
+                return new IVector<T>(size, shift, root, newTail);
+            }
+        }
+    }
+
+    static final class VectorSpliterator<T> implements Spliterator<T> {
+        private final IVector<T> vec;
+        private int index;
+        private final int end;
+
+        VectorSpliterator(IVector<T> vec, int index, int end) {
+            this.vec = vec;
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (index < end) {
+                action.accept((T)vec.arrayFor(index)[index & MASK]);
+                ++index;
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super T> action) {
+            while (index < end) {
+                // Iterate leaf by leaf.
+                final Object[] arr = vec.arrayFor(index);
+                final int leafEnd = Math.min(end, (index | MASK) + 1);
+                for (; index < leafEnd; ++index) {
+                    action.accept((T)arr[index & MASK]);
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            final int remaining = end - index;
+            if (remaining < 2) {
+                return null;
+            } else {
+                // Split on a leaf boundary, where possible.
+                int mid = index + remaining / 2;
+                if ((mid & ~MASK) > index) {
+                    mid &= ~MASK;
+                }
+                final Spliterator<T> prefix = new VectorSpliterator<T>(vec, index, mid);
+                index = mid;
+                return prefix;
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.IMMUTABLE |
+                    Spliterator.ORDERED |
+                    Spliterator.SIZED |
+                    Spliterator.SUBSIZED |
+                    Spliterator.NONNULL;
+        }
+    }
+
+    private static class ListAdaptor<T> extends AbstractList<T> implements RandomAccess {
+        private final IVector<T> impl;
+
+        ListAdaptor(IVector<T> impl) {
+            this.impl = impl;
+        }
+
+        @Override
+        public T get(int index) {
+            return impl.get(index);
+        }
+
+        @Override
+        public int size() {
+            return impl.size;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return impl.iterator();
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            return impl.spliterator();
+        }
+    }
+}
@@ -0,0 +1,546 @@
+package org.typemeta.funcj.data;
+
+import org.typemeta.funcj.control.OptionInt;
+import org.typemeta.funcj.functions.PrimitiveFunctions.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.IntConsumer;
+import java.util.stream.*;
+
+/**
+ * Immutable list of {@code int} values.
+ * <p>
+ * An {@code IntList} is a linked list of array chunks, so the elements are held unboxed,
+ * and contiguously within each chunk.
+ * Adding an element to the front of a list writes it into the free space at the front of the list's first chunk,
+ * unless another list which shares the chunk has already claimed that space,
+ * in which case the element starts a new chunk, twice the size of the previous one (up to a limit).
+ * The bulk operations ({@code ofArray}, {@code map}, {@code filter}, {@code reverse}, ...)
+ * build lists which consist of a single chunk.
+ * <p>
+ * Use {@link #boxed()} and {@link #ofIList(IList)} to convert to and from an {@link IList}.
+ */
+public abstract class IntList implements Iterable<Integer> {
+
+    static final int MIN_CHUNK_SIZE = 8;
+    static final int MAX_CHUNK_SIZE = 1024;
+
+    /**
+     * Construct an empty list.
+     * @return          an empty list
+     */
+    public static IntList empty() {
+        return Empty.EMPTY;
+    }
+
+    /**
+     * Construct a list from the given elements.
+     * @param elems     the elements
+     * @return          the new list
+     */
+    public static IntList of(int... elems) {
+        return ofArray(elems);
+    }
+
+    /**
+     * Construct a list from an array.
+     * The array is copied.
+     * @param elems     the array of elements
+     * @return          the new list
+     */
+    public static IntList ofArray(int[] elems) {
+        return ofArrayUnsafe(elems.clone(), empty());
+    }
+
+    /**
+     * Construct a list from a stream.
+     * @param s         the stream of elements
+     * @return          the new list
+     */
+    public static IntList ofStream(IntStream s) {
+        return ofArrayUnsafe(s.toArray(), empty());
+    }
+
+    /**
+     * Construct a list from a list of boxed values.
+     * @param l         the list of boxed values
+     * @return          the new list
+     */
+    public static IntList ofIList(IList<Integer> l) {
+        final int[] elems = new int[l.size()];
+        int i = 0;
+        for (Integer x : l) {
+            elems[i++] = x;
+        }
+        return ofArrayUnsafe(elems, empty());
+    }
+
+    /**
+     * Construct a list which consists of a single chunk holding the array (which is not copied),
+     * followed by the given list.
+     */
+    private static IntList ofArrayUnsafe(int[] elems, IntList tail) {
+        if (elems.length == 0) {
+            return tail;
+        } else {
+            return new Node(new Chunk(elems, 0), 0, tail);
+        }
+    }
+
+    /**
+     * An array chunk, which is filled from the end.
+     * Elements at indices below {@code free} have not been claimed by any list.
+     */
+    static final class Chunk {
+        private static final AtomicIntegerFieldUpdater<Chunk> FREE =
+                AtomicIntegerFieldUpdater.newUpdater(Chunk.class, "free");
+
+        final int[] elems;
+        volatile int free;
+
+        Chunk(int[] elems, int free) {
+            this.elems = elems;
+            this.free = free;
+        }
+
+        /**
+         * Attempt to claim the slot before {@code start}, for the list which starts at {@code start}.
+         */
+        boolean claim(int start) {
+            return start > 0 && free == start && FREE.compareAndSet(this, start, start - 1);
+        }
+    }
+
+    private IntList() {
+    }
+
+    /**
+     * Add an element to the front of this list.
+     * @param head      the new element
+     * @return          the new list
+     */
+    public abstract IntList add(int head);
+
+    /**
+     * Concatenate this list with another.
+     * @param l         the list to append
+     * @return          the concatenated list
+     */
+    public IntList appendAll(IntList l) {
+        return ofArrayUnsafe(toArray(), l);
+    }
+
+    /**
+     * @return          true if this list is empty
+     */
+    public abstract boolean isEmpty();
+
+    /**
+     * @return          the length of this list
+     */
+    public abstract int size();
+
+    /**
+     * @return          the first element of this list
+     * @throws UnsupportedOperationException if this list is empty
+     */
+    public abstract int head();
+
+    /**
+     * @return          this list with the first element removed
+     * @throws UnsupportedOperationException if this list is empty
+     */
+    public abstract IntList tail();
+
+    /**
+     * Return the element at the given index.
+     * @param index     the index
+     * @return          the element
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+        Node n = (Node)this;
+        while (true) {
+            final int len = n.chunk.elems.length - n.start;
+            if (index < len) {
+                return n.chunk.elems[n.start + index];
+            }
+            index -= len;
+            n = (Node)n.tail;
+        }
+    }
+
+    /**
+     * Apply the action to each element of this list, in order.
+     * @param action    the action
+     */
+    public void forEachInt(IntConsumer action) {
+        for (IntList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final int[] elems = n.chunk.elems;
+            for (int i = n.start; i < elems.length; ++i) {
+                action.accept(elems[i]);
+            }
+            l = n.tail;
+        }
+    }
+
+    /**
+     * Copy the elements of this list into an array.
+     * @return          the array of elements
+     */
+    public int[] toArray() {
+        final int[] arr = new int[size()];
+        int i = 0;
+        for (IntList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final int len = n.chunk.elems.length - n.start;
+            System.arraycopy(n.chunk.elems, n.start, arr, i, len);
+            i += len;
+            l = n.tail;
+        }
+        return arr;
+    }
+
+    /**
+     * Apply an operator to each element of this list.
+     * @param f         the operator
+     * @return          the list of results
+     */
+    public IntList map(IntOp f) {
+        final int[] arr = new int[size()];
+        int i = 0;
+        for (IntList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final int[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                arr[i++] = f.apply(elems[j]);
+            }
+            l = n.tail;
+        }
+        return ofArrayUnsafe(arr, empty());
+    }
+
+    /**
+     * Apply a function to each element of this list, to produce a list of boxed values.
+     * @param f         the function
+     * @param <U>       the function return type
+     * @return          the list of results
+     */
+    public <U> IList<U> mapToObj(IntF<? extends U> f) {
+        final int[] arr = toArray();
+        IList<U> r = IList.empty();
+        for (int i = arr.length - 1; i >= 0; --i) {
+            r = r.add(f.apply(arr[i]));
+        }
+        return r;
+    }
+
+    /**
+     * Return the elements of this list which satisfy a predicate.
+     * @param pred      the predicate
+     * @return          the list of elements which satisfy the predicate
+     */
+    public IntList filter(IntPredicate pred) {
+        final int[] arr = new int[size()];
+        int i = 0;
+        for (IntList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final int[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                if (pred.test(elems[j])) {
+                    arr[i++] = elems[j];
+                }
+            }
+            l = n.tail;
+        }
+        return ofArrayUnsafe(i == arr.length ? arr : Arrays.copyOf(arr, i), empty());
+    }
+
+    /**
+     * Return the first element of this list which satisfies a predicate.
+     * @param pred      the predicate
+     * @return          the first element which satisfies the predicate, if there is one
+     */
+    public OptionInt find(IntPredicate pred) {
+        for (IntList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final int[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                if (pred.test(elems[j])) {
+                    return OptionInt.some(elems[j]);
+                }
+            }
+            l = n.tail;
+        }
+        return OptionInt.none();
+    }
+
+    /**
+     * Left-fold an operator over this list.
+     * @param f         the operator
+     * @param z         the initial value
+     * @return          the folded value
+     */
+    public int foldLeft(IntOp2 f, int z) {
+        int acc = z;
+        for (IntList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final int[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                acc = f.apply(acc, elems[j]);
+            }
+            l = n.tail;
+        }
+        return acc;
+    }
+
+    /**
+     * Right-fold an operator over this list.
+     * @param f         the operator
+     * @param z         the initial value
+     * @return          the folded value
+     */
+    public int foldRight(IntOp2 f, int z) {
+        final int[] arr = toArray();
+        int acc = z;
+        for (int i = arr.length - 1; i >= 0; --i) {
+            acc = f.apply(arr[i], acc);
+        }
+        return acc;
+    }
+
+    /**
+     * @return          the sum of the elements of this list
+     */
+    public int sum() {
+        int sum = 0;
+        for (IntList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final int[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                sum += elems[j];
+            }
+            l = n.tail;
+        }
+        return sum;
+    }
+
+    /**
+     * @return          this list in reverse order
+     */
+    public IntList reverse() {
+        final int[] arr = toArray();
+        for (int i = 0, j = arr.length - 1; i < j; ++i, --j) {
+            final int t = arr[i];
+            arr[i] = arr[j];
+            arr[j] = t;
+        }
+        return ofArrayUnsafe(arr, empty());
+    }
+
+    /**
+     * Convert this list into a list of boxed values.
+     * @return          the list of boxed values
+     */
+    public IList<Integer> boxed() {
+        return mapToObj(x -> x);
+    }
+
+    /**
+     * @return          a stream of the elements of this list
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    /**
+     * @return          a parallel stream of the elements of this list
+     */
+    public IntStream parallelStream() {
+        return StreamSupport.intStream(spliterator(), true);
+    }
+
+    @Override
+    public Spliterator.OfInt spliterator() {
+        final int chars = Spliterator.ORDERED | Spliterator.IMMUTABLE;
+        if (isEmpty()) {
+            return Spliterators.emptyIntSpliterator();
+        } else {
+            final Node n = (Node)this;
+            if (n.tail.isEmpty()) {
+                return Spliterators.spliterator(n.chunk.elems, n.start, n.chunk.elems.length, chars);
+            } else {
+                return Spliterators.spliterator(toArray(), chars);
+            }
+        }
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            IntList l = IntList.this;
+            int i = l.isEmpty() ? 0 : ((Node)l).start;
+
+            @Override
+            public boolean hasNext() {
+                return !l.isEmpty();
+            }
+
+            @Override
+            public int nextInt() {
+                if (l.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                final Node n = (Node)l;
+                final int x = n.chunk.elems[i++];
+                if (i == n.chunk.elems.length) {
+                    l = n.tail;
+                    i = l.isEmpty() ? 0 : ((Node)l).start;
+                }
+                return x;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (!(obj instanceof IntList)) {
+            return false;
+        } else {
+            final IntList rhs = (IntList)obj;
+            if (size() != rhs.size()) {
+                return false;
+            }
+            final PrimitiveIterator.OfInt lit = iterator();
+            final PrimitiveIterator.OfInt rit = rhs.iterator();
+            while (lit.hasNext()) {
+                if (lit.nextInt() != rit.nextInt()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (IntList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final int[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                hashCode = 31 * hashCode + Integer.hashCode(elems[j]);
+            }
+            l = n.tail;
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        forEachInt(x -> sb.append(x).append(','));
+        if (sb.length() > 1) {
+            sb.setLength(sb.length() - 1);
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * The empty list.
+     */
+    private static final class Empty extends IntList {
+        static final Empty EMPTY = new Empty();
+
+        @Override
+        public IntList add(int head) {
+            final int[] elems = new int[MIN_CHUNK_SIZE];
+            final int start = elems.length - 1;
+            elems[start] = head;
+            return new Node(new Chunk(elems, start), start, this);
+        }
+
+        @Override
+        public IntList appendAll(IntList l) {
+            return l;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+
+        @Override
+        public int head() {
+            throw new UnsupportedOperationException("Cannot take the head of an empty list");
+        }
+
+        @Override
+        public IntList tail() {
+            throw new UnsupportedOperationException("Cannot take the tail of an empty list");
+        }
+    }
+
+    /**
+     * A non-empty list, which consists of the elements of a chunk from {@code start} onwards,
+     * followed by the tail list.
+     */
+    private static final class Node extends IntList {
+        final Chunk chunk;
+        final int start;
+        final IntList tail;
+        final int size;
+
+        Node(Chunk chunk, int start, IntList tail) {
+            this.chunk = chunk;
+            this.start = start;
+            this.tail = tail;
+            this.size = chunk.elems.length - start + tail.size();
+        }
+
+        @Override
+        public IntList add(int head) {
+            if (chunk.claim(start)) {
+                chunk.elems[start - 1] = head;
+                return new Node(chunk, start - 1, tail);
+            } else {
+                final int len = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, 2 * (chunk.elems.length - start)));
+                final int[] elems = new int[len];
+                elems[len - 1] = head;
+                return new Node(new Chunk(elems, len - 1), len - 1, this);
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int head() {
+            return chunk.elems[start];
+        }
+
+        @Override
+        public IntList tail() {
+            return start + 1 < chunk.elems.length ? new Node(chunk, start + 1, tail) : tail;
+        }
+    }
+}
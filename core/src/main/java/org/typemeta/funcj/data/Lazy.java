@@ -2,7 +2,8 @@
 
 import org.typemeta.funcj.functions.Functions;
 
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * Wrapper for values which are computed lazily, i.e. on demand.
@@ -27,6 +28,7 @@ static <T> Lazy<T> of(Functions.F0<T> get) {
      * Construct a lazy value from a value supplier.
      * The lazy value is thread-safe, meaning the supplier will only be invoked
      * once, even if the {@code Lazy} value is passed to multiple threads.
+     * Once the value has been computed, reading it requires only a volatile read.
      * @param get supplier of the value
      * @param <T> value type
      * @return lazy value
@@ -34,34 +36,99 @@ static <T> Lazy<T> of(Functions.F0<T> get) {
     static <T> Lazy<T> ofTS(Functions.F0<T> get) {
         return new LazyThreadSafeImpl<T>(get);
     }
+
+    /**
+     * Construct a lazy value from a value supplier, without locking.
+     * The lazy value is thread-safe, meaning every caller observes the same value,
+     * even if the {@code Lazy} value is passed to multiple threads.
+     * However, if multiple threads race to compute the value then the supplier may be invoked
+     * more than once, and the first result to be published wins,
+     * so the supplier should be free of side-effects.
+     * Once the value has been computed, reading it requires only a volatile read,
+     * and the supplier is released.
+     * @param get supplier of the value
+     * @param <T> value type
+     * @return lazy value
+     */
+    static <T> Lazy<T> ofLockFree(Functions.F0<T> get) {
+        return new LazyLockFreeImpl<T>(get);
+    }
+
+    /**
+     * Construct a lazy value by applying a function to this lazy value.
+     * The function is applied on demand, at most once,
+     * and the resulting lazy value is thread-safe.
+     * Chains of {@code map} and {@code flatMap} are evaluated iteratively,
+     * so long chains do not consume stack.
+     * @param f the function
+     * @param <U> the function return type
+     * @return the new lazy value
+     */
+    default <U> Lazy<U> map(Functions.F<? super T, ? extends U> f) {
+        return new LazyDerived<T, U>(this, Objects.requireNonNull(f), false);
+    }
+
+    /**
+     * Construct a lazy value by applying a function which returns a lazy value to this lazy value.
+     * The function is applied on demand, at most once,
+     * and the resulting lazy value is thread-safe.
+     * @param f the function
+     * @param <U> the value type of the lazy value returned by the function
+     * @return the new lazy value
+     */
+    default <U> Lazy<U> flatMap(Functions.F<? super T, ? extends Lazy<? extends U>> f) {
+        return new LazyDerived<T, U>(this, Objects.requireNonNull(f), true);
+    }
+
+    /**
+     * Construct a lazy value by combining this lazy value with another.
+     * The function is applied on demand, at most once,
+     * and the resulting lazy value is thread-safe.
+     * @param other the other lazy value
+     * @param f the function which combines the values
+     * @param <U> the value type of the other lazy value
+     * @param <R> the function return type
+     * @return the new lazy value
+     */
+    default <U, R> Lazy<R> zip(Lazy<U> other, Functions.F2<? super T, ? super U, ? extends R> f) {
+        Objects.requireNonNull(other);
+        Objects.requireNonNull(f);
+        return new LazyDerived<T, R>(this, t -> f.apply(t, other.apply()), false);
+    }
 }
 
 class LazyImpl<T> implements Lazy<T> {
 
-    private class UnEval implements Functions.F0<T> {
-        final Functions.F0<T> source;
-
-        private UnEval(Functions.F0<T> source) {
-            this.source = source;
-        }
+    /**
+     * The evaluated value, held in a final field so that it is safely published
+     * to threads which observe the reference.
+     */
+    private static final class Value<T> {
+        final T value;
 
-        @Override
-        public T apply() {
-            final T eval = source.apply();
-            LazyImpl.this.get = () -> eval;
-            return eval;
+        Value(T value) {
+            this.value = value;
         }
     }
 
-    private Functions.F0<T> get;
+    // Either the value supplier, or a Value.
+    private Object state;
 
     LazyImpl(Functions.F0<T> get) {
-        this.get = new UnEval(Objects.requireNonNull(get));
+        this.state = Objects.requireNonNull(get);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public T apply() {
-        return get.apply();
+        final Object s = state;
+        if (s instanceof Value) {
+            return ((Value<T>)s).value;
+        } else {
+            final T eval = ((Functions.F0<T>)s).apply();
+            state = new Value<T>(eval);
+            return eval;
+        }
     }
 
     @Override
@@ -70,37 +137,116 @@ public String toString() {
     }
 }
 
-class LazyThreadSafeImpl<T> implements Lazy<T> {
+/**
+ * A thread-safe lazy value which is derived from another lazy value,
+ * via {@link Lazy#map} or {@link Lazy#flatMap}.
+ * Rather than composing closures, each derived value holds a reference to its parent,
+ * which is released once the value has been computed.
+ * <p>
+ * The function is applied under a lock, so that it is applied at most once.
+ * For {@code flatMap}, the inner lazy value returned by the function is forced outside of the lock,
+ * and its value is then published by CAS, so that derived values which force each other
+ * from different threads cannot deadlock.
+ */
+final class LazyDerived<S, T> implements Lazy<T> {
 
-    private class UnEval implements Functions.F0<T> {
-        Functions.F0<T> source;
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<LazyDerived, Object> STATE =
+            AtomicReferenceFieldUpdater.newUpdater(LazyDerived.class, Object.class, "state");
 
-        private UnEval(Functions.F0<T> source) {
-            this.source = Objects.requireNonNull(source);
+    /**
+     * The evaluated value, boxed so that it can be distinguished from the other states.
+     */
+    private static final class Value<T> {
+        final T value;
+
+        Value(T value) {
+            this.value = value;
         }
+    }
 
-        @Override
-        public synchronized T apply() {
-            if (source != null) {
-                final T eval = source.apply();
-                LazyThreadSafeImpl.this.get = () -> eval;
-                source = null;
-                return eval;
-            } else {
-                return LazyThreadSafeImpl.this.get.apply();
-            }
+    /**
+     * The inner lazy value returned by a {@code flatMap} function, which has yet to be forced.
+     */
+    private static final class Inner<T> {
+        final Lazy<? extends T> lazy;
+
+        Inner(Lazy<? extends T> lazy) {
+            this.lazy = Objects.requireNonNull(lazy);
         }
     }
 
-    private Functions.F0<T> get;
+    // The parent Lazy until the function has been applied,
+    // then (for flatMap) an Inner, and finally a Value.
+    private volatile Object state;
+
+    // Guarded by this, and released once applied.
+    private Functions.F<? super S, ?> f;
+    private final boolean flatten;
 
-    LazyThreadSafeImpl(Functions.F0<T> get) {
-        this.get = new UnEval(Objects.requireNonNull(get));
+    LazyDerived(Lazy<S> parent, Functions.F<? super S, ?> f, boolean flatten) {
+        this.state = Objects.requireNonNull(parent);
+        this.f = f;
+        this.flatten = flatten;
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public T apply() {
-        return get.apply();
+        final Object s = state;
+        if (!(s instanceof Lazy)) {
+            return force(s);
+        } else {
+            // Walk up the chain of derived values whose functions have yet to be applied,
+            // then evaluate them from the root downwards.
+            final List<LazyDerived<?, ?>> chain = new ArrayList<>();
+            Lazy<?> lz = this;
+            while (lz instanceof LazyDerived) {
+                final LazyDerived<?, ?> ld = (LazyDerived<?, ?>)lz;
+                final Object p = ld.state;
+                if (p instanceof Lazy) {
+                    chain.add(ld);
+                    lz = (Lazy<?>)p;
+                } else {
+                    break;
+                }
+            }
+
+            Object v = lz.apply();
+            for (int i = chain.size() - 1; i >= 0; --i) {
+                v = ((LazyDerived<Object, ?>)chain.get(i)).complete(v);
+            }
+            return (T)v;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T complete(S s) {
+        Object st;
+        synchronized (this) {
+            st = state;
+            if (st instanceof Lazy) {
+                final Object r = f.apply(s);
+                f = null;
+                st = flatten ? new Inner<T>((Lazy<? extends T>)r) : new Value<T>((T)r);
+                state = st;
+            }
+        }
+        return force(st);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T force(Object st) {
+        if (st instanceof Inner) {
+            final Value<T> v = new Value<T>(((Inner<T>)st).lazy.apply());
+            if (STATE.compareAndSet(this, st, v)) {
+                return v.value;
+            } else {
+                return ((Value<T>)state).value;
+            }
+        } else {
+            return ((Value<T>)st).value;
+        }
     }
 
     @Override
@@ -108,4 +254,3 @@ public String toString() {
         return "Lazy<" + apply() + '>';
     }
 }
-
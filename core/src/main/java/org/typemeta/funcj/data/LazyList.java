@@ -0,0 +1,679 @@
+package org.typemeta.funcj.data;
+
+import org.typemeta.funcj.control.Option;
+import org.typemeta.funcj.functions.Functions.*;
+import org.typemeta.funcj.tuples.Tuple2;
+
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Immutable, lazily evaluated and memoised list, which may be infinite.
+ * <p>
+ * A {@code LazyList} is a {@link Lazy} cell, which, once forced, is either empty
+ * or holds a chunk of one or more elements followed by the (lazy) remainder of the list.
+ * Each cell is evaluated at most once and then cached, so a {@code LazyList} can be traversed repeatedly,
+ * and by multiple threads, and the elements are only computed as far as the list is consumed.
+ * <p>
+ * Elements are evaluated a chunk at a time, which amortises the cost of each lazy cell across the chunk.
+ * The {@code iterate} and {@code unfold} constructors produce chunks of {@link LazyList#DEFAULT_CHUNK_SIZE}
+ * elements, unless a chunk size is given (a chunk size of 1 evaluates one element at a time).
+ * {@code map} and {@code zip} evaluate their function over a whole chunk at once,
+ * while {@code takeWhile} and {@code take} share the chunks of the list they are applied to.
+ * <p>
+ * The cells are {@link Lazy#ofLockFree lock-free lazy values},
+ * so the functions passed to the operations should be free of side-effects,
+ * as under contention a cell may be evaluated more than once (though only one result is ever observed).
+ * The exceptions are {@link LazyList#ofIterator(Iterator)} and {@link LazyList#ofStream(Stream)},
+ * which lock each cell so that the underlying source is read exactly once.
+ * <p>
+ * Forcing a cell never recurses along the list,
+ * so {@code filter}, {@code dropWhile} and {@code flatMap} can skip arbitrarily many elements
+ * without consuming stack.
+ * Null elements are not allowed.
+ * @param <T>       the element type
+ */
+public final class LazyList<T> implements Iterable<T> {
+
+    /**
+     * The number of elements evaluated at a time by the {@code iterate} and {@code unfold} constructors.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 32;
+
+    private static final Object[] NO_ELEMS = new Object[0];
+
+    /**
+     * An evaluated cell, which holds the elements from {@code elems[from]} up to (but excluding) {@code elems[to]},
+     * followed by the remainder of the list.
+     */
+    private static final class Cell {
+        final Object[] elems;
+        final int from;
+        final int to;
+        final LazyList<?> tail;
+
+        Cell(Object[] elems, int from, int to, LazyList<?> tail) {
+            this.elems = elems;
+            this.from = from;
+            this.to = to;
+            this.tail = tail;
+        }
+
+        int length() {
+            return to - from;
+        }
+
+        /**
+         * The list which follows the first {@code n} elements of this cell.
+         */
+        @SuppressWarnings("unchecked")
+        <T> LazyList<T> drop(int n) {
+            return from + n == to ? (LazyList<T>)tail : evaluated(new Cell(elems, from + n, to, tail));
+        }
+    }
+
+    private static final Cell NIL = new Cell(NO_ELEMS, 0, 0, null);
+
+    private static final LazyList<?> EMPTY = evaluated(NIL);
+
+    private static <T> LazyList<T> evaluated(Cell cell) {
+        return new LazyList<T>(LazyLockFreeImpl.ofValue(cell));
+    }
+
+    private static <T> LazyList<T> defer(F0<Cell> f) {
+        return new LazyList<T>(Lazy.ofLockFree(f));
+    }
+
+    private static int checkChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        } else {
+            return chunkSize;
+        }
+    }
+
+    /**
+     * Construct an empty list.
+     * @param <T>       the element type
+     * @return          an empty list
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> LazyList<T> empty() {
+        return (LazyList<T>)EMPTY;
+    }
+
+    /**
+     * Construct a list with one or more elements.
+     * @param elem      the first element
+     * @param elems     the remaining elements
+     * @param <T>       the element type
+     * @return          the new list
+     */
+    @SafeVarargs
+    public static <T> LazyList<T> of(T elem, T... elems) {
+        final Object[] arr = new Object[elems.length + 1];
+        arr[0] = Objects.requireNonNull(elem);
+        for (int i = 0; i < elems.length; ++i) {
+            arr[i + 1] = Objects.requireNonNull(elems[i]);
+        }
+        return evaluated(new Cell(arr, 0, arr.length, empty()));
+    }
+
+    /**
+     * Construct a list from the elements of an {@link IList}.
+     * @param l         the list
+     * @param <T>       the element type
+     * @return          the new list
+     */
+    public static <T> LazyList<T> ofIList(IList<T> l) {
+        return l.isEmpty() ? empty() : evaluated(new Cell(l.toArray(), 0, l.size(), empty()));
+    }
+
+    /**
+     * Construct a list which lazily reads the elements of an {@link Iterator},
+     * {@link LazyList#DEFAULT_CHUNK_SIZE} elements at a time.
+     * Each cell is evaluated under a lock, so the iterator is read exactly once, by one thread at a time,
+     * and the resulting list can be traversed any number of times.
+     * @param iter      the iterator
+     * @param <T>       the element type
+     * @return          the new list
+     */
+    public static <T> LazyList<T> ofIterator(Iterator<? extends T> iter) {
+        return new LazyList<T>(Lazy.ofTS(() -> {
+            final Object[] arr = new Object[DEFAULT_CHUNK_SIZE];
+            int n = 0;
+            while (n < arr.length && iter.hasNext()) {
+                arr[n++] = Objects.requireNonNull(iter.next());
+            }
+            return n == 0 ? NIL : new Cell(arr, 0, n, iter.hasNext() ? ofIterator(iter) : empty());
+        }));
+    }
+
+    /**
+     * Construct a list which lazily reads the elements of a {@link Stream},
+     * so that a one-shot stream can be re-traversed.
+     * @param str       the stream
+     * @param <T>       the element type
+     * @return          the new list
+     * @see             LazyList#ofIterator(Iterator)
+     */
+    public static <T> LazyList<T> ofStream(Stream<? extends T> str) {
+        return ofIterator(str.iterator());
+    }
+
+    /**
+     * Construct the infinite list {@code seed, f(seed), f(f(seed)), ...}.
+     * @param seed      the first element
+     * @param f         the function which computes each element from its predecessor
+     * @param <T>       the element type
+     * @return          the new list
+     */
+    public static <T> LazyList<T> iterate(T seed, F<? super T, ? extends T> f) {
+        return iterate(seed, f, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Construct the infinite list {@code seed, f(seed), f(f(seed)), ...},
+     * evaluating {@code chunkSize} elements at a time.
+     * @param seed      the first element
+     * @param f         the function which computes each element from its predecessor
+     * @param chunkSize the number of elements to evaluate at a time
+     * @param <T>       the element type
+     * @return          the new list
+     */
+    public static <T> LazyList<T> iterate(T seed, F<? super T, ? extends T> f, int chunkSize) {
+        checkChunkSize(chunkSize);
+        return evaluated(new Cell(new Object[]{Objects.requireNonNull(seed)}, 0, 1, iterateAfter(seed, f, chunkSize)));
+    }
+
+    private static <T> LazyList<T> iterateAfter(T prev, F<? super T, ? extends T> f, int chunkSize) {
+        return defer(() -> {
+            final Object[] arr = new Object[chunkSize];
+            T t = prev;
+            for (int i = 0; i < chunkSize; ++i) {
+                t = Objects.requireNonNull(f.apply(t));
+                arr[i] = t;
+            }
+            return new Cell(arr, 0, chunkSize, iterateAfter(t, f, chunkSize));
+        });
+    }
+
+    /**
+     * Construct a list from a seed value and a function which, given a seed,
+     * either returns the next element and the next seed, or none, to end the list.
+     * @param seed      the initial seed
+     * @param f         the function which computes the next element and seed
+     * @param <S>       the seed type
+     * @param <T>       the element type
+     * @return          the new list
+     */
+    public static <S, T> LazyList<T> unfold(S seed, F<? super S, Option<Tuple2<T, S>>> f) {
+        return unfold(seed, f, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Construct a list from a seed value and a function which, given a seed,
+     * either returns the next element and the next seed, or none, to end the list,
+     * evaluating {@code chunkSize} elements at a time.
+     * @param seed      the initial seed
+     * @param f         the function which computes the next element and seed
+     * @param chunkSize the number of elements to evaluate at a time
+     * @param <S>       the seed type
+     * @param <T>       the element type
+     * @return          the new list
+     */
+    public static <S, T> LazyList<T> unfold(S seed, F<? super S, Option<Tuple2<T, S>>> f, int chunkSize) {
+        checkChunkSize(chunkSize);
+        return defer(() -> {
+            final Object[] arr = new Object[chunkSize];
+            S s = seed;
+            for (int i = 0; i < chunkSize; ++i) {
+                final Option<Tuple2<T, S>> next = f.apply(s);
+                if (!next.isPresent()) {
+                    return i == 0 ? NIL : new Cell(arr, 0, i, empty());
+                } else {
+                    final Tuple2<T, S> t2 = next.get();
+                    arr[i] = Objects.requireNonNull(t2._1);
+                    s = t2._2;
+                }
+            }
+            return new Cell(arr, 0, chunkSize, unfold(s, f, chunkSize));
+        });
+    }
+
+    private static boolean isEvaluated(Lazy<?> lz) {
+        if (lz instanceof LazyLockFreeImpl) {
+            return ((LazyLockFreeImpl<?>)lz).isEvaluated();
+        } else if (lz instanceof LazyThreadSafeImpl) {
+            return ((LazyThreadSafeImpl<?>)lz).isEvaluated();
+        } else {
+            return false;
+        }
+    }
+
+    private final Lazy<Cell> cell;
+
+    private LazyList(Lazy<Cell> cell) {
+        this.cell = cell;
+    }
+
+    private Cell force() {
+        return cell.apply();
+    }
+
+    /**
+     * Create a new list by adding an element to the head of this list.
+     * @param head      the element to add onto head of this list
+     * @return          the new list
+     */
+    public LazyList<T> add(T head) {
+        return evaluated(new Cell(new Object[]{Objects.requireNonNull(head)}, 0, 1, this));
+    }
+
+    /**
+     * Create a new list by appending another list to this one.
+     * Neither list is evaluated until the new list is.
+     * @param l         the list to be appended
+     * @return          the new list
+     */
+    public LazyList<T> appendAll(LazyList<? extends T> l) {
+        return defer(() -> {
+            final Cell c = force();
+            return c == NIL ? l.force() : new Cell(c.elems, c.from, c.to, c.<T>drop(c.length()).appendAll(l));
+        });
+    }
+
+    /**
+     * Return true if this list is empty otherwise false.
+     * Forces the first cell of the list.
+     * @return          true if this list is empty otherwise false
+     */
+    public boolean isEmpty() {
+        return force() == NIL;
+    }
+
+    /**
+     * Return the head element of this list.
+     * @return          the head of this list
+     * @throws          UnsupportedOperationException if this list is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T head() {
+        final Cell c = force();
+        if (c == NIL) {
+            throw new UnsupportedOperationException("Cannot take the head of an empty list");
+        } else {
+            return (T)c.elems[c.from];
+        }
+    }
+
+    /**
+     * Return the tail of this list.
+     * @return          the tail of this list
+     * @throws          UnsupportedOperationException if this list is empty
+     */
+    public LazyList<T> tail() {
+        final Cell c = force();
+        if (c == NIL) {
+            throw new UnsupportedOperationException("Cannot take the tail of an empty list");
+        } else {
+            return c.drop(1);
+        }
+    }
+
+    /**
+     * Apply the function {@code f} to each element in this list.
+     * @param f         the function to be applied to each element
+     * @param <U>       the function return type
+     * @return          the new list
+     */
+    public <U> LazyList<U> map(F<? super T, ? extends U> f) {
+        return defer(() -> {
+            final Cell c = force();
+            if (c == NIL) {
+                return NIL;
+            } else {
+                final Object[] arr = new Object[c.length()];
+                for (int i = 0; i < arr.length; ++i) {
+                    @SuppressWarnings("unchecked")
+                    final T t = (T)c.elems[c.from + i];
+                    arr[i] = Objects.requireNonNull(f.apply(t));
+                }
+                return new Cell(arr, 0, arr.length, c.<T>drop(c.length()).map(f));
+            }
+        });
+    }
+
+    /**
+     * Create a new list containing the elements of this list which satisfy the predicate.
+     * @param pred      the predicate
+     * @return          the new list
+     */
+    @SuppressWarnings("unchecked")
+    public LazyList<T> filter(Predicate<? super T> pred) {
+        return defer(() -> {
+            LazyList<T> l = this;
+            while (true) {
+                final Cell c = l.force();
+                if (c == NIL) {
+                    return NIL;
+                } else {
+                    final Object[] arr = new Object[c.length()];
+                    int n = 0;
+                    for (int i = c.from; i < c.to; ++i) {
+                        if (pred.test((T)c.elems[i])) {
+                            arr[n++] = c.elems[i];
+                        }
+                    }
+                    l = c.drop(c.length());
+                    if (n == arr.length) {
+                        return new Cell(c.elems, c.from, c.to, l.filter(pred));
+                    } else if (n > 0) {
+                        return new Cell(arr, 0, n, l.filter(pred));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Create a new list by applying the function {@code f} to each element in this list,
+     * and concatenating the resulting lists.
+     * @param f         the function to be applied to each element
+     * @param <U>       the element type of the lists returned by {@code f}
+     * @return          the new list
+     */
+    @SuppressWarnings("unchecked")
+    public <U> LazyList<U> flatMap(F<? super T, LazyList<? extends U>> f) {
+        return defer(() -> {
+            LazyList<T> l = this;
+            while (true) {
+                final Cell c = l.force();
+                if (c == NIL) {
+                    return NIL;
+                } else {
+                    final Cell inner = f.apply((T)c.elems[c.from]).force();
+                    l = c.drop(1);
+                    if (inner != NIL) {
+                        final LazyList<U> rest = l.flatMap(f);
+                        return new Cell(inner.elems, inner.from, inner.to, inner.<U>drop(inner.length()).appendAll(rest));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Create a new list by combining each element of this list with the corresponding element of another,
+     * using the function {@code f}.
+     * The new list ends when either list ends.
+     * @param other     the other list
+     * @param f         the function which combines the elements
+     * @param <U>       the element type of the other list
+     * @param <R>       the function return type
+     * @return          the new list
+     */
+    @SuppressWarnings("unchecked")
+    public <U, R> LazyList<R> zip(LazyList<U> other, F2<? super T, ? super U, ? extends R> f) {
+        return defer(() -> {
+            final Cell a = force();
+            if (a == NIL) {
+                return NIL;
+            } else {
+                final Cell b = other.force();
+                if (b == NIL) {
+                    return NIL;
+                } else {
+                    final int n = Math.min(a.length(), b.length());
+                    final Object[] arr = new Object[n];
+                    for (int i = 0; i < n; ++i) {
+                        arr[i] = Objects.requireNonNull(f.apply((T)a.elems[a.from + i], (U)b.elems[b.from + i]));
+                    }
+                    return new Cell(arr, 0, n, a.<T>drop(n).zip(b.<U>drop(n), f));
+                }
+            }
+        });
+    }
+
+    /**
+     * Create a new list by pairing each element of this list with the corresponding element of another.
+     * @param other     the other list
+     * @param <U>       the element type of the other list
+     * @return          the new list
+     */
+    public <U> LazyList<Tuple2<T, U>> zip(LazyList<U> other) {
+        return zip(other, Tuple2::of);
+    }
+
+    /**
+     * Create a new list containing the longest prefix of this list whose elements satisfy the predicate.
+     * @param pred      the predicate
+     * @return          the new list
+     */
+    @SuppressWarnings("unchecked")
+    public LazyList<T> takeWhile(Predicate<? super T> pred) {
+        return defer(() -> {
+            final Cell c = force();
+            int i = c.from;
+            while (i < c.to && pred.test((T)c.elems[i])) {
+                ++i;
+            }
+            if (c == NIL || i == c.from) {
+                return NIL;
+            } else if (i == c.to) {
+                return new Cell(c.elems, c.from, c.to, c.<T>drop(c.length()).takeWhile(pred));
+            } else {
+                return new Cell(c.elems, c.from, i, empty());
+            }
+        });
+    }
+
+    /**
+     * Create a new list by discarding the longest prefix of this list whose elements satisfy the predicate.
+     * @param pred      the predicate
+     * @return          the new list
+     */
+    @SuppressWarnings("unchecked")
+    public LazyList<T> dropWhile(Predicate<? super T> pred) {
+        return defer(() -> {
+            LazyList<T> l = this;
+            while (true) {
+                final Cell c = l.force();
+                if (c == NIL) {
+                    return NIL;
+                } else {
+                    for (int i = c.from; i < c.to; ++i) {
+                        if (!pred.test((T)c.elems[i])) {
+                            return new Cell(c.elems, i, c.to, c.tail);
+                        }
+                    }
+                    l = c.drop(c.length());
+                }
+            }
+        });
+    }
+
+    /**
+     * Create a new list containing the first {@code n} elements of this list.
+     * @param n         the maximum number of elements
+     * @return          the new list
+     */
+    public LazyList<T> take(int n) {
+        if (n <= 0) {
+            return empty();
+        } else {
+            return defer(() -> {
+                final Cell c = force();
+                if (c == NIL) {
+                    return NIL;
+                } else if (c.length() >= n) {
+                    return new Cell(c.elems, c.from, c.from + n, empty());
+                } else {
+                    return new Cell(c.elems, c.from, c.to, c.<T>drop(c.length()).take(n - c.length()));
+                }
+            });
+        }
+    }
+
+    /**
+     * Create a new list by discarding the first {@code n} elements of this list.
+     * @param n         the number of elements to discard
+     * @return          the new list
+     */
+    public LazyList<T> drop(int n) {
+        if (n <= 0) {
+            return this;
+        } else {
+            return defer(() -> {
+                LazyList<T> l = this;
+                int rem = n;
+                while (true) {
+                    final Cell c = l.force();
+                    if (c == NIL) {
+                        return NIL;
+                    } else if (c.length() > rem) {
+                        return new Cell(c.elems, c.from + rem, c.to, c.tail);
+                    } else {
+                        rem -= c.length();
+                        l = c.drop(c.length());
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Left-fold a function over this list.
+     * @param f         the function to be folded
+     * @param z         the initial value for the fold (typically the identity value of {@code f})
+     * @param <U>       the fold result type
+     * @return          the folded result
+     */
+    @SuppressWarnings("unchecked")
+    public <U> U foldLeft(F2<U, T, U> f, U z) {
+        U acc = z;
+        for (Cell c = force(); c != NIL; c = c.tail.force()) {
+            for (int i = c.from; i < c.to; ++i) {
+                acc = f.apply(acc, (T)c.elems[i]);
+            }
+        }
+        return acc;
+    }
+
+    /**
+     * Evaluate this list into an {@link IList}.
+     * @return          the new list
+     */
+    public IList<T> toIList() {
+        Object[] arr = new Object[16];
+        int n = 0;
+        for (Cell c = force(); c != NIL; c = c.tail.force()) {
+            final int len = c.length();
+            if (n + len > arr.length) {
+                arr = Arrays.copyOf(arr, Math.max(arr.length * 2, n + len));
+            }
+            System.arraycopy(c.elems, c.from, arr, n, len);
+            n += len;
+        }
+        return IList.ofArray(arr, n, IList.<T>empty());
+    }
+
+    /**
+     * Create an {@link java.util.Iterator} over this list.
+     * Each cell is evaluated only when the iterator reaches it.
+     * @return          the iterator
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            Cell c = null;
+            int i = 0;
+
+            private Cell current() {
+                if (c == null) {
+                    c = force();
+                    i = c.from;
+                }
+                while (i == c.to && c != NIL) {
+                    c = c.tail.force();
+                    i = c.from;
+                }
+                return c;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return current() != NIL;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                final Cell cur = current();
+                if (cur == NIL) {
+                    throw new NoSuchElementException();
+                } else {
+                    return (T)cur.elems[i++];
+                }
+            }
+        };
+    }
+
+    /**
+     * Create a {@link java.util.Spliterator} over this list.
+     * Splitting evaluates a batch of elements into an array.
+     * @return          the spliterator
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliteratorUnknownSize(
+                iterator(),
+                Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+    }
+
+    /**
+     * Create a {@link java.util.stream.Stream} onto this list.
+     * The stream may be infinite, in which case it should be limited.
+     * @return          the new stream
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Create a parallel {@link java.util.stream.Stream} onto this list.
+     * @return          the new stream
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Render the elements which have been evaluated so far,
+     * followed by {@code ...} if the remainder of the list has yet to be evaluated.
+     * No elements are evaluated.
+     * @return          the string representation
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        for (LazyList<?> l = this; l != null; ) {
+            if (!isEvaluated(l.cell)) {
+                sb.append("...,");
+                break;
+            } else {
+                final Cell c = l.force();
+                for (int i = c.from; i < c.to; ++i) {
+                    sb.append(c.elems[i]).append(',');
+                }
+                l = c.tail;
+            }
+        }
+        if (sb.length() == 1) {
+            sb.append(']');
+        } else {
+            sb.setCharAt(sb.length() - 1, ']');
+        }
+        return sb.toString();
+    }
+}
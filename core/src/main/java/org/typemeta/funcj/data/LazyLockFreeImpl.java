@@ -0,0 +1,67 @@
+package org.typemeta.funcj.data;
+
+import org.typemeta.funcj.functions.Functions;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+class LazyLockFreeImpl<T> implements Lazy<T> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<LazyLockFreeImpl, Object> STATE =
+            AtomicReferenceFieldUpdater.newUpdater(LazyLockFreeImpl.class, Object.class, "state");
+
+    /**
+     * The evaluated value, boxed so that it can be distinguished from the supplier.
+     */
+    private static final class Value<T> {
+        final T value;
+
+        Value(T value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Construct a lazy value which has already been evaluated.
+     */
+    static <T> LazyLockFreeImpl<T> ofValue(T value) {
+        return new LazyLockFreeImpl<T>(new Value<T>(value));
+    }
+
+    // Either the value supplier, or a Value.
+    private volatile Object state;
+
+    LazyLockFreeImpl(Functions.F0<T> get) {
+        this.state = Objects.requireNonNull(get);
+    }
+
+    private LazyLockFreeImpl(Value<T> value) {
+        this.state = value;
+    }
+
+    boolean isEvaluated() {
+        return state instanceof Value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T apply() {
+        final Object s = state;
+        if (s instanceof Value) {
+            return ((Value<T>)s).value;
+        } else {
+            final Value<T> v = new Value<T>(((Functions.F0<T>)s).apply());
+            if (STATE.compareAndSet(this, s, v)) {
+                return v.value;
+            } else {
+                return ((Value<T>)state).value;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Lazy<" + apply() + '>';
+    }
+}
@@ -0,0 +1,43 @@
+package org.typemeta.funcj.data;
+
+import org.typemeta.funcj.functions.Functions;
+
+import java.util.Objects;
+
+class LazyThreadSafeImpl<T> implements Lazy<T> {
+
+    // Non-null until the value has been computed.
+    private volatile Functions.F0<T> source;
+
+    // Written before source is cleared, and read after source is seen to be cleared.
+    private T value;
+
+    LazyThreadSafeImpl(Functions.F0<T> get) {
+        this.source = Objects.requireNonNull(get);
+    }
+
+    boolean isEvaluated() {
+        return source == null;
+    }
+
+    @Override
+    public T apply() {
+        if (source == null) {
+            return value;
+        } else {
+            synchronized (this) {
+                final Functions.F0<T> s = source;
+                if (s != null) {
+                    value = s.apply();
+                    source = null;
+                }
+                return value;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Lazy<" + apply() + '>';
+    }
+}
@@ -0,0 +1,546 @@
+package org.typemeta.funcj.data;
+
+import org.typemeta.funcj.control.OptionLong;
+import org.typemeta.funcj.functions.PrimitiveFunctions.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.LongConsumer;
+import java.util.stream.*;
+
+/**
+ * Immutable list of {@code long} values.
+ * <p>
+ * An {@code LongList} is a linked list of array chunks, so the elements are held unboxed,
+ * and contiguously within each chunk.
+ * Adding an element to the front of a list writes it into the free space at the front of the list's first chunk,
+ * unless another list which shares the chunk has already claimed that space,
+ * in which case the element starts a new chunk, twice the size of the previous one (up to a limit).
+ * The bulk operations ({@code ofArray}, {@code map}, {@code filter}, {@code reverse}, ...)
+ * build lists which consist of a single chunk.
+ * <p>
+ * Use {@link #boxed()} and {@link #ofIList(IList)} to convert to and from an {@link IList}.
+ */
+public abstract class LongList implements Iterable<Long> {
+
+    static final int MIN_CHUNK_SIZE = 8;
+    static final int MAX_CHUNK_SIZE = 1024;
+
+    /**
+     * Construct an empty list.
+     * @return          an empty list
+     */
+    public static LongList empty() {
+        return Empty.EMPTY;
+    }
+
+    /**
+     * Construct a list from the given elements.
+     * @param elems     the elements
+     * @return          the new list
+     */
+    public static LongList of(long... elems) {
+        return ofArray(elems);
+    }
+
+    /**
+     * Construct a list from an array.
+     * The array is copied.
+     * @param elems     the array of elements
+     * @return          the new list
+     */
+    public static LongList ofArray(long[] elems) {
+        return ofArrayUnsafe(elems.clone(), empty());
+    }
+
+    /**
+     * Construct a list from a stream.
+     * @param s         the stream of elements
+     * @return          the new list
+     */
+    public static LongList ofStream(LongStream s) {
+        return ofArrayUnsafe(s.toArray(), empty());
+    }
+
+    /**
+     * Construct a list from a list of boxed values.
+     * @param l         the list of boxed values
+     * @return          the new list
+     */
+    public static LongList ofIList(IList<Long> l) {
+        final long[] elems = new long[l.size()];
+        int i = 0;
+        for (Long x : l) {
+            elems[i++] = x;
+        }
+        return ofArrayUnsafe(elems, empty());
+    }
+
+    /**
+     * Construct a list which consists of a single chunk holding the array (which is not copied),
+     * followed by the given list.
+     */
+    private static LongList ofArrayUnsafe(long[] elems, LongList tail) {
+        if (elems.length == 0) {
+            return tail;
+        } else {
+            return new Node(new Chunk(elems, 0), 0, tail);
+        }
+    }
+
+    /**
+     * An array chunk, which is filled from the end.
+     * Elements at indices below {@code free} have not been claimed by any list.
+     */
+    static final class Chunk {
+        private static final AtomicIntegerFieldUpdater<Chunk> FREE =
+                AtomicIntegerFieldUpdater.newUpdater(Chunk.class, "free");
+
+        final long[] elems;
+        volatile int free;
+
+        Chunk(long[] elems, int free) {
+            this.elems = elems;
+            this.free = free;
+        }
+
+        /**
+         * Attempt to claim the slot before {@code start}, for the list which starts at {@code start}.
+         */
+        boolean claim(int start) {
+            return start > 0 && free == start && FREE.compareAndSet(this, start, start - 1);
+        }
+    }
+
+    private LongList() {
+    }
+
+    /**
+     * Add an element to the front of this list.
+     * @param head      the new element
+     * @return          the new list
+     */
+    public abstract LongList add(long head);
+
+    /**
+     * Concatenate this list with another.
+     * @param l         the list to append
+     * @return          the concatenated list
+     */
+    public LongList appendAll(LongList l) {
+        return ofArrayUnsafe(toArray(), l);
+    }
+
+    /**
+     * @return          true if this list is empty
+     */
+    public abstract boolean isEmpty();
+
+    /**
+     * @return          the length of this list
+     */
+    public abstract int size();
+
+    /**
+     * @return          the first element of this list
+     * @throws UnsupportedOperationException if this list is empty
+     */
+    public abstract long head();
+
+    /**
+     * @return          this list with the first element removed
+     * @throws UnsupportedOperationException if this list is empty
+     */
+    public abstract LongList tail();
+
+    /**
+     * Return the element at the given index.
+     * @param index     the index
+     * @return          the element
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+        Node n = (Node)this;
+        while (true) {
+            final int len = n.chunk.elems.length - n.start;
+            if (index < len) {
+                return n.chunk.elems[n.start + index];
+            }
+            index -= len;
+            n = (Node)n.tail;
+        }
+    }
+
+    /**
+     * Apply the action to each element of this list, in order.
+     * @param action    the action
+     */
+    public void forEachLong(LongConsumer action) {
+        for (LongList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final long[] elems = n.chunk.elems;
+            for (int i = n.start; i < elems.length; ++i) {
+                action.accept(elems[i]);
+            }
+            l = n.tail;
+        }
+    }
+
+    /**
+     * Copy the elements of this list into an array.
+     * @return          the array of elements
+     */
+    public long[] toArray() {
+        final long[] arr = new long[size()];
+        int i = 0;
+        for (LongList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final int len = n.chunk.elems.length - n.start;
+            System.arraycopy(n.chunk.elems, n.start, arr, i, len);
+            i += len;
+            l = n.tail;
+        }
+        return arr;
+    }
+
+    /**
+     * Apply an operator to each element of this list.
+     * @param f         the operator
+     * @return          the list of results
+     */
+    public LongList map(LongOp f) {
+        final long[] arr = new long[size()];
+        int i = 0;
+        for (LongList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final long[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                arr[i++] = f.apply(elems[j]);
+            }
+            l = n.tail;
+        }
+        return ofArrayUnsafe(arr, empty());
+    }
+
+    /**
+     * Apply a function to each element of this list, to produce a list of boxed values.
+     * @param f         the function
+     * @param <U>       the function return type
+     * @return          the list of results
+     */
+    public <U> IList<U> mapToObj(LongF<? extends U> f) {
+        final long[] arr = toArray();
+        IList<U> r = IList.empty();
+        for (int i = arr.length - 1; i >= 0; --i) {
+            r = r.add(f.apply(arr[i]));
+        }
+        return r;
+    }
+
+    /**
+     * Return the elements of this list which satisfy a predicate.
+     * @param pred      the predicate
+     * @return          the list of elements which satisfy the predicate
+     */
+    public LongList filter(LongPredicate pred) {
+        final long[] arr = new long[size()];
+        int i = 0;
+        for (LongList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final long[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                if (pred.test(elems[j])) {
+                    arr[i++] = elems[j];
+                }
+            }
+            l = n.tail;
+        }
+        return ofArrayUnsafe(i == arr.length ? arr : Arrays.copyOf(arr, i), empty());
+    }
+
+    /**
+     * Return the first element of this list which satisfies a predicate.
+     * @param pred      the predicate
+     * @return          the first element which satisfies the predicate, if there is one
+     */
+    public OptionLong find(LongPredicate pred) {
+        for (LongList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final long[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                if (pred.test(elems[j])) {
+                    return OptionLong.some(elems[j]);
+                }
+            }
+            l = n.tail;
+        }
+        return OptionLong.none();
+    }
+
+    /**
+     * Left-fold an operator over this list.
+     * @param f         the operator
+     * @param z         the initial value
+     * @return          the folded value
+     */
+    public long foldLeft(LongOp2 f, long z) {
+        long acc = z;
+        for (LongList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final long[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                acc = f.apply(acc, elems[j]);
+            }
+            l = n.tail;
+        }
+        return acc;
+    }
+
+    /**
+     * Right-fold an operator over this list.
+     * @param f         the operator
+     * @param z         the initial value
+     * @return          the folded value
+     */
+    public long foldRight(LongOp2 f, long z) {
+        final long[] arr = toArray();
+        long acc = z;
+        for (int i = arr.length - 1; i >= 0; --i) {
+            acc = f.apply(arr[i], acc);
+        }
+        return acc;
+    }
+
+    /**
+     * @return          the sum of the elements of this list
+     */
+    public long sum() {
+        long sum = 0;
+        for (LongList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final long[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                sum += elems[j];
+            }
+            l = n.tail;
+        }
+        return sum;
+    }
+
+    /**
+     * @return          this list in reverse order
+     */
+    public LongList reverse() {
+        final long[] arr = toArray();
+        for (int i = 0, j = arr.length - 1; i < j; ++i, --j) {
+            final long t = arr[i];
+            arr[i] = arr[j];
+            arr[j] = t;
+        }
+        return ofArrayUnsafe(arr, empty());
+    }
+
+    /**
+     * Convert this list into a list of boxed values.
+     * @return          the list of boxed values
+     */
+    public IList<Long> boxed() {
+        return mapToObj(x -> x);
+    }
+
+    /**
+     * @return          a stream of the elements of this list
+     */
+    public LongStream stream() {
+        return StreamSupport.longStream(spliterator(), false);
+    }
+
+    /**
+     * @return          a parallel stream of the elements of this list
+     */
+    public LongStream parallelStream() {
+        return StreamSupport.longStream(spliterator(), true);
+    }
+
+    @Override
+    public Spliterator.OfLong spliterator() {
+        final int chars = Spliterator.ORDERED | Spliterator.IMMUTABLE;
+        if (isEmpty()) {
+            return Spliterators.emptyLongSpliterator();
+        } else {
+            final Node n = (Node)this;
+            if (n.tail.isEmpty()) {
+                return Spliterators.spliterator(n.chunk.elems, n.start, n.chunk.elems.length, chars);
+            } else {
+                return Spliterators.spliterator(toArray(), chars);
+            }
+        }
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            LongList l = LongList.this;
+            int i = l.isEmpty() ? 0 : ((Node)l).start;
+
+            @Override
+            public boolean hasNext() {
+                return !l.isEmpty();
+            }
+
+            @Override
+            public long nextLong() {
+                if (l.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                final Node n = (Node)l;
+                final long x = n.chunk.elems[i++];
+                if (i == n.chunk.elems.length) {
+                    l = n.tail;
+                    i = l.isEmpty() ? 0 : ((Node)l).start;
+                }
+                return x;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (!(obj instanceof LongList)) {
+            return false;
+        } else {
+            final LongList rhs = (LongList)obj;
+            if (size() != rhs.size()) {
+                return false;
+            }
+            final PrimitiveIterator.OfLong lit = iterator();
+            final PrimitiveIterator.OfLong rit = rhs.iterator();
+            while (lit.hasNext()) {
+                if (lit.nextLong() != rit.nextLong()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (LongList l = this; !l.isEmpty(); ) {
+            final Node n = (Node)l;
+            final long[] elems = n.chunk.elems;
+            for (int j = n.start; j < elems.length; ++j) {
+                hashCode = 31 * hashCode + Long.hashCode(elems[j]);
+            }
+            l = n.tail;
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        forEachLong(x -> sb.append(x).append(','));
+        if (sb.length() > 1) {
+            sb.setLength(sb.length() - 1);
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * The empty list.
+     */
+    private static final class Empty extends LongList {
+        static final Empty EMPTY = new Empty();
+
+        @Override
+        public LongList add(long head) {
+            final long[] elems = new long[MIN_CHUNK_SIZE];
+            final int start = elems.length - 1;
+            elems[start] = head;
+            return new Node(new Chunk(elems, start), start, this);
+        }
+
+        @Override
+        public LongList appendAll(LongList l) {
+            return l;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+
+        @Override
+        public long head() {
+            throw new UnsupportedOperationException("Cannot take the head of an empty list");
+        }
+
+        @Override
+        public LongList tail() {
+            throw new UnsupportedOperationException("Cannot take the tail of an empty list");
+        }
+    }
+
+    /**
+     * A non-empty list, which consists of the elements of a chunk from {@code start} onwards,
+     * followed by the tail list.
+     */
+    private static final class Node extends LongList {
+        final Chunk chunk;
+        final int start;
+        final LongList tail;
+        final int size;
+
+        Node(Chunk chunk, int start, LongList tail) {
+            this.chunk = chunk;
+            this.start = start;
+            this.tail = tail;
+            this.size = chunk.elems.length - start + tail.size();
+        }
+
+        @Override
+        public LongList add(long head) {
+            if (chunk.claim(start)) {
+                chunk.elems[start - 1] = head;
+                return new Node(chunk, start - 1, tail);
+            } else {
+                final int len = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, 2 * (chunk.elems.length - start)));
+                final long[] elems = new long[len];
+                elems[len - 1] = head;
+                return new Node(new Chunk(elems, len - 1), len - 1, this);
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public long head() {
+            return chunk.elems[start];
+        }
+
+        @Override
+        public LongList tail() {
+            return start + 1 < chunk.elems.length ? new Node(chunk, start + 1, tail) : tail;
+        }
+    }
+}
@@ -155,6 +155,6 @@ <T> T match(
         Functions.F<Concat, T> concat);
 
     default void format(Writer wtr, int indent, int width) {
-        DocFormat.format(wtr, indent, width, this);
+        StreamingDocFormat.format(wtr, indent, width, this);
     }
 }
@@ -0,0 +1,456 @@
+package org.typemeta.funcj.document;
+
+import org.typemeta.funcj.data.IList;
+import org.typemeta.funcj.util.Exceptions;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Format a {@code Document} into a {@code Writer}, in a single pass with bounded lookahead.
+ * <p>
+ * The output is identical to that of {@link DocFormat},
+ * however where {@code DocFormat} decides whether each group fits by re-scanning the rest of the document,
+ * this formatter streams the document (after Oppen) and holds back only the output of the groups
+ * which are still undecided.
+ * A group is decided as soon as either the text since its start no longer fits on the line,
+ * or a line break that belongs to an enclosing broken group is reached,
+ * so the held back output is never much wider than a line.
+ * <p>
+ * Output is written directly to the {@code Writer}, with no intermediate line buffer,
+ * and indentation is written from a shared array of spaces.
+ * Trailing whitespace is held back until it is known not to end a line, so that it can be dropped.
+ */
+public class StreamingDocFormat {
+    private static final int DEFAULT_INDENT_SIZE = 4;
+
+    private static final char[] SPACES = new char[256];
+
+    static {
+        Arrays.fill(SPACES, ' ');
+    }
+
+    public static String format(int width, Document doc) {
+        return format(DEFAULT_INDENT_SIZE, width, doc);
+    }
+
+    public static void format(Writer wtr, int width, Document doc) {
+        format(wtr, DEFAULT_INDENT_SIZE, width, doc);
+    }
+
+    public static String format(int indent, int width, Document doc) {
+        final StringBuilderWriter wtr = new StringBuilderWriter();
+        format(wtr, indent, width, doc);
+        return wtr.toString();
+    }
+
+    public static void format(Writer wtr, int indent, int width, Document doc) {
+        new StreamingDocFormat(wtr, indent, width).format(doc);
+        Exceptions.wrap(wtr::flush);
+    }
+
+    /**
+     * An unsynchronized alternative to {@link StringWriter}.
+     */
+    private static final class StringBuilderWriter extends Writer {
+        private final StringBuilder sb = new StringBuilder();
+
+        @Override
+        public void write(int c) {
+            sb.append((char)c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            sb.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            sb.append(str, off, off + len);
+        }
+
+        @Override
+        public Writer append(CharSequence csq) {
+            sb.append(csq);
+            return this;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return sb.toString();
+        }
+    }
+
+    /**
+     * The layout state of a group.
+     */
+    private static final class GroupState {
+        static final int PENDING = 0;
+        static final int FLAT = 1;
+        static final int BROKEN = 2;
+
+        /**
+         * The innermost enclosing group, or null if this group is not nested in a group.
+         */
+        final GroupState parent;
+
+        int mode = PENDING;
+
+        /**
+         * The text position at which this group started.
+         */
+        long startPos;
+
+        /**
+         * The buffer index of this group's start, and of its last held back line break.
+         */
+        long startIdx;
+        long lastBreakIdx;
+
+        GroupState(GroupState parent) {
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * A line break, which is taken if its group is broken.
+     */
+    private static final class BreakEvent {
+        final int indent;
+        final GroupState group;
+
+        BreakEvent(int indent, GroupState group) {
+            this.indent = indent;
+            this.group = group;
+        }
+    }
+
+    /**
+     * Marks the end of a group or nest in the traversal stack.
+     */
+    private enum EndMarker {
+        GROUP, NEST
+    }
+
+    /**
+     * The event for a document node which doesn't produce any output.
+     */
+    private static final Object NODE = new Object();
+
+    /**
+     * A cursor over the remaining children of a {@link Document.Concat} in the traversal stack.
+     */
+    private static final class ConcatCursor {
+        IList<Document> rest;
+
+        ConcatCursor(IList<Document> rest) {
+            this.rest = rest;
+        }
+    }
+
+    private final Writer wtr;
+    private final int width;
+    private final int indSize;
+
+    /**
+     * The events (a {@code String} for text, a {@link BreakEvent} or a {@link GroupState} for a group start)
+     * which are waiting to be processed.
+     */
+    private final ArrayDeque<Object> input = new ArrayDeque<>();
+
+    /**
+     * The undecided groups, in the order they started.
+     */
+    private final ArrayDeque<GroupState> pending = new ArrayDeque<>();
+
+    /**
+     * The events held back while groups are undecided.
+     * The held back events start at {@code bufHead}, with the start of the first pending group.
+     * Buffer indices are counted from the start of the document, so {@code bufOffset}
+     * is the buffer index of the first element.
+     */
+    private final ArrayList<Object> buffer = new ArrayList<>();
+    private long bufOffset = 0;
+    private int bufHead = 0;
+
+    /**
+     * The total length of text processed.
+     */
+    private long pos = 0;
+
+    /**
+     * The current output column.
+     */
+    private int col = 0;
+
+    /**
+     * The indentation and whitespace written since the last non-whitespace character on the current line.
+     */
+    private int pendingIndent = 0;
+    private final StringBuilder pendingWs = new StringBuilder();
+
+    public StreamingDocFormat(Writer wtr, int indSize, int width) {
+        this.wtr = wtr;
+        this.width = width;
+        this.indSize = indSize;
+    }
+
+    private void format(Document doc) {
+        final ArrayDeque<Object> stack = new ArrayDeque<>();
+        final ArrayDeque<GroupState> groups = new ArrayDeque<>();
+        int indent = 0;
+
+        stack.push(doc);
+        while (!stack.isEmpty()) {
+            final Object top = stack.pop();
+            if (top instanceof ConcatCursor) {
+                final ConcatCursor cursor = (ConcatCursor)top;
+                if (!cursor.rest.isEmpty()) {
+                    final Document hd = cursor.rest.head();
+                    cursor.rest = cursor.rest.tail();
+                    stack.push(cursor);
+                    stack.push(hd);
+                }
+            } else if (top == EndMarker.GROUP) {
+                groups.pop();
+            } else if (top == EndMarker.NEST) {
+                indent = (Integer)stack.pop();
+            } else {
+                final Document hd = (Document)top;
+                if (hd instanceof Document.Nil) {
+                    feed(NODE);
+                } else if (hd instanceof Document.Break) {
+                    final GroupState group = groups.peek();
+                    if (group == null || group.mode == GroupState.FLAT) {
+                        feed(NODE);
+                    } else {
+                        feed(new BreakEvent(indent, group));
+                    }
+                } else if (hd instanceof Document.Text) {
+                    feed(((Document.Text)hd).text);
+                } else if (hd instanceof Document.Group) {
+                    final GroupState group = new GroupState(groups.peek());
+                    feed(group);
+                    groups.push(group);
+                    stack.push(EndMarker.GROUP);
+                    stack.push(((Document.Group)hd).doc);
+                } else if (hd instanceof Document.Nest) {
+                    final Document.Nest nest = (Document.Nest)hd;
+                    feed(NODE);
+                    stack.push(indent);
+                    stack.push(EndMarker.NEST);
+                    stack.push(nest.doc);
+                    indent += nest.indent * indSize;
+                } else if (hd instanceof Document.Concat) {
+                    feed(NODE);
+                    stack.push(new ConcatCursor(((Document.Concat)hd).children));
+                } else {
+                    throw new IllegalStateException("");
+                }
+            }
+        }
+
+        resolveAllFlat();
+        pendingIndent = 0;
+        pendingWs.setLength(0);
+    }
+
+    private void feed(Object event) {
+        if (pending.isEmpty()) {
+            process(event);
+        } else {
+            input.addLast(event);
+            drain();
+        }
+    }
+
+    /**
+     * Process the waiting events.
+     * Before each event, check whether the text since the start of the first pending group
+     * has overflowed the line, in which case that group is broken.
+     * As with {@link DocFormat}, text which overflows the line at the very end of the document
+     * doesn't cause a group to be broken.
+     */
+    private void drain() {
+        while (!input.isEmpty()) {
+            if (!pending.isEmpty() && width - col - (pos - pending.peekFirst().startPos) < 0) {
+                resolveFirstBroken();
+            } else {
+                process(input.pollFirst());
+            }
+        }
+    }
+
+    private void process(Object event) {
+        if (event == NODE) {
+        } else if (event instanceof String) {
+            final String text = (String)event;
+            pos += text.length();
+            if (pending.isEmpty()) {
+                text(text);
+            } else {
+                hold(text);
+            }
+        } else if (event instanceof BreakEvent) {
+            final BreakEvent brk = (BreakEvent)event;
+            if (brk.group != null) {
+                switch (brk.group.mode) {
+                    case GroupState.PENDING:
+                        brk.group.lastBreakIdx = hold(brk);
+                        break;
+                    case GroupState.BROKEN:
+                        resolveAllFlat();
+                        newLine(brk.indent);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } else {
+            final GroupState group = (GroupState)event;
+            if (group.parent != null && group.parent.mode == GroupState.FLAT) {
+                group.mode = GroupState.FLAT;
+            } else {
+                group.mode = GroupState.PENDING;
+                group.startPos = pos;
+                group.startIdx = hold(group);
+                group.lastBreakIdx = -1;
+                pending.addLast(group);
+            }
+        }
+    }
+
+    private long hold(Object event) {
+        buffer.add(event);
+        return bufOffset + buffer.size() - 1;
+    }
+
+    private void clearBuffer() {
+        bufOffset += buffer.size();
+        buffer.clear();
+        bufHead = 0;
+    }
+
+    /**
+     * The first pending group doesn't fit, so break it.
+     * If none of its line breaks are held back after the start of the next pending group,
+     * then the remaining pending groups are unaffected, other than now starting at a different column,
+     * so write out the events up to the next pending group.
+     * Otherwise re-process the held back events, as one of the line breaks may decide the remaining groups.
+     */
+    private void resolveFirstBroken() {
+        final GroupState first = pending.pollFirst();
+        first.mode = GroupState.BROKEN;
+        final GroupState next = pending.peekFirst();
+        if (next != null && first.lastBreakIdx < next.startIdx) {
+            final int end = (int)(next.startIdx - bufOffset);
+            for (int i = bufHead + 1; i < end; ++i) {
+                final Object event = buffer.get(i);
+                if (event instanceof String) {
+                    text((String)event);
+                } else {
+                    newLine(((BreakEvent)event).indent);
+                }
+            }
+            bufHead = end;
+            if (bufHead > buffer.size() / 2) {
+                buffer.subList(0, bufHead).clear();
+                bufOffset += bufHead;
+                bufHead = 0;
+            }
+        } else {
+            pending.clear();
+            for (int i = buffer.size() - 1; i > bufHead; --i) {
+                input.addFirst(buffer.get(i));
+            }
+            clearBuffer();
+        }
+    }
+
+    /**
+     * All the pending groups fit, so write out the held back text.
+     */
+    private void resolveAllFlat() {
+        for (GroupState group : pending) {
+            group.mode = GroupState.FLAT;
+        }
+        pending.clear();
+        for (int i = bufHead; i < buffer.size(); ++i) {
+            final Object event = buffer.get(i);
+            if (event instanceof String) {
+                text((String)event);
+            }
+        }
+        clearBuffer();
+    }
+
+    private void newLine(int indent) {
+        pendingIndent = indent;
+        pendingWs.setLength(0);
+        col = indent;
+        write('\n');
+    }
+
+    private void text(String text) {
+        col += text.length();
+        int last = text.length() - 1;
+        while (last >= 0 && text.charAt(last) <= ' ') {
+            --last;
+        }
+
+        if (last >= 0) {
+            for (int n = pendingIndent; n > 0; n -= SPACES.length) {
+                write(SPACES, Math.min(n, SPACES.length));
+            }
+            pendingIndent = 0;
+            if (pendingWs.length() > 0) {
+                write(pendingWs);
+                pendingWs.setLength(0);
+            }
+            write(text, last + 1);
+        }
+
+        pendingWs.append(text, last + 1, text.length());
+    }
+
+    private void write(char c) {
+        try {
+            wtr.write(c);
+        } catch (IOException ex) {
+            Exceptions.throwUnchecked(ex);
+        }
+    }
+
+    private void write(char[] cs, int len) {
+        try {
+            wtr.write(cs, 0, len);
+        } catch (IOException ex) {
+            Exceptions.throwUnchecked(ex);
+        }
+    }
+
+    private void write(String s, int len) {
+        try {
+            wtr.write(s, 0, len);
+        } catch (IOException ex) {
+            Exceptions.throwUnchecked(ex);
+        }
+    }
+
+    private void write(CharSequence cs) {
+        try {
+            wtr.append(cs);
+        } catch (IOException ex) {
+            Exceptions.throwUnchecked(ex);
+        }
+    }
+}
@@ -90,6 +90,31 @@ static <A, R> F<A, R> of(F<A, R> f) {
             return f;
         }
 
+        /**
+         * Memoise a function, using an unbounded {@link MemoCache}.
+         * If the function throws then no result is cached, and the exception is propagated.
+         * @param f         the function to be memoised
+         * @param <A>       the function argument type
+         * @param <R>       the function return type
+         * @return          the memoised function
+         */
+        static <A, R> F<A, R> memoize(F<A, R> f) {
+            return memoize(f, MemoCache.<A, R>builder().build());
+        }
+
+        /**
+         * Memoise a function, using the given {@link MemoCache}.
+         * If the function throws then no result is cached, and the exception is propagated.
+         * @param f         the function to be memoised
+         * @param cache     the cache which holds the function results
+         * @param <A>       the function argument type
+         * @param <R>       the function return type
+         * @return          the memoised function
+         */
+        static <A, R> F<A, R> memoize(F<A, R> f, MemoCache<A, R> cache) {
+            return a -> cache.getEx(a, f::apply);
+        }
+
         /**
          * The identity function, that simply returns its argument.
          * @param <A>       input and output type of function
@@ -206,6 +231,35 @@ static <A, B, R> F2<A, B, R> of(F2<A, B, R> f) {
             return f;
         }
 
+        /**
+         * Memoise a function, using an unbounded {@link MemoCache}.
+         * If the function throws then no result is cached, and the exception is propagated.
+         * @param f         the function to be memoised
+         * @param <A>       the function's first argument type
+         * @param <B>       the function's second argument type
+         * @param <R>       the function return type
+         * @return          the memoised function
+         */
+        static <A, B, R> F2<A, B, R> memoize(F2<A, B, R> f) {
+            return memoize(f, MemoCache.<Tuple2<A, B>, R>builder().build());
+        }
+
+        /**
+         * Memoise a function, using the given {@link MemoCache}.
+         * The cache is keyed on a {@link Tuple2} of the function arguments.
+         * If the function throws then no result is cached, and the exception is propagated.
+         * @param f         the function to be memoised
+         * @param cache     the cache which holds the function results
+         * @param <A>       the function's first argument type
+         * @param <B>       the function's second argument type
+         * @param <R>       the function return type
+         * @return          the memoised function
+         */
+        static <A, B, R> F2<A, B, R> memoize(F2<A, B, R> f, MemoCache<Tuple2<A, B>, R> cache) {
+            final FunctionsGenEx.F<Tuple2<A, B>, R, Exception> g = t -> f.apply(t._1, t._2);
+            return (a, b) -> cache.getEx(Tuple2.of(a, b), g);
+        }
+
         /**
          * Convert an curried function to its uncurried equivalent.
          * @param f         the curried function
@@ -304,6 +358,37 @@ static <A, B, C, R> F3<A, B, C, R> of(F3<A, B, C, R> f) {
             return f;
         }
 
+        /**
+         * Memoise a function, using an unbounded {@link MemoCache}.
+         * If the function throws then no result is cached, and the exception is propagated.
+         * @param f         the function to be memoised
+         * @param <A>       the function's first argument type
+         * @param <B>       the function's second argument type
+         * @param <C>       the function's third argument type
+         * @param <R>       the function return type
+         * @return          the memoised function
+         */
+        static <A, B, C, R> F3<A, B, C, R> memoize(F3<A, B, C, R> f) {
+            return memoize(f, MemoCache.<Tuple3<A, B, C>, R>builder().build());
+        }
+
+        /**
+         * Memoise a function, using the given {@link MemoCache}.
+         * The cache is keyed on a {@link Tuple3} of the function arguments.
+         * If the function throws then no result is cached, and the exception is propagated.
+         * @param f         the function to be memoised
+         * @param cache     the cache which holds the function results
+         * @param <A>       the function's first argument type
+         * @param <B>       the function's second argument type
+         * @param <C>       the function's third argument type
+         * @param <R>       the function return type
+         * @return          the memoised function
+         */
+        static <A, B, C, R> F3<A, B, C, R> memoize(F3<A, B, C, R> f, MemoCache<Tuple3<A, B, C>, R> cache) {
+            final FunctionsGenEx.F<Tuple3<A, B, C>, R, Exception> g = t -> f.apply(t._1, t._2, t._3);
+            return (a, b, c) -> cache.getEx(Tuple3.of(a, b, c), g);
+        }
+
         /**
          * Convert an curried function to its uncurried equivalent.
          * @param f         the curried function
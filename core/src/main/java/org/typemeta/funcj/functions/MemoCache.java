@@ -0,0 +1,791 @@
+package org.typemeta.funcj.functions;
+
+import java.lang.ref.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A concurrent cache for memoising functions.
+ * <p>
+ * Values are computed on demand, at most once per key at any one time.
+ * If several threads request the same missing key,
+ * one thread computes the value and the others wait for it.
+ * No lock is held while a value is computed,
+ * so a memoised function may recursively call itself with other keys.
+ * A computation which recursively requests its own key,
+ * either directly or via a cycle of computations running on other threads
+ * (e.g. one thread computes {@code k1} and requests {@code k2},
+ * while another computes {@code k2} and requests {@code k1}),
+ * fails with an {@link IllegalStateException} rather than deadlocking.
+ * If a computation throws then nothing is cached and the exception is propagated.
+ * <p>
+ * A cache may optionally be bounded in size,
+ * with either least-recently-used or least-frequently-used eviction,
+ * may expire entries a fixed time after they are written,
+ * and may hold its keys weakly.
+ * Under contention, reads are recorded for eviction purposes on a best-effort basis.
+ * <p>
+ * Use {@link MemoCache#builder()} to construct a cache.
+ * @param <K>       the key type
+ * @param <V>       the value type
+ */
+public final class MemoCache<K, V> {
+
+    /**
+     * The eviction policy for a bounded cache.
+     */
+    public enum Eviction {
+        /**
+         * Evict the least-recently-used entry.
+         */
+        LRU,
+
+        /**
+         * Evict the least-frequently-used entry,
+         * with ties broken by evicting the least-recently-used.
+         */
+        LFU
+    }
+
+    /**
+     * Construct a new {@link Builder}.
+     * @param <K>       the key type
+     * @param <V>       the value type
+     * @return          the new builder
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<K, V>();
+    }
+
+    /**
+     * Builder for {@link MemoCache}s.
+     * By default a cache is unbounded, never expires entries, and holds its keys strongly.
+     * @param <K>       the key type
+     * @param <V>       the value type
+     */
+    public static final class Builder<K, V> {
+        private long maximumSize = Long.MAX_VALUE;
+        private Eviction eviction = Eviction.LRU;
+        private long expireAfterWriteNanos = 0;
+        private boolean weakKeys = false;
+        private LongSupplier ticker = System::nanoTime;
+
+        private Builder() {
+        }
+
+        /**
+         * Bound the number of entries in the cache.
+         * @param maximumSize the maximum number of entries
+         * @return          this builder
+         */
+        public Builder<K, V> maximumSize(long maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Set the eviction policy used once the cache reaches its maximum size.
+         * @param eviction  the eviction policy
+         * @return          this builder
+         */
+        public Builder<K, V> eviction(Eviction eviction) {
+            this.eviction = Objects.requireNonNull(eviction);
+            return this;
+        }
+
+        /**
+         * Expire entries once the given time has elapsed since they were written.
+         * @param duration  the time after which entries expire
+         * @param unit      the unit of {@code duration}
+         * @return          this builder
+         */
+        public Builder<K, V> expireAfterWrite(long duration, TimeUnit unit) {
+            if (duration <= 0) {
+                throw new IllegalArgumentException("duration must be positive: " + duration);
+            }
+            this.expireAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Hold keys via weak references, so that an entry is discarded
+         * once its key is no longer strongly reachable elsewhere.
+         * Keys are still compared using {@code equals}.
+         * Note, this is only useful if callers retain the key objects,
+         * which is not the case for the tuple keys used by multi-argument functions.
+         * @return          this builder
+         */
+        public Builder<K, V> weakKeys() {
+            this.weakKeys = true;
+            return this;
+        }
+
+        /**
+         * Set the source of time, in nanoseconds, used for expiry.
+         * Defaults to {@link System#nanoTime()}.
+         * @param ticker    the time source
+         * @return          this builder
+         */
+        public Builder<K, V> ticker(LongSupplier ticker) {
+            this.ticker = Objects.requireNonNull(ticker);
+            return this;
+        }
+
+        /**
+         * Construct the cache.
+         * @return          the new cache
+         */
+        public MemoCache<K, V> build() {
+            return new MemoCache<K, V>(this);
+        }
+    }
+
+    /**
+     * A snapshot of the statistics for a cache.
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+
+        Stats(long hits, long misses, long evictions, long expirations) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+        }
+
+        /**
+         * @return          the number of requests which were satisfied from the cache
+         */
+        public long hitCount() {
+            return hits;
+        }
+
+        /**
+         * @return          the number of requests which computed a value
+         */
+        public long missCount() {
+            return misses;
+        }
+
+        /**
+         * @return          the number of entries evicted due to the size bound
+         */
+        public long evictionCount() {
+            return evictions;
+        }
+
+        /**
+         * @return          the number of entries discarded due to expiry
+         */
+        public long expirationCount() {
+            return expirations;
+        }
+
+        /**
+         * @return          the ratio of hits to requests, or 1.0 if there have been no requests
+         */
+        public double hitRate() {
+            final long total = hits + misses;
+            return total == 0 ? 1.0 : (double)hits / total;
+        }
+
+        /**
+         * Return the statistics as a map from name to value, for export to metrics systems.
+         * @return          the statistics
+         */
+        public Map<String, Long> toMap() {
+            final Map<String, Long> m = new LinkedHashMap<>();
+            m.put("hits", hits);
+            m.put("misses", misses);
+            m.put("evictions", evictions);
+            m.put("expirations", expirations);
+            return Collections.unmodifiableMap(m);
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{hits=" + hits +
+                    ", misses=" + misses +
+                    ", evictions=" + evictions +
+                    ", expirations=" + expirations + '}';
+        }
+    }
+
+    private static final Object NULL_KEY = new Object();
+
+    /**
+     * The in-flight entry each thread is waiting on, across all caches,
+     * which is used to detect cycles of computations that would otherwise deadlock.
+     * Guarded by itself.
+     */
+    private static final Map<Thread, Entry> WAITING = new HashMap<>();
+
+    private final ConcurrentHashMap<Object, Entry> map = new ConcurrentHashMap<>();
+    private final long maximumSize;
+    private final long expireAfterWriteNanos;
+    private final LongSupplier ticker;
+    private final ReferenceQueue<Object> refQueue;
+
+    // Guards the policy, and the linked and removed flags of all entries.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Policy policy;
+    private long size = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    private MemoCache(Builder<K, V> b) {
+        this.maximumSize = b.maximumSize;
+        this.expireAfterWriteNanos = b.expireAfterWriteNanos;
+        this.ticker = b.ticker;
+        this.refQueue = b.weakKeys ? new ReferenceQueue<>() : null;
+        if (maximumSize == Long.MAX_VALUE) {
+            this.policy = null;
+        } else {
+            this.policy = b.eviction == Eviction.LRU ? new LruPolicy() : new LfuPolicy();
+        }
+    }
+
+    /**
+     * Return the value for the key, computing it with {@code f} if it is not present.
+     * @param key       the key
+     * @param f         the function which computes the value
+     * @return          the value
+     */
+    public V get(K key, Functions.F<? super K, ? extends V> f) {
+        return getEx(key, f::apply);
+    }
+
+    /**
+     * Return the value for the key, computing it with {@code f} if it is not present.
+     * If {@code f} throws then nothing is cached, and the exception is propagated.
+     * @param key       the key
+     * @param f         the function which computes the value
+     * @param <X>       the exception type
+     * @return          the value
+     * @throws X        the exception thrown by {@code f}
+     */
+    @SuppressWarnings("unchecked")
+    public <X extends Exception> V getEx(K key, FunctionsGenEx.F<? super K, ? extends V, X> f) throws X {
+        purgeCollectedKeys();
+        final Object k = key == null ? NULL_KEY : key;
+        final Object lookupKey = refQueue == null ? k : new LookupKey(k);
+        while (true) {
+            final Entry e = map.get(lookupKey);
+            if (e == null) {
+                final Entry ne = new Entry(refQueue == null ? k : new WeakKey(k, refQueue));
+                if (map.putIfAbsent(ne.mapKey, ne) != null) {
+                    continue;
+                }
+                misses.increment();
+                final V v;
+                try {
+                    v = f.apply(key);
+                } catch (Throwable t) {
+                    map.remove(ne.mapKey, ne);
+                    ne.fail();
+                    throw t;
+                }
+                ne.complete(v, expireAfterWriteNanos == 0 ? 0 : ticker.getAsLong());
+                added(ne);
+                return v;
+            } else if (!e.isDone()) {
+                if (e.owner == Thread.currentThread()) {
+                    throw new IllegalStateException("Recursive memoised computation for key " + key);
+                } else if (await(e, key)) {
+                    hits.increment();
+                    return (V)e.value;
+                }
+                // The computation failed, so retry.
+            } else if (isExpired(e)) {
+                if (map.remove(e.mapKey, e)) {
+                    expirations.increment();
+                    removed(e);
+                }
+            } else {
+                hits.increment();
+                accessed(e);
+                return (V)e.value;
+            }
+        }
+    }
+
+    /**
+     * Wait for another thread's computation of an entry to complete or fail,
+     * unless waiting would complete a cycle of threads which are waiting on each other.
+     * @return          true if the computation completed
+     */
+    private static boolean await(Entry e, Object key) {
+        final Thread self = Thread.currentThread();
+        synchronized (WAITING) {
+            // Follow the chain of owners, and the entries they are waiting on.
+            Entry w = e;
+            for (int i = 0; w != null && i <= WAITING.size(); ++i) {
+                final Thread owner = w.owner;
+                if (owner == self) {
+                    throw new IllegalStateException("Cyclic memoised computation for key " + key);
+                } else if (owner == null) {
+                    break;
+                }
+                w = WAITING.get(owner);
+            }
+            WAITING.put(self, e);
+        }
+        try {
+            return e.await();
+        } finally {
+            synchronized (WAITING) {
+                WAITING.remove(self);
+            }
+        }
+    }
+
+    /**
+     * Return the value for the key, if present and not expired.
+     * Does not affect the statistics.
+     * @param key       the key
+     * @return          the value, if present
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<V> getIfPresent(K key) {
+        final Object k = key == null ? NULL_KEY : key;
+        final Entry e = map.get(refQueue == null ? k : new LookupKey(k));
+        if (e == null || !e.isDone() || isExpired(e)) {
+            return Optional.empty();
+        } else {
+            return Optional.ofNullable((V)e.value);
+        }
+    }
+
+    /**
+     * Remove the entry for the key, if present.
+     * @param key       the key
+     */
+    public void invalidate(K key) {
+        final Object k = key == null ? NULL_KEY : key;
+        final Entry e = map.get(refQueue == null ? k : new LookupKey(k));
+        if (e != null && e.isDone() && map.remove(e.mapKey, e)) {
+            removed(e);
+        }
+    }
+
+    /**
+     * Remove all completed entries.
+     */
+    public void invalidateAll() {
+        for (Entry e : map.values()) {
+            if (e.isDone() && map.remove(e.mapKey, e)) {
+                removed(e);
+            }
+        }
+    }
+
+    /**
+     * Remove any entries which have expired or whose keys have been garbage collected.
+     * These are otherwise removed lazily.
+     */
+    public void cleanUp() {
+        purgeCollectedKeys();
+        if (expireAfterWriteNanos != 0) {
+            for (Entry e : map.values()) {
+                if (e.isDone() && isExpired(e) && map.remove(e.mapKey, e)) {
+                    expirations.increment();
+                    removed(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return          the approximate number of entries in the cache
+     */
+    public long size() {
+        return map.size();
+    }
+
+    /**
+     * Return a snapshot of the statistics for this cache.
+     * @return          the statistics
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+    }
+
+    @Override
+    public String toString() {
+        return "MemoCache{size=" + size() + ", " + stats() + '}';
+    }
+
+    private boolean isExpired(Entry e) {
+        return expireAfterWriteNanos != 0 && ticker.getAsLong() - e.writeTime >= expireAfterWriteNanos;
+    }
+
+    private void purgeCollectedKeys() {
+        if (refQueue != null) {
+            Reference<?> ref;
+            while ((ref = refQueue.poll()) != null) {
+                final Entry e = map.remove(ref);
+                if (e != null) {
+                    removed(e);
+                }
+            }
+        }
+    }
+
+    private void added(Entry e) {
+        if (policy != null) {
+            lock.lock();
+            try {
+                if (!e.removed) {
+                    // Evict before inserting, so that a new entry is never its own victim.
+                    while (size >= maximumSize) {
+                        final Entry victim = policy.victim();
+                        unlink(victim);
+                        if (map.remove(victim.mapKey, victim)) {
+                            evictions.increment();
+                        }
+                    }
+                    policy.onInsert(e);
+                    e.linked = true;
+                    ++size;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void accessed(Entry e) {
+        if (policy != null && lock.tryLock()) {
+            try {
+                if (e.linked) {
+                    policy.onAccess(e);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void removed(Entry e) {
+        if (policy != null) {
+            lock.lock();
+            try {
+                unlink(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void unlink(Entry e) {
+        e.removed = true;
+        if (e.linked) {
+            policy.onRemove(e);
+            e.linked = false;
+            --size;
+        }
+    }
+
+    /**
+     * A cache entry, which is either being computed or is complete.
+     */
+    private static final class Entry {
+        final Object mapKey;
+
+        // The thread computing the value, until the computation completes or fails.
+        volatile Thread owner;
+        volatile boolean done;
+        boolean failed;
+        Object value;
+        long writeTime;
+
+        // Guarded by the cache lock.
+        boolean linked;
+        boolean removed;
+        Entry prev;
+        Entry next;
+        FreqNode freqNode;
+
+        Entry(Object mapKey) {
+            this.mapKey = mapKey;
+            this.owner = Thread.currentThread();
+        }
+
+        boolean isDone() {
+            return done;
+        }
+
+        synchronized void complete(Object value, long writeTime) {
+            this.value = value;
+            this.writeTime = writeTime;
+            this.done = true;
+            this.owner = null;
+            notifyAll();
+        }
+
+        synchronized void fail() {
+            this.failed = true;
+            this.owner = null;
+            notifyAll();
+        }
+
+        /**
+         * Wait for the computation to complete or fail.
+         * @return          true if the computation completed
+         */
+        synchronized boolean await() {
+            boolean interrupted = false;
+            while (!done && !failed) {
+                try {
+                    wait();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return done;
+        }
+    }
+
+    /**
+     * A weakly-held key, which compares equal to other keys with an equal referent.
+     */
+    private static final class WeakKey extends WeakReference<Object> {
+        final int hash;
+
+        WeakKey(Object key, ReferenceQueue<Object> queue) {
+            super(key, queue);
+            this.hash = key.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object rhs) {
+            if (this == rhs) {
+                return true;
+            } else if (rhs instanceof WeakKey) {
+                final Object k = get();
+                return k != null && k.equals(((WeakKey)rhs).get());
+            } else if (rhs instanceof LookupKey) {
+                final Object k = get();
+                return k != null && k.equals(((LookupKey)rhs).key);
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A strongly-held key, used to look up {@link WeakKey}s.
+     */
+    private static final class LookupKey {
+        final Object key;
+
+        LookupKey(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object rhs) {
+            if (rhs instanceof WeakKey) {
+                return key.equals(((WeakKey)rhs).get());
+            } else {
+                return rhs instanceof LookupKey && key.equals(((LookupKey)rhs).key);
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode();
+        }
+    }
+
+    /**
+     * An eviction policy. All methods are called while holding the cache lock.
+     */
+    private interface Policy {
+        void onInsert(Entry e);
+
+        void onAccess(Entry e);
+
+        void onRemove(Entry e);
+
+        Entry victim();
+    }
+
+    /**
+     * Least-recently-used eviction, via a doubly-linked list in access order.
+     */
+    private static final class LruPolicy implements Policy {
+        private Entry head;
+        private Entry tail;
+
+        @Override
+        public void onInsert(Entry e) {
+            e.prev = tail;
+            e.next = null;
+            if (tail == null) {
+                head = e;
+            } else {
+                tail.next = e;
+            }
+            tail = e;
+        }
+
+        @Override
+        public void onAccess(Entry e) {
+            if (e != tail) {
+                onRemove(e);
+                onInsert(e);
+            }
+        }
+
+        @Override
+        public void onRemove(Entry e) {
+            if (e.prev == null) {
+                head = e.next;
+            } else {
+                e.prev.next = e.next;
+            }
+            if (e.next == null) {
+                tail = e.prev;
+            } else {
+                e.next.prev = e.prev;
+            }
+            e.prev = e.next = null;
+        }
+
+        @Override
+        public Entry victim() {
+            return head;
+        }
+    }
+
+    /**
+     * A list of entries with the same access frequency, in access order.
+     */
+    private static final class FreqNode {
+        final long freq;
+        FreqNode prev;
+        FreqNode next;
+        Entry head;
+        Entry tail;
+
+        FreqNode(long freq) {
+            this.freq = freq;
+        }
+
+        void append(Entry e) {
+            e.freqNode = this;
+            e.prev = tail;
+            e.next = null;
+            if (tail == null) {
+                head = e;
+            } else {
+                tail.next = e;
+            }
+            tail = e;
+        }
+
+        void remove(Entry e) {
+            if (e.prev == null) {
+                head = e.next;
+            } else {
+                e.prev.next = e.next;
+            }
+            if (e.next == null) {
+                tail = e.prev;
+            } else {
+                e.next.prev = e.prev;
+            }
+            e.prev = e.next = null;
+            e.freqNode = null;
+        }
+    }
+
+    /**
+     * Least-frequently-used eviction, with constant-time operations,
+     * via a list of frequency nodes in ascending order of frequency.
+     */
+    private static final class LfuPolicy implements Policy {
+        private FreqNode first;
+
+        @Override
+        public void onInsert(Entry e) {
+            if (first == null || first.freq != 1) {
+                final FreqNode fn = new FreqNode(1);
+                fn.next = first;
+                if (first != null) {
+                    first.prev = fn;
+                }
+                first = fn;
+            }
+            first.append(e);
+        }
+
+        @Override
+        public void onAccess(Entry e) {
+            final FreqNode curr = e.freqNode;
+            FreqNode next = curr.next;
+            if (next == null || next.freq != curr.freq + 1) {
+                final FreqNode fn = new FreqNode(curr.freq + 1);
+                fn.prev = curr;
+                fn.next = next;
+                if (next != null) {
+                    next.prev = fn;
+                }
+                curr.next = fn;
+                next = fn;
+            }
+            curr.remove(e);
+            next.append(e);
+            if (curr.head == null) {
+                unlinkNode(curr);
+            }
+        }
+
+        @Override
+        public void onRemove(Entry e) {
+            final FreqNode fn = e.freqNode;
+            fn.remove(e);
+            if (fn.head == null) {
+                unlinkNode(fn);
+            }
+        }
+
+        @Override
+        public Entry victim() {
+            return first.head;
+        }
+
+        private void unlinkNode(FreqNode fn) {
+            if (fn.prev == null) {
+                first = fn.next;
+            } else {
+                fn.prev.next = fn.next;
+            }
+            if (fn.next != null) {
+                fn.next.prev = fn.prev;
+            }
+        }
+    }
+}
@@ -0,0 +1,690 @@
+package org.typemeta.funcj.functions;
+
+import org.typemeta.funcj.functions.Functions.*;
+
+/**
+ * Primitive specialisations of the {@link Functions} interfaces,
+ * for {@code int}, {@code long} and {@code double} values,
+ * which avoid boxing the arguments and results.
+ * Each interface can be converted to its boxed equivalent via {@code boxed()}.
+ */
+public abstract class PrimitiveFunctions {
+
+    /**
+     * Function from {@code int} to {@code R}.
+     * @param <R>       the function return type
+     */
+    @FunctionalInterface
+    public interface IntF<R> {
+        /**
+         * Static constructor.
+         * @param f         the function
+         * @param <R>       the function return type
+         * @return          the function
+         */
+        static <R> IntF<R> of(IntF<R> f) {
+            return f;
+        }
+
+        /**
+         * Apply this function
+         * @param a         the function argument
+         * @return          the result of applying this function
+         */
+        R apply(int a);
+
+        /**
+         * Convert this function to the equivalent function on boxed values.
+         * @return          the boxed function
+         */
+        default F<Integer, R> boxed() {
+            return this::apply;
+        }
+
+        /**
+         * Combine this function with another,
+         * to create a function that first applies this function
+         * and then applies {@code f} to the result.
+         * @param f         the function to compose with
+         * @param <T>       the return type of {@code f}
+         * @return          a function that first applies this function and then applies {@code f} to the result.
+         */
+        default <T> IntF<T> andThen(F<? super R, ? extends T> f) {
+            return a -> f.apply(apply(a));
+        }
+    }
+
+    /**
+     * Function from {@code A} to {@code int}.
+     * @param <A>       the function argument type
+     */
+    @FunctionalInterface
+    public interface ToIntF<A> {
+        /**
+         * Static constructor.
+         * @param f         the function
+         * @param <A>       the function argument type
+         * @return          the function
+         */
+        static <A> ToIntF<A> of(ToIntF<A> f) {
+            return f;
+        }
+
+        /**
+         * Apply this function
+         * @param a         the function argument
+         * @return          the result of applying this function
+         */
+        int apply(A a);
+
+        /**
+         * Convert this function to the equivalent function on boxed values.
+         * @return          the boxed function
+         */
+        default F<A, Integer> boxed() {
+            return this::apply;
+        }
+
+        /**
+         * Compose this function with another,
+         * to create a function that first applies {@code f}
+         * and then applies this function to the result.
+         * @param f         the function to compose with
+         * @param <T>       the argument type to {@code f}
+         * @return          a function that first applies {@code f} and then applies this function to the result.
+         */
+        default <T> ToIntF<T> compose(F<? super T, ? extends A> f) {
+            return t -> apply(f.apply(t));
+        }
+    }
+
+    /**
+     * Unary operator function on {@code int} values.
+     */
+    @FunctionalInterface
+    public interface IntOp {
+        /**
+         * Static constructor
+         * @param op        the operator function
+         * @return          the operator function
+         */
+        static IntOp of(IntOp op) {
+            return op;
+        }
+
+        /**
+         * The identity operator, that simply returns its argument.
+         * @return          the identity operator
+         */
+        static IntOp id() {
+            return x -> x;
+        }
+
+        /**
+         * Apply this operator.
+         * @param x         the operand
+         * @return          the operator result
+         */
+        int apply(int x);
+
+        /**
+         * Convert this operator to the equivalent operator on boxed values.
+         * @return          the boxed operator
+         */
+        default Op<Integer> boxed() {
+            return this::apply;
+        }
+
+        /**
+         * Combine this operator with another,
+         * to create an operator that first applies this operator and then applies {@code op} to the result.
+         * @param op        the operator to compose with
+         * @return          the composed operator
+         */
+        default IntOp andThen(IntOp op) {
+            return x -> op.apply(apply(x));
+        }
+    }
+
+    /**
+     * Binary operator function on {@code int} values.
+     */
+    @FunctionalInterface
+    public interface IntOp2 {
+        /**
+         * Static constructor
+         * @param op        the operator function
+         * @return          the operator function
+         */
+        static IntOp2 of(IntOp2 op) {
+            return op;
+        }
+
+        /**
+         * Apply this operator.
+         * @param a         the first operand
+         * @param b         the second operand
+         * @return          the operator result
+         */
+        int apply(int a, int b);
+
+        /**
+         * Convert this operator to the equivalent operator on boxed values.
+         * @return          the boxed operator
+         */
+        default Op2<Integer> boxed() {
+            return this::apply;
+        }
+
+        /**
+         * Flip this operator by reversing the order of its arguments.
+         * @return          the flipped function
+         */
+        default IntOp2 flip() {
+            return (b, a) -> apply(a, b);
+        }
+    }
+
+    /**
+     * Predicate function on {@code int} values.
+     */
+    @FunctionalInterface
+    public interface IntPredicate {
+        /**
+         * Static constructor
+         * @param pr        the predicate function
+         * @return          the predicate function
+         */
+        static IntPredicate of(IntPredicate pr) {
+            return pr;
+        }
+
+        boolean test(int x);
+
+        /**
+         * Convert this predicate to the equivalent predicate on boxed values.
+         * @return          the boxed predicate
+         */
+        default Predicate<Integer> boxed() {
+            return this::test;
+        }
+
+        /**
+         * Invert this {@code IntPredicate}
+         * @return          a {@code IntPredicate} that logically inverts this {@code IntPredicate}
+         */
+        default IntPredicate negate() {
+            return x -> !test(x);
+        }
+
+        /**
+         * Compose this {@code IntPredicate} with another by logically and'ing them.
+         * @param rhs       other {@code IntPredicate}
+         * @return          a {@code IntPredicate} that returns true iff both {@code IntPredicate}s return true
+         */
+        default IntPredicate and(IntPredicate rhs) {
+            return x -> test(x) && rhs.test(x);
+        }
+
+        /**
+         * Compose this {@code IntPredicate} with another by logically or'ing them.
+         * @param rhs       other {@code IntPredicate}
+         * @return          a {@code IntPredicate} that returns true if either {@code IntPredicate}s return true
+         */
+        default IntPredicate or(IntPredicate rhs) {
+            return x -> test(x) || rhs.test(x);
+        }
+    }
+
+    /**
+     * Function from {@code long} to {@code R}.
+     * @param <R>       the function return type
+     */
+    @FunctionalInterface
+    public interface LongF<R> {
+        /**
+         * Static constructor.
+         * @param f         the function
+         * @param <R>       the function return type
+         * @return          the function
+         */
+        static <R> LongF<R> of(LongF<R> f) {
+            return f;
+        }
+
+        /**
+         * Apply this function
+         * @param a         the function argument
+         * @return          the result of applying this function
+         */
+        R apply(long a);
+
+        /**
+         * Convert this function to the equivalent function on boxed values.
+         * @return          the boxed function
+         */
+        default F<Long, R> boxed() {
+            return this::apply;
+        }
+
+        /**
+         * Combine this function with another,
+         * to create a function that first applies this function
+         * and then applies {@code f} to the result.
+         * @param f         the function to compose with
+         * @param <T>       the return type of {@code f}
+         * @return          a function that first applies this function and then applies {@code f} to the result.
+         */
+        default <T> LongF<T> andThen(F<? super R, ? extends T> f) {
+            return a -> f.apply(apply(a));
+        }
+    }
+
+    /**
+     * Function from {@code A} to {@code long}.
+     * @param <A>       the function argument type
+     */
+    @FunctionalInterface
+    public interface ToLongF<A> {
+        /**
+         * Static constructor.
+         * @param f         the function
+         * @param <A>       the function argument type
+         * @return          the function
+         */
+        static <A> ToLongF<A> of(ToLongF<A> f) {
+            return f;
+        }
+
+        /**
+         * Apply this function
+         * @param a         the function argument
+         * @return          the result of applying this function
+         */
+        long apply(A a);
+
+        /**
+         * Convert this function to the equivalent function on boxed values.
+         * @return          the boxed function
+         */
+        default F<A, Long> boxed() {
+            return this::apply;
+        }
+
+        /**
+         * Compose this function with another,
+         * to create a function that first applies {@code f}
+         * and then applies this function to the result.
+         * @param f         the function to compose with
+         * @param <T>       the argument type to {@code f}
+         * @return          a function that first applies {@code f} and then applies this function to the result.
+         */
+        default <T> ToLongF<T> compose(F<? super T, ? extends A> f) {
+            return t -> apply(f.apply(t));
+        }
+    }
+
+    /**
+     * Unary operator function on {@code long} values.
+     */
+    @FunctionalInterface
+    public interface LongOp {
+        /**
+         * Static constructor
+         * @param op        the operator function
+         * @return          the operator function
+         */
+        static LongOp of(LongOp op) {
+            return op;
+        }
+
+        /**
+         * The identity operator, that simply returns its argument.
+         * @return          the identity operator
+         */
+        static LongOp id() {
+            return x -> x;
+        }
+
+        /**
+         * Apply this operator.
+         * @param x         the operand
+         * @return          the operator result
+         */
+        long apply(long x);
+
+        /**
+         * Convert this operator to the equivalent operator on boxed values.
+         * @return          the boxed operator
+         */
+        default Op<Long> boxed() {
+            return this::apply;
+        }
+
+        /**
+         * Combine this operator with another,
+         * to create an operator that first applies this operator and then applies {@code op} to the result.
+         * @param op        the operator to compose with
+         * @return          the composed operator
+         */
+        default LongOp andThen(LongOp op) {
+            return x -> op.apply(apply(x));
+        }
+    }
+
+    /**
+     * Binary operator function on {@code long} values.
+     */
+    @FunctionalInterface
+    public interface LongOp2 {
+        /**
+         * Static constructor
+         * @param op        the operator function
+         * @return          the operator function
+         */
+        static LongOp2 of(LongOp2 op) {
+            return op;
+        }
+
+        /**
+         * Apply this operator.
+         * @param a         the first operand
+         * @param b         the second operand
+         * @return          the operator result
+         */
+        long apply(long a, long b);
+
+        /**
+         * Convert this operator to the equivalent operator on boxed values.
+         * @return          the boxed operator
+         */
+        default Op2<Long> boxed() {
+            return this::apply;
+        }
+
+        /**
+         * Flip this operator by reversing the order of its arguments.
+         * @return          the flipped function
+         */
+        default LongOp2 flip() {
+            return (b, a) -> apply(a, b);
+        }
+    }
+
+    /**
+     * Predicate function on {@code long} values.
+     */
+    @FunctionalInterface
+    public interface LongPredicate {
+        /**
+         * Static constructor
+         * @param pr        the predicate function
+         * @return          the predicate function
+         */
+        static LongPredicate of(LongPredicate pr) {
+            return pr;
+        }
+
+        boolean test(long x);
+
+        /**
+         * Convert this predicate to the equivalent predicate on boxed values.
+         * @return          the boxed predicate
+         */
+        default Predicate<Long> boxed() {
+            return this::test;
+        }
+
+        /**
+         * Invert this {@code LongPredicate}
+         * @return          a {@code LongPredicate} that logically inverts this {@code LongPredicate}
+         */
+        default LongPredicate negate() {
+            return x -> !test(x);
+        }
+
+        /**
+         * Compose this {@code LongPredicate} with another by logically and'ing them.
+         * @param rhs       other {@code LongPredicate}
+         * @return          a {@code LongPredicate} that returns true iff both {@code LongPredicate}s return true
+         */
+        default LongPredicate and(LongPredicate rhs) {
+            return x -> test(x) && rhs.test(x);
+        }
+
+        /**
+         * Compose this {@code LongPredicate} with another by logically or'ing them.
+         * @param rhs       other {@code LongPredicate}
+         * @return          a {@code LongPredicate} that returns true if either {@code LongPredicate}s return true
+         */
+        default LongPredicate or(LongPredicate rhs) {
+            return x -> test(x) || rhs.test(x);
+        }
+    }
+
+    /**
+     * Function from {@code double} to {@code R}.
+     * @param <R>       the function return type
+     */
+    @FunctionalInterface
+    public interface DoubleF<R> {
+        /**
+         * Static constructor.
+         * @param f         the function
+         * @param <R>       the function return type
+         * @return          the function
+         */
+        static <R> DoubleF<R> of(DoubleF<R> f) {
+            return f;
+        }
+
+        /**
+         * Apply this function
+         * @param a         the function argument
+         * @return          the result of applying this function
+         */
+        R apply(double a);
+
+        /**
+         * Convert this function to the equivalent function on boxed values.
+         * @return          the boxed function
+         */
+        default F<Double, R> boxed() {
+            return this::apply;
+        }
+
+        /**
+         * Combine this function with another,
+         * to create a function that first applies this function
+         * and then applies {@code f} to the result.
+         * @param f         the function to compose with
+         * @param <T>       the return type of {@code f}
+         * @return          a function that first applies this function and then applies {@code f} to the result.
+         */
+        default <T> DoubleF<T> andThen(F<? super R, ? extends T> f) {
+            return a -> f.apply(apply(a));
+        }
+    }
+
+    /**
+     * Function from {@code A} to {@code double}.
+     * @param <A>       the function argument type
+     */
+    @FunctionalInterface
+    public interface ToDoubleF<A> {
+        /**
+         * Static constructor.
+         * @param f         the function
+         * @param <A>       the function argument type
+         * @return          the function
+         */
+        static <A> ToDoubleF<A> of(ToDoubleF<A> f) {
+            return f;
+        }
+
+        /**
+         * Apply this function
+         * @param a         the function argument
+         * @return          the result of applying this function
+         */
+        double apply(A a);
+
+        /**
+         * Convert this function to the equivalent function on boxed values.
+         * @return          the boxed function
+         */
+        default F<A, Double> boxed() {
+            return this::apply;
+        }
+
+        /**
+         * Compose this function with another,
+         * to create a function that first applies {@code f}
+         * and then applies this function to the result.
+         * @param f         the function to compose with
+         * @param <T>       the argument type to {@code f}
+         * @return          a function that first applies {@code f} and then applies this function to the result.
+         */
+        default <T> ToDoubleF<T> compose(F<? super T, ? extends A> f) {
+            return t -> apply(f.apply(t));
+        }
+    }
+
+    /**
+     * Unary operator function on {@code double} values.
+     */
+    @FunctionalInterface
+    public interface DoubleOp {
+        /**
+         * Static constructor
+         * @param op        the operator function
+         * @return          the operator function
+         */
+        static DoubleOp of(DoubleOp op) {
+            return op;
+        }
+
+        /**
+         * The identity operator, that simply returns its argument.
+         * @return          the identity operator
+         */
+        static DoubleOp id() {
+            return x -> x;
+        }
+
+        /**
+         * Apply this operator.
+         * @param x         the operand
+         * @return          the operator result
+         */
+        double apply(double x);
+
+        /**
+         * Convert this operator to the equivalent operator on boxed values.
+         * @return          the boxed operator
+         */
+        default Op<Double> boxed() {
+            return this::apply;
+        }
+
+        /**
+         * Combine this operator with another,
+         * to create an operator that first applies this operator and then applies {@code op} to the result.
+         * @param op        the operator to compose with
+         * @return          the composed operator
+         */
+        default DoubleOp andThen(DoubleOp op) {
+            return x -> op.apply(apply(x));
+        }
+    }
+
+    /**
+     * Binary operator function on {@code double} values.
+     */
+    @FunctionalInterface
+    public interface DoubleOp2 {
+        /**
+         * Static constructor
+         * @param op        the operator function
+         * @return          the operator function
+         */
+        static DoubleOp2 of(DoubleOp2 op) {
+            return op;
+        }
+
+        /**
+         * Apply this operator.
+         * @param a         the first operand
+         * @param b         the second operand
+         * @return          the operator result
+         */
+        double apply(double a, double b);
+
+        /**
+         * Convert this operator to the equivalent operator on boxed values.
+         * @return          the boxed operator
+         */
+        default Op2<Double> boxed() {
+            return this::apply;
+        }
+
+        /**
+         * Flip this operator by reversing the order of its arguments.
+         * @return          the flipped function
+         */
+        default DoubleOp2 flip() {
+            return (b, a) -> apply(a, b);
+        }
+    }
+
+    /**
+     * Predicate function on {@code double} values.
+     */
+    @FunctionalInterface
+    public interface DoublePredicate {
+        /**
+         * Static constructor
+         * @param pr        the predicate function
+         * @return          the predicate function
+         */
+        static DoublePredicate of(DoublePredicate pr) {
+            return pr;
+        }
+
+        boolean test(double x);
+
+        /**
+         * Convert this predicate to the equivalent predicate on boxed values.
+         * @return          the boxed predicate
+         */
+        default Predicate<Double> boxed() {
+            return this::test;
+        }
+
+        /**
+         * Invert this {@code DoublePredicate}
+         * @return          a {@code DoublePredicate} that logically inverts this {@code DoublePredicate}
+         */
+        default DoublePredicate negate() {
+            return x -> !test(x);
+        }
+
+        /**
+         * Compose this {@code DoublePredicate} with another by logically and'ing them.
+         * @param rhs       other {@code DoublePredicate}
+         * @return          a {@code DoublePredicate} that returns true iff both {@code DoublePredicate}s return true
+         */
+        default DoublePredicate and(DoublePredicate rhs) {
+            return x -> test(x) && rhs.test(x);
+        }
+
+        /**
+         * Compose this {@code DoublePredicate} with another by logically or'ing them.
+         * @param rhs       other {@code DoublePredicate}
+         * @return          a {@code DoublePredicate} that returns true if either {@code DoublePredicate}s return true
+         */
+        default DoublePredicate or(DoublePredicate rhs) {
+            return x -> test(x) || rhs.test(x);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.typemeta.funcj.kleisli;
+
+import java.util.List;
+
+/**
+ * Base class for the Kleisli pipelines, which wraps the shared {@link Pipeline} engine.
+ * The subclasses only add the type-specific signatures of the composition methods.
+ */
+abstract class AbstractPipeline {
+
+    final Pipeline pipeline;
+
+    AbstractPipeline(Pipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * @return          the number of stages in this pipeline
+     */
+    public int size() {
+        return pipeline.stages.length;
+    }
+
+    /**
+     * Return the statistics for each profiled stage of this pipeline, in stage order.
+     * @return          the stage statistics, which is empty if this pipeline is not profiled
+     */
+    public List<StageStats> stats() {
+        return pipeline.stats();
+    }
+}
@@ -5,6 +5,9 @@
 
 /**
  * {@code EitherK} models composable operations that return an {@code Either}.
+ * <p>
+ * Composed {@code EitherK}s are flattened into a {@link EitherPipeline},
+ * which runs the stages in a single loop rather than as nested closures.
  * @param <E>       the left-hand type
  * @param <T>       the input type
  * @param <U>       the value type of the returned {@code Either} type
@@ -38,7 +41,7 @@ static <E, T, U> EitherK<E, T, U> of(Functions.F<T, Either<E, U>> f) {
      * @return          the composed {@code EitherK}
      */
     default <V> EitherK<E, T, V> andThen(EitherK<E, U, V> kUV) {
-        return t -> this.apply(t).flatMap(kUV::apply);
+        return EitherPipeline.of(this).andThen(kUV);
     }
 
     /**
@@ -49,7 +52,7 @@ default <V> EitherK<E, T, V> andThen(EitherK<E, U, V> kUV) {
      * @return          the composed {@code EitherK}
      */
     default <S> EitherK<E, S, U> compose(EitherK<E, S, T> kST) {
-        return s -> kST.apply(s).flatMap(this::apply);
+        return EitherPipeline.of(kST).andThen(this);
     }
 
     /**
@@ -61,6 +64,6 @@ default <S> EitherK<E, S, U> compose(EitherK<E, S, T> kST) {
      * @return          the composed {@code EitherK}
      */
     default <V> EitherK<E, T, V> map(Functions.F<U, V> f) {
-        return t -> this.apply(t).map(f);
+        return EitherPipeline.of(this).map(f);
     }
 }
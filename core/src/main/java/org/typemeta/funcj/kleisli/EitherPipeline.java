@@ -0,0 +1,184 @@
+package org.typemeta.funcj.kleisli;
+
+import org.typemeta.funcj.control.Either;
+import org.typemeta.funcj.functions.Functions;
+import org.typemeta.funcj.functions.MemoCache;
+
+/**
+ * A {@link EitherK} which holds its composed stages in a flat array,
+ * and runs them with a single loop which exits at the first {@code Left}.
+ * <p>
+ * Composing a {@code EitherPipeline} via {@code andThen}, {@code compose} or {@code map} appends stages
+ * to the array rather than nesting closures, and the default composition methods of {@code EitherK}
+ * build a {@code EitherPipeline}, so existing chains of {@code EitherK}s are flattened automatically.
+ * Stages can be named, and stages which are pure functions of their input can be memoised.
+ * A {@link EitherPipeline#profiled() profiled} pipeline records per-stage counts and timings.
+ * @param <E>       the left-hand type
+ * @param <T>       the input type
+ * @param <U>       the value type of the returned {@code Either} type
+ */
+public final class EitherPipeline<E, T, U> extends AbstractPipeline implements EitherK<E, T, U> {
+
+    private static final Pipeline.Monad MONAD = new Pipeline.Monad() {
+        @Override
+        public boolean isFailure(Object m) {
+            return !((Either<?, ?>)m).isRight();
+        }
+
+        @Override
+        public Object value(Object m) {
+            return ((Either.Right<?, ?>)m).value;
+        }
+
+        @Override
+        public Object pure(Object v) {
+            return Either.right(v);
+        }
+    };
+
+    private static final EitherPipeline<?, ?, ?> IDENTITY = new EitherPipeline<Object, Object, Object>(Pipeline.empty(MONAD));
+
+    /**
+     * Construct an empty pipeline, which returns its input as a {@code Right}.
+     * @param <E>       the left-hand type
+     * @param <T>       the input type
+     * @return          the new pipeline
+     */
+    @SuppressWarnings("unchecked")
+    public static <E, T> EitherPipeline<E, T, T> identity() {
+        return (EitherPipeline<E, T, T>)IDENTITY;
+    }
+
+    /**
+     * Construct a pipeline from a {@code EitherK}.
+     * If the {@code EitherK} is already a pipeline then its stages are reused.
+     * @param k         the {@code EitherK}
+     * @param <E>       the left-hand type
+     * @param <T>       the input type
+     * @param <U>       the value type of the returned {@code Either} value
+     * @return          the new pipeline
+     */
+    public static <E, T, U> EitherPipeline<E, T, U> of(EitherK<E, T, U> k) {
+        return EitherPipeline.<E, T>identity().andThen(k);
+    }
+
+    /**
+     * Construct a pipeline with a single named stage.
+     * @param name      the stage name
+     * @param k         the stage
+     * @param <E>       the left-hand type
+     * @param <T>       the input type
+     * @param <U>       the value type of the returned {@code Either} value
+     * @return          the new pipeline
+     */
+    public static <E, T, U> EitherPipeline<E, T, U> of(String name, EitherK<E, T, U> k) {
+        return EitherPipeline.<E, T>identity().andThen(name, k);
+    }
+
+    private EitherPipeline(Pipeline pipeline) {
+        super(pipeline);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Either<E, U> apply(T t) {
+        return (Either<E, U>)pipeline.run(t);
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then the given {@code EitherK}.
+     * If the {@code EitherK} is itself a pipeline then its stages are appended to those of this pipeline.
+     * @param kUV       the {@code EitherK} to be applied after this pipeline
+     * @param <V>       the value type of the {@code Either} returned by {@code kUV}
+     * @return          the new pipeline
+     */
+    @Override
+    public <V> EitherPipeline<E, T, V> andThen(EitherK<E, U, V> kUV) {
+        if (kUV instanceof EitherPipeline) {
+            return new EitherPipeline<E, T, V>(pipeline.andThen(((EitherPipeline<E, U, V>)kUV).pipeline));
+        } else {
+            return andThen(pipeline.nextName(), kUV);
+        }
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then the given named stage.
+     * @param name      the stage name
+     * @param kUV       the stage to be applied after this pipeline
+     * @param <V>       the value type of the {@code Either} returned by {@code kUV}
+     * @return          the new pipeline
+     */
+    public <V> EitherPipeline<E, T, V> andThen(String name, EitherK<E, U, V> kUV) {
+        return new EitherPipeline<E, T, V>(pipeline.andThen(name, (Functions.F<U, Either<E, V>>)kUV::apply));
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then the given named stage,
+     * caching the results of the stage in an unbounded {@link MemoCache}.
+     * The stage should be a pure function of its input, and its input type should have
+     * a suitable {@code equals} and {@code hashCode}.
+     * @param name      the stage name
+     * @param kUV       the stage to be applied after this pipeline
+     * @param <V>       the value type of the {@code Either} returned by {@code kUV}
+     * @return          the new pipeline
+     */
+    public <V> EitherPipeline<E, T, V> andThenMemoized(String name, EitherK<E, U, V> kUV) {
+        return andThenMemoized(name, kUV, MemoCache.<U, Either<E, V>>builder().build());
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then the given named stage,
+     * caching the results of the stage in the given {@link MemoCache}.
+     * @param name      the stage name
+     * @param kUV       the stage to be applied after this pipeline
+     * @param cache     the cache which holds the results of the stage
+     * @param <V>       the value type of the {@code Either} returned by {@code kUV}
+     * @return          the new pipeline
+     */
+    public <V> EitherPipeline<E, T, V> andThenMemoized(String name, EitherK<E, U, V> kUV, MemoCache<U, Either<E, V>> cache) {
+        return new EitherPipeline<E, T, V>(pipeline.andThenMemoized(name, (Functions.F<U, Either<E, V>>)kUV::apply, cache));
+    }
+
+    /**
+     * Create a pipeline which applies the given {@code EitherK} and then this pipeline.
+     * @param kST       the {@code EitherK} to be applied before this pipeline
+     * @param <S>       the input type of {@code kST}
+     * @return          the new pipeline
+     */
+    @Override
+    public <S> EitherPipeline<E, S, U> compose(EitherK<E, S, T> kST) {
+        return of(kST).andThen(this);
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then maps the function over the result.
+     * @param f         the function
+     * @param <V>       the function return type
+     * @return          the new pipeline
+     */
+    @Override
+    public <V> EitherPipeline<E, T, V> map(Functions.F<U, V> f) {
+        return map(pipeline.nextName(), f);
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then maps the named function over the result.
+     * As with {@link Either#map(Functions.F)}, the function must not return null.
+     * @param name      the stage name
+     * @param f         the function
+     * @param <V>       the function return type
+     * @return          the new pipeline
+     */
+    public <V> EitherPipeline<E, T, V> map(String name, Functions.F<U, V> f) {
+        return new EitherPipeline<E, T, V>(pipeline.map(name, f));
+    }
+
+    /**
+     * Create a copy of this pipeline which records the invocations, failures and time spent in each stage.
+     * Stages subsequently added to the profiled pipeline are also profiled.
+     * @return          the profiled pipeline
+     */
+    public EitherPipeline<E, T, U> profiled() {
+        return new EitherPipeline<E, T, U>(pipeline.profiled());
+    }
+}
@@ -5,6 +5,9 @@
 
 /**
  * {@code OptionK} models composable operations that return a {@code Option}.
+ * <p>
+ * Composed {@code OptionK}s are flattened into a {@link OptionPipeline},
+ * which runs the stages in a single loop rather than as nested closures.
  * @param <T>       the input type
  * @param <U>       the value type of the returned {@code Option} type
  */
@@ -36,7 +39,7 @@ static <T, U> OptionK<T, U> of(Functions.F<T, Option<U>> f) {
      * @return          the composed {@code OptionK}
      */
     default <V> OptionK<T, V> andThen(OptionK<U, V> kUV) {
-        return t -> this.apply(t).flatMap(kUV::apply);
+        return OptionPipeline.of(this).andThen(kUV);
     }
 
     /**
@@ -47,7 +50,7 @@ default <V> OptionK<T, V> andThen(OptionK<U, V> kUV) {
      * @return          the composed {@code OptionK}
      */
     default <S> OptionK<S, U> compose(OptionK<S, T> kST) {
-        return s -> kST.apply(s).flatMap(this::apply);
+        return OptionPipeline.of(kST).andThen(this);
     }
 
     /**
@@ -59,6 +62,6 @@ default <S> OptionK<S, U> compose(OptionK<S, T> kST) {
      * @return          the composed {@code OptionK}
      */
     default <V> OptionK<T, V> map(Functions.F<U, V> f) {
-        return t -> this.apply(t).map(f);
+        return OptionPipeline.of(this).map(f);
     }
 }
@@ -0,0 +1,180 @@
+package org.typemeta.funcj.kleisli;
+
+import org.typemeta.funcj.control.Option;
+import org.typemeta.funcj.functions.Functions;
+import org.typemeta.funcj.functions.MemoCache;
+
+/**
+ * A {@link OptionK} which holds its composed stages in a flat array,
+ * and runs them with a single loop which exits at the first {@code None}.
+ * <p>
+ * Composing a {@code OptionPipeline} via {@code andThen}, {@code compose} or {@code map} appends stages
+ * to the array rather than nesting closures, and the default composition methods of {@code OptionK}
+ * build a {@code OptionPipeline}, so existing chains of {@code OptionK}s are flattened automatically.
+ * Stages can be named, and stages which are pure functions of their input can be memoised.
+ * A {@link OptionPipeline#profiled() profiled} pipeline records per-stage counts and timings.
+ * @param <T>       the input type
+ * @param <U>       the value type of the returned {@code Option} type
+ */
+public final class OptionPipeline<T, U> extends AbstractPipeline implements OptionK<T, U> {
+
+    private static final Pipeline.Monad MONAD = new Pipeline.Monad() {
+        @Override
+        public boolean isFailure(Object m) {
+            return !((Option<?>)m).isPresent();
+        }
+
+        @Override
+        public Object value(Object m) {
+            return ((Option.Some<?>)m).value;
+        }
+
+        @Override
+        public Object pure(Object v) {
+            return Option.some(v);
+        }
+    };
+
+    private static final OptionPipeline<?, ?> IDENTITY = new OptionPipeline<Object, Object>(Pipeline.empty(MONAD));
+
+    /**
+     * Construct an empty pipeline, which returns its input as a {@code Some}.
+     * @param <T>       the input type
+     * @return          the new pipeline
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> OptionPipeline<T, T> identity() {
+        return (OptionPipeline<T, T>)IDENTITY;
+    }
+
+    /**
+     * Construct a pipeline from a {@code OptionK}.
+     * If the {@code OptionK} is already a pipeline then its stages are reused.
+     * @param k         the {@code OptionK}
+     * @param <T>       the input type
+     * @param <U>       the value type of the returned {@code Option} value
+     * @return          the new pipeline
+     */
+    public static <T, U> OptionPipeline<T, U> of(OptionK<T, U> k) {
+        return OptionPipeline.<T>identity().andThen(k);
+    }
+
+    /**
+     * Construct a pipeline with a single named stage.
+     * @param name      the stage name
+     * @param k         the stage
+     * @param <T>       the input type
+     * @param <U>       the value type of the returned {@code Option} value
+     * @return          the new pipeline
+     */
+    public static <T, U> OptionPipeline<T, U> of(String name, OptionK<T, U> k) {
+        return OptionPipeline.<T>identity().andThen(name, k);
+    }
+
+    private OptionPipeline(Pipeline pipeline) {
+        super(pipeline);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Option<U> apply(T t) {
+        return (Option<U>)pipeline.run(t);
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then the given {@code OptionK}.
+     * If the {@code OptionK} is itself a pipeline then its stages are appended to those of this pipeline.
+     * @param kUV       the {@code OptionK} to be applied after this pipeline
+     * @param <V>       the value type of the {@code Option} returned by {@code kUV}
+     * @return          the new pipeline
+     */
+    @Override
+    public <V> OptionPipeline<T, V> andThen(OptionK<U, V> kUV) {
+        if (kUV instanceof OptionPipeline) {
+            return new OptionPipeline<T, V>(pipeline.andThen(((OptionPipeline<U, V>)kUV).pipeline));
+        } else {
+            return andThen(pipeline.nextName(), kUV);
+        }
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then the given named stage.
+     * @param name      the stage name
+     * @param kUV       the stage to be applied after this pipeline
+     * @param <V>       the value type of the {@code Option} returned by {@code kUV}
+     * @return          the new pipeline
+     */
+    public <V> OptionPipeline<T, V> andThen(String name, OptionK<U, V> kUV) {
+        return new OptionPipeline<T, V>(pipeline.andThen(name, (Functions.F<U, Option<V>>)kUV::apply));
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then the given named stage,
+     * caching the results of the stage in an unbounded {@link MemoCache}.
+     * The stage should be a pure function of its input, and its input type should have
+     * a suitable {@code equals} and {@code hashCode}.
+     * @param name      the stage name
+     * @param kUV       the stage to be applied after this pipeline
+     * @param <V>       the value type of the {@code Option} returned by {@code kUV}
+     * @return          the new pipeline
+     */
+    public <V> OptionPipeline<T, V> andThenMemoized(String name, OptionK<U, V> kUV) {
+        return andThenMemoized(name, kUV, MemoCache.<U, Option<V>>builder().build());
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then the given named stage,
+     * caching the results of the stage in the given {@link MemoCache}.
+     * @param name      the stage name
+     * @param kUV       the stage to be applied after this pipeline
+     * @param cache     the cache which holds the results of the stage
+     * @param <V>       the value type of the {@code Option} returned by {@code kUV}
+     * @return          the new pipeline
+     */
+    public <V> OptionPipeline<T, V> andThenMemoized(String name, OptionK<U, V> kUV, MemoCache<U, Option<V>> cache) {
+        return new OptionPipeline<T, V>(pipeline.andThenMemoized(name, (Functions.F<U, Option<V>>)kUV::apply, cache));
+    }
+
+    /**
+     * Create a pipeline which applies the given {@code OptionK} and then this pipeline.
+     * @param kST       the {@code OptionK} to be applied before this pipeline
+     * @param <S>       the input type of {@code kST}
+     * @return          the new pipeline
+     */
+    @Override
+    public <S> OptionPipeline<S, U> compose(OptionK<S, T> kST) {
+        return of(kST).andThen(this);
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then maps the function over the result.
+     * @param f         the function
+     * @param <V>       the function return type
+     * @return          the new pipeline
+     */
+    @Override
+    public <V> OptionPipeline<T, V> map(Functions.F<U, V> f) {
+        return map(pipeline.nextName(), f);
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then maps the named function over the result.
+     * As with {@link Option#map(Functions.F)}, the function must not return null.
+     * @param name      the stage name
+     * @param f         the function
+     * @param <V>       the function return type
+     * @return          the new pipeline
+     */
+    public <V> OptionPipeline<T, V> map(String name, Functions.F<U, V> f) {
+        return new OptionPipeline<T, V>(pipeline.map(name, f));
+    }
+
+    /**
+     * Create a copy of this pipeline which records the invocations, failures and time spent in each stage.
+     * Stages subsequently added to the profiled pipeline are also profiled.
+     * @return          the profiled pipeline
+     */
+    public OptionPipeline<T, U> profiled() {
+        return new OptionPipeline<T, U>(pipeline.profiled());
+    }
+}
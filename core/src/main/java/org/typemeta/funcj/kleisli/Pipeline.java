@@ -0,0 +1,159 @@
+package org.typemeta.funcj.kleisli;
+
+import org.typemeta.funcj.functions.Functions;
+import org.typemeta.funcj.functions.MemoCache;
+
+import java.util.*;
+
+/**
+ * A flattened sequence of Kleisli stages, which is run by a single loop
+ * that exits at the first stage whose result is a failure.
+ * <p>
+ * The stages are held in an array rather than as nested closures,
+ * so composing a pipeline appends to the array, and running it neither recurses
+ * nor allocates a monadic value for the intermediate results of plain {@code map} stages.
+ * This is the engine shared by {@link TryPipeline}, {@link EitherPipeline} and {@link OptionPipeline},
+ * each of which supplies a {@link Monad} which tells the loop how to inspect its results,
+ * and delegates all composition to this class.
+ */
+final class Pipeline {
+
+    /**
+     * How the loop inspects and constructs the values of a short-circuiting monad.
+     */
+    interface Monad {
+        boolean isFailure(Object m);
+
+        Object value(Object m);
+
+        Object pure(Object v);
+    }
+
+    /**
+     * A single stage.
+     * A Kleisli stage returns a monadic value, whereas a map stage returns a plain value.
+     */
+    static final class Stage {
+        final String name;
+        final Functions.F<Object, Object> f;
+        final boolean kleisli;
+        final MemoCache<Object, Object> cache;
+        final StageStats stats;
+
+        Stage(String name, Functions.F<Object, Object> f, boolean kleisli, MemoCache<Object, Object> cache, StageStats stats) {
+            this.name = Objects.requireNonNull(name);
+            this.f = Objects.requireNonNull(f);
+            this.kleisli = kleisli;
+            this.cache = cache;
+            this.stats = stats;
+        }
+
+        Object apply(Object v) {
+            return cache == null ? f.apply(v) : cache.get(v, f);
+        }
+
+        Stage profiled() {
+            return new Stage(name, f, kleisli, cache, new StageStats(name, cache));
+        }
+    }
+
+    /**
+     * Construct an empty pipeline for the given monad.
+     */
+    static Pipeline empty(Monad monad) {
+        return new Pipeline(monad, new Stage[0], false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Stage stage(String name, Functions.F<?, ?> f, boolean kleisli, MemoCache<?, ?> cache) {
+        return new Stage(name, (Functions.F<Object, Object>)f, kleisli, (MemoCache<Object, Object>)cache, null);
+    }
+
+    final Monad monad;
+    final Stage[] stages;
+    final boolean profiled;
+
+    private Pipeline(Monad monad, Stage[] stages, boolean profiled) {
+        this.monad = monad;
+        this.stages = stages;
+        this.profiled = profiled;
+    }
+
+    /**
+     * The default name for the next stage.
+     */
+    String nextName() {
+        return "stage-" + stages.length;
+    }
+
+    Pipeline andThen(String name, Functions.F<?, ?> k) {
+        return add(stage(name, k, true, null));
+    }
+
+    Pipeline andThenMemoized(String name, Functions.F<?, ?> k, MemoCache<?, ?> cache) {
+        return add(stage(name, k, true, Objects.requireNonNull(cache)));
+    }
+
+    Pipeline map(String name, Functions.F<?, ?> f) {
+        return add(stage(name, f, false, null));
+    }
+
+    private Pipeline add(Stage stage) {
+        final Stage[] ss = Arrays.copyOf(stages, stages.length + 1);
+        ss[stages.length] = profiled ? stage.profiled() : stage;
+        return new Pipeline(monad, ss, profiled);
+    }
+
+    Pipeline andThen(Pipeline other) {
+        final Stage[] ss = Arrays.copyOf(stages, stages.length + other.stages.length);
+        for (int i = 0; i < other.stages.length; ++i) {
+            final Stage st = other.stages[i];
+            ss[stages.length + i] = profiled && st.stats == null ? st.profiled() : st;
+        }
+        return new Pipeline(monad, ss, profiled || other.profiled);
+    }
+
+    Pipeline profiled() {
+        final Stage[] ss = new Stage[stages.length];
+        for (int i = 0; i < ss.length; ++i) {
+            ss[i] = stages[i].profiled();
+        }
+        return new Pipeline(monad, ss, true);
+    }
+
+    List<StageStats> stats() {
+        final List<StageStats> l = new ArrayList<>(stages.length);
+        for (Stage s : stages) {
+            if (s.stats != null) {
+                l.add(s.stats);
+            }
+        }
+        return Collections.unmodifiableList(l);
+    }
+
+    Object run(Object input) {
+        Object v = input;
+        for (Stage st : stages) {
+            final StageStats stats = st.stats;
+            final long start = stats == null ? 0L : System.nanoTime();
+            final Object r = st.apply(v);
+            if (st.kleisli) {
+                if (monad.isFailure(r)) {
+                    if (stats != null) {
+                        stats.record(start, true);
+                    }
+                    return r;
+                }
+                v = monad.value(r);
+            } else {
+                // The success value of each monad is non-null,
+                // so a nested map would have thrown here too.
+                v = Objects.requireNonNull(r);
+            }
+            if (stats != null) {
+                stats.record(start, false);
+            }
+        }
+        return monad.pure(v);
+    }
+}
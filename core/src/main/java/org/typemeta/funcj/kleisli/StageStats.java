@@ -0,0 +1,85 @@
+package org.typemeta.funcj.kleisli;
+
+import org.typemeta.funcj.functions.MemoCache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation counts and timings for a single stage of a profiled Kleisli pipeline,
+ * such as a {@link TryPipeline}.
+ * The counters are updated concurrently, and so may be read while the pipeline is running.
+ */
+public final class StageStats {
+    private final String name;
+    private final MemoCache<?, ?> cache;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    StageStats(String name, MemoCache<?, ?> cache) {
+        this.name = name;
+        this.cache = cache;
+    }
+
+    void record(long start, boolean failed) {
+        nanos.add(System.nanoTime() - start);
+        invocations.increment();
+        if (failed) {
+            failures.increment();
+        }
+    }
+
+    /**
+     * @return          the name of the stage
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return          the number of times the stage has been invoked
+     */
+    public long invocations() {
+        return invocations.sum();
+    }
+
+    /**
+     * @return          the number of invocations which returned a failure, and so ended the pipeline
+     */
+    public long failures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return          the total time spent in the stage, in nanoseconds
+     */
+    public long totalNanos() {
+        return nanos.sum();
+    }
+
+    /**
+     * @return          the mean time per invocation of the stage, in nanoseconds
+     */
+    public double meanNanos() {
+        final long n = invocations();
+        return n == 0 ? 0.0 : (double)totalNanos() / n;
+    }
+
+    /**
+     * @return          the number of invocations which were answered by the stage's cache,
+     *                  or zero if the stage is not memoised
+     */
+    public long cacheHits() {
+        return cache == null ? 0 : cache.stats().hitCount();
+    }
+
+    @Override
+    public String toString() {
+        return name +
+                "{invocations=" + invocations() +
+                ", failures=" + failures() +
+                ", totalNanos=" + totalNanos() +
+                ", cacheHits=" + cacheHits() +
+                '}';
+    }
+}
@@ -5,6 +5,9 @@
 
 /**
  * {@code TryK} models composable operations that return a {@code Try}.
+ * <p>
+ * Composed {@code TryK}s are flattened into a {@link TryPipeline},
+ * which runs the stages in a single loop rather than as nested closures.
  * @param <T>       the input type
  * @param <U>       the value type of the returned {@code Try} type
  */
@@ -36,7 +39,7 @@ static <T, U> TryK<T, U> of(Functions.F<T, Try<U>> f) {
      * @return          the composed {@code Kleisli}
      */
     default <V> TryK<T, V> andThen(TryK<U, V> kUV) {
-        return t -> this.apply(t).flatMap(kUV::apply);
+        return TryPipeline.of(this).andThen(kUV);
     }
 
     /**
@@ -47,7 +50,7 @@ default <V> TryK<T, V> andThen(TryK<U, V> kUV) {
      * @return          the composed {@code Kleisli}
      */
     default <S> TryK<S, U> compose(TryK<S, T> kST) {
-        return s -> kST.apply(s).flatMap(this::apply);
+        return TryPipeline.of(kST).andThen(this);
     }
 
     /**
@@ -59,6 +62,6 @@ default <S> TryK<S, U> compose(TryK<S, T> kST) {
      * @return          the composed {@code Kleisli}
      */
     default <V> TryK<T, V> map(Functions.F<U, V> f) {
-        return t -> this.apply(t).map(f);
+        return TryPipeline.of(this).map(f);
     }
 }
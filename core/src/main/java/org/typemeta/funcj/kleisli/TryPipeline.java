@@ -0,0 +1,180 @@
+package org.typemeta.funcj.kleisli;
+
+import org.typemeta.funcj.control.Try;
+import org.typemeta.funcj.functions.Functions;
+import org.typemeta.funcj.functions.MemoCache;
+
+/**
+ * A {@link TryK} which holds its composed stages in a flat array,
+ * and runs them with a single loop which exits at the first {@code Failure}.
+ * <p>
+ * Composing a {@code TryPipeline} via {@code andThen}, {@code compose} or {@code map} appends stages
+ * to the array rather than nesting closures, and the default composition methods of {@code TryK}
+ * build a {@code TryPipeline}, so existing chains of {@code TryK}s are flattened automatically.
+ * Stages can be named, and stages which are pure functions of their input can be memoised.
+ * A {@link TryPipeline#profiled() profiled} pipeline records per-stage counts and timings.
+ * @param <T>       the input type
+ * @param <U>       the value type of the returned {@code Try} type
+ */
+public final class TryPipeline<T, U> extends AbstractPipeline implements TryK<T, U> {
+
+    private static final Pipeline.Monad MONAD = new Pipeline.Monad() {
+        @Override
+        public boolean isFailure(Object m) {
+            return !((Try<?>)m).isSuccess();
+        }
+
+        @Override
+        public Object value(Object m) {
+            return ((Try.Success<?>)m).value;
+        }
+
+        @Override
+        public Object pure(Object v) {
+            return Try.success(v);
+        }
+    };
+
+    private static final TryPipeline<?, ?> IDENTITY = new TryPipeline<Object, Object>(Pipeline.empty(MONAD));
+
+    /**
+     * Construct an empty pipeline, which returns its input as a {@code Success}.
+     * @param <T>       the input type
+     * @return          the new pipeline
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TryPipeline<T, T> identity() {
+        return (TryPipeline<T, T>)IDENTITY;
+    }
+
+    /**
+     * Construct a pipeline from a {@code TryK}.
+     * If the {@code TryK} is already a pipeline then its stages are reused.
+     * @param k         the {@code TryK}
+     * @param <T>       the input type
+     * @param <U>       the value type of the returned {@code Try} value
+     * @return          the new pipeline
+     */
+    public static <T, U> TryPipeline<T, U> of(TryK<T, U> k) {
+        return TryPipeline.<T>identity().andThen(k);
+    }
+
+    /**
+     * Construct a pipeline with a single named stage.
+     * @param name      the stage name
+     * @param k         the stage
+     * @param <T>       the input type
+     * @param <U>       the value type of the returned {@code Try} value
+     * @return          the new pipeline
+     */
+    public static <T, U> TryPipeline<T, U> of(String name, TryK<T, U> k) {
+        return TryPipeline.<T>identity().andThen(name, k);
+    }
+
+    private TryPipeline(Pipeline pipeline) {
+        super(pipeline);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Try<U> apply(T t) {
+        return (Try<U>)pipeline.run(t);
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then the given {@code TryK}.
+     * If the {@code TryK} is itself a pipeline then its stages are appended to those of this pipeline.
+     * @param kUV       the {@code TryK} to be applied after this pipeline
+     * @param <V>       the value type of the {@code Try} returned by {@code kUV}
+     * @return          the new pipeline
+     */
+    @Override
+    public <V> TryPipeline<T, V> andThen(TryK<U, V> kUV) {
+        if (kUV instanceof TryPipeline) {
+            return new TryPipeline<T, V>(pipeline.andThen(((TryPipeline<U, V>)kUV).pipeline));
+        } else {
+            return andThen(pipeline.nextName(), kUV);
+        }
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then the given named stage.
+     * @param name      the stage name
+     * @param kUV       the stage to be applied after this pipeline
+     * @param <V>       the value type of the {@code Try} returned by {@code kUV}
+     * @return          the new pipeline
+     */
+    public <V> TryPipeline<T, V> andThen(String name, TryK<U, V> kUV) {
+        return new TryPipeline<T, V>(pipeline.andThen(name, (Functions.F<U, Try<V>>)kUV::apply));
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then the given named stage,
+     * caching the results of the stage in an unbounded {@link MemoCache}.
+     * The stage should be a pure function of its input, and its input type should have
+     * a suitable {@code equals} and {@code hashCode}.
+     * @param name      the stage name
+     * @param kUV       the stage to be applied after this pipeline
+     * @param <V>       the value type of the {@code Try} returned by {@code kUV}
+     * @return          the new pipeline
+     */
+    public <V> TryPipeline<T, V> andThenMemoized(String name, TryK<U, V> kUV) {
+        return andThenMemoized(name, kUV, MemoCache.<U, Try<V>>builder().build());
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then the given named stage,
+     * caching the results of the stage in the given {@link MemoCache}.
+     * @param name      the stage name
+     * @param kUV       the stage to be applied after this pipeline
+     * @param cache     the cache which holds the results of the stage
+     * @param <V>       the value type of the {@code Try} returned by {@code kUV}
+     * @return          the new pipeline
+     */
+    public <V> TryPipeline<T, V> andThenMemoized(String name, TryK<U, V> kUV, MemoCache<U, Try<V>> cache) {
+        return new TryPipeline<T, V>(pipeline.andThenMemoized(name, (Functions.F<U, Try<V>>)kUV::apply, cache));
+    }
+
+    /**
+     * Create a pipeline which applies the given {@code TryK} and then this pipeline.
+     * @param kST       the {@code TryK} to be applied before this pipeline
+     * @param <S>       the input type of {@code kST}
+     * @return          the new pipeline
+     */
+    @Override
+    public <S> TryPipeline<S, U> compose(TryK<S, T> kST) {
+        return of(kST).andThen(this);
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then maps the function over the result.
+     * @param f         the function
+     * @param <V>       the function return type
+     * @return          the new pipeline
+     */
+    @Override
+    public <V> TryPipeline<T, V> map(Functions.F<U, V> f) {
+        return map(pipeline.nextName(), f);
+    }
+
+    /**
+     * Create a pipeline which applies this pipeline and then maps the named function over the result.
+     * As with {@link Try#map(Functions.F)}, the function must not return null.
+     * @param name      the stage name
+     * @param f         the function
+     * @param <V>       the function return type
+     * @return          the new pipeline
+     */
+    public <V> TryPipeline<T, V> map(String name, Functions.F<U, V> f) {
+        return new TryPipeline<T, V>(pipeline.map(name, f));
+    }
+
+    /**
+     * Create a copy of this pipeline which records the invocations, failures and time spent in each stage.
+     * Stages subsequently added to the profiled pipeline are also profiled.
+     * @return          the profiled pipeline
+     */
+    public TryPipeline<T, U> profiled() {
+        return new TryPipeline<T, U>(pipeline.profiled());
+    }
+}
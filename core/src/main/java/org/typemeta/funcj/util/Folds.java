@@ -1,14 +1,27 @@
 package org.typemeta.funcj.util;
 
+import org.typemeta.funcj.algebra.Monoid;
 import org.typemeta.funcj.functions.Functions;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
 import java.util.stream.Stream;
 
 /**
  * Fold operations.
  */
 public abstract class Folds {
+    /**
+     * The granularity used by the parallel folds when the size of the source is unknown.
+     */
+    public static final long DEFAULT_GRANULARITY = 1024;
+
+    /**
+     * The number of leaf tasks per worker thread that the parallel folds aim to split the source into.
+     */
+    private static final int TASKS_PER_THREAD = 4;
+
     /**
      * Left-fold a function over an {@link Iterable}.
      * @param f         the binary function to be applied for the fold
@@ -128,4 +141,450 @@ public static <T, R> R foldRight(Functions.F2<T, R, R> f, R z, Set<T> s) {
     public static <T> T foldRight1(Functions.Op2<T> f, Set<T> s) {
         return foldRight1(f, new ArrayList<T>(s));
     }
+
+    /**
+     * Map each element of an {@link Iterable} into a monoid, and combine the results.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param itb       the iterable to be folded over
+     * @param <T>       the iterable element type
+     * @param <R>       the monoid type
+     * @return          the folded value
+     */
+    public static <T, R> R foldMap(Monoid<R> m, Functions.F<? super T, R> f, Iterable<T> itb) {
+        R acc = m.zero();
+        for (T t : itb) {
+            acc = m.combine(acc, f.apply(t));
+        }
+        return acc;
+    }
+
+    /**
+     * Map each element of a {@link Stream} into a monoid, and combine the results.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param str       the stream to be folded over
+     * @param <T>       the stream element type
+     * @param <R>       the monoid type
+     * @return          the folded value
+     */
+    public static <T, R> R foldMap(Monoid<R> m, Functions.F<? super T, R> f, Stream<T> str) {
+        return foldMap(m, f, str.spliterator());
+    }
+
+    /**
+     * Map each element of an array into a monoid, and combine the results.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param arr       the array to be folded over
+     * @param <T>       the array element type
+     * @param <R>       the monoid type
+     * @return          the folded value
+     */
+    public static <T, R> R foldMap(Monoid<R> m, Functions.F<? super T, R> f, T[] arr) {
+        R acc = m.zero();
+        for (T t : arr) {
+            acc = m.combine(acc, f.apply(t));
+        }
+        return acc;
+    }
+
+    /**
+     * Map each element of a {@link Spliterator} into a monoid, and combine the results.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param spl       the spliterator to be folded over
+     * @param <T>       the spliterator element type
+     * @param <R>       the monoid type
+     * @return          the folded value
+     */
+    public static <T, R> R foldMap(Monoid<R> m, Functions.F<? super T, R> f, Spliterator<T> spl) {
+        final FoldMapTask<T, R> task = new FoldMapTask<T, R>(m, f, spl, Long.MAX_VALUE);
+        task.foldLeaf();
+        return task.acc;
+    }
+
+    /**
+     * Map each element of an {@link Iterable} into an {@code int} monoid, and combine the results,
+     * without boxing.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param itb       the iterable to be folded over
+     * @param <T>       the iterable element type
+     * @return          the folded value
+     */
+    public static <T> int foldMapInt(Monoid.OfInt m, ToIntFunction<? super T> f, Iterable<T> itb) {
+        int acc = m.zero();
+        for (T t : itb) {
+            acc = m.combine(acc, f.applyAsInt(t));
+        }
+        return acc;
+    }
+
+    /**
+     * Map each element of an {@link Iterable} into a {@code long} monoid, and combine the results,
+     * without boxing.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param itb       the iterable to be folded over
+     * @param <T>       the iterable element type
+     * @return          the folded value
+     */
+    public static <T> long foldMapLong(Monoid.OfLong m, ToLongFunction<? super T> f, Iterable<T> itb) {
+        long acc = m.zero();
+        for (T t : itb) {
+            acc = m.combine(acc, f.applyAsLong(t));
+        }
+        return acc;
+    }
+
+    /**
+     * Map each element of an {@link Iterable} into a {@code double} monoid, and combine the results,
+     * without boxing.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param itb       the iterable to be folded over
+     * @param <T>       the iterable element type
+     * @return          the folded value
+     */
+    public static <T> double foldMapDouble(Monoid.OfDouble m, ToDoubleFunction<? super T> f, Iterable<T> itb) {
+        double acc = m.zero();
+        for (T t : itb) {
+            acc = m.combine(acc, f.applyAsDouble(t));
+        }
+        return acc;
+    }
+
+    /**
+     * Map each element of a {@link Spliterator} into a monoid, and combine the results, in parallel.
+     * <p>
+     * The spliterator is recursively split, until the estimated size of each part is no greater
+     * than {@code granularity}, or it can be split no further.
+     * Each part is then folded sequentially as a {@link ForkJoinPool#commonPool()} task,
+     * and the part results are combined pairwise, in a tree.
+     * The order of the elements is preserved,
+     * so the monoid need only be associative, not commutative.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param spl       the spliterator to be folded over
+     * @param granularity the size below which parts are not split any further
+     * @param <T>       the spliterator element type
+     * @param <R>       the monoid type
+     * @return          the folded value
+     */
+    public static <T, R> R parFoldMap(Monoid<R> m, Functions.F<? super T, R> f, Spliterator<T> spl, long granularity) {
+        return ForkJoinPool.commonPool().invoke(new FoldMapTask<T, R>(m, f, spl, granularity)).acc;
+    }
+
+    /**
+     * Map each element of a {@link Spliterator} into a monoid, and combine the results, in parallel,
+     * using a granularity derived from the size of the spliterator and the available parallelism.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param spl       the spliterator to be folded over
+     * @param <T>       the spliterator element type
+     * @param <R>       the monoid type
+     * @return          the folded value
+     * @see             Folds#parFoldMap(Monoid, Functions.F, Spliterator, long)
+     */
+    public static <T, R> R parFoldMap(Monoid<R> m, Functions.F<? super T, R> f, Spliterator<T> spl) {
+        return parFoldMap(m, f, spl, granularity(spl));
+    }
+
+    /**
+     * Map each element of an {@link Iterable}, such as an {@link org.typemeta.funcj.data.IList},
+     * into a monoid, and combine the results, in parallel.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param itb       the iterable to be folded over
+     * @param <T>       the iterable element type
+     * @param <R>       the monoid type
+     * @return          the folded value
+     * @see             Folds#parFoldMap(Monoid, Functions.F, Spliterator, long)
+     */
+    public static <T, R> R parFoldMap(Monoid<R> m, Functions.F<? super T, R> f, Iterable<T> itb) {
+        return parFoldMap(m, f, itb.spliterator());
+    }
+
+    /**
+     * Map each element of a {@link Stream} into a monoid, and combine the results, in parallel.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param str       the stream to be folded over
+     * @param <T>       the stream element type
+     * @param <R>       the monoid type
+     * @return          the folded value
+     * @see             Folds#parFoldMap(Monoid, Functions.F, Spliterator, long)
+     */
+    public static <T, R> R parFoldMap(Monoid<R> m, Functions.F<? super T, R> f, Stream<T> str) {
+        return parFoldMap(m, f, str.spliterator());
+    }
+
+    /**
+     * Map each element of an array into a monoid, and combine the results, in parallel.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param arr       the array to be folded over
+     * @param <T>       the array element type
+     * @param <R>       the monoid type
+     * @return          the folded value
+     * @see             Folds#parFoldMap(Monoid, Functions.F, Spliterator, long)
+     */
+    public static <T, R> R parFoldMap(Monoid<R> m, Functions.F<? super T, R> f, T[] arr) {
+        return parFoldMap(m, f, Arrays.spliterator(arr));
+    }
+
+    /**
+     * Map each element of a {@link Spliterator} into an {@code int} monoid, and combine the results,
+     * in parallel and without boxing.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param spl       the spliterator to be folded over
+     * @param granularity the size below which parts are not split any further
+     * @param <T>       the spliterator element type
+     * @return          the folded value
+     * @see             Folds#parFoldMap(Monoid, Functions.F, Spliterator, long)
+     */
+    public static <T> int parFoldMapInt(Monoid.OfInt m, ToIntFunction<? super T> f, Spliterator<T> spl, long granularity) {
+        return ForkJoinPool.commonPool().invoke(new FoldMapIntTask<T>(m, f, spl, granularity)).acc;
+    }
+
+    /**
+     * Variation of {@link Folds#parFoldMapInt(Monoid.OfInt, ToIntFunction, Spliterator, long)}
+     * which folds over an {@link Iterable}, using the default granularity.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param itb       the iterable to be folded over
+     * @param <T>       the iterable element type
+     * @return          the folded value
+     */
+    public static <T> int parFoldMapInt(Monoid.OfInt m, ToIntFunction<? super T> f, Iterable<T> itb) {
+        final Spliterator<T> spl = itb.spliterator();
+        return parFoldMapInt(m, f, spl, granularity(spl));
+    }
+
+    /**
+     * Map each element of a {@link Spliterator} into a {@code long} monoid, and combine the results,
+     * in parallel and without boxing.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param spl       the spliterator to be folded over
+     * @param granularity the size below which parts are not split any further
+     * @param <T>       the spliterator element type
+     * @return          the folded value
+     * @see             Folds#parFoldMap(Monoid, Functions.F, Spliterator, long)
+     */
+    public static <T> long parFoldMapLong(Monoid.OfLong m, ToLongFunction<? super T> f, Spliterator<T> spl, long granularity) {
+        return ForkJoinPool.commonPool().invoke(new FoldMapLongTask<T>(m, f, spl, granularity)).acc;
+    }
+
+    /**
+     * Variation of {@link Folds#parFoldMapLong(Monoid.OfLong, ToLongFunction, Spliterator, long)}
+     * which folds over an {@link Iterable}, using the default granularity.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param itb       the iterable to be folded over
+     * @param <T>       the iterable element type
+     * @return          the folded value
+     */
+    public static <T> long parFoldMapLong(Monoid.OfLong m, ToLongFunction<? super T> f, Iterable<T> itb) {
+        final Spliterator<T> spl = itb.spliterator();
+        return parFoldMapLong(m, f, spl, granularity(spl));
+    }
+
+    /**
+     * Map each element of a {@link Spliterator} into a {@code double} monoid, and combine the results,
+     * in parallel and without boxing.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param spl       the spliterator to be folded over
+     * @param granularity the size below which parts are not split any further
+     * @param <T>       the spliterator element type
+     * @return          the folded value
+     * @see             Folds#parFoldMap(Monoid, Functions.F, Spliterator, long)
+     */
+    public static <T> double parFoldMapDouble(Monoid.OfDouble m, ToDoubleFunction<? super T> f, Spliterator<T> spl, long granularity) {
+        return ForkJoinPool.commonPool().invoke(new FoldMapDoubleTask<T>(m, f, spl, granularity)).acc;
+    }
+
+    /**
+     * Variation of {@link Folds#parFoldMapDouble(Monoid.OfDouble, ToDoubleFunction, Spliterator, long)}
+     * which folds over an {@link Iterable}, using the default granularity.
+     * @param m         the monoid used to combine the mapped values
+     * @param f         the function which maps each element into the monoid
+     * @param itb       the iterable to be folded over
+     * @param <T>       the iterable element type
+     * @return          the folded value
+     */
+    public static <T> double parFoldMapDouble(Monoid.OfDouble m, ToDoubleFunction<? super T> f, Iterable<T> itb) {
+        final Spliterator<T> spl = itb.spliterator();
+        return parFoldMapDouble(m, f, spl, granularity(spl));
+    }
+
+    private static long granularity(Spliterator<?> spl) {
+        final long size = spl.estimateSize();
+        if (size == Long.MAX_VALUE) {
+            return DEFAULT_GRANULARITY;
+        } else {
+            return Math.max(1, size / (ForkJoinPool.getCommonPoolParallelism() * TASKS_PER_THREAD));
+        }
+    }
+
+    /**
+     * Base class for the parallel fold tasks.
+     * Splits the spliterator, folds the prefix part as a forked subtask and the suffix part in this task,
+     * and then combines the two results.
+     */
+    private static abstract class SplittingTask<T, S extends SplittingTask<T, S>> extends RecursiveTask<S> {
+        private static final long serialVersionUID = 1L;
+
+        final Spliterator<T> spl;
+        final long granularity;
+
+        SplittingTask(Spliterator<T> spl, long granularity) {
+            this.spl = spl;
+            this.granularity = granularity;
+        }
+
+        abstract S sub(Spliterator<T> prefix);
+
+        abstract void foldLeaf();
+
+        abstract void combineWithPrefix(S prefix);
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected S compute() {
+            final Spliterator<T> prefix;
+            if (spl.estimateSize() > granularity && (prefix = spl.trySplit()) != null) {
+                final S left = sub(prefix);
+                left.fork();
+                compute();
+                combineWithPrefix(left.join());
+            } else {
+                foldLeaf();
+            }
+            return (S)this;
+        }
+    }
+
+    private static final class FoldMapTask<T, R> extends SplittingTask<T, FoldMapTask<T, R>> {
+        private static final long serialVersionUID = 1L;
+
+        final Monoid<R> m;
+        final Functions.F<? super T, R> f;
+        R acc;
+
+        FoldMapTask(Monoid<R> m, Functions.F<? super T, R> f, Spliterator<T> spl, long granularity) {
+            super(spl, granularity);
+            this.m = m;
+            this.f = f;
+            this.acc = m.zero();
+        }
+
+        @Override
+        FoldMapTask<T, R> sub(Spliterator<T> prefix) {
+            return new FoldMapTask<T, R>(m, f, prefix, granularity);
+        }
+
+        @Override
+        void foldLeaf() {
+            spl.forEachRemaining(t -> acc = m.combine(acc, f.apply(t)));
+        }
+
+        @Override
+        void combineWithPrefix(FoldMapTask<T, R> prefix) {
+            acc = m.combine(prefix.acc, acc);
+        }
+    }
+
+    private static final class FoldMapIntTask<T> extends SplittingTask<T, FoldMapIntTask<T>> {
+        private static final long serialVersionUID = 1L;
+
+        final Monoid.OfInt m;
+        final ToIntFunction<? super T> f;
+        int acc;
+
+        FoldMapIntTask(Monoid.OfInt m, ToIntFunction<? super T> f, Spliterator<T> spl, long granularity) {
+            super(spl, granularity);
+            this.m = m;
+            this.f = f;
+            this.acc = m.zero();
+        }
+
+        @Override
+        FoldMapIntTask<T> sub(Spliterator<T> prefix) {
+            return new FoldMapIntTask<T>(m, f, prefix, granularity);
+        }
+
+        @Override
+        void foldLeaf() {
+            spl.forEachRemaining(t -> acc = m.combine(acc, f.applyAsInt(t)));
+        }
+
+        @Override
+        void combineWithPrefix(FoldMapIntTask<T> prefix) {
+            acc = m.combine(prefix.acc, acc);
+        }
+    }
+
+    private static final class FoldMapLongTask<T> extends SplittingTask<T, FoldMapLongTask<T>> {
+        private static final long serialVersionUID = 1L;
+
+        final Monoid.OfLong m;
+        final ToLongFunction<? super T> f;
+        long acc;
+
+        FoldMapLongTask(Monoid.OfLong m, ToLongFunction<? super T> f, Spliterator<T> spl, long granularity) {
+            super(spl, granularity);
+            this.m = m;
+            this.f = f;
+            this.acc = m.zero();
+        }
+
+        @Override
+        FoldMapLongTask<T> sub(Spliterator<T> prefix) {
+            return new FoldMapLongTask<T>(m, f, prefix, granularity);
+        }
+
+        @Override
+        void foldLeaf() {
+            spl.forEachRemaining(t -> acc = m.combine(acc, f.applyAsLong(t)));
+        }
+
+        @Override
+        void combineWithPrefix(FoldMapLongTask<T> prefix) {
+            acc = m.combine(prefix.acc, acc);
+        }
+    }
+
+    private static final class FoldMapDoubleTask<T> extends SplittingTask<T, FoldMapDoubleTask<T>> {
+        private static final long serialVersionUID = 1L;
+
+        final Monoid.OfDouble m;
+        final ToDoubleFunction<? super T> f;
+        double acc;
+
+        FoldMapDoubleTask(Monoid.OfDouble m, ToDoubleFunction<? super T> f, Spliterator<T> spl, long granularity) {
+            super(spl, granularity);
+            this.m = m;
+            this.f = f;
+            this.acc = m.zero();
+        }
+
+        @Override
+        FoldMapDoubleTask<T> sub(Spliterator<T> prefix) {
+            return new FoldMapDoubleTask<T>(m, f, prefix, granularity);
+        }
+
+        @Override
+        void foldLeaf() {
+            spl.forEachRemaining(t -> acc = m.combine(acc, f.applyAsDouble(t)));
+        }
+
+        @Override
+        void combineWithPrefix(FoldMapDoubleTask<T> prefix) {
+            acc = m.combine(prefix.acc, acc);
+        }
+    }
 }
@@ -3,8 +3,6 @@
 import org.typemeta.funcj.control.State;
 import org.typemeta.funcj.tuples.Tuple2;
 
-import static org.typemeta.funcj.control.Trampoline.*;
-
 /**
  * Pseudo-random number generator, using the {@link State} monad.
  * <p>
@@ -28,14 +26,14 @@ static RNG xorShiftRNG(long seed) {
      * @return          a state processor which will generate the next random double
      */
     static State<RNG, Double> nextDbl() {
-        return st -> defer(() -> done(st.generateDouble0To1()));
+        return State.state(RNG::generateDouble0To1);
     }
 
     /**
      * @return          a state processor which will generate the next random long
      */
     static State<RNG, Long> nextLng() {
-        return st -> defer(() -> done(st.generateLong()));
+        return State.state(RNG::generateLong);
     }
 
     /**
@@ -0,0 +1,411 @@
+package org.typemeta.funcj.util;
+
+import org.typemeta.funcj.control.State;
+import org.typemeta.funcj.tuples.Tuple2;
+
+import java.util.Spliterator;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * A purely functional, splittable pseudo-random number generator.
+ * <p>
+ * A {@code SplittableRNG} value is an immutable generator state.
+ * {@link SplittableRNG#peekLong()} returns the random number at the current state,
+ * and {@link SplittableRNG#advance()} returns the next state,
+ * so single draws don't allocate a boxed value or a pair.
+ * The bulk operations ({@link SplittableRNG#fill(long[])}, {@link SplittableRNG#longs(long)}, etc.)
+ * generate many numbers without allocating per draw,
+ * and {@link SplittableRNG#split()} derives a statistically independent generator,
+ * e.g. for use on another thread.
+ * <p>
+ * Instances also implement {@link RNG}, so they can be used with {@link RNG#nextLng()} and {@link RNG#nextDbl()},
+ * while the {@link State} processors on this interface avoid boxing the random numbers.
+ */
+public interface SplittableRNG extends RNG {
+
+    /**
+     * Return a {@code SplittableRNG} based on the SplitMix64 algorithm,
+     * which generates the same sequence as a {@link java.util.SplittableRandom} with the same seed.
+     * <p>
+     * SplitMix64 can be advanced by any number of steps in constant time,
+     * so its streams can be generated in parallel.
+     * @see <a href="https://doi.org/10.1145/2714064.2660195">Fast splittable pseudorandom number generators</a>
+     * @param seed      the initial seed for the RNG
+     * @return          the {@code RNG}
+     */
+    static SplittableRNG splitMix64(long seed) {
+        return new SplittableRNGUtils.SplitMix64(seed, SplittableRNGUtils.GOLDEN_GAMMA);
+    }
+
+    /**
+     * Return a {@code SplittableRNG} based on the xoroshiro128++ algorithm,
+     * with its 128-bit state initialised from the seed using SplitMix64.
+     * <p>
+     * Splitting a xoroshiro128++ generator returns the generator jumped ahead by 2<sup>64</sup> draws
+     * as the next state, and hands the original state to the new generator,
+     * so, provided the original state is not used again,
+     * the split generators produce non-overlapping sequences of up to 2<sup>64</sup> draws.
+     * Repeatedly splitting the next state yields a distinct generator each time.
+     * @see <a href="https://prng.di.unimi.it/">xoshiro / xoroshiro generators</a>
+     * @param seed      the initial seed for the RNG
+     * @return          the {@code RNG}
+     */
+    static SplittableRNG xoroshiro128PlusPlus(long seed) {
+        final long s0 = SplittableRNGUtils.mix64(seed += SplittableRNGUtils.GOLDEN_GAMMA);
+        final long s1 = SplittableRNGUtils.mix64(seed + SplittableRNGUtils.GOLDEN_GAMMA);
+        return new SplittableRNGUtils.Xoroshiro128PlusPlus(s0, s1);
+    }
+
+    /**
+     * Return a state processor which applies a function to the next random long.
+     * @param f         the function to apply to the random long
+     * @param <A>       the function result type
+     * @return          the state processor
+     */
+    static <A> State<SplittableRNG, A> withLong(LongFunction<? extends A> f) {
+        return State.state(rng -> Tuple2.of(rng.advance(), f.apply(rng.peekLong())));
+    }
+
+    /**
+     * Return a state processor which applies a function to the next random double.
+     * @param f         the function to apply to the random double
+     * @param <A>       the function result type
+     * @return          the state processor
+     */
+    static <A> State<SplittableRNG, A> withDouble(DoubleFunction<? extends A> f) {
+        return State.state(rng -> Tuple2.of(rng.advance(), f.apply(rng.peekDouble())));
+    }
+
+    /**
+     * Return a state processor which generates an array of random longs.
+     * @param n         the number of random longs
+     * @return          the state processor
+     */
+    static State<SplittableRNG, long[]> nextLongs(int n) {
+        return State.state(rng -> {
+            final long[] arr = new long[n];
+            return Tuple2.of(rng.fill(arr), arr);
+        });
+    }
+
+    /**
+     * Return a state processor which generates an array of random doubles.
+     * @param n         the number of random doubles
+     * @return          the state processor
+     */
+    static State<SplittableRNG, double[]> nextDoubles(int n) {
+        return State.state(rng -> {
+            final double[] arr = new double[n];
+            return Tuple2.of(rng.fill(arr), arr);
+        });
+    }
+
+    /**
+     * Return a state processor which splits off an independent generator.
+     * @return          the state processor
+     * @see             SplittableRNG#split()
+     */
+    static State<SplittableRNG, SplittableRNG> nextSplit() {
+        return State.state(rng -> {
+            final Tuple2<SplittableRNG, SplittableRNG> t2 = rng.split();
+            return Tuple2.of(t2._1, t2._2);
+        });
+    }
+
+    /**
+     * The random long at this state, i.e. the value that {@link RNG#generateLong()} would return.
+     * @return          the random long
+     */
+    long peekLong();
+
+    /**
+     * The random double at this state, in the range 0 (inclusive) to 1 (exclusive).
+     * @return          the random double
+     */
+    default double peekDouble() {
+        return SplittableRNGUtils.toDouble(peekLong());
+    }
+
+    /**
+     * @return          the next state of this generator
+     */
+    SplittableRNG advance();
+
+    /**
+     * Advance this generator by a number of draws.
+     * @param n         the number of draws
+     * @return          the resultant state of this generator
+     */
+    default SplittableRNG advance(long n) {
+        SplittableRNG rng = this;
+        for (long i = 0; i < n; ++i) {
+            rng = rng.advance();
+        }
+        return rng;
+    }
+
+    /**
+     * Split this generator into two.
+     * @return          a pair containing the next state of this generator,
+     *                  and a new generator which is statistically independent of it
+     */
+    Tuple2<SplittableRNG, SplittableRNG> split();
+
+    /**
+     * Fill an array with random longs.
+     * @param arr       the array to fill
+     * @return          the state of this generator after the draws
+     */
+    SplittableRNG fill(long[] arr);
+
+    /**
+     * Fill an array with random doubles, in the range 0 (inclusive) to 1 (exclusive).
+     * @param arr       the array to fill
+     * @return          the state of this generator after the draws
+     */
+    SplittableRNG fill(double[] arr);
+
+    /**
+     * Return the next {@code n} random longs as a stream.
+     * The stream doesn't affect this generator,
+     * use {@link SplittableRNG#advance(long)} to obtain the state after the draws.
+     * @param n         the number of random longs
+     * @return          the stream of random longs
+     */
+    LongStream longs(long n);
+
+    /**
+     * Return the next {@code n} random doubles, in the range 0 (inclusive) to 1 (exclusive), as a stream.
+     * @param n         the number of random doubles
+     * @return          the stream of random doubles
+     * @see             SplittableRNG#longs(long)
+     */
+    default DoubleStream doubles(long n) {
+        return longs(n).mapToDouble(SplittableRNGUtils::toDouble);
+    }
+
+    @Override
+    default Tuple2<RNG, Long> generateLong() {
+        return Tuple2.of(advance(), peekLong());
+    }
+
+    @Override
+    default Tuple2<RNG, Double> generateDouble0To1() {
+        return Tuple2.of(advance(), peekDouble());
+    }
+}
+
+abstract class SplittableRNGUtils {
+    static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    static double toDouble(long l) {
+        return (l >>> 11) * DOUBLE_UNIT;
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        final int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+
+    /**
+     * SplitMix64 state.
+     * The i'th draw is {@code mix64(seed + (i + 1) * gamma)}.
+     */
+    static final class SplitMix64 implements SplittableRNG {
+        final long seed;
+        final long gamma;
+
+        SplitMix64(long seed, long gamma) {
+            this.seed = seed;
+            this.gamma = gamma;
+        }
+
+        @Override
+        public long peekLong() {
+            return mix64(seed + gamma);
+        }
+
+        @Override
+        public SplittableRNG advance() {
+            return new SplitMix64(seed + gamma, gamma);
+        }
+
+        @Override
+        public SplittableRNG advance(long n) {
+            return new SplitMix64(seed + n * gamma, gamma);
+        }
+
+        @Override
+        public Tuple2<SplittableRNG, SplittableRNG> split() {
+            final long s1 = seed + gamma;
+            final long s2 = s1 + gamma;
+            return Tuple2.of(new SplitMix64(s2, gamma), new SplitMix64(mix64(s1), mixGamma(s2)));
+        }
+
+        @Override
+        public SplittableRNG fill(long[] arr) {
+            long s = seed;
+            for (int i = 0; i < arr.length; ++i) {
+                arr[i] = mix64(s += gamma);
+            }
+            return new SplitMix64(s, gamma);
+        }
+
+        @Override
+        public SplittableRNG fill(double[] arr) {
+            long s = seed;
+            for (int i = 0; i < arr.length; ++i) {
+                arr[i] = toDouble(mix64(s += gamma));
+            }
+            return new SplitMix64(s, gamma);
+        }
+
+        @Override
+        public LongStream longs(long n) {
+            final long s = seed;
+            final long g = gamma;
+            return LongStream.rangeClosed(1, n).map(i -> mix64(s + i * g));
+        }
+    }
+
+    /**
+     * xoroshiro128++ state.
+     */
+    static final class Xoroshiro128PlusPlus implements SplittableRNG {
+        private static final long[] JUMP = {0x2bd7a6a6e99c2ddcL, 0x0992ccaf6a6fca05L};
+
+        final long s0;
+        final long s1;
+
+        Xoroshiro128PlusPlus(long s0, long s1) {
+            this.s0 = s0;
+            this.s1 = s1;
+        }
+
+        static long output(long s0, long s1) {
+            return Long.rotateLeft(s0 + s1, 17) + s0;
+        }
+
+        @Override
+        public long peekLong() {
+            return output(s0, s1);
+        }
+
+        @Override
+        public SplittableRNG advance() {
+            final long t = s1 ^ s0;
+            return new Xoroshiro128PlusPlus(Long.rotateLeft(s0, 49) ^ t ^ (t << 21), Long.rotateLeft(t, 28));
+        }
+
+        @Override
+        public SplittableRNG advance(long n) {
+            final Cursor c = new Cursor(s0, s1);
+            for (long i = 0; i < n; ++i) {
+                c.next();
+            }
+            return c.state();
+        }
+
+        /**
+         * @return          the state after 2<sup>64</sup> draws
+         */
+        SplittableRNG jump() {
+            final Cursor c = new Cursor(s0, s1);
+            long j0 = 0;
+            long j1 = 0;
+            for (long jump : JUMP) {
+                for (int b = 0; b < 64; ++b) {
+                    if ((jump & (1L << b)) != 0) {
+                        j0 ^= c.s0;
+                        j1 ^= c.s1;
+                    }
+                    c.next();
+                }
+            }
+            return new Xoroshiro128PlusPlus(j0, j1);
+        }
+
+        @Override
+        public Tuple2<SplittableRNG, SplittableRNG> split() {
+            return Tuple2.of(jump(), this);
+        }
+
+        @Override
+        public SplittableRNG fill(long[] arr) {
+            final Cursor c = new Cursor(s0, s1);
+            for (int i = 0; i < arr.length; ++i) {
+                arr[i] = c.next();
+            }
+            return c.state();
+        }
+
+        @Override
+        public SplittableRNG fill(double[] arr) {
+            final Cursor c = new Cursor(s0, s1);
+            for (int i = 0; i < arr.length; ++i) {
+                arr[i] = toDouble(c.next());
+            }
+            return c.state();
+        }
+
+        @Override
+        public LongStream longs(long n) {
+            final Cursor c = new Cursor(s0, s1);
+            return StreamSupport.longStream(
+                    new java.util.Spliterators.AbstractLongSpliterator(
+                            n,
+                            Spliterator.SIZED | Spliterator.ORDERED | Spliterator.IMMUTABLE) {
+                        long remaining = n;
+
+                        @Override
+                        public boolean tryAdvance(LongConsumer action) {
+                            if (remaining > 0) {
+                                --remaining;
+                                action.accept(c.next());
+                                return true;
+                            } else {
+                                return false;
+                            }
+                        }
+                    },
+                    false);
+        }
+
+        /**
+         * A mutable cursor over the xoroshiro128++ sequence, used for bulk generation.
+         */
+        private static final class Cursor {
+            long s0;
+            long s1;
+
+            Cursor(long s0, long s1) {
+                this.s0 = s0;
+                this.s1 = s1;
+            }
+
+            long next() {
+                final long r = output(s0, s1);
+                final long t = s1 ^ s0;
+                s0 = Long.rotateLeft(s0, 49) ^ t ^ (t << 21);
+                s1 = Long.rotateLeft(t, 28);
+                return r;
+            }
+
+            SplittableRNG state() {
+                return new Xoroshiro128PlusPlus(s0, s1);
+            }
+        }
+    }
+}
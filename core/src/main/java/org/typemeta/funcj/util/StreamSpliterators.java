@@ -0,0 +1,1290 @@
+package org.typemeta.funcj.util;
+
+import org.typemeta.funcj.control.Option;
+import org.typemeta.funcj.functions.Functions;
+import org.typemeta.funcj.tuples.Tuple2;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * {@link Spliterator} implementations for the {@link Streams} operators.
+ * <p>
+ * Where the source spliterators are {@code SIZED} and {@code SUBSIZED},
+ * the operators split the sources exactly, by splitting each source
+ * and then moving a few elements across the split point (or copying them, for {@code sliding}),
+ * so that the results for the two halves line up.
+ * Otherwise they fall back to the batch splitting provided by {@link Spliterators.AbstractSpliterator},
+ * which copies a batch of results into an array,
+ * so that downstream stages can still run in parallel.
+ */
+abstract class StreamSpliterators {
+    static final int SIZED_SUBSIZED = Spliterator.SIZED | Spliterator.SUBSIZED;
+
+    static boolean isSubsized(Spliterator<?> spl) {
+        return (spl.characteristics() & SIZED_SUBSIZED) == SIZED_SUBSIZED;
+    }
+
+    static long addSizes(long x, long y) {
+        final long s = x + y;
+        return s >= 0 ? s : Long.MAX_VALUE;
+    }
+
+    /**
+     * Remove up to {@code n} elements from the front of a spliterator, into an array.
+     */
+    static Object[] pull(Spliterator<?> spl, long n) {
+        final ArrayList<Object> buf = new ArrayList<>();
+        while (buf.size() < n && spl.tryAdvance(buf::add)) {
+        }
+        return buf.toArray();
+    }
+
+    static int[] pull(Spliterator.OfInt spl, long n) {
+        int[] buf = new int[(int)Math.min(n, 16)];
+        int i = 0;
+        final int[] holder = new int[1];
+        while (i < n && spl.tryAdvance((int x) -> holder[0] = x)) {
+            if (i == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            buf[i++] = holder[0];
+        }
+        return Arrays.copyOf(buf, i);
+    }
+
+    static long[] pull(Spliterator.OfLong spl, long n) {
+        long[] buf = new long[(int)Math.min(n, 16)];
+        int i = 0;
+        final long[] holder = new long[1];
+        while (i < n && spl.tryAdvance((long x) -> holder[0] = x)) {
+            if (i == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            buf[i++] = holder[0];
+        }
+        return Arrays.copyOf(buf, i);
+    }
+
+    static double[] pull(Spliterator.OfDouble spl, long n) {
+        double[] buf = new double[(int)Math.min(n, 16)];
+        int i = 0;
+        final double[] holder = new double[1];
+        while (i < n && spl.tryAdvance((double x) -> holder[0] = x)) {
+            if (i == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            buf[i++] = holder[0];
+        }
+        return Arrays.copyOf(buf, i);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Spliterator<T> ofArray(Object[] arr) {
+        return (Spliterator<T>)Spliterators.spliterator(arr, Spliterator.ORDERED);
+    }
+
+    /**
+     * The concatenation of two spliterators.
+     * Splits off part of the first spliterator if it is the larger of the two,
+     * otherwise splits at the boundary between them.
+     */
+    static class Concat<T, C, S extends Spliterator<T>> implements Spliterator<T> {
+        final S a;
+        final S b;
+        boolean beforeSplit = true;
+        final boolean unsized;
+
+        Concat(S a, S b) {
+            this.a = a;
+            this.b = b;
+            this.unsized = a.estimateSize() + b.estimateSize() < 0;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (beforeSplit) {
+                if (a.tryAdvance(action)) {
+                    return true;
+                }
+                beforeSplit = false;
+            }
+            return b.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (beforeSplit) {
+                a.forEachRemaining(action);
+                beforeSplit = false;
+            }
+            b.forEachRemaining(action);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public S trySplit() {
+            if (beforeSplit) {
+                if (a.estimateSize() >= b.estimateSize()) {
+                    final S prefix = (S)a.trySplit();
+                    if (prefix != null) {
+                        return prefix;
+                    }
+                }
+                beforeSplit = false;
+                return a;
+            } else {
+                return (S)b.trySplit();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return beforeSplit ? addSizes(a.estimateSize(), b.estimateSize()) : b.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            if (beforeSplit) {
+                return a.characteristics() & b.characteristics() &
+                        ~(Spliterator.DISTINCT | Spliterator.SORTED | (unsized ? SIZED_SUBSIZED : 0));
+            } else {
+                return b.characteristics();
+            }
+        }
+    }
+
+    static <T> Spliterator<T> concat(Spliterator<T> a, Spliterator<T> b) {
+        return new Concat<T, Consumer<? super T>, Spliterator<T>>(a, b);
+    }
+
+    static abstract class ConcatPrimitive<T, C, S extends Spliterator.OfPrimitive<T, C, S>>
+            extends Concat<T, C, S>
+            implements Spliterator.OfPrimitive<T, C, S> {
+        ConcatPrimitive(S a, S b) {
+            super(a, b);
+        }
+
+        @Override
+        public boolean tryAdvance(C action) {
+            if (beforeSplit) {
+                if (a.tryAdvance(action)) {
+                    return true;
+                }
+                beforeSplit = false;
+            }
+            return b.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(C action) {
+            if (beforeSplit) {
+                a.forEachRemaining(action);
+                beforeSplit = false;
+            }
+            b.forEachRemaining(action);
+        }
+    }
+
+    static final class ConcatInt
+            extends ConcatPrimitive<Integer, IntConsumer, Spliterator.OfInt>
+            implements Spliterator.OfInt {
+        ConcatInt(Spliterator.OfInt a, Spliterator.OfInt b) {
+            super(a, b);
+        }
+    }
+
+    static final class ConcatLong
+            extends ConcatPrimitive<Long, LongConsumer, Spliterator.OfLong>
+            implements Spliterator.OfLong {
+        ConcatLong(Spliterator.OfLong a, Spliterator.OfLong b) {
+            super(a, b);
+        }
+    }
+
+    static final class ConcatDouble
+            extends ConcatPrimitive<Double, DoubleConsumer, Spliterator.OfDouble>
+            implements Spliterator.OfDouble {
+        ConcatDouble(Spliterator.OfDouble a, Spliterator.OfDouble b) {
+            super(a, b);
+        }
+    }
+
+    /**
+     * Operations on a type of source spliterator, used to share the splitting logic
+     * between the object and primitive operators.
+     */
+    interface Source<S extends Spliterator<?>> {
+        /**
+         * Remove up to {@code n} elements from the front of the spliterator, into a new spliterator.
+         */
+        S pull(S spl, long n);
+
+        S concat(S a, S b);
+    }
+
+    static final Source<Spliterator<Object>> OBJ_SOURCE = new Source<Spliterator<Object>>() {
+        @Override
+        public Spliterator<Object> pull(Spliterator<Object> spl, long n) {
+            return ofArray(StreamSpliterators.pull(spl, n));
+        }
+
+        @Override
+        public Spliterator<Object> concat(Spliterator<Object> a, Spliterator<Object> b) {
+            return StreamSpliterators.concat(a, b);
+        }
+    };
+
+    static final Source<Spliterator.OfInt> INT_SOURCE = new Source<Spliterator.OfInt>() {
+        @Override
+        public Spliterator.OfInt pull(Spliterator.OfInt spl, long n) {
+            return Spliterators.spliterator(StreamSpliterators.pull(spl, n), Spliterator.ORDERED);
+        }
+
+        @Override
+        public Spliterator.OfInt concat(Spliterator.OfInt a, Spliterator.OfInt b) {
+            return new ConcatInt(a, b);
+        }
+    };
+
+    static final Source<Spliterator.OfLong> LONG_SOURCE = new Source<Spliterator.OfLong>() {
+        @Override
+        public Spliterator.OfLong pull(Spliterator.OfLong spl, long n) {
+            return Spliterators.spliterator(StreamSpliterators.pull(spl, n), Spliterator.ORDERED);
+        }
+
+        @Override
+        public Spliterator.OfLong concat(Spliterator.OfLong a, Spliterator.OfLong b) {
+            return new ConcatLong(a, b);
+        }
+    };
+
+    static final Source<Spliterator.OfDouble> DOUBLE_SOURCE = new Source<Spliterator.OfDouble>() {
+        @Override
+        public Spliterator.OfDouble pull(Spliterator.OfDouble spl, long n) {
+            return Spliterators.spliterator(StreamSpliterators.pull(spl, n), Spliterator.ORDERED);
+        }
+
+        @Override
+        public Spliterator.OfDouble concat(Spliterator.OfDouble a, Spliterator.OfDouble b) {
+            return new ConcatDouble(a, b);
+        }
+    };
+
+    @SuppressWarnings("unchecked")
+    static <T> Source<Spliterator<T>> objSource() {
+        return (Source<Spliterator<T>>)(Source<?>)OBJ_SOURCE;
+    }
+
+    /**
+     * The split prefixes of a pair of spliterators.
+     */
+    static final class SplitPair<SA, SB> {
+        final SA a;
+        final SB b;
+
+        SplitPair(SA a, SB b) {
+            this.a = a;
+            this.b = b;
+        }
+    }
+
+    /**
+     * Split a pair of {@code SIZED} and {@code SUBSIZED} spliterators, such that the two prefixes have the same size,
+     * unless one of the sources is exhausted.
+     * The sources are left as the two suffixes.
+     * @return          the prefixes, or null if the sources can't be split
+     */
+    static <SA extends Spliterator<?>, SB extends Spliterator<?>> SplitPair<SA, SB> splitAligned(
+            Source<SA> srcA, Source<SB> srcB, SA a, SB b) {
+        @SuppressWarnings("unchecked")
+        SA pa = (SA)a.trySplit();
+        if (pa == null) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        SB pb = (SB)b.trySplit();
+        if (pb == null) {
+            pb = srcB.pull(b, 0);
+        }
+        final long na = pa.estimateSize();
+        final long nb = pb.estimateSize();
+        if (na > nb) {
+            pb = srcB.concat(pb, srcB.pull(b, na - nb));
+        } else if (nb > na) {
+            pa = srcA.concat(pa, srcA.pull(a, nb - na));
+        }
+        return new SplitPair<SA, SB>(pa, pb);
+    }
+
+    /**
+     * {@code zip} over object streams.
+     */
+    static final class Zip<A, B, R> extends Spliterators.AbstractSpliterator<R> {
+        Spliterator<A> a;
+        Spliterator<B> b;
+        final Functions.F2<? super A, ? super B, ? extends R> f;
+        A holder;
+
+        Zip(Spliterator<A> a, Spliterator<B> b, Functions.F2<? super A, ? super B, ? extends R> f) {
+            super(Math.min(a.estimateSize(), b.estimateSize()), characteristics(a, b));
+            this.a = a;
+            this.b = b;
+            this.f = f;
+        }
+
+        static int characteristics(Spliterator<?> a, Spliterator<?> b) {
+            return a.characteristics() & b.characteristics() & (SIZED_SUBSIZED | Spliterator.ORDERED);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            if (a.tryAdvance(x -> holder = x)) {
+                final A x = holder;
+                holder = null;
+                return b.tryAdvance(y -> action.accept(f.apply(x, y)));
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            if (isSubsized(a) && isSubsized(b)) {
+                final SplitPair<Spliterator<A>, Spliterator<B>> p =
+                        splitAligned(objSource(), objSource(), a, b);
+                if (p == null) {
+                    return null;
+                } else if (estimateSize() == 0) {
+                    a = p.a;
+                    b = p.b;
+                    return null;
+                } else {
+                    return new Zip<A, B, R>(p.a, p.b, f);
+                }
+            } else {
+                return super.trySplit();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return Math.min(a.estimateSize(), b.estimateSize());
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics(a, b);
+        }
+    }
+
+    /**
+     * {@code zip} over {@code int} streams.
+     */
+    static final class ZipInt extends Spliterators.AbstractIntSpliterator {
+        Spliterator.OfInt a;
+        Spliterator.OfInt b;
+        final IntBinaryOperator f;
+        int holder;
+
+        ZipInt(Spliterator.OfInt a, Spliterator.OfInt b, IntBinaryOperator f) {
+            super(Math.min(a.estimateSize(), b.estimateSize()), Zip.characteristics(a, b));
+            this.a = a;
+            this.b = b;
+            this.f = f;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (a.tryAdvance((int x) -> holder = x)) {
+                final int x = holder;
+                return b.tryAdvance((int y) -> action.accept(f.applyAsInt(x, y)));
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            if (isSubsized(a) && isSubsized(b)) {
+                final SplitPair<Spliterator.OfInt, Spliterator.OfInt> p =
+                        splitAligned(INT_SOURCE, INT_SOURCE, a, b);
+                if (p == null) {
+                    return null;
+                } else if (estimateSize() == 0) {
+                    a = p.a;
+                    b = p.b;
+                    return null;
+                } else {
+                    return new ZipInt(p.a, p.b, f);
+                }
+            } else {
+                return super.trySplit();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return Math.min(a.estimateSize(), b.estimateSize());
+        }
+
+        @Override
+        public int characteristics() {
+            return Zip.characteristics(a, b);
+        }
+    }
+
+    /**
+     * {@code zip} over {@code long} streams.
+     */
+    static final class ZipLong extends Spliterators.AbstractLongSpliterator {
+        Spliterator.OfLong a;
+        Spliterator.OfLong b;
+        final LongBinaryOperator f;
+        long holder;
+
+        ZipLong(Spliterator.OfLong a, Spliterator.OfLong b, LongBinaryOperator f) {
+            super(Math.min(a.estimateSize(), b.estimateSize()), Zip.characteristics(a, b));
+            this.a = a;
+            this.b = b;
+            this.f = f;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (a.tryAdvance((long x) -> holder = x)) {
+                final long x = holder;
+                return b.tryAdvance((long y) -> action.accept(f.applyAsLong(x, y)));
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            if (isSubsized(a) && isSubsized(b)) {
+                final SplitPair<Spliterator.OfLong, Spliterator.OfLong> p =
+                        splitAligned(LONG_SOURCE, LONG_SOURCE, a, b);
+                if (p == null) {
+                    return null;
+                } else if (estimateSize() == 0) {
+                    a = p.a;
+                    b = p.b;
+                    return null;
+                } else {
+                    return new ZipLong(p.a, p.b, f);
+                }
+            } else {
+                return super.trySplit();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return Math.min(a.estimateSize(), b.estimateSize());
+        }
+
+        @Override
+        public int characteristics() {
+            return Zip.characteristics(a, b);
+        }
+    }
+
+    /**
+     * {@code zip} over {@code double} streams.
+     */
+    static final class ZipDouble extends Spliterators.AbstractDoubleSpliterator {
+        Spliterator.OfDouble a;
+        Spliterator.OfDouble b;
+        final DoubleBinaryOperator f;
+        double holder;
+
+        ZipDouble(Spliterator.OfDouble a, Spliterator.OfDouble b, DoubleBinaryOperator f) {
+            super(Math.min(a.estimateSize(), b.estimateSize()), Zip.characteristics(a, b));
+            this.a = a;
+            this.b = b;
+            this.f = f;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (a.tryAdvance((double x) -> holder = x)) {
+                final double x = holder;
+                return b.tryAdvance((double y) -> action.accept(f.applyAsDouble(x, y)));
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            if (isSubsized(a) && isSubsized(b)) {
+                final SplitPair<Spliterator.OfDouble, Spliterator.OfDouble> p =
+                        splitAligned(DOUBLE_SOURCE, DOUBLE_SOURCE, a, b);
+                if (p == null) {
+                    return null;
+                } else if (estimateSize() == 0) {
+                    a = p.a;
+                    b = p.b;
+                    return null;
+                } else {
+                    return new ZipDouble(p.a, p.b, f);
+                }
+            } else {
+                return super.trySplit();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return Math.min(a.estimateSize(), b.estimateSize());
+        }
+
+        @Override
+        public int characteristics() {
+            return Zip.characteristics(a, b);
+        }
+    }
+
+    /**
+     * {@code interleave} over object streams.
+     */
+    static final class Interleave<T> extends Spliterators.AbstractSpliterator<T> {
+        Spliterator<T> a;
+        Spliterator<T> b;
+        boolean fromA = true;
+
+        Interleave(Spliterator<T> a, Spliterator<T> b) {
+            super(addSizes(a.estimateSize(), b.estimateSize()), Zip.characteristics(a, b));
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            final boolean first = fromA;
+            fromA = !fromA;
+            if (first) {
+                return a.tryAdvance(action) || b.tryAdvance(action);
+            } else {
+                return b.tryAdvance(action) || a.tryAdvance(action);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (fromA && isSubsized(a) && isSubsized(b)) {
+                final SplitPair<Spliterator<T>, Spliterator<T>> p =
+                        splitAligned(StreamSpliterators.<T>objSource(), StreamSpliterators.<T>objSource(), a, b);
+                if (p == null) {
+                    return null;
+                } else if (estimateSize() == 0) {
+                    a = p.a;
+                    b = p.b;
+                    return null;
+                } else {
+                    return new Interleave<T>(p.a, p.b);
+                }
+            } else {
+                return super.trySplit();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return addSizes(a.estimateSize(), b.estimateSize());
+        }
+
+        @Override
+        public int characteristics() {
+            return Zip.characteristics(a, b);
+        }
+    }
+
+    /**
+     * {@code zipWithIndex} over object streams.
+     */
+    static final class ZipWithIndex<T> extends Spliterators.AbstractSpliterator<Tuple2<T, Long>> {
+        final Spliterator<T> src;
+        long index;
+
+        ZipWithIndex(Spliterator<T> src, long index) {
+            super(src.estimateSize(), characteristics(src));
+            this.src = src;
+            this.index = index;
+        }
+
+        static int characteristics(Spliterator<?> src) {
+            return src.characteristics() & (SIZED_SUBSIZED | Spliterator.ORDERED | Spliterator.IMMUTABLE);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Tuple2<T, Long>> action) {
+            return src.tryAdvance(t -> action.accept(Tuple2.of(t, index++)));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Tuple2<T, Long>> action) {
+            src.forEachRemaining(t -> action.accept(Tuple2.of(t, index++)));
+        }
+
+        @Override
+        public Spliterator<Tuple2<T, Long>> trySplit() {
+            if (isSubsized(src)) {
+                final Spliterator<T> prefix = src.trySplit();
+                if (prefix == null) {
+                    return null;
+                } else {
+                    final ZipWithIndex<T> res = new ZipWithIndex<T>(prefix, index);
+                    index += prefix.estimateSize();
+                    return res;
+                }
+            } else {
+                return super.trySplit();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return src.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics(src);
+        }
+    }
+
+    /**
+     * Base class for operators which group consecutive elements of a source into chunks.
+     * If the source is {@code SIZED} and {@code SUBSIZED}, then the prefix split from the source
+     * is topped up with elements from the front of the source so that its size is a multiple of the chunk size.
+     * If that exhausts the source then the split is abandoned.
+     */
+    static abstract class ChunkedBase<S extends Spliterator<?>, R> extends Spliterators.AbstractSpliterator<R> {
+        final Source<S> source;
+        S src;
+        final int size;
+
+        ChunkedBase(Source<S> source, S src, int size) {
+            super(chunks(src.estimateSize(), size), src.characteristics() & (SIZED_SUBSIZED | Spliterator.ORDERED));
+            this.source = source;
+            this.src = src;
+            this.size = size;
+        }
+
+        static long chunks(long n, int size) {
+            return n == Long.MAX_VALUE ? n : (n + size - 1) / size;
+        }
+
+        abstract ChunkedBase<S, R> create(S src);
+
+        @Override
+        public Spliterator<R> trySplit() {
+            if (isSubsized(src)) {
+                @SuppressWarnings("unchecked")
+                S prefix = (S)src.trySplit();
+                if (prefix == null) {
+                    return null;
+                } else {
+                    final long rem = prefix.estimateSize() % size;
+                    if (rem != 0) {
+                        prefix = source.concat(prefix, source.pull(src, size - rem));
+                        if (src.estimateSize() == 0) {
+                            src = prefix;
+                            return null;
+                        }
+                    }
+                    return create(prefix);
+                }
+            } else {
+                return super.trySplit();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return chunks(src.estimateSize(), size);
+        }
+
+        @Override
+        public int characteristics() {
+            return src.characteristics() & (SIZED_SUBSIZED | Spliterator.ORDERED);
+        }
+    }
+
+    static final class Chunked<T> extends ChunkedBase<Spliterator<T>, List<T>> {
+        Chunked(Spliterator<T> src, int size) {
+            super(objSource(), src, size);
+        }
+
+        @Override
+        Chunked<T> create(Spliterator<T> src) {
+            return new Chunked<T>(src, size);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            final ArrayList<T> chunk = new ArrayList<T>(size);
+            while (chunk.size() < size && src.tryAdvance(chunk::add)) {
+            }
+            if (chunk.isEmpty()) {
+                return false;
+            } else {
+                action.accept(Collections.unmodifiableList(chunk));
+                return true;
+            }
+        }
+    }
+
+    static final class ChunkedInt extends ChunkedBase<Spliterator.OfInt, int[]> {
+        ChunkedInt(Spliterator.OfInt src, int size) {
+            super(INT_SOURCE, src, size);
+        }
+
+        @Override
+        ChunkedInt create(Spliterator.OfInt src) {
+            return new ChunkedInt(src, size);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super int[]> action) {
+            final int[] chunk = pull(src, size);
+            if (chunk.length == 0) {
+                return false;
+            } else {
+                action.accept(chunk);
+                return true;
+            }
+        }
+    }
+
+    static final class ChunkedLong extends ChunkedBase<Spliterator.OfLong, long[]> {
+        ChunkedLong(Spliterator.OfLong src, int size) {
+            super(LONG_SOURCE, src, size);
+        }
+
+        @Override
+        ChunkedLong create(Spliterator.OfLong src) {
+            return new ChunkedLong(src, size);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super long[]> action) {
+            final long[] chunk = pull(src, size);
+            if (chunk.length == 0) {
+                return false;
+            } else {
+                action.accept(chunk);
+                return true;
+            }
+        }
+    }
+
+    static final class ChunkedDouble extends ChunkedBase<Spliterator.OfDouble, double[]> {
+        ChunkedDouble(Spliterator.OfDouble src, int size) {
+            super(DOUBLE_SOURCE, src, size);
+        }
+
+        @Override
+        ChunkedDouble create(Spliterator.OfDouble src) {
+            return new ChunkedDouble(src, size);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super double[]> action) {
+            final double[] chunk = pull(src, size);
+            if (chunk.length == 0) {
+                return false;
+            } else {
+                action.accept(chunk);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * {@code sliding} over object streams.
+     * If the source is {@code SIZED} and {@code SUBSIZED}, then the first {@code size - 1} elements of the suffix
+     * are copied onto the end of the prefix, so that the prefix produces the windows which span the split point.
+     */
+    static final class Sliding<T> extends Spliterators.AbstractSpliterator<List<T>> {
+        Object[] head;
+        int headPos = 0;
+        Spliterator<T> src;
+        final int size;
+        final ArrayDeque<T> window;
+
+        Sliding(Object[] head, Spliterator<T> src, int size) {
+            super(windows(addSizes(head.length, src.estimateSize()), size), src.characteristics() & (SIZED_SUBSIZED | Spliterator.ORDERED));
+            this.head = head;
+            this.src = src;
+            this.size = size;
+            this.window = new ArrayDeque<T>(size);
+        }
+
+        static long windows(long n, int size) {
+            return n == Long.MAX_VALUE ? n : Math.max(0, n - size + 1);
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean next() {
+            if (headPos < head.length) {
+                window.addLast((T)head[headPos++]);
+                return true;
+            } else {
+                return src.tryAdvance(window::addLast);
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            if (!window.isEmpty()) {
+                window.removeFirst();
+            }
+            while (window.size() < size && next()) {
+            }
+            if (window.size() < size) {
+                window.clear();
+                return false;
+            } else {
+                action.accept(Collections.unmodifiableList(new ArrayList<T>(window)));
+                return true;
+            }
+        }
+
+        @Override
+        public Spliterator<List<T>> trySplit() {
+            if (window.isEmpty() && isSubsized(src)) {
+                final Spliterator<T> prefix = src.trySplit();
+                if (prefix == null) {
+                    return null;
+                } else {
+                    final Object[] overlap = pull(src, size - 1);
+                    final Spliterator<T> prefixSrc = concat(prefix, StreamSpliterators.<T>ofArray(overlap));
+                    if (src.estimateSize() == 0) {
+                        src = prefixSrc;
+                        return null;
+                    } else {
+                        final Sliding<T> res = new Sliding<T>(Arrays.copyOfRange(head, headPos, head.length), prefixSrc, size);
+                        head = overlap;
+                        headPos = 0;
+                        return res;
+                    }
+                }
+            } else {
+                return super.trySplit();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            final long n = addSizes(head.length - headPos, src.estimateSize());
+            if (n == Long.MAX_VALUE) {
+                return n;
+            } else {
+                return window.isEmpty() ? windows(n, size) : n;
+            }
+        }
+
+        @Override
+        public int characteristics() {
+            return window.isEmpty() ? src.characteristics() & (SIZED_SUBSIZED | Spliterator.ORDERED) : Spliterator.ORDERED;
+        }
+    }
+
+    /**
+     * {@code takeWhile}, which can't be split exactly, as the predicate has to be applied sequentially.
+     */
+    static final class TakeWhile<T> extends Spliterators.AbstractSpliterator<T> {
+        final Spliterator<T> src;
+        final Functions.Predicate<? super T> pred;
+        boolean done = false;
+        T holder;
+
+        TakeWhile(Spliterator<T> src, Functions.Predicate<? super T> pred) {
+            super(src.estimateSize(), src.characteristics() & Spliterator.ORDERED);
+            this.src = src;
+            this.pred = pred;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (!done && src.tryAdvance(t -> holder = t)) {
+                final T t = holder;
+                holder = null;
+                if (pred.test(t)) {
+                    action.accept(t);
+                    return true;
+                }
+            }
+            done = true;
+            return false;
+        }
+    }
+
+    static final class TakeWhileInt extends Spliterators.AbstractIntSpliterator {
+        final Spliterator.OfInt src;
+        final IntPredicate pred;
+        boolean done = false;
+        int holder;
+
+        TakeWhileInt(Spliterator.OfInt src, IntPredicate pred) {
+            super(src.estimateSize(), src.characteristics() & Spliterator.ORDERED);
+            this.src = src;
+            this.pred = pred;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (!done && src.tryAdvance((int t) -> holder = t) && pred.test(holder)) {
+                action.accept(holder);
+                return true;
+            } else {
+                done = true;
+                return false;
+            }
+        }
+    }
+
+    static final class TakeWhileLong extends Spliterators.AbstractLongSpliterator {
+        final Spliterator.OfLong src;
+        final LongPredicate pred;
+        boolean done = false;
+        long holder;
+
+        TakeWhileLong(Spliterator.OfLong src, LongPredicate pred) {
+            super(src.estimateSize(), src.characteristics() & Spliterator.ORDERED);
+            this.src = src;
+            this.pred = pred;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (!done && src.tryAdvance((long t) -> holder = t) && pred.test(holder)) {
+                action.accept(holder);
+                return true;
+            } else {
+                done = true;
+                return false;
+            }
+        }
+    }
+
+    static final class TakeWhileDouble extends Spliterators.AbstractDoubleSpliterator {
+        final Spliterator.OfDouble src;
+        final DoublePredicate pred;
+        boolean done = false;
+        double holder;
+
+        TakeWhileDouble(Spliterator.OfDouble src, DoublePredicate pred) {
+            super(src.estimateSize(), src.characteristics() & Spliterator.ORDERED);
+            this.src = src;
+            this.pred = pred;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (!done && src.tryAdvance((double t) -> holder = t) && pred.test(holder)) {
+                action.accept(holder);
+                return true;
+            } else {
+                done = true;
+                return false;
+            }
+        }
+    }
+
+    /**
+     * {@code dropWhile}. Once the leading elements have been dropped,
+     * the remainder of the source is split as normal.
+     */
+    static final class DropWhile<T> extends Spliterators.AbstractSpliterator<T> {
+        Spliterator<T> src;
+        final Functions.Predicate<? super T> pred;
+        boolean dropping = true;
+        T holder;
+
+        DropWhile(Spliterator<T> src, Functions.Predicate<? super T> pred) {
+            super(src.estimateSize(), src.characteristics() & Spliterator.ORDERED);
+            this.src = src;
+            this.pred = pred;
+        }
+
+        /**
+         * Drop the leading elements, and push the first element which doesn't satisfy the predicate back onto the source.
+         */
+        private void drop() {
+            if (dropping) {
+                dropping = false;
+                while (src.tryAdvance(t -> holder = t)) {
+                    if (!pred.test(holder)) {
+                        src = concat(ofArray(new Object[]{holder}), src);
+                        break;
+                    }
+                }
+                holder = null;
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            drop();
+            return src.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            drop();
+            src.forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            drop();
+            return src.trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            return src.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return dropping ? src.characteristics() & Spliterator.ORDERED : src.characteristics();
+        }
+    }
+
+    static final class DropWhileInt extends Spliterators.AbstractIntSpliterator {
+        Spliterator.OfInt src;
+        final IntPredicate pred;
+        boolean dropping = true;
+        int holder;
+
+        DropWhileInt(Spliterator.OfInt src, IntPredicate pred) {
+            super(src.estimateSize(), src.characteristics() & Spliterator.ORDERED);
+            this.src = src;
+            this.pred = pred;
+        }
+
+        private void drop() {
+            if (dropping) {
+                dropping = false;
+                while (src.tryAdvance((int t) -> holder = t)) {
+                    if (!pred.test(holder)) {
+                        src = new ConcatInt(Spliterators.spliterator(new int[]{holder}, Spliterator.ORDERED), src);
+                        break;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            drop();
+            return src.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            drop();
+            src.forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            drop();
+            return src.trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            return src.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return dropping ? src.characteristics() & Spliterator.ORDERED : src.characteristics();
+        }
+    }
+
+    static final class DropWhileLong extends Spliterators.AbstractLongSpliterator {
+        Spliterator.OfLong src;
+        final LongPredicate pred;
+        boolean dropping = true;
+        long holder;
+
+        DropWhileLong(Spliterator.OfLong src, LongPredicate pred) {
+            super(src.estimateSize(), src.characteristics() & Spliterator.ORDERED);
+            this.src = src;
+            this.pred = pred;
+        }
+
+        private void drop() {
+            if (dropping) {
+                dropping = false;
+                while (src.tryAdvance((long t) -> holder = t)) {
+                    if (!pred.test(holder)) {
+                        src = new ConcatLong(Spliterators.spliterator(new long[]{holder}, Spliterator.ORDERED), src);
+                        break;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            drop();
+            return src.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            drop();
+            src.forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            drop();
+            return src.trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            return src.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return dropping ? src.characteristics() & Spliterator.ORDERED : src.characteristics();
+        }
+    }
+
+    static final class DropWhileDouble extends Spliterators.AbstractDoubleSpliterator {
+        Spliterator.OfDouble src;
+        final DoublePredicate pred;
+        boolean dropping = true;
+        double holder;
+
+        DropWhileDouble(Spliterator.OfDouble src, DoublePredicate pred) {
+            super(src.estimateSize(), src.characteristics() & Spliterator.ORDERED);
+            this.src = src;
+            this.pred = pred;
+        }
+
+        private void drop() {
+            if (dropping) {
+                dropping = false;
+                while (src.tryAdvance((double t) -> holder = t)) {
+                    if (!pred.test(holder)) {
+                        src = new ConcatDouble(Spliterators.spliterator(new double[]{holder}, Spliterator.ORDERED), src);
+                        break;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            drop();
+            return src.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            drop();
+            src.forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            drop();
+            return src.trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            return src.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return dropping ? src.characteristics() & Spliterator.ORDERED : src.characteristics();
+        }
+    }
+
+    /**
+     * {@code unfold}, which is inherently sequential, and is split into batches.
+     */
+    static final class Unfold<S, T> extends Spliterators.AbstractSpliterator<T> {
+        final Functions.F<S, Option<Tuple2<T, S>>> f;
+        S state;
+        boolean done = false;
+
+        Unfold(S seed, Functions.F<S, Option<Tuple2<T, S>>> f) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.state = seed;
+            this.f = f;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (!done) {
+                final Option<Tuple2<T, S>> next = f.apply(state);
+                if (next.isPresent()) {
+                    final Tuple2<T, S> t2 = next.get();
+                    state = t2._2;
+                    action.accept(t2._1);
+                    return true;
+                } else {
+                    done = true;
+                    state = null;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * {@code groupRuns}, which groups adjacent elements into runs.
+     * Runs can span any split point, so this is split into batches.
+     */
+    static final class GroupRuns<T> extends Spliterators.AbstractSpliterator<List<T>> {
+        final Spliterator<T> src;
+        final Functions.F2<? super T, ? super T, Boolean> sameRun;
+        boolean hasNext = false;
+        T next;
+
+        GroupRuns(Spliterator<T> src, Functions.F2<? super T, ? super T, Boolean> sameRun) {
+            super(src.estimateSize(), src.characteristics() & Spliterator.ORDERED);
+            this.src = src;
+            this.sameRun = sameRun;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            if (!hasNext && !src.tryAdvance(t -> next = t)) {
+                return false;
+            } else {
+                final ArrayList<T> run = new ArrayList<T>();
+                run.add(next);
+                hasNext = false;
+                while (src.tryAdvance(t -> next = t)) {
+                    if (sameRun.apply(run.get(run.size() - 1), next)) {
+                        run.add(next);
+                    } else {
+                        hasNext = true;
+                        break;
+                    }
+                }
+                if (!hasNext) {
+                    next = null;
+                }
+                action.accept(Collections.unmodifiableList(run));
+                return true;
+            }
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package org.typemeta.funcj.util;
 
+import org.typemeta.funcj.control.Option;
+import org.typemeta.funcj.functions.Functions;
 import org.typemeta.funcj.tuples.Tuple2;
 
-import java.util.Map;
-import java.util.stream.Stream;
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
 
 /**
  * Utility methods relating to {@link Stream}s.
+ * <p>
+ * The stream operators are backed by {@link Spliterator}s which split efficiently:
+ * where the sources are {@code SIZED} and {@code SUBSIZED} (e.g. streams over arrays, lists and ranges)
+ * the results split exactly and are themselves {@code SIZED} and {@code SUBSIZED},
+ * so that they parallelise as well as their sources.
+ * Otherwise the results are split into batches.
+ * The resulting streams are parallel if any of the source streams are.
  */
 public abstract class Streams {
     /**
@@ -19,4 +29,322 @@ public abstract class Streams {
     public static <K, V> Stream<Tuple2<K, V>> tupleStream(Map<K, V> m) {
         return m.entrySet().stream().map(en -> Tuple2.of(en.getKey(), en.getValue()));
     }
+
+    private static Runnable closeBoth(BaseStream<?, ?> a, BaseStream<?, ?> b) {
+        return () -> {
+            try {
+                a.close();
+            } finally {
+                b.close();
+            }
+        };
+    }
+
+    private static void checkSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be positive but was " + size);
+        }
+    }
+
+    /**
+     * Combine two streams, by applying a function to each corresponding pair of elements.
+     * The resulting stream is as long as the shorter of the two streams.
+     * @param sa        the first stream
+     * @param sb        the second stream
+     * @param f         the function to combine the elements
+     * @param <A>       the first stream element type
+     * @param <B>       the second stream element type
+     * @param <R>       the result stream element type
+     * @return          the combined stream
+     */
+    public static <A, B, R> Stream<R> zip(
+            Stream<A> sa,
+            Stream<B> sb,
+            Functions.F2<? super A, ? super B, ? extends R> f) {
+        return StreamSupport.stream(
+                new StreamSpliterators.Zip<A, B, R>(sa.spliterator(), sb.spliterator(), f),
+                sa.isParallel() || sb.isParallel()
+        ).onClose(closeBoth(sa, sb));
+    }
+
+    /**
+     * Combine two streams into a stream of pairs.
+     * The resulting stream is as long as the shorter of the two streams.
+     * @param sa        the first stream
+     * @param sb        the second stream
+     * @param <A>       the first stream element type
+     * @param <B>       the second stream element type
+     * @return          the stream of pairs
+     */
+    public static <A, B> Stream<Tuple2<A, B>> zip(Stream<A> sa, Stream<B> sb) {
+        return zip(sa, sb, Tuple2::of);
+    }
+
+    /**
+     * Combine two {@code int} streams, by applying a function to each corresponding pair of elements.
+     * @param sa        the first stream
+     * @param sb        the second stream
+     * @param f         the function to combine the elements
+     * @return          the combined stream
+     */
+    public static IntStream zip(IntStream sa, IntStream sb, IntBinaryOperator f) {
+        return StreamSupport.intStream(
+                new StreamSpliterators.ZipInt(sa.spliterator(), sb.spliterator(), f),
+                sa.isParallel() || sb.isParallel()
+        ).onClose(closeBoth(sa, sb));
+    }
+
+    /**
+     * Combine two {@code long} streams, by applying a function to each corresponding pair of elements.
+     * @param sa        the first stream
+     * @param sb        the second stream
+     * @param f         the function to combine the elements
+     * @return          the combined stream
+     */
+    public static LongStream zip(LongStream sa, LongStream sb, LongBinaryOperator f) {
+        return StreamSupport.longStream(
+                new StreamSpliterators.ZipLong(sa.spliterator(), sb.spliterator(), f),
+                sa.isParallel() || sb.isParallel()
+        ).onClose(closeBoth(sa, sb));
+    }
+
+    /**
+     * Combine two {@code double} streams, by applying a function to each corresponding pair of elements.
+     * @param sa        the first stream
+     * @param sb        the second stream
+     * @param f         the function to combine the elements
+     * @return          the combined stream
+     */
+    public static DoubleStream zip(DoubleStream sa, DoubleStream sb, DoubleBinaryOperator f) {
+        return StreamSupport.doubleStream(
+                new StreamSpliterators.ZipDouble(sa.spliterator(), sb.spliterator(), f),
+                sa.isParallel() || sb.isParallel()
+        ).onClose(closeBoth(sa, sb));
+    }
+
+    /**
+     * Pair each element of a stream with its index.
+     * @param s         the stream
+     * @param <T>       the stream element type
+     * @return          the stream of element and index pairs
+     */
+    public static <T> Stream<Tuple2<T, Long>> zipWithIndex(Stream<T> s) {
+        return StreamSupport.stream(
+                new StreamSpliterators.ZipWithIndex<T>(s.spliterator(), 0),
+                s.isParallel()
+        ).onClose(s::close);
+    }
+
+    /**
+     * Alternate the elements of two streams.
+     * Once the shorter stream is exhausted the remaining elements of the longer stream follow.
+     * @param sa        the first stream
+     * @param sb        the second stream
+     * @param <T>       the stream element type
+     * @return          the interleaved stream
+     */
+    public static <T> Stream<T> interleave(Stream<T> sa, Stream<T> sb) {
+        return StreamSupport.stream(
+                new StreamSpliterators.Interleave<T>(sa.spliterator(), sb.spliterator()),
+                sa.isParallel() || sb.isParallel()
+        ).onClose(closeBoth(sa, sb));
+    }
+
+    /**
+     * Group the elements of a stream into consecutive chunks.
+     * Each chunk has {@code size} elements, apart from the last, which may be shorter.
+     * @param s         the stream
+     * @param size      the chunk size
+     * @param <T>       the stream element type
+     * @return          the stream of chunks
+     * @throws IllegalArgumentException if {@code size} is not positive
+     */
+    public static <T> Stream<List<T>> chunked(Stream<T> s, int size) {
+        checkSize(size);
+        return StreamSupport.stream(new StreamSpliterators.Chunked<T>(s.spliterator(), size), s.isParallel())
+                .onClose(s::close);
+    }
+
+    /**
+     * Group the elements of an {@code int} stream into consecutive chunks.
+     * @param s         the stream
+     * @param size      the chunk size
+     * @return          the stream of chunks
+     * @throws IllegalArgumentException if {@code size} is not positive
+     */
+    public static Stream<int[]> chunked(IntStream s, int size) {
+        checkSize(size);
+        return StreamSupport.stream(new StreamSpliterators.ChunkedInt(s.spliterator(), size), s.isParallel())
+                .onClose(s::close);
+    }
+
+    /**
+     * Group the elements of a {@code long} stream into consecutive chunks.
+     * @param s         the stream
+     * @param size      the chunk size
+     * @return          the stream of chunks
+     * @throws IllegalArgumentException if {@code size} is not positive
+     */
+    public static Stream<long[]> chunked(LongStream s, int size) {
+        checkSize(size);
+        return StreamSupport.stream(new StreamSpliterators.ChunkedLong(s.spliterator(), size), s.isParallel())
+                .onClose(s::close);
+    }
+
+    /**
+     * Group the elements of a {@code double} stream into consecutive chunks.
+     * @param s         the stream
+     * @param size      the chunk size
+     * @return          the stream of chunks
+     * @throws IllegalArgumentException if {@code size} is not positive
+     */
+    public static Stream<double[]> chunked(DoubleStream s, int size) {
+        checkSize(size);
+        return StreamSupport.stream(new StreamSpliterators.ChunkedDouble(s.spliterator(), size), s.isParallel())
+                .onClose(s::close);
+    }
+
+    /**
+     * Create a stream of the overlapping windows of consecutive elements of a stream.
+     * If the stream has fewer than {@code size} elements then the result is empty.
+     * @param s         the stream
+     * @param size      the window size
+     * @param <T>       the stream element type
+     * @return          the stream of windows
+     * @throws IllegalArgumentException if {@code size} is not positive
+     */
+    public static <T> Stream<List<T>> sliding(Stream<T> s, int size) {
+        checkSize(size);
+        return StreamSupport.stream(new StreamSpliterators.Sliding<T>(new Object[0], s.spliterator(), size), s.isParallel())
+                .onClose(s::close);
+    }
+
+    /**
+     * Create a stream of the leading elements of a stream which satisfy a predicate.
+     * @param s         the stream
+     * @param pred      the predicate
+     * @param <T>       the stream element type
+     * @return          the stream of leading elements
+     */
+    public static <T> Stream<T> takeWhile(Stream<T> s, Functions.Predicate<? super T> pred) {
+        return StreamSupport.stream(new StreamSpliterators.TakeWhile<T>(s.spliterator(), pred), s.isParallel())
+                .onClose(s::close);
+    }
+
+    /**
+     * Create a stream of the leading elements of an {@code int} stream which satisfy a predicate.
+     * @param s         the stream
+     * @param pred      the predicate
+     * @return          the stream of leading elements
+     */
+    public static IntStream takeWhile(IntStream s, IntPredicate pred) {
+        return StreamSupport.intStream(new StreamSpliterators.TakeWhileInt(s.spliterator(), pred), s.isParallel())
+                .onClose(s::close);
+    }
+
+    /**
+     * Create a stream of the leading elements of a {@code long} stream which satisfy a predicate.
+     * @param s         the stream
+     * @param pred      the predicate
+     * @return          the stream of leading elements
+     */
+    public static LongStream takeWhile(LongStream s, LongPredicate pred) {
+        return StreamSupport.longStream(new StreamSpliterators.TakeWhileLong(s.spliterator(), pred), s.isParallel())
+                .onClose(s::close);
+    }
+
+    /**
+     * Create a stream of the leading elements of a {@code double} stream which satisfy a predicate.
+     * @param s         the stream
+     * @param pred      the predicate
+     * @return          the stream of leading elements
+     */
+    public static DoubleStream takeWhile(DoubleStream s, DoublePredicate pred) {
+        return StreamSupport.doubleStream(new StreamSpliterators.TakeWhileDouble(s.spliterator(), pred), s.isParallel())
+                .onClose(s::close);
+    }
+
+    /**
+     * Create a stream of the elements of a stream which follow the leading elements that satisfy a predicate.
+     * The leading elements are dropped sequentially, after which the remainder splits as the source does.
+     * @param s         the stream
+     * @param pred      the predicate
+     * @param <T>       the stream element type
+     * @return          the stream of remaining elements
+     */
+    public static <T> Stream<T> dropWhile(Stream<T> s, Functions.Predicate<? super T> pred) {
+        return StreamSupport.stream(new StreamSpliterators.DropWhile<T>(s.spliterator(), pred), s.isParallel())
+                .onClose(s::close);
+    }
+
+    /**
+     * Create a stream of the elements of an {@code int} stream which follow the leading elements that satisfy a predicate.
+     * @param s         the stream
+     * @param pred      the predicate
+     * @return          the stream of remaining elements
+     */
+    public static IntStream dropWhile(IntStream s, IntPredicate pred) {
+        return StreamSupport.intStream(new StreamSpliterators.DropWhileInt(s.spliterator(), pred), s.isParallel())
+                .onClose(s::close);
+    }
+
+    /**
+     * Create a stream of the elements of a {@code long} stream which follow the leading elements that satisfy a predicate.
+     * @param s         the stream
+     * @param pred      the predicate
+     * @return          the stream of remaining elements
+     */
+    public static LongStream dropWhile(LongStream s, LongPredicate pred) {
+        return StreamSupport.longStream(new StreamSpliterators.DropWhileLong(s.spliterator(), pred), s.isParallel())
+                .onClose(s::close);
+    }
+
+    /**
+     * Create a stream of the elements of a {@code double} stream which follow the leading elements that satisfy a predicate.
+     * @param s         the stream
+     * @param pred      the predicate
+     * @return          the stream of remaining elements
+     */
+    public static DoubleStream dropWhile(DoubleStream s, DoublePredicate pred) {
+        return StreamSupport.doubleStream(new StreamSpliterators.DropWhileDouble(s.spliterator(), pred), s.isParallel())
+                .onClose(s::close);
+    }
+
+    /**
+     * Create a stream by repeatedly applying a function to a state,
+     * which returns either the next element and the next state, or nothing, which ends the stream.
+     * @param seed      the initial state
+     * @param f         the function
+     * @param <S>       the state type
+     * @param <T>       the stream element type
+     * @return          the stream
+     */
+    public static <S, T> Stream<T> unfold(S seed, Functions.F<S, Option<Tuple2<T, S>>> f) {
+        return StreamSupport.stream(new StreamSpliterators.Unfold<S, T>(seed, f), false);
+    }
+
+    /**
+     * Group adjacent elements of a stream into runs,
+     * where each element of a run is related to the previous element by the {@code sameRun} function.
+     * @param s         the stream
+     * @param sameRun   the function which determines whether an element continues the run of the previous element
+     * @param <T>       the stream element type
+     * @return          the stream of runs
+     */
+    public static <T> Stream<List<T>> groupRuns(Stream<T> s, Functions.F2<? super T, ? super T, Boolean> sameRun) {
+        return StreamSupport.stream(new StreamSpliterators.GroupRuns<T>(s.spliterator(), sameRun), s.isParallel())
+                .onClose(s::close);
+    }
+
+    /**
+     * Group adjacent elements of a stream which have equal keys into runs.
+     * @param s         the stream
+     * @param key       the function which extracts the key of each element
+     * @param <T>       the stream element type
+     * @param <K>       the key type
+     * @return          the stream of runs
+     */
+    public static <T, K> Stream<List<T>> groupAdjacent(Stream<T> s, Functions.F<? super T, ? extends K> key) {
+        return groupRuns(s, (x, y) -> Objects.equals(key.apply(x), key.apply(y)));
+    }
 }
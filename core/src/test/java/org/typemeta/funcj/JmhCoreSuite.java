@@ -0,0 +1,28 @@
+package org.typemeta.funcj;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Runs all of the {@code Jmh*Test} benchmarks in the core module,
+ * with the GC profiler, so that the allocation rate ({@code gc.alloc.rate.norm}) of each benchmark
+ * is reported alongside its throughput.
+ * <p>
+ * The optional argument is a regex which selects a subset of the benchmarks, e.g. {@code JmhIListTest}.
+ */
+public class JmhCoreSuite {
+    public static void main(String[] args) throws RunnerException {
+        final String include = args.length > 0 ? args[0] : "org\\.typemeta\\.funcj\\..*\\.Jmh.*Test";
+
+        final Options opt = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
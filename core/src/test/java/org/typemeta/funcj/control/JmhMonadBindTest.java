@@ -0,0 +1,82 @@
+package org.typemeta.funcj.control;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Measures chains of monadic binds for {@link Either}, {@link Try} and {@link Option},
+ * both where every step succeeds and where the chain fails at the first step.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class JmhMonadBindTest {
+
+    @Param({"10", "1000"})
+    public int length;
+
+    @Benchmark
+    public Integer eitherChain() {
+        Either<String, Integer> e = Either.right(0);
+        for (int i = 0; i < length; ++i) {
+            e = e.flatMap(x -> Either.right(x + 1));
+        }
+        return e.right();
+    }
+
+    @Benchmark
+    public Either<String, Integer> eitherChainFailed() {
+        Either<String, Integer> e = Either.left("error");
+        for (int i = 0; i < length; ++i) {
+            e = e.flatMap(x -> Either.right(x + 1));
+        }
+        return e;
+    }
+
+    @Benchmark
+    public Integer tryChain() {
+        Try<Integer> t = Try.success(0);
+        for (int i = 0; i < length; ++i) {
+            t = t.flatMap(x -> Try.success(x + 1));
+        }
+        return t.orElseThrow();
+    }
+
+    @Benchmark
+    public Try<Integer> tryChainFailed() {
+        Try<Integer> t = Try.failure(new RuntimeException("error"));
+        for (int i = 0; i < length; ++i) {
+            t = t.flatMap(x -> Try.success(x + 1));
+        }
+        return t;
+    }
+
+    @Benchmark
+    public Integer optionChain() {
+        Option<Integer> o = Option.some(0);
+        for (int i = 0; i < length; ++i) {
+            o = o.flatMap(x -> Option.some(x + 1));
+        }
+        return o.get();
+    }
+
+    @Benchmark
+    public Integer tryMapChain() {
+        Try<Integer> t = Try.success(0);
+        for (int i = 0; i < length; ++i) {
+            t = t.map(x -> x + 1);
+        }
+        return t.orElseThrow();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        final Options opt = new OptionsBuilder()
+                .include(JmhMonadBindTest.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
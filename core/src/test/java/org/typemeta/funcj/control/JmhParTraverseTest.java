@@ -0,0 +1,81 @@
+package org.typemeta.funcj.control;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+import org.typemeta.funcj.data.IList;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Measures how the parallel traversals scale with the number of worker threads,
+ * against the sequential traversals.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class JmhParTraverseTest {
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"100000"})
+    public int size;
+
+    private ForkJoinPool pool;
+
+    private IList<Integer> elems;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(parallelism);
+        elems = IList.ofIterable(() -> IntStream.range(0, size).iterator());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * A function with enough work per element for the parallelism to matter.
+     */
+    private static double work(int x) {
+        double acc = x;
+        for (int i = 0; i < 100; ++i) {
+            acc = Math.sqrt(acc + i);
+        }
+        return acc;
+    }
+
+    @Benchmark
+    public Try<IList<Double>> tryTraverse() {
+        return Try.traverse(elems, x -> Try.success(work(x)));
+    }
+
+    @Benchmark
+    public Try<IList<Double>> tryParTraverse() {
+        return Try.parTraverse(elems, x -> Try.success(work(x)), pool);
+    }
+
+    @Benchmark
+    public Validated<String, IList<Double>> validatedTraverse() {
+        return Validated.traverse(elems, x -> Validated.success(work(x)));
+    }
+
+    @Benchmark
+    public Validated<String, IList<Double>> validatedParTraverse() {
+        return Validated.parTraverse(elems, x -> Validated.success(work(x)), pool);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        final Options opt = new OptionsBuilder()
+                .include(JmhParTraverseTest.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,113 @@
+package org.typemeta.funcj.control;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+import org.typemeta.funcj.data.*;
+import org.typemeta.funcj.functions.Functions.F;
+import org.typemeta.funcj.tuples.Tuple2;
+
+import java.util.stream.IntStream;
+
+import static org.typemeta.funcj.control.Trampoline.*;
+
+/**
+ * Compares the {@link State} interpreter against {@code State} values built from
+ * {@link Trampoline}-returning closures.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class JmhStateTest {
+
+    /**
+     * {@code State} combinators which build closures evaluated via {@link Trampoline}.
+     */
+    static final class Closures {
+        static <S, A> State<S, A> pure(A a) {
+            return st -> done(Tuple2.of(st, a));
+        }
+
+        static <S> State<S, S> get() {
+            return s -> done(Tuple2.of(s, s));
+        }
+
+        static <S> State<S, Unit> put(S s) {
+            return u -> done(Tuple2.of(s, Unit.UNIT));
+        }
+
+        static <S, A, B> State<S, B> flatMap(State<S, A> sa, F<A, State<S, B>> f) {
+            return st -> defer(() -> sa.runState(st).flatMap(t2 -> defer(() -> f.apply(t2._2).runState(t2._1))));
+        }
+
+        static <S, A, B> State<S, B> map(State<S, A> sa, F<A, B> f) {
+            return st -> sa.runState(st).map(t2 -> t2.with2(f.apply(t2._2)));
+        }
+
+        static <S, A, B> State<S, IList<B>> traverse(IList<A> la, F<A, State<S, B>> f) {
+            return la.foldRight(
+                    (a, slb) -> flatMap(slb, lb -> map(f.apply(a), b -> lb.add(b))),
+                    pure(IList.empty())
+            );
+        }
+    }
+
+    @Param({"100", "10000", "100000"})
+    public int size;
+
+    private IList<Integer> elems;
+
+    @Setup
+    public void setup() {
+        elems = IList.ofIterable(() -> IntStream.range(0, size).iterator());
+    }
+
+    private static State<Integer, Unit> incr() {
+        return State.<Integer>get().flatMap(s -> State.put(s + 1));
+    }
+
+    private static State<Integer, Unit> incrClosures() {
+        return Closures.flatMap(Closures.<Integer>get(), s -> Closures.put(s + 1));
+    }
+
+    @Benchmark
+    public Integer flatMapChain() {
+        State<Integer, Unit> st = State.pure(Unit.UNIT);
+        for (int i = 0; i < size; ++i) {
+            st = st.flatMap(u -> incr());
+        }
+        return st.exec(0);
+    }
+
+    @Benchmark
+    public Integer flatMapChainClosures() {
+        State<Integer, Unit> st = Closures.pure(Unit.UNIT);
+        for (int i = 0; i < size; ++i) {
+            st = Closures.flatMap(st, u -> incrClosures());
+        }
+        return st.runState(0).runT()._1;
+    }
+
+    @Benchmark
+    public IList<Integer> traverse() {
+        return State.traverse(elems, x -> State.<Integer>get().flatMap(s -> State.put(s + x).map(u -> s)))
+                .eval(0);
+    }
+
+    @Benchmark
+    public IList<Integer> traverseClosures() {
+        return Closures.traverse(elems, x ->
+                Closures.flatMap(Closures.<Integer>get(), s -> Closures.map(Closures.put(s + x), u -> s))
+        ).runState(0).runT()._2;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        final Options opt = new OptionsBuilder()
+                .include(JmhStateTest.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,65 @@
+package org.typemeta.funcj.control;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+import static org.typemeta.funcj.control.Trampoline.*;
+
+/**
+ * Measures the {@link Trampoline} interpreter over deeply nested binds and maps.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class JmhTrampolineTest {
+
+    @Param({"1000", "100000", "1000000"})
+    public int depth;
+
+    @Benchmark
+    public Integer leftNestedBinds() {
+        Trampoline<Integer> t = done(0);
+        for (int i = 0; i < depth; ++i) {
+            t = t.flatMap(x -> done(x + 1));
+        }
+        return t.runT();
+    }
+
+    @Benchmark
+    public Integer rightNestedBinds() {
+        return TrampolineTest.rightNested(0, depth).runT();
+    }
+
+    @Benchmark
+    public Integer deferredBinds() {
+        return countT(depth).runT();
+    }
+
+    @Benchmark
+    public Integer maps() {
+        Trampoline<Integer> t = done(0);
+        for (int i = 0; i < depth; ++i) {
+            t = t.map(x -> x + 1);
+        }
+        return t.runT();
+    }
+
+    private static Trampoline<Integer> countT(int n) {
+        if (n == 0) {
+            return done(0);
+        } else {
+            return defer(() -> countT(n - 1)).map(x -> x + 1);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        final Options opt = new OptionsBuilder()
+                .include(JmhTrampolineTest.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
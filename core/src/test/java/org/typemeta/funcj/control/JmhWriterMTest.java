@@ -0,0 +1,69 @@
+package org.typemeta.funcj.control;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+import org.typemeta.funcj.data.IList;
+
+import static org.typemeta.funcj.algebra.MonoidInstances.*;
+
+/**
+ * Compares the time taken by long chains of binds, for the {@link WriterM.Base} and {@link WriterM.Rope}
+ * implementations of {@link WriterM}.
+ * The time per bind should stay constant for {@code Rope} as the chain length increases,
+ * and grow linearly for {@code Base}.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class JmhWriterMTest {
+
+    @Param({"1000", "4000", "16000"})
+    public int size;
+
+    @Benchmark
+    public int stringBase() {
+        WriterM<String, Integer> w = WriterM.pure(monoidString, 0);
+        for (int i = 0; i < size; ++i) {
+            w = w.flatMap(x -> WriterM.of(monoidString, x + 1, "log entry;"));
+        }
+        return w.written().length();
+    }
+
+    @Benchmark
+    public int stringRope() {
+        WriterM<String, Integer> w = WriterM.pureRope(monoidString, 0);
+        for (int i = 0; i < size; ++i) {
+            w = w.flatMap(x -> WriterM.of(monoidString, x + 1, "log entry;"));
+        }
+        return w.written().length();
+    }
+
+    @Benchmark
+    public int iListBase() {
+        WriterM<IList<Integer>, Integer> w = WriterM.pure(monoidIList(), 0);
+        for (int i = 0; i < size; ++i) {
+            w = w.flatMap(x -> WriterM.of(monoidIList(), x + 1, IList.of(x)));
+        }
+        return w.written().size();
+    }
+
+    @Benchmark
+    public int iListRope() {
+        WriterM<IList<Integer>, Integer> w = WriterM.pureRope(monoidIList(), 0);
+        for (int i = 0; i < size; ++i) {
+            w = w.flatMap(x -> WriterM.of(monoidIList(), x + 1, IList.of(x)));
+        }
+        return w.written().size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        final Options opt = new OptionsBuilder()
+                .include(JmhWriterMTest.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
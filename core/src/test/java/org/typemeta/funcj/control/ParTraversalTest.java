@@ -0,0 +1,180 @@
+package org.typemeta.funcj.control;
+
+import org.junit.*;
+import org.typemeta.funcj.data.IList;
+import org.typemeta.funcj.functions.Functions;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.*;
+
+import static org.junit.Assert.*;
+
+public class ParTraversalTest {
+
+    private static final int N = 100000;
+
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        pool.shutdown();
+    }
+
+    private static IList<Integer> range(int n) {
+        return IList.ofIterable(() -> IntStream.range(0, n).iterator());
+    }
+
+    private static List<Integer> rangeList(int n) {
+        return IntStream.range(0, n).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    public void testTryParTraverseMatchesSequential() {
+        final IList<Integer> l = range(N);
+        assertEquals(
+                Try.traverse(l, i -> Try.success(i * 2)),
+                Try.parTraverse(l, i -> Try.success(i * 2), pool));
+
+        final List<Integer> jl = rangeList(N);
+        assertEquals(
+                Try.traverse(jl, i -> Try.success(i * 2)),
+                Try.parTraverse(jl, i -> Try.success(i * 2), pool));
+
+        assertEquals(Try.success(IList.empty()), Try.parTraverse(IList.<Integer>empty(), Try::success, pool));
+        assertEquals(Try.success(IList.of(1, 2, 3)), Try.parSequence(IList.of(Try.success(1), Try.success(2), Try.success(3))));
+    }
+
+    @Test
+    public void testTryParTraverseReturnsLeftmostFailure() {
+        final IList<Integer> l = range(N);
+        final Try<IList<Integer>> r = Try.parTraverse(
+                l,
+                i -> i % 1000 == 999 ? Try.failure(new Exception(String.valueOf(i))) : Try.success(i),
+                pool);
+        assertEquals(Try.traverse(l, i -> i % 1000 == 999 ? Try.<Integer>failure(new Exception(String.valueOf(i))) : Try.success(i))
+                .fold(Throwable::getMessage, x -> ""), r.fold(Throwable::getMessage, x -> ""));
+        assertEquals("999", r.fold(Throwable::getMessage, x -> ""));
+    }
+
+    @Test
+    public void testTryParTraverseShortCircuits() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Exception ex = new Exception("first");
+        final Try<IList<Integer>> r = Try.parTraverse(
+                range(N),
+                i -> {
+                    calls.incrementAndGet();
+                    return i == 0 ? Try.failure(ex) : Try.success(i);
+                },
+                pool);
+        assertEquals(Try.failure(ex), r);
+        assertTrue("calls=" + calls.get(), calls.get() < N);
+    }
+
+    @Test
+    public void testEitherParTraverse() {
+        final IList<Integer> l = range(N);
+        assertEquals(
+                Either.traverse(l, i -> Either.<String, Integer>right(i + 1)),
+                Either.parTraverse(l, i -> Either.<String, Integer>right(i + 1), pool));
+
+        final Either<String, List<Integer>> r = Either.parTraverse(
+                rangeList(N),
+                i -> i >= 500 && i % 100 == 0 ? Either.left("bad " + i) : Either.right(i),
+                pool);
+        assertEquals(Either.left("bad 500"), r);
+
+        assertEquals(
+                Either.left("x"),
+                Either.parSequence(Arrays.asList(Either.<String, Integer>right(1), Either.left("x"), Either.left("y"))));
+    }
+
+    @Test
+    public void testEitherParTraverseVsTraverseWithMultipleLefts() {
+        final Functions.F<Integer, Either<String, Integer>> f =
+                i -> i % 700 == 699 ? Either.left("bad " + i) : Either.right(i);
+
+        // The sequential traversal returns the rightmost Left,
+        // whereas the parallel traversal returns the leftmost.
+        final IList<Integer> l = range(10000);
+        assertEquals(Either.left("bad 9799"), Either.traverse(l, f));
+        assertEquals(Either.left("bad 699"), Either.parTraverse(l, f, pool));
+
+        final List<Integer> jl = rangeList(10000);
+        assertEquals(Either.left("bad 9799"), Either.traverse(jl, f));
+        assertEquals(Either.left("bad 699"), Either.parTraverse(jl, f, pool));
+
+        // With a single Left the two agree.
+        final IList<Integer> l1 = range(1000);
+        assertEquals(Either.traverse(l1, f), Either.parTraverse(l1, f, pool));
+    }
+
+    @Test
+    public void testOptionParTraverse() {
+        final IList<Integer> l = range(N);
+        assertEquals(
+                Option.traverse(l, i -> Option.some(i * 3)),
+                Option.parTraverse(l, i -> Option.some(i * 3), pool));
+        assertEquals(
+                Option.none(),
+                Option.parTraverse(l, i -> i == N / 2 ? Option.none() : Option.some(i), pool));
+        assertEquals(
+                Option.some(Arrays.asList(1, 2)),
+                Option.parSequence(Arrays.asList(Option.some(1), Option.some(2))));
+    }
+
+    @Test
+    public void testValidatedParTraverseAccumulatesErrors() {
+        final IList<Integer> l = range(N);
+        assertEquals(
+                Validated.traverse(l, i -> Validated.<String, Integer>success(i)),
+                Validated.parTraverse(l, i -> Validated.<String, Integer>success(i), pool));
+
+        final AtomicInteger calls = new AtomicInteger();
+        final Validated<String, IList<Integer>> r = Validated.parTraverse(
+                l,
+                i -> {
+                    calls.incrementAndGet();
+                    return i % 10000 == 0 ? Validated.failure("bad " + i) : Validated.success(i);
+                },
+                pool);
+        assertEquals(N, calls.get());
+
+        final IList<String> expected = range(N / 10000).map(i -> "bad " + (i * 10000));
+        assertEquals(Validated.failure(expected), r);
+
+        assertEquals(
+                Validated.failure(IList.of("a", "b", "c")),
+                Validated.parSequence(Arrays.asList(
+                        Validated.<String, Integer>failure(IList.of("a", "b")),
+                        Validated.success(1),
+                        Validated.failure("c"))));
+    }
+
+    @Test
+    public void testValidatedParTraverseVsTraverseWithMultipleFailures() {
+        final IList<Integer> l = IList.of(1, 2, 3, 4, 5);
+        final Functions.F<Integer, Validated<String, Integer>> f =
+                i -> i % 2 == 0 ? Validated.failure("bad " + i) : Validated.success(i);
+
+        // The sequential traversal keeps only the errors of the last failure,
+        // whereas the parallel traversal accumulates the errors of every failure.
+        assertEquals(Validated.failure("bad 4"), Validated.traverse(l, f));
+        assertEquals(Validated.failure(IList.of("bad 2", "bad 4")), Validated.parTraverse(l, f, pool));
+
+        final List<Integer> jl = Arrays.asList(1, 2, 3, 4, 5);
+        assertEquals(Validated.failure("bad 4"), Validated.traverse(jl, f));
+        assertEquals(Validated.failure(IList.of("bad 2", "bad 4")), Validated.parTraverse(jl, f, pool));
+
+        // With a single failure the two agree.
+        final IList<Integer> l1 = IList.of(1, 2, 3);
+        assertEquals(Validated.traverse(l1, f), Validated.parTraverse(l1, f, pool));
+    }
+}
@@ -0,0 +1,74 @@
+package org.typemeta.funcj.control;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class PrimitiveOptionTest {
+
+    @Test
+    public void testSome() {
+        final OptionInt some = OptionInt.some(42);
+        assertTrue(some.isPresent());
+        assertEquals(42, some.get());
+        assertEquals(42, some.orElse(0));
+        assertEquals(OptionInt.some(43), some.map(x -> x + 1));
+        assertEquals(Option.some("42"), some.mapToObj(Integer::toString));
+        assertEquals(OptionInt.some(21), some.flatMap(x -> OptionInt.some(x / 2)));
+        assertEquals(OptionInt.none(), some.flatMap(x -> OptionInt.none()));
+        assertEquals(some, some.filter(x -> x > 0));
+        assertEquals(OptionInt.none(), some.filter(x -> x < 0));
+        assertEquals("x42", some.fold(() -> "none", x -> "x" + x));
+        assertEquals("Some(42)", some.toString());
+    }
+
+    @Test
+    public void testNone() {
+        final OptionInt none = OptionInt.none();
+        assertFalse(none.isPresent());
+        assertEquals(7, none.orElse(7));
+        assertEquals(none, none.map(x -> x + 1));
+        assertEquals(Option.none(), none.mapToObj(Integer::toString));
+        assertEquals(none, none.flatMap(OptionInt::some));
+        assertEquals("none", none.fold(() -> "none", x -> "x" + x));
+        assertEquals("None", none.toString());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testNoneGet() {
+        OptionInt.none().get();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoneOrElseThrow() {
+        OptionLong.none().orElseThrow(IllegalStateException::new);
+    }
+
+    @Test
+    public void testConversions() {
+        assertEquals(Option.some(1), OptionInt.some(1).boxed());
+        assertEquals(Option.none(), OptionInt.none().boxed());
+        assertEquals(OptionInt.some(1), OptionInt.fromOption(Option.some(1)));
+        assertEquals(OptionInt.none(), OptionInt.fromOption(Option.none()));
+        assertEquals(OptionalInt.of(1), OptionInt.some(1).asOptional());
+        assertEquals(OptionInt.some(1), OptionInt.fromOptional(OptionalInt.of(1)));
+
+        assertEquals(Option.some(2L), OptionLong.some(2L).boxed());
+        assertEquals(OptionLong.some(2L), OptionLong.fromOptional(OptionalLong.of(2L)));
+        assertEquals(OptionalLong.empty(), OptionLong.none().asOptional());
+
+        assertEquals(Option.some(0.5), OptionDouble.some(0.5).boxed());
+        assertEquals(OptionDouble.some(Double.NaN), OptionDouble.fromOption(Option.some(Double.NaN)));
+        assertEquals(OptionalDouble.of(0.5), OptionDouble.some(0.5).asOptional());
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        assertEquals(OptionInt.some(5).hashCode(), Option.some(5).hashCode());
+        assertNotEquals(OptionInt.some(5), OptionInt.some(6));
+        assertNotEquals(OptionInt.some(5), OptionLong.some(5L));
+        assertEquals(OptionDouble.some(1.0).hashCode(), Double.hashCode(1.0));
+    }
+}
@@ -4,12 +4,13 @@
 import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.typemeta.funcj.data.IList;
+import org.typemeta.funcj.data.*;
 import org.typemeta.funcj.functions.Functions;
 import org.typemeta.funcj.kleisli.StateK;
 import org.typemeta.funcj.tuples.Tuple2;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
 import static org.typemeta.funcj.control.State.pure;
@@ -100,6 +101,60 @@ public void testTraverseList() {
         assertEquals(Arrays.asList("X", "XA", "XAB"), result._2);
     }
 
+    @Test
+    public void testMillionStepFlatMapChain() {
+        final int N = 1000000;
+        State<Integer, Integer> st = State.pure(0);
+        for (int i = 0; i < N; ++i) {
+            st = st.flatMap(x -> State.<Integer>modify(s -> s + 1).map(u -> x + 1));
+        }
+
+        final Tuple2<Integer, Integer> result = st.runState(0).runT();
+
+        assertEquals(N, result._1.intValue());
+        assertEquals(N, result._2.intValue());
+    }
+
+    @Test
+    public void testMillionStepRecursion() {
+        assertEquals(1000000, countUp(1000000).exec(0).intValue());
+    }
+
+    static State<Integer, Unit> countUp(int n) {
+        if (n == 0) {
+            return State.pure(Unit.UNIT);
+        } else {
+            return State.<Integer>modify(s -> s + 1).flatMap(u -> countUp(n - 1));
+        }
+    }
+
+    @Test
+    public void testMillionElementTraverse() {
+        final int N = 1000000;
+        final IList<Integer> l = IList.ofIterable(() -> IntStream.range(0, N).iterator());
+
+        final Tuple2<Long, IList<Long>> result =
+                State.traverse(l, x -> State.<Long, Long>state(s -> Tuple2.of(s + x, s)))
+                        .runState(0L).runT();
+
+        assertEquals(N * (N - 1L) / 2, result._1.longValue());
+        assertEquals(N, result._2.size());
+        assertEquals(0L, result._2.head().longValue());
+        assertEquals(N * (N - 1L) / 2 - (N - 1), result._2.get(N - 1).longValue());
+    }
+
+    @Test
+    public void testCustomRunState() {
+        final State<String, Integer> len = s -> Trampoline.done(Tuple2.of(s + "!", s.length()));
+
+        final Tuple2<String, IList<Integer>> result =
+                State.traverse(IList.of(len, len, len), sa -> sa.flatMap(n -> State.inspect(s -> n * 10)))
+                        .runState("ab").runT();
+
+        assertEquals("ab!!!", result._1);
+        assertEquals(IList.of(20, 30, 40), result._2);
+    }
+
     static class Utils {
         static final StateK<Double, Double, Double> pure = StateK.of(State::pure);
 
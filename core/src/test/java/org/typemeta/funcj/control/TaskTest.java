@@ -0,0 +1,179 @@
+package org.typemeta.funcj.control;
+
+import org.junit.*;
+import org.typemeta.funcj.data.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.junit.Assert.*;
+
+public class TaskTest {
+
+    private static ExecutorService exec;
+
+    @BeforeClass
+    public static void setUp() {
+        exec = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        exec.shutdown();
+    }
+
+    @Test
+    public void testPureMapFlatMap() {
+        final Task<Integer> t = Task.pure(1).map(x -> x + 1).flatMap(x -> Task.of(() -> x * 10));
+        assertEquals(Try.success(20), t.runTry(exec));
+    }
+
+    @Test
+    public void testLazy() {
+        final AtomicInteger count = new AtomicInteger();
+        final Task<Integer> t = Task.of(count::incrementAndGet);
+        assertEquals(0, count.get());
+        assertEquals(Try.success(1), t.runTry(exec));
+        assertEquals(Try.success(2), t.runTry(exec));
+    }
+
+    @Test
+    public void testFailureAndRecover() {
+        final RuntimeException ex = new RuntimeException("boom");
+        final Task<Integer> t = Task.<Integer>of(() -> {throw ex;}).map(x -> x + 1);
+
+        assertEquals(Either.left(ex), t.runEither(exec));
+        assertEquals(Try.success(-1), t.recover(e -> -1).runTry(exec));
+        assertEquals(Try.success(Try.failure(ex)), t.attempt().runTry(exec));
+    }
+
+    @Test
+    public void testExceptionInMapIsAFailure() {
+        final Task<Integer> t = Task.pure(1).map(x -> x / 0);
+        assertFalse(t.runTry(exec).isSuccess());
+        assertTrue(t.runEither(exec).left() instanceof ArithmeticException);
+    }
+
+    @Test
+    public void testLongFlatMapChainIsStackSafe() {
+        final int N = 1000000;
+        Task<Integer> t = Task.pure(0);
+        for (int i = 0; i < N; ++i) {
+            t = t.flatMap(x -> Task.pure(x + 1));
+        }
+        assertEquals(Try.success(N), t.runTry(exec));
+    }
+
+    private static Task<Integer> countDown(int n) {
+        return n == 0 ? Task.pure(0) : Task.defer(() -> countDown(n - 1)).map(x -> x + 1);
+    }
+
+    @Test
+    public void testDeepRecursionIsStackSafe() {
+        assertEquals(Try.success(1000000), countDown(1000000).runTry(exec));
+    }
+
+    @Test
+    public void testParZipRunsInParallel() {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final Task<String> ta = Task.of(() -> {
+            latch.countDown();
+            latch.await();
+            return "a";
+        });
+        final Task<String> tb = Task.of(() -> {
+            latch.countDown();
+            latch.await();
+            return "b";
+        });
+
+        assertEquals(Try.success("ab"), ta.parZip(tb, (a, b) -> a + b).timeout(10, TimeUnit.SECONDS).runTry(exec));
+    }
+
+    @Test
+    public void testParTraverse() {
+        final IList<Integer> l = IList.ofIterable(() -> java.util.stream.IntStream.range(0, 1000).iterator());
+        final Try<IList<Integer>> r = Task.parTraverse(l, i -> Task.of(() -> i * 2)).runTry(exec);
+        assertEquals(l.map(i -> i * 2), r.orElseThrow());
+
+        final List<Integer> jl = Arrays.asList(1, 2, 3);
+        assertEquals(Try.success(Arrays.asList(1, 2, 3)), Task.parSequence(IList.ofIterable(jl).map(Task::pure).toList()).runTry(exec));
+        assertEquals(Try.success(IList.empty()), Task.parSequence(IList.<Task<Integer>>empty()).runTry(exec));
+    }
+
+    @Test
+    public void testParTraverseFailureCancelsOthers() {
+        final AtomicBoolean ran = new AtomicBoolean();
+        final RuntimeException ex = new RuntimeException("fail");
+        final Task<Integer> slow = Task.sleep(10, TimeUnit.SECONDS).flatMap(u -> Task.of(() -> {
+            ran.set(true);
+            return 1;
+        }));
+        final Task<Integer> fails = Task.failure(ex);
+
+        final long start = System.nanoTime();
+        final Try<List<Integer>> r = Task.parSequence(Arrays.asList(slow, fails, slow)).runTry(exec);
+        assertEquals(Try.failure(ex), r);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertFalse(ran.get());
+    }
+
+    @Test
+    public void testTimeout() {
+        final Try<Unit> r = Task.sleep(10, TimeUnit.SECONDS).timeout(50, TimeUnit.MILLISECONDS).runTry(exec);
+        assertFalse(r.isSuccess());
+        assertTrue(r.fold(e -> e instanceof TimeoutException, u -> false));
+
+        assertEquals(Try.success(1), Task.pure(1).timeout(10, TimeUnit.SECONDS).runTry(exec));
+    }
+
+    @Test
+    public void testCancellation() throws Exception {
+        final AtomicBoolean ran = new AtomicBoolean();
+        final CompletableFuture<Unit> f =
+                Task.sleep(200, TimeUnit.MILLISECONDS).map(u -> {ran.set(true); return u;}).runAsync(exec);
+        assertTrue(f.cancel(true));
+        Thread.sleep(400);
+        assertFalse(ran.get());
+    }
+
+    @Test
+    public void testEvalOn() throws Exception {
+        final ExecutorService io = Executors.newSingleThreadExecutor(r -> new Thread(r, "io-thread"));
+        try {
+            final Task<String> t = Task.of(() -> Thread.currentThread().getName()).evalOn(io);
+            assertEquals(Try.success("io-thread"), t.runTry(exec));
+        } finally {
+            io.shutdown();
+        }
+    }
+
+    @Test
+    public void testAsyncAndFromFuture() {
+        final Task<Integer> ta = Task.async(cb -> exec.execute(() -> cb.success(42)));
+        assertEquals(Try.success(42), ta.runTry(exec));
+
+        final Task<Integer> tf = Task.fromFuture(() -> CompletableFuture.supplyAsync(() -> 7, exec));
+        assertEquals(Try.success(7), tf.runTry(exec));
+
+        final IllegalStateException ex = new IllegalStateException();
+        final Task<Integer> tff = Task.fromFuture(() -> CompletableFuture.supplyAsync(() -> {throw ex;}, exec));
+        assertEquals(Try.failure(ex), tff.runTry(exec));
+    }
+
+    @Test
+    public void testManySequentialAsyncSteps() {
+        Task<Integer> t = Task.pure(0);
+        for (int i = 0; i < 10000; ++i) {
+            t = t.flatMap(x -> Task.async(cb -> cb.success(x + 1)));
+        }
+        assertEquals(Try.success(10000), t.runTry(exec));
+    }
+
+    @Test
+    public void testConversions() {
+        assertEquals(Try.success(1), Task.fromTry(Try.success(1)).runTry(exec));
+        assertEquals(Either.right(1), Task.fromEither(Either.<Throwable, Integer>right(1)).runEither(exec));
+    }
+}
@@ -1,6 +1,7 @@
 package org.typemeta.funcj.control;
 
 import org.junit.*;
+import org.typemeta.funcj.functions.Functions;
 
 import static org.typemeta.funcj.control.Trampoline.*;
 
@@ -29,6 +30,54 @@ public void testFibonacci() {
         Assert.assertEquals("Factorial", 55, i);
     }
 
+    @Test
+    public void testLeftNestedBinds() {
+        final int N = 1000000;
+        Trampoline<Integer> t = done(0);
+        for (int i = 0; i < N; ++i) {
+            t = t.flatMap(x -> done(x + 1));
+        }
+
+        Assert.assertEquals("Left-nested", N, t.runT().intValue());
+    }
+
+    @Test
+    public void testRightNestedBinds() {
+        final int N = 1000000;
+        Assert.assertEquals("Right-nested", N, rightNested(0, N).runT().intValue());
+    }
+
+    @Test
+    public void testMapChain() {
+        final int N = 1000000;
+        Trampoline<Integer> t = defer(() -> done(0));
+        for (int i = 0; i < N; ++i) {
+            t = t.map(x -> x + 1);
+        }
+
+        Assert.assertEquals("Map chain", N, t.runT().intValue());
+    }
+
+    @Test
+    public void testResume() {
+        final Trampoline<Integer> t = done(1).map(x -> x + 1).flatMap(x -> defer(() -> done(x * 10))).map(x -> x + 1);
+
+        final Either<Functions.F0<Trampoline<Integer>>, Integer> r = t.resume();
+        Assert.assertTrue(r.isLeft());
+
+        final Trampoline<Integer> next = r.left().apply();
+        Assert.assertEquals(Integer.valueOf(21), next.resume().right());
+        Assert.assertEquals(Integer.valueOf(21), t.runT());
+    }
+
+    static Trampoline<Integer> rightNested(int acc, int n) {
+        if (n == 0) {
+            return done(acc);
+        } else {
+            return done(acc + 1).flatMap(x -> rightNested(x, n - 1));
+        }
+    }
+
     public static Trampoline<Integer> fib(int n) {
         if (n <= 1) {
             return done(n);
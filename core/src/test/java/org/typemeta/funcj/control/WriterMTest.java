@@ -1,10 +1,13 @@
 package org.typemeta.funcj.control;
 
 import org.junit.Test;
+import org.typemeta.funcj.algebra.*;
 import org.typemeta.funcj.data.IList;
 
+import java.util.*;
+
 import static org.junit.Assert.assertEquals;
-import static org.typemeta.funcj.algebra.MonoidInstances.monoidIList;
+import static org.typemeta.funcj.algebra.MonoidInstances.*;
 
 public class WriterMTest {
 
@@ -24,4 +27,93 @@ public void monadDemo() {
         assertEquals(IList.of("3", "5"), log);
         assertEquals(8, result);
     }
+
+    @Test
+    public void ropeMonadDemo() {
+        final WriterM<IList<String>, Integer> logResult =
+                WriterM.<IList<String>, Integer>pureRope(monoidIList(), 0).flatMap(z ->
+                        logger(3).flatMap(a ->
+                                logger(5).flatMap(b ->
+                                        WriterM.pure(monoidIList(), a + b))));
+
+        assertEquals(IList.of("3", "5"), logResult.written());
+        assertEquals(8, logResult.value().intValue());
+    }
+
+    @Test
+    public void ropeMatchesBase() {
+        WriterM<String, Integer> base = WriterM.pure(monoidString, 0);
+        WriterM<String, Integer> rope = WriterM.pureRope(monoidString, 0);
+        for (int i = 0; i < 100; ++i) {
+            final int j = i;
+            base = base.flatMap(x -> WriterM.of(monoidString, x + j, "<" + j + ">"));
+            rope = rope.flatMap(x -> WriterM.of(monoidString, x + j, "<" + j + ">"));
+            if (i % 10 == 0) {
+                base = base.map(x -> x * 2);
+                rope = rope.map(x -> x * 2);
+                base = base.app(WriterM.of(monoidString, x -> x - 1, "[app]"));
+                rope = rope.app(WriterM.rope(monoidString, x -> x - 1, "[app]"));
+            }
+            assertEquals(base.value(), rope.value());
+            assertEquals(base.written(), rope.written());
+        }
+    }
+
+    @Test
+    public void longLeftNestedChain() {
+        final int n = 200000;
+        WriterM<IList<Integer>, Integer> w = WriterM.pureRope(monoidIList(), 0);
+        for (int i = 0; i < n; ++i) {
+            w = w.flatMap(x -> WriterM.of(monoidIList(), x + 1, IList.of(x)));
+        }
+        assertEquals(n, w.value().intValue());
+
+        final IList<Integer> written = w.written();
+        assertEquals(n, written.size());
+        assertEquals(0, written.head().intValue());
+        assertEquals(n - 1, written.get(n - 1).intValue());
+
+        WriterM<List<Integer>, Integer> wl = WriterM.pureRope(monoidList(), 0);
+        for (int i = 0; i < n; ++i) {
+            wl = wl.flatMap(x -> WriterM.rope(monoidList(), x + 1, Collections.singletonList(x)));
+        }
+        assertEquals(n, wl.written().size());
+    }
+
+    @Test
+    public void longRightNestedLog() {
+        final int n = 200000;
+        WriterM<String, Integer> w = WriterM.rope(monoidString, 0, "x");
+        for (int i = 0; i < n; ++i) {
+            final WriterM<String, Integer> prev = w;
+            w = WriterM.rope(monoidString, 0, "x").flatMap(x -> prev);
+        }
+        assertEquals(n + 1, w.written().length());
+    }
+
+    @Test
+    public void defaultBuilderIsBalancedAndOrdered() {
+        final Monoid<String> m = Monoid.of("", (x, y) -> x + y);
+        final Monoid.Builder<String> b = m.builder();
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; ++i) {
+            b.add(Integer.toString(i));
+            expected.append(i);
+        }
+        assertEquals(expected.toString(), b.build());
+        assertEquals("", m.builder().build());
+    }
+
+    @Test
+    public void instanceBuilders() {
+        assertEquals("abc", monoidString.builder().add("a").add("").add("bc").build());
+        assertEquals(
+                IList.of(1, 2, 3, 4),
+                MonoidInstances.<Integer>monoidIList().builder()
+                        .add(IList.of(1, 2)).add(IList.empty()).add(IList.of(3)).add(IList.of(4)).build());
+        assertEquals(
+                Arrays.asList(1, 2, 3),
+                MonoidInstances.<Integer>monoidList().builder()
+                        .add(Arrays.asList(1, 2)).add(Collections.singletonList(3)).build());
+    }
 }
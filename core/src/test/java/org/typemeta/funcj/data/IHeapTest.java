@@ -0,0 +1,80 @@
+package org.typemeta.funcj.data;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.Assert.*;
+
+public class IHeapTest {
+
+    @Test
+    public void testEmpty() {
+        final IHeap<Integer> h = IHeap.empty();
+        assertTrue(h.isEmpty());
+        assertEquals(0, h.size());
+        assertEquals(Optional.empty(), h.findMin());
+        assertEquals("[]", h.toString());
+        assertEquals(IList.empty(), h.toIList());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testDeleteMinOfEmpty() {
+        IHeap.empty().deleteMin();
+    }
+
+    @Test
+    public void testRandomOperationsMatchPriorityQueue() {
+        final Random rnd = new Random(1234);
+        final PriorityQueue<Integer> exp = new PriorityQueue<>();
+        IHeap<Integer> act = IHeap.empty();
+        for (int i = 0; i < 20000; ++i) {
+            if (exp.isEmpty() || rnd.nextInt(3) != 0) {
+                final int x = rnd.nextInt(1000);
+                exp.add(x);
+                act = act.insert(x);
+            } else {
+                assertEquals(exp.poll(), act.findMin().get());
+                act = act.deleteMin();
+            }
+            assertEquals(exp.size(), act.size());
+            if (i % 1000 == 0) {
+                act.checkInvariants();
+            }
+        }
+        final List<Integer> sorted = new ArrayList<>(exp);
+        Collections.sort(sorted);
+        assertEquals(sorted, act.stream().collect(Collectors.toList()));
+        assertEquals(sorted, act.parallelStream().collect(Collectors.toList()));
+        assertEquals(IList.ofIterable(sorted), act.toIList());
+    }
+
+    @Test
+    public void testOfIterableAndMerge() {
+        for (int n = 0; n < 100; ++n) {
+            final List<Integer> elems = IntStream.range(0, n).map(i -> (i * 37) % 101).boxed().collect(Collectors.toList());
+            final IHeap<Integer> h = IHeap.ofIterable(elems);
+            h.checkInvariants();
+            final List<Integer> sorted = new ArrayList<>(elems);
+            Collections.sort(sorted);
+            assertEquals(sorted, h.stream().collect(Collectors.toList()));
+
+            final IHeap<Integer> merged = h.merge(IHeap.ofIterable(elems));
+            merged.checkInvariants();
+            assertEquals(2 * n, merged.size());
+            assertEquals(h.findMin(), merged.findMin());
+        }
+    }
+
+    @Test
+    public void testPersistenceAndComparator() {
+        final IHeap<String> h0 = IHeap.<String>empty(Comparator.reverseOrder()).insert("a").insert("c");
+        final IHeap<String> h1 = h0.insert("b");
+        final IHeap<String> h2 = h1.deleteMin();
+        assertEquals("[c,a]", h0.toString());
+        assertEquals("[c,b,a]", h1.toString());
+        assertEquals("[b,a]", h2.toString());
+        assertEquals("[1,2,3]", IHeap.of(3, 1, 2).toString());
+    }
+}
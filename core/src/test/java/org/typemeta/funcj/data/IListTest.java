@@ -89,6 +89,34 @@ public void testFlatMap() {
         assertEquals("map for a non-empty list", IList.of(1, -1, 2, -2, 3, -3, 4, -4), nel.flatMap(x ->  IList.of(x, -x)));
     }
 
+    @Test
+    public void testLongLists() {
+        final int n = 200000;
+        IList<Integer> l = IList.empty();
+        for (int i = n - 1; i >= 0; --i) {
+            l = l.add(i);
+        }
+        assertEquals("size for a long list", n, l.size());
+        assertEquals("appendAll for a long list", 2 * n, l.appendAll(l).size());
+        assertEquals("get for a long list", n - 1, l.appendAll(l).get(2 * n - 1).intValue());
+        assertEquals("map for a long list", l.reverse().map(i -> i + 1).reverse(), l.map(i -> i + 1));
+        assertEquals(
+                "foldRight for a long list",
+                (long)n * (n - 1) / 2,
+                l.foldRight((i, acc) -> acc + i, 0L).longValue());
+        assertEquals("parallel stream for a long list", (long)n * (n - 1) / 2, l.parallelStream().mapToLong(i -> i).sum());
+        assertEquals("toList for a long list", n / 2, l.toList().get(n / 2).intValue());
+        assertEquals("ofIterable", l, IList.ofIterable(l.toList()));
+    }
+
+    @Test
+    public void testAppendAll() {
+        assertEquals("appendAll for an empty list", nel, el.appendAll(nel));
+        assertEquals("appendAll onto an empty list", nel, nel.appendAll(el));
+        assertEquals("appendAll for non-empty lists", IList.of(1, 2, 3, 4, 1, 2, 3, 4), nel.appendAll(nel));
+        assertEquals("addAll for non-empty lists", IList.of(1, 2, 3, 4, 5), IList.of(5).addAll(nel));
+    }
+
     @Test
     public void testMatch() {
         Assert.assertTrue("match for an empty list", el.match(n -> false, e -> true));
@@ -0,0 +1,151 @@
+package org.typemeta.funcj.data;
+
+import org.junit.Test;
+import org.typemeta.funcj.algebra.*;
+import org.typemeta.funcj.control.Option;
+import org.typemeta.funcj.tuples.Tuple2;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.Assert.*;
+
+public class IListViewTest {
+
+    private static IList<Integer> range(int n) {
+        final Integer[] arr = new Integer[n];
+        for (int i = 0; i < n; ++i) {
+            arr[i] = i;
+        }
+        return IList.ofArray(arr);
+    }
+
+    @Test
+    public void testNullElements() {
+        final IListView<String> v = IList.of(1, 2, 3).view().map(i -> i == 2 ? null : i.toString());
+        assertEquals(Arrays.asList("1", null, "3"), v.stream().collect(Collectors.toList()));
+        assertFalse(v.stream().spliterator().hasCharacteristics(Spliterator.NONNULL));
+
+        try {
+            v.drop(1).findFirst();
+            fail("Expected NullPointerException");
+        } catch (NullPointerException ex) {
+            // The first element exists but is null, so it can't be reported as none.
+        }
+        assertEquals(Option.none(), v.drop(3).findFirst());
+    }
+
+    @Test
+    public void testEmptyView() {
+        final IList<Integer> el = IList.empty();
+        assertEquals(el, el.view().map(i -> i + 1).filter(i -> i > 0).toIList());
+        assertEquals(Option.none(), el.view().findFirst());
+        assertEquals(0, el.view().count());
+        assertTrue(el.view().allMatch(i -> false));
+        assertFalse(el.view().anyMatch(i -> true));
+    }
+
+    @Test
+    public void testPipelineMatchesEagerOperations() {
+        for (int n : new int[]{0, 1, 10, 1000, 5000}) {
+            final IList<Integer> l = range(n);
+            final IList<String> expected =
+                    l.map(i -> i * 3)
+                            .flatMap(i -> i % 2 == 0 ? IList.of(i, -i) : IList.<Integer>empty())
+                            .map(i -> "#" + i);
+            final IListView<String> view =
+                    l.view()
+                            .map(i -> i * 3)
+                            .filter(i -> i % 2 == 0)
+                            .flatMap(i -> IList.of(i, -i))
+                            .map(i -> "#" + i);
+            assertEquals(expected, view.toIList());
+            assertEquals(expected.toList(), view.toList());
+            assertEquals(expected.size(), view.count());
+            assertEquals(expected.toList(), view.stream().collect(Collectors.toList()));
+            assertEquals(expected.toList(), view.stream().parallel().collect(Collectors.toList()));
+            assertEquals(expected.foldLeft((acc, s) -> acc + s.length(), 0), view.foldLeft((acc, s) -> acc + s.length(), 0));
+            assertEquals(expected, view.parToIList());
+            assertEquals(
+                    expected.foldLeft((acc, s) -> acc + s, ""),
+                    view.parFoldMap(Monoid.of("", String::concat), s -> s));
+        }
+    }
+
+    @Test
+    public void testTakeAndDrop() {
+        final IList<Integer> l = range(100);
+        assertEquals(IList.of(0, 2, 4), l.view().filter(i -> i % 2 == 0).take(3).toIList());
+        assertEquals(IList.empty(), l.view().take(0).toIList());
+        assertEquals(IList.of(96, 98), l.view().filter(i -> i % 2 == 0).drop(48).toIList());
+        assertEquals(IList.of(10, 11), l.view().drop(10).take(2).toIList());
+        assertEquals(IList.of(0, 1, 2), l.view().takeWhile(i -> i < 3).toIList());
+        assertEquals(IList.of(97, 98, 99), l.view().dropWhile(i -> i < 97).toIList());
+        assertEquals(l, l.view().drop(-1).take(1000).toIList());
+
+        // Each pass starts afresh, so stateful stages can be re-run.
+        final IListView<Integer> v = l.view().drop(5).take(2);
+        assertEquals(v.toIList(), v.toIList());
+        assertEquals(IList.of(5, 6), v.parToIList());
+    }
+
+    @Test
+    public void testShortCircuits() {
+        final int[] pulled = {0};
+        final IListView<Integer> v = range(1000).view().map(i -> {
+            ++pulled[0];
+            return i;
+        });
+
+        assertEquals(IList.of(0, 1, 2), v.take(3).toIList());
+        assertEquals(3, pulled[0]);
+
+        pulled[0] = 0;
+        assertEquals(Option.some(10), v.filter(i -> i >= 10).findFirst());
+        assertEquals(11, pulled[0]);
+
+        pulled[0] = 0;
+        assertTrue(v.anyMatch(i -> i == 4));
+        assertEquals(5, pulled[0]);
+
+        pulled[0] = 0;
+        assertFalse(v.allMatch(i -> i < 7));
+        assertEquals(8, pulled[0]);
+
+        pulled[0] = 0;
+        assertEquals(IList.of(1, 1), v.flatMap(i -> IList.of(i, i, i)).take(5).drop(3).toIList());
+        assertEquals(2, pulled[0]);
+    }
+
+    @Test
+    public void testZip() {
+        final IList<Integer> l = range(5);
+        assertEquals(
+                IList.of(Tuple2.of(0, "a"), Tuple2.of(1, "b"), Tuple2.of(2, "c")),
+                l.view().zip(IList.of("a", "b", "c")).toIList());
+        assertEquals(IList.of(0, 11, 22, 33, 44), l.view().zipWith(range(10).map(i -> i * 10), Integer::sum).toIList());
+        assertEquals(IList.empty(), l.view().zip(IList.empty()).toIList());
+        assertEquals(
+                IList.of(Tuple2.of(1, 3), Tuple2.of(3, 4)),
+                l.view().filter(i -> i % 2 == 1).zip(l.view().drop(3)).toIList());
+    }
+
+    @Test
+    public void testParFoldMap() {
+        final IList<Integer> l = range(100000);
+        final IListView<Integer> v = l.view().filter(i -> i % 3 == 0).map(i -> i * 2);
+        final int expected = IntStream.range(0, 100000).filter(i -> i % 3 == 0).map(i -> i * 2).sum();
+        assertEquals(expected, (int)v.parFoldMap(MonoidInstances.monoidInteger, i -> i));
+        assertEquals(expected, (int)v.take(Integer.MAX_VALUE).parFoldMap(MonoidInstances.monoidInteger, i -> i));
+        assertEquals(v.toIList(), v.parToIList());
+    }
+
+    @Test
+    public void testStreamPartialConsumption() {
+        final IListView<Integer> v = range(100).view().map(i -> i + 1);
+        final Iterator<Integer> iter = v.stream().iterator();
+        assertEquals(Integer.valueOf(1), iter.next());
+        assertEquals(Integer.valueOf(2), iter.next());
+        assertEquals(Arrays.asList(1, 2, 3), v.stream().limit(3).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,176 @@
+package org.typemeta.funcj.data;
+
+import org.junit.Test;
+import org.typemeta.funcj.tuples.Tuple2;
+import org.typemeta.funcj.util.Folds;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class IMapTest {
+
+    /**
+     * A key type with a deliberately poor hash function, to exercise the collision nodes.
+     */
+    static final class BadKey {
+        final int value;
+
+        BadKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object rhs) {
+            return rhs instanceof BadKey && ((BadKey)rhs).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value % 8;
+        }
+
+        @Override
+        public String toString() {
+            return "BadKey(" + value + ")";
+        }
+    }
+
+    private static <K, V> void assertMatches(Map<K, V> exp, IMap<K, V> act) {
+        assertEquals(exp.size(), act.size());
+        for (Map.Entry<K, V> e : exp.entrySet()) {
+            assertEquals(Optional.of(e.getValue()), act.get(e.getKey()));
+        }
+        assertEquals(exp, act.asMap());
+        assertEquals(exp.hashCode(), act.hashCode());
+    }
+
+    @Test
+    public void testRandomOperationsMatchHashMap() {
+        final Random rnd = new Random(1234);
+        final Map<Integer, Integer> exp = new HashMap<>();
+        IMap<Integer, Integer> act = IMap.empty();
+        for (int i = 0; i < 20000; ++i) {
+            final int k = rnd.nextInt(5000);
+            if (rnd.nextInt(3) == 0) {
+                exp.remove(k);
+                act = act.remove(k);
+            } else {
+                exp.put(k, i);
+                act = act.put(k, i);
+            }
+        }
+        assertMatches(exp, act);
+    }
+
+    @Test
+    public void testCollisions() {
+        final Map<BadKey, Integer> exp = new HashMap<>();
+        IMap<BadKey, Integer> act = IMap.empty();
+        for (int i = 0; i < 100; ++i) {
+            exp.put(new BadKey(i), i);
+            act = act.put(new BadKey(i), i);
+        }
+        assertMatches(exp, act);
+        for (int i = 0; i < 100; i += 3) {
+            exp.remove(new BadKey(i));
+            act = act.remove(new BadKey(i));
+        }
+        assertMatches(exp, act);
+        for (int i = 0; i < 100; ++i) {
+            act = act.remove(new BadKey(i));
+        }
+        assertTrue(act.isEmpty());
+    }
+
+    @Test
+    public void testPersistence() {
+        final IMap<String, Integer> m1 = IMap.of("a", 1).put("b", 2);
+        final IMap<String, Integer> m2 = m1.put("a", 10).remove("b").put("c", 3);
+        assertEquals(Optional.of(1), m1.get("a"));
+        assertEquals(Optional.of(2), m1.get("b"));
+        assertFalse(m1.containsKey("c"));
+        assertEquals(Optional.of(10), m2.get("a"));
+        assertEquals(Optional.empty(), m2.get("b"));
+        assertEquals(3, m2.getOrElse("c", 0).intValue());
+        assertTrue(m1 == m1.remove("z"));
+    }
+
+    @Test
+    public void testBuilder() {
+        final IMap.Builder<Integer, Integer> b = IMap.builder();
+        for (int i = 0; i < 10000; ++i) {
+            b.put(i, i * i);
+        }
+        for (int i = 0; i < 10000; i += 2) {
+            b.remove(i);
+        }
+        final IMap<Integer, Integer> m = b.build();
+        assertEquals(5000, m.size());
+        assertEquals(Optional.of(81), m.get(9));
+        assertFalse(m.containsKey(8));
+
+        final IMap<Integer, Integer> m2 = m.toBuilder().put(8, 0).remove(9).build();
+        assertTrue(m.containsKey(9));
+        assertFalse(m.containsKey(8));
+        assertTrue(m2.containsKey(8));
+        assertFalse(m2.containsKey(9));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testBuilderCannotBeReused() {
+        final IMap.Builder<Integer, Integer> b = IMap.builder();
+        b.put(1, 1).build();
+        b.put(2, 2);
+    }
+
+    @Test
+    public void testMerge() {
+        final IMap<String, Integer> m1 = IMap.<String, Integer>builder().put("a", 1).put("b", 2).build();
+        final IMap<String, Integer> m2 = IMap.<String, Integer>builder().put("b", 10).put("c", 20).put("d", 30).build();
+        final IMap<String, Integer> exp = IMap.<String, Integer>builder()
+                .put("a", 1).put("b", 12).put("c", 20).put("d", 30)
+                .build();
+        assertEquals(exp, m1.merge(m2, Integer::sum));
+        assertEquals(exp, m2.merge(m1, Integer::sum));
+        assertEquals(Optional.of(-8), m1.merge(m2, (l, r) -> l - r).get("b"));
+        assertEquals(Optional.of(10), m1.putAll(m2).get("b"));
+        assertEquals(Optional.of(5), m1.merge("a", 4, Integer::sum).get("a"));
+    }
+
+    @Test
+    public void testMapValuesAndFolds() {
+        final IMap<Integer, Integer> m = IMap.ofMap(
+                java.util.stream.IntStream.range(0, 1000).boxed().collect(Collectors.toMap(i -> i, i -> i)));
+        final IMap<Integer, String> ms = m.mapValues(i -> "v" + i);
+        assertEquals(1000, ms.size());
+        assertEquals(Optional.of("v42"), ms.get(42));
+        assertEquals(499500, m.foldLeft((acc, k, v) -> acc + v, 0).intValue());
+        assertEquals(499500, Folds.foldLeft((acc, e) -> acc + e._2, 0, m).intValue());
+    }
+
+    @Test
+    public void testStreams() {
+        final IMap<Integer, Integer> m = IMap.ofIterable(
+                IList.ofIterable(() -> java.util.stream.IntStream.range(0, 50000).mapToObj(i -> Tuple2.of(i, i)).iterator()));
+        assertEquals(50000, m.size());
+        assertEquals((long)50000 * 49999 / 2, m.parallelStream().mapToLong(e -> e._2).sum());
+        assertEquals(m, m.parallelStream().collect(IMap.collector(e -> e._1, e -> e._2, (l, r) -> r)));
+
+        final Spliterator<Tuple2<Integer, Integer>> s1 = m.spliterator();
+        final Spliterator<Tuple2<Integer, Integer>> s0 = s1.trySplit();
+        assertNotNull(s0);
+        final long[] counts = new long[2];
+        s0.forEachRemaining(e -> ++counts[0]);
+        s1.forEachRemaining(e -> ++counts[1]);
+        assertEquals(50000, counts[0] + counts[1]);
+        assertTrue(counts[0] > 0 && counts[1] > 0);
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("{}", IMap.empty().toString());
+        assertEquals("{a=1}", IMap.of("a", 1).toString());
+    }
+}
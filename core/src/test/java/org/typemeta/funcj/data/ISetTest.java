@@ -0,0 +1,65 @@
+package org.typemeta.funcj.data;
+
+import org.junit.Test;
+import org.typemeta.funcj.util.Folds;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.Assert.*;
+
+public class ISetTest {
+
+    private static ISet<Integer> range(int from, int to) {
+        return IntStream.range(from, to).boxed().collect(ISet.collector());
+    }
+
+    private static Set<Integer> hashSet(int from, int to) {
+        return IntStream.range(from, to).boxed().collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testAddRemoveContains() {
+        final ISet<String> s1 = ISet.of("a", "b");
+        final ISet<String> s2 = s1.add("c").remove("a");
+        assertTrue(s1.contains("a"));
+        assertFalse(s1.contains("c"));
+        assertFalse(s2.contains("a"));
+        assertTrue(s2.contains("c"));
+        assertEquals(2, s2.size());
+        assertTrue(s1 == s1.add("a"));
+        assertTrue(s1 == s1.remove("z"));
+    }
+
+    @Test
+    public void testSetOperations() {
+        final ISet<Integer> a = range(0, 1000);
+        final ISet<Integer> b = range(500, 3000);
+        assertEquals(range(0, 3000), a.union(b));
+        assertEquals(range(0, 3000), b.union(a));
+        assertEquals(range(500, 1000), a.intersection(b));
+        assertEquals(range(500, 1000), b.intersection(a));
+        assertEquals(range(0, 500), a.difference(b));
+        assertEquals(range(1000, 3000), b.difference(a));
+        assertEquals(ISet.empty(), a.difference(a));
+    }
+
+    @Test
+    public void testViewsAndFolds() {
+        final ISet<Integer> s = range(0, 10000);
+        assertEquals(hashSet(0, 10000), s.asSet());
+        assertEquals(hashSet(0, 10000).hashCode(), s.hashCode());
+        assertEquals(49995000, s.foldLeft((acc, i) -> acc + i, 0).intValue());
+        assertEquals(49995000, Folds.foldLeft((acc, i) -> acc + i, 0, s).intValue());
+        assertEquals(49995000L, s.parallelStream().mapToLong(i -> i).sum());
+        assertEquals(range(0, 5000), s.filter(i -> i < 5000));
+        assertEquals(range(0, 10), s.map(i -> i % 10));
+    }
+
+    @Test
+    public void testKeySet() {
+        final IMap<String, Integer> m = IMap.of("a", 1).put("b", 2);
+        assertEquals(ISet.of("a", "b"), m.keySet());
+        assertEquals(ISet.of("a", "b", "c"), m.keySet().add("c"));
+    }
+}
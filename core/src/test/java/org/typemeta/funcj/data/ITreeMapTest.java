@@ -0,0 +1,175 @@
+package org.typemeta.funcj.data;
+
+import org.junit.Test;
+import org.typemeta.funcj.tuples.Tuple2;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.Assert.*;
+
+public class ITreeMapTest {
+
+    private static <K, V> void assertMatches(TreeMap<K, V> exp, ITreeMap<K, V> act) {
+        act.checkInvariants();
+        assertEquals(exp.size(), act.size());
+        final List<Tuple2<K, V>> expEntries = exp.entrySet().stream()
+                .map(e -> Tuple2.of(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+        assertEquals(expEntries, act.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testRandomPutsAndRemovesMatchTreeMap() {
+        final Random rnd = new Random(1234);
+        final TreeMap<Integer, Integer> exp = new TreeMap<>();
+        ITreeMap<Integer, Integer> act = ITreeMap.empty();
+        for (int i = 0; i < 20000; ++i) {
+            final int k = rnd.nextInt(2000);
+            if (rnd.nextInt(3) == 0) {
+                exp.remove(k);
+                act = act.remove(k);
+            } else {
+                exp.put(k, i);
+                act = act.put(k, i);
+            }
+            if (i % 500 == 0) {
+                assertMatches(exp, act);
+            }
+        }
+        assertMatches(exp, act);
+        for (int k = 0; k < 2000; ++k) {
+            assertEquals(Optional.ofNullable(exp.get(k)), act.get(k));
+        }
+        while (!exp.isEmpty()) {
+            assertEquals(exp.firstKey(), act.min().get()._1);
+            assertEquals(exp.lastKey(), act.max().get()._1);
+            exp.pollFirstEntry();
+            act = act.removeMin();
+            act.checkInvariants();
+        }
+        assertTrue(act.isEmpty());
+    }
+
+    @Test
+    public void testPersistence() {
+        final ITreeMap<String, Integer> m0 = ITreeMap.of("b", 2);
+        final ITreeMap<String, Integer> m1 = m0.put("a", 1);
+        final ITreeMap<String, Integer> m2 = m1.remove("b");
+        assertEquals("{b=2}", m0.toString());
+        assertEquals("{a=1,b=2}", m1.toString());
+        assertEquals("{a=1}", m2.toString());
+        assertSame(m1, m1.put("a", m1.getOrElse("a", 0)));
+        assertSame(m1, m1.remove("z"));
+    }
+
+    @Test
+    public void testOfSorted() {
+        for (int n = 0; n < 300; ++n) {
+            final List<Tuple2<Integer, String>> entries = new ArrayList<>();
+            for (int i = 0; i < n; ++i) {
+                entries.add(Tuple2.of(i * 2, "v" + i));
+            }
+            final ITreeMap<Integer, String> m = ITreeMap.ofSorted(entries);
+            m.checkInvariants();
+            assertEquals(entries, m.stream().collect(Collectors.toList()));
+            assertEquals(ITreeMap.ofIterable(entries), m);
+            assertEquals(ITreeMap.ofIterable(entries).hashCode(), m.hashCode());
+            m.put(-1, "x").remove(0).checkInvariants();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOfSortedRejectsUnsortedInput() {
+        ITreeMap.ofSorted(Arrays.asList(Tuple2.of(1, "a"), Tuple2.of(1, "b")));
+    }
+
+    @Test
+    public void testComparator() {
+        final ITreeMap<String, Integer> m =
+                ITreeMap.<String, Integer>empty(Comparator.reverseOrder())
+                        .put("a", 1)
+                        .put("c", 3)
+                        .put("b", 2);
+        assertEquals("{c=3,b=2,a=1}", m.toString());
+        assertEquals(Optional.of(Tuple2.of("c", 3)), m.min());
+        assertEquals("{b=2,a=1}", m.removeMin().toString());
+    }
+
+    @Test
+    public void testOrderedQueries() {
+        ITreeMap<Integer, Integer> m = ITreeMap.empty();
+        for (int i = 0; i < 100; i += 10) {
+            m = m.put(i, i);
+        }
+        assertEquals(Optional.of(Tuple2.of(20, 20)), m.floor(25));
+        assertEquals(Optional.of(Tuple2.of(30, 30)), m.ceiling(25));
+        assertEquals(Optional.of(Tuple2.of(30, 30)), m.floor(30));
+        assertEquals(Optional.empty(), m.floor(-1));
+        assertEquals(Optional.empty(), m.ceiling(91));
+        assertEquals(3, m.rank(25));
+        assertEquals(3, m.rank(30));
+        assertEquals(0, m.rank(-5));
+        assertEquals(10, m.rank(1000));
+
+        final ITreeMap<Integer, Integer> r = m.range(25, 70);
+        r.checkInvariants();
+        assertEquals("{30=30,40=40,50=50,60=60}", r.toString());
+        assertTrue(m.range(70, 25).isEmpty());
+        assertSame(m, m.range(-1, 1000));
+    }
+
+    @Test
+    public void testSpliteratorSplitsExactly() {
+        final ITreeMap<Integer, Integer> m =
+                ITreeMap.ofSorted(IntStream.range(0, 10000).mapToObj(i -> Tuple2.of(i, i)).collect(Collectors.toList()));
+        final Spliterator<Tuple2<Integer, Integer>> spl = m.spliterator();
+        assertTrue(spl.hasCharacteristics(Spliterator.SUBSIZED | Spliterator.ORDERED));
+        final Spliterator<Tuple2<Integer, Integer>> prefix = spl.trySplit();
+        assertEquals(5000, prefix.getExactSizeIfKnown());
+        assertEquals(5000, spl.getExactSizeIfKnown());
+        assertTrue(prefix.tryAdvance(e -> assertEquals(0, (int)e._1)));
+        assertTrue(spl.tryAdvance(e -> assertEquals(5000, (int)e._1)));
+
+        assertEquals(
+                IntStream.range(0, 10000).boxed().collect(Collectors.toList()),
+                m.parallelStream().map(e -> e._1).collect(Collectors.toList()));
+        assertEquals(
+                IntStream.range(0, 10000).sum(),
+                (int)m.foldLeft((acc, k, v) -> acc + v, 0));
+    }
+
+    @Test
+    public void testTreeSet() {
+        final Random rnd = new Random(5678);
+        final TreeSet<Integer> exp = new TreeSet<>();
+        ITreeSet<Integer> act = ITreeSet.empty();
+        for (int i = 0; i < 5000; ++i) {
+            final int x = rnd.nextInt(1000);
+            if (rnd.nextBoolean()) {
+                exp.add(x);
+                act = act.add(x);
+            } else {
+                exp.remove(x);
+                act = act.remove(x);
+            }
+        }
+        act.checkInvariants();
+        assertEquals(new ArrayList<>(exp), act.stream().collect(Collectors.toList()));
+        assertEquals(new ArrayList<>(exp), act.parallelStream().sorted().collect(Collectors.toList()));
+        assertEquals(exp.hashCode(), act.hashCode());
+        assertEquals(Optional.of(exp.first()), act.min());
+        assertEquals(Optional.of(exp.last()), act.max());
+        assertEquals(Optional.ofNullable(exp.floor(500)), act.floor(500));
+        assertEquals(Optional.ofNullable(exp.ceiling(500)), act.ceiling(500));
+        assertEquals(new ArrayList<>(exp.subSet(100, 200)), act.range(100, 200).stream().collect(Collectors.toList()));
+        assertEquals(exp.headSet(300).size(), act.rank(300));
+
+        final ITreeSet<Integer> evens = act.filter(x -> x % 2 == 0);
+        evens.checkInvariants();
+        assertEquals(exp.stream().filter(x -> x % 2 == 0).collect(Collectors.toList()), evens.stream().collect(Collectors.toList()));
+        assertEquals(act, evens.union(act.filter(x -> x % 2 != 0)));
+        assertEquals(ITreeSet.of(3, 1, 2), ITreeSet.ofSorted(Arrays.asList(1, 2, 3)));
+        assertEquals("{1,2,3}", ITreeSet.of(3, 1, 2).toString());
+    }
+}
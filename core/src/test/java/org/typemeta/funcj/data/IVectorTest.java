@@ -0,0 +1,129 @@
+package org.typemeta.funcj.data;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.Assert.*;
+
+public class IVectorTest {
+
+    // Large enough to require a trie of depth 3.
+    private static final int N = 40000;
+
+    private static IVector<Integer> range(int n) {
+        IVector<Integer> v = IVector.empty();
+        for (int i = 0; i < n; ++i) {
+            v = v.append(i);
+        }
+        return v;
+    }
+
+    @Test
+    public void testAppendAndGet() {
+        final IVector<Integer> v = range(N);
+        assertEquals(N, v.size());
+        for (int i = 0; i < N; ++i) {
+            assertEquals(i, v.get(i).intValue());
+        }
+        assertEquals(0, v.head().intValue());
+        assertEquals(N - 1, v.last().intValue());
+    }
+
+    @Test
+    public void testBuilderMatchesAppend() {
+        final IVector.Builder<Integer> b = IVector.builder();
+        for (int i = 0; i < N; ++i) {
+            b.add(i);
+        }
+        assertEquals(range(N), b.build());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testBuilderCannotBeReused() {
+        final IVector.Builder<Integer> b = IVector.builder();
+        b.add(1).build();
+        b.add(2);
+    }
+
+    @Test
+    public void testToBuilderDoesNotModifyOriginal() {
+        final IVector<Integer> v = range(1000);
+        final IVector<Integer> v2 = v.toBuilder().add(1000).add(1001).build();
+        assertEquals(range(1000), v);
+        assertEquals(range(1002), v2);
+    }
+
+    @Test
+    public void testSetIsPersistent() {
+        final IVector<Integer> v = range(N);
+        final IVector<Integer> v2 = v.set(5, -5).set(N - 1, -1).set(1500, -1500);
+        assertEquals(5, v.get(5).intValue());
+        assertEquals(-5, v2.get(5).intValue());
+        assertEquals(-1, v2.get(N - 1).intValue());
+        assertEquals(-1500, v2.get(1500).intValue());
+        assertEquals(1501, v2.get(1501).intValue());
+    }
+
+    @Test
+    public void testRemoveLast() {
+        IVector<Integer> v = range(N);
+        for (int n = N; n > 0; --n) {
+            assertEquals(n, v.size());
+            assertEquals(n - 1, v.last().intValue());
+            v = v.removeLast();
+        }
+        assertTrue(v.isEmpty());
+        assertEquals(range(1057), range(1058).removeLast().removeLast().append(1056));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        range(10).get(10);
+    }
+
+    @Test
+    public void testConversions() {
+        final IList<Integer> l = IList.of(1, 2, 3, 4);
+        final IVector<Integer> v = IVector.ofIterable(l);
+        assertEquals(IVector.of(1, 2, 3, 4), v);
+        assertEquals(l, v.toIList());
+        assertEquals(l.hashCode(), v.hashCode());
+        assertEquals(l.toString(), v.toString());
+        assertEquals("[]", IVector.empty().toString());
+        assertEquals(Arrays.asList(1, 2, 3, 4), v.toList());
+    }
+
+    @Test
+    public void testMapFlatMapFolds() {
+        final IVector<Integer> v = IVector.of(1, 2, 3, 4);
+        assertEquals(IVector.of(2, 4, 6, 8), v.map(i -> i * 2));
+        assertEquals(IVector.of(1, 1, 2, 2, 3, 3, 4, 4), v.flatMap(i -> IVector.of(i, i)));
+        assertEquals("X1234", v.foldLeft((acc, i) -> acc + i, "X"));
+        assertEquals("1234X", v.foldRight((i, acc) -> i + acc, "X"));
+        assertEquals(IVector.of(4, 3, 2, 1), v.reverse());
+        assertEquals(range(N).reverse().toIList(), range(N).toIList().reverse());
+    }
+
+    @Test
+    public void testParallelStream() {
+        final IVector<Integer> v = range(N);
+        final long expected = (long)N * (N - 1) / 2;
+        assertEquals(expected, v.parallelStream().mapToLong(i -> i).sum());
+        assertEquals(v, v.parallelStream().collect(IVector.collector()));
+        assertEquals(
+                IntStream.range(0, N).boxed().collect(Collectors.toList()),
+                v.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testSpliteratorSplitsEvenly() {
+        final Spliterator<Integer> s1 = range(N).spliterator();
+        final Spliterator<Integer> s0 = s1.trySplit();
+        assertNotNull(s0);
+        assertEquals(N, s0.estimateSize() + s1.estimateSize());
+        assertTrue(Math.abs(s0.estimateSize() - s1.estimateSize()) <= 32);
+        assertTrue(s1.hasCharacteristics(Spliterator.SUBSIZED));
+    }
+}
@@ -0,0 +1,78 @@
+package org.typemeta.funcj.data;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Measures construction, {@code map}, the folds, {@code reverse} and {@code appendAll} for {@link IList}.
+ */
+@State(Scope.Benchmark)
+public class JmhIListTest {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private Integer[] array;
+    private IList<Integer> list;
+
+    @Setup
+    public void setup() {
+        array = new Integer[size];
+        for (int i = 0; i < size; ++i) {
+            array[i] = i;
+        }
+        list = IList.ofArray(array);
+    }
+
+    @Benchmark
+    public IList<Integer> add() {
+        IList<Integer> l = IList.empty();
+        for (Integer x : array) {
+            l = l.add(x);
+        }
+        return l;
+    }
+
+    @Benchmark
+    public IList<Integer> ofArray() {
+        return IList.ofArray(array);
+    }
+
+    @Benchmark
+    public IList<Integer> map() {
+        return list.map(x -> x + 1);
+    }
+
+    @Benchmark
+    public Integer foldLeft() {
+        return list.foldLeft((acc, x) -> acc + x, 0);
+    }
+
+    @Benchmark
+    public Integer foldRight() {
+        return list.foldRight((x, acc) -> acc + x, 0);
+    }
+
+    @Benchmark
+    public IList<Integer> reverse() {
+        return list.reverse();
+    }
+
+    @Benchmark
+    public IList<Integer> appendAll() {
+        return list.appendAll(list);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        final Options opt = new OptionsBuilder()
+                .include(JmhIListTest.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,109 @@
+package org.typemeta.funcj.data;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Compares 3, 4 and 5 stage pipelines run eagerly, as chained {@link IList} operations,
+ * against the same pipelines run as a single fused pass through an {@link IListView}.
+ */
+@State(Scope.Benchmark)
+public class JmhIListViewTest {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private IList<Integer> list;
+
+    @Setup
+    public void setup() {
+        final Integer[] array = new Integer[size];
+        for (int i = 0; i < size; ++i) {
+            array[i] = i;
+        }
+        list = IList.ofArray(array);
+    }
+
+    @Benchmark
+    public IList<Integer> mapFilterMap_eager() {
+        return list.map(x -> x * 3)
+                .flatMap(x -> x % 2 == 0 ? IList.of(x) : IList.<Integer>empty())
+                .map(x -> x + 1);
+    }
+
+    @Benchmark
+    public IList<Integer> mapFilterMap_view() {
+        return list.view()
+                .map(x -> x * 3)
+                .filter(x -> x % 2 == 0)
+                .map(x -> x + 1)
+                .toIList();
+    }
+
+    @Benchmark
+    public Integer mapFlatMapMapFold_eager() {
+        return list.map(x -> x * 3)
+                .flatMap(x -> IList.of(x, -x))
+                .map(x -> x + 1)
+                .foldLeft((acc, x) -> acc + x, 0);
+    }
+
+    @Benchmark
+    public Integer mapFlatMapMapFold_view() {
+        return list.view()
+                .map(x -> x * 3)
+                .flatMap(x -> IList.of(x, -x))
+                .map(x -> x + 1)
+                .foldLeft((acc, x) -> acc + x, 0);
+    }
+
+    @Benchmark
+    public Integer mapFilterMapFilterTake_eager() {
+        final IList<Integer> l = list.map(x -> x * 3)
+                .flatMap(x -> x % 2 == 0 ? IList.of(x) : IList.<Integer>empty())
+                .map(x -> x + 1)
+                .flatMap(x -> x % 5 != 0 ? IList.of(x) : IList.<Integer>empty());
+        int n = 0;
+        int sum = 0;
+        for (Integer x : l) {
+            if (n++ == 10) {
+                break;
+            }
+            sum += x;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Integer mapFilterMapFilterTake_view() {
+        return list.view()
+                .map(x -> x * 3)
+                .filter(x -> x % 2 == 0)
+                .map(x -> x + 1)
+                .filter(x -> x % 5 != 0)
+                .take(10)
+                .foldLeft((acc, x) -> acc + x, 0);
+    }
+
+    @Benchmark
+    public IList<Integer> mapFilterMap_parView() {
+        return list.view()
+                .map(x -> x * 3)
+                .filter(x -> x % 2 == 0)
+                .map(x -> x + 1)
+                .parToIList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        final Options opt = new OptionsBuilder()
+                .include(JmhIListViewTest.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
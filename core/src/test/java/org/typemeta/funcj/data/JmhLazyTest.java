@@ -0,0 +1,81 @@
+package org.typemeta.funcj.data;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+import org.typemeta.funcj.functions.Functions;
+
+/**
+ * Measures concurrent reads of an evaluated {@link Lazy} value,
+ * against a lazy value which synchronizes on every read.
+ */
+@State(Scope.Benchmark)
+public class JmhLazyTest {
+
+    /**
+     * A lazy value which synchronizes on every read.
+     */
+    static final class SynchronizedLazy<T> implements Lazy<T> {
+        private Functions.F0<T> source;
+        private T value;
+
+        SynchronizedLazy(Functions.F0<T> source) {
+            this.source = source;
+        }
+
+        @Override
+        public synchronized T apply() {
+            if (source != null) {
+                value = source.apply();
+                source = null;
+            }
+            return value;
+        }
+    }
+
+    private final Lazy<String> threadSafe = Lazy.ofTS(() -> "value");
+    private final Lazy<String> notThreadSafe = Lazy.of(() -> "value");
+    private final Lazy<String> synchronizedLazy = new SynchronizedLazy<>(() -> "value");
+    private final Lazy<Integer> mapped = Lazy.ofTS(() -> 1).map(i -> i + 1).map(i -> i * 2);
+
+    @Benchmark
+    @Threads(4)
+    public String threadSafe() {
+        return threadSafe.apply();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String notThreadSafe() {
+        return notThreadSafe.apply();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String synchronizedLazy() {
+        return synchronizedLazy.apply();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer mapped() {
+        return mapped.apply();
+    }
+
+    @Benchmark
+    public Integer createAndEvaluateMapChain() {
+        return Lazy.ofTS(() -> 1).map(i -> i + 1).flatMap(i -> Lazy.of(() -> i * 2)).apply();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        final Options opt = new OptionsBuilder()
+                .include(JmhLazyTest.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
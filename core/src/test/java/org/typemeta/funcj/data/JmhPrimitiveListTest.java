@@ -0,0 +1,97 @@
+package org.typemeta.funcj.data;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+import org.typemeta.funcj.control.Option;
+import org.typemeta.funcj.control.OptionInt;
+
+/**
+ * Compares {@link IntList} and {@link OptionInt} against {@link IList} and {@link Option} of boxed values.
+ * Run with the GC profiler, so that the allocation rate ({@code gc.alloc.rate.norm}) of each benchmark is reported.
+ */
+@State(Scope.Benchmark)
+public class JmhPrimitiveListTest {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private IList<Integer> list;
+    private IntList intList;
+
+    @Setup
+    public void setup() {
+        list = IList.empty();
+        intList = IntList.empty();
+        for (int i = size - 1; i >= 0; --i) {
+            list = list.add(i + 1000);
+            intList = intList.add(i + 1000);
+        }
+    }
+
+    @Benchmark
+    public IList<Integer> listBuild() {
+        IList<Integer> l = IList.empty();
+        for (int i = 0; i < size; ++i) {
+            l = l.add(i + 1000);
+        }
+        return l;
+    }
+
+    @Benchmark
+    public IntList intListBuild() {
+        IntList l = IntList.empty();
+        for (int i = 0; i < size; ++i) {
+            l = l.add(i + 1000);
+        }
+        return l;
+    }
+
+    @Benchmark
+    public int listMapFold() {
+        return list.map(x -> x * 3).foldLeft((acc, x) -> acc + x, 0);
+    }
+
+    @Benchmark
+    public int intListMapFold() {
+        return intList.map(x -> x * 3).foldLeft((acc, x) -> acc + x, 0);
+    }
+
+    @Benchmark
+    public int optionChain() {
+        int sum = 0;
+        for (int i = 0; i < size; ++i) {
+            sum += Option.some(i + 1000)
+                    .map(x -> x * 3)
+                    .flatMap(x -> x % 2 == 0 ? Option.some(x / 2) : Option.none())
+                    .orElse(0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int optionIntChain() {
+        int sum = 0;
+        for (int i = 0; i < size; ++i) {
+            sum += OptionInt.some(i + 1000)
+                    .map(x -> x * 3)
+                    .flatMap(x -> x % 2 == 0 ? OptionInt.some(x / 2) : OptionInt.none())
+                    .orElse(0);
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        final Options opt = new OptionsBuilder()
+                .include(JmhPrimitiveListTest.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
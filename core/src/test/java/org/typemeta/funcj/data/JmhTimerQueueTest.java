@@ -0,0 +1,115 @@
+package org.typemeta.funcj.data;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+import org.typemeta.funcj.tuples.Tuple2;
+
+import java.util.*;
+
+/**
+ * Measures a timer-queue workload - repeatedly removing the earliest deadline and rescheduling it -
+ * against a queue of {@code size} pending deadlines,
+ * held as a sorted {@link IList}, an {@link IHeap} and an {@link ITreeMap}.
+ */
+@State(Scope.Benchmark)
+public class JmhTimerQueueTest {
+
+    private static final int OPS = 1000;
+
+    @Param({"1000", "50000"})
+    public int size;
+
+    private long[] deadlines;
+    private IList<Long> sortedList;
+    private IHeap<Long> heap;
+    private ITreeMap<Long, Integer> treeMap;
+    private List<Tuple2<Long, Integer>> sortedEntries;
+
+    @Setup
+    public void setup() {
+        final Random rnd = new Random(1234);
+        deadlines = new long[size + OPS];
+        for (int i = 0; i < deadlines.length; ++i) {
+            deadlines[i] = i * 16L + rnd.nextInt(16);
+        }
+        final List<Long> initial = new ArrayList<>();
+        final List<Tuple2<Long, Integer>> entries = new ArrayList<>();
+        for (int i = 0; i < size; ++i) {
+            initial.add(deadlines[i]);
+            entries.add(Tuple2.of(deadlines[i], i));
+        }
+        Collections.sort(initial);
+        sortedList = IList.ofIterable(initial);
+        heap = IHeap.ofIterable(initial);
+        entries.sort(Comparator.comparing(e -> e._1));
+        sortedEntries = entries;
+        treeMap = ITreeMap.ofSorted(entries);
+    }
+
+    /**
+     * Insert into a sorted list by scanning for the insertion point.
+     */
+    private static IList<Long> insertSorted(IList<Long> l, Long x) {
+        final List<Long> prefix = new ArrayList<>();
+        IList<Long> n = l;
+        while (!n.isEmpty() && n.head() < x) {
+            prefix.add(n.head());
+            n = n.tail();
+        }
+        IList<Long> r = n.add(x);
+        for (int i = prefix.size() - 1; i >= 0; --i) {
+            r = r.add(prefix.get(i));
+        }
+        return r;
+    }
+
+    @Benchmark
+    public IList<Long> sortedIList() {
+        IList<Long> q = sortedList;
+        for (int i = 0; i < OPS; ++i) {
+            q = insertSorted(q.tail(), deadlines[size + i]);
+        }
+        return q;
+    }
+
+    @Benchmark
+    public IHeap<Long> heap() {
+        IHeap<Long> q = heap;
+        for (int i = 0; i < OPS; ++i) {
+            q = q.deleteMin().insert(deadlines[size + i]);
+        }
+        return q;
+    }
+
+    @Benchmark
+    public ITreeMap<Long, Integer> treeMap() {
+        ITreeMap<Long, Integer> q = treeMap;
+        for (int i = 0; i < OPS; ++i) {
+            q = q.removeMin().put(deadlines[size + i], i);
+        }
+        return q;
+    }
+
+    @Benchmark
+    public IHeap<Long> heapOfIterable() {
+        return IHeap.ofIterable(sortedList);
+    }
+
+    @Benchmark
+    public ITreeMap<Long, Integer> treeMapOfSorted() {
+        return ITreeMap.ofSorted(sortedEntries);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        final Options opt = new OptionsBuilder()
+                .include(JmhTimerQueueTest.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
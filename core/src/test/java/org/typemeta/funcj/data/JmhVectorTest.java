@@ -0,0 +1,162 @@
+package org.typemeta.funcj.data;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+import java.util.*;
+
+/**
+ * Compares {@link IVector} against {@link IList} and {@link ArrayList}.
+ */
+@State(Scope.Benchmark)
+public class JmhVectorTest {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private IVector<Integer> vector;
+    private IList<Integer> list;
+    private ArrayList<Integer> arrayList;
+    private int[] indices;
+
+    @Setup
+    public void setup() {
+        vector = IVector.empty();
+        list = IList.empty();
+        arrayList = new ArrayList<>();
+        for (int i = 0; i < size; ++i) {
+            vector = vector.append(i);
+            list = list.add(i);
+            arrayList.add(i);
+        }
+
+        final Random rnd = new Random(1234);
+        indices = new int[256];
+        for (int i = 0; i < indices.length; ++i) {
+            indices[i] = rnd.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public IVector<Integer> vectorAppend() {
+        IVector<Integer> v = IVector.empty();
+        for (int i = 0; i < size; ++i) {
+            v = v.append(i);
+        }
+        return v;
+    }
+
+    @Benchmark
+    public IVector<Integer> vectorBuild() {
+        final IVector.Builder<Integer> b = IVector.builder();
+        for (int i = 0; i < size; ++i) {
+            b.add(i);
+        }
+        return b.build();
+    }
+
+    @Benchmark
+    public IList<Integer> listAppend() {
+        IList<Integer> l = IList.empty();
+        for (int i = 0; i < size; ++i) {
+            l = l.add(i);
+        }
+        return l.reverse();
+    }
+
+    @Benchmark
+    public ArrayList<Integer> arrayListAppend() {
+        final ArrayList<Integer> l = new ArrayList<>();
+        for (int i = 0; i < size; ++i) {
+            l.add(i);
+        }
+        return l;
+    }
+
+    @Benchmark
+    public long vectorGet() {
+        long sum = 0;
+        for (int i : indices) {
+            sum += vector.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long listGet() {
+        long sum = 0;
+        for (int i : indices) {
+            sum += list.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long arrayListGet() {
+        long sum = 0;
+        for (int i : indices) {
+            sum += arrayList.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long vectorIterate() {
+        long sum = 0;
+        for (int i : vector) {
+            sum += i;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long listIterate() {
+        long sum = 0;
+        for (int i : list) {
+            sum += i;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long arrayListIterate() {
+        long sum = 0;
+        for (int i : arrayList) {
+            sum += i;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public IVector<Integer> vectorMap() {
+        return vector.map(i -> i + 1);
+    }
+
+    @Benchmark
+    public IList<Integer> listMap() {
+        return list.map(i -> i + 1);
+    }
+
+    @Benchmark
+    public long vectorParallelSum() {
+        return vector.parallelStream().mapToLong(i -> i).sum();
+    }
+
+    @Benchmark
+    public long listParallelSum() {
+        return list.parallelStream().mapToLong(i -> i).sum();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        final Options opt = new OptionsBuilder()
+                .include(JmhVectorTest.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
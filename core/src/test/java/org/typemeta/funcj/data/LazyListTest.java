@@ -0,0 +1,177 @@
+package org.typemeta.funcj.data;
+
+import org.junit.Test;
+import org.typemeta.funcj.control.Option;
+import org.typemeta.funcj.tuples.Tuple2;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.*;
+
+import static org.junit.Assert.*;
+
+public class LazyListTest {
+
+    private static final int N = 1000000;
+
+    private static LazyList<Integer> nats() {
+        return LazyList.iterate(0, i -> i + 1);
+    }
+
+    private static IList<Integer> range(int from, int to) {
+        return IList.ofIterable(IntStream.range(from, to).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testEmpty() {
+        final LazyList<Integer> el = LazyList.empty();
+        assertTrue(el.isEmpty());
+        assertEquals(IList.empty(), el.toIList());
+        assertEquals("[]", el.toString());
+        assertFalse(el.iterator().hasNext());
+        assertTrue(el.map(i -> i + 1).filter(i -> true).take(5).isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testHeadOfEmpty() {
+        LazyList.empty().head();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullElementsAreRejected() {
+        LazyList.of(1, 2, null);
+    }
+
+    @Test
+    public void testInfiniteListsAreEvaluatedOnDemand() {
+        assertEquals(range(0, 10), nats().take(10).toIList());
+        assertEquals(range(100, 105), nats().drop(100).take(5).toIList());
+        assertEquals(range(0, 50), nats().takeWhile(i -> i < 50).toIList());
+        assertEquals(Integer.valueOf(3), nats().tail().tail().tail().head());
+        assertEquals(
+                IList.of(1, 2, 4, 8, 16),
+                LazyList.iterate(1, i -> i * 2, 1).take(5).toIList());
+    }
+
+    @Test
+    public void testElementsAreComputedOnceAndOnlyAsFarAsConsumed() {
+        final AtomicInteger calls = new AtomicInteger();
+        final LazyList<Integer> l = LazyList.iterate(0, i -> {
+            calls.incrementAndGet();
+            return i + 1;
+        }, 4);
+        assertEquals("[0,...]", l.toString());
+        assertEquals(0, calls.get());
+
+        assertEquals(IList.of(0, 1, 2), l.take(3).toIList());
+        assertEquals(4, calls.get());
+        assertEquals("[0,1,2,3,4,...]", l.toString());
+
+        assertEquals(IList.of(0, 1, 2), l.take(3).toIList());
+        assertEquals(range(0, 10), l.take(10).toIList());
+        assertEquals(12, calls.get());
+    }
+
+    @Test
+    public void testMapFilterFlatMapMatchIList() {
+        final IList<Integer> src = range(0, 1000);
+        final LazyList<Integer> l = LazyList.ofIList(src);
+        assertEquals(src.map(i -> i * 2), l.map(i -> i * 2).toIList());
+        assertEquals(
+                src.flatMap(i -> i % 3 == 0 ? IList.of(i) : IList.<Integer>empty()),
+                l.filter(i -> i % 3 == 0).toIList());
+        assertEquals(
+                src.flatMap(i -> IList.of(i, -i)),
+                l.flatMap(i -> LazyList.of(i, -i)).toIList());
+        assertEquals(
+                src.flatMap(i -> i % 7 == 0 ? IList.of(i, i) : IList.<Integer>empty()),
+                l.flatMap(i -> i % 7 == 0 ? LazyList.of(i, i) : LazyList.<Integer>empty()).toIList());
+        assertEquals(
+                src.foldLeft((acc, i) -> acc + i, 0),
+                l.foldLeft((acc, i) -> acc + i, 0));
+        assertEquals(
+                range(500, 1000),
+                l.dropWhile(i -> i < 500).toIList());
+    }
+
+    @Test
+    public void testStackSafety() {
+        assertEquals(Integer.valueOf(N), nats().filter(i -> i >= N).head());
+        assertEquals(Integer.valueOf(N), nats().dropWhile(i -> i < N).head());
+        assertEquals(Integer.valueOf(N), nats().flatMap(i -> i < N ? LazyList.<Integer>empty() : LazyList.of(i)).head());
+        assertEquals(Integer.valueOf(N), nats().drop(N).head());
+        assertEquals(N, nats().take(N).map(i -> i + 1).foldLeft((acc, i) -> acc + 1, 0).intValue());
+
+        LazyList<Integer> l = nats();
+        for (int i = 0; i < N; ++i) {
+            l = l.tail();
+        }
+        assertEquals(Integer.valueOf(N), l.head());
+    }
+
+    @Test
+    public void testZipAcrossChunkBoundaries() {
+        final LazyList<Integer> a = LazyList.iterate(0, i -> i + 1, 3);
+        final LazyList<Integer> b = LazyList.iterate(0, i -> i + 1, 7).map(i -> -i);
+        final List<Tuple2<Integer, Integer>> expected = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            expected.add(Tuple2.of(i, -i));
+        }
+        assertEquals(expected, a.zip(b).take(100).stream().collect(Collectors.toList()));
+        assertEquals(IList.of(0, 2, 4), nats().zip(nats(), Integer::sum).take(3).toIList());
+        assertEquals(IList.of(Tuple2.of(0, "a"), Tuple2.of(1, "b")), nats().zip(LazyList.of("a", "b")).toIList());
+    }
+
+    @Test
+    public void testUnfold() {
+        final LazyList<Integer> l = LazyList.unfold(1, i -> i > 1000 ? Option.none() : Option.some(Tuple2.of(i, i * 2)));
+        assertEquals(IList.of(1, 2, 4, 8, 16, 32, 64, 128, 256, 512), l.toIList());
+        assertEquals(IList.of(1, 2), LazyList.unfold(1, i -> i > 2 ? Option.none() : Option.some(Tuple2.of(i, i + 1)), 1).toIList());
+        assertTrue(LazyList.unfold(0, i -> Option.<Tuple2<Integer, Integer>>none()).isEmpty());
+    }
+
+    @Test
+    public void testOfStreamCanBeRetraversed() {
+        final AtomicInteger reads = new AtomicInteger();
+        final LazyList<Integer> l = LazyList.ofStream(IntStream.range(0, 100).boxed().peek(i -> reads.incrementAndGet()));
+        assertEquals(range(0, 100), l.toIList());
+        assertEquals(range(0, 100), l.toIList());
+        assertEquals(range(0, 100).toList(), l.stream().collect(Collectors.toList()));
+        assertEquals(100, reads.get());
+    }
+
+    @Test
+    public void testAppendAndAdd() {
+        assertEquals(IList.of(0, 1, 2, 3), LazyList.of(1).appendAll(LazyList.of(2, 3)).add(0).toIList());
+        assertEquals(IList.of(0, 1, 2), nats().take(1).appendAll(nats().drop(1)).take(3).toIList());
+    }
+
+    @Test
+    public void testStreams() {
+        assertEquals(
+                IntStream.range(0, 10000).boxed().collect(Collectors.toList()),
+                nats().parallelStream().limit(10000).collect(Collectors.toList()));
+        assertEquals(
+                IntStream.range(0, 10000).sum(),
+                nats().take(10000).parallelStream().mapToInt(i -> i).sum());
+    }
+
+    @Test
+    public void testConcurrentTraversalsSeeTheSameElements() throws Exception {
+        final LazyList<Integer> l = nats().map(i -> i * 3).filter(i -> i % 2 == 0);
+        final ExecutorService exec = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<IList<Integer>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; ++i) {
+                results.add(exec.submit(() -> l.take(10000).toIList()));
+            }
+            final IList<Integer> expected = range(0, 20000).flatMap(i -> i % 2 == 0 ? IList.of(i * 3) : IList.<Integer>empty());
+            for (Future<IList<Integer>> f : results) {
+                assertEquals(expected, f.get());
+            }
+        } finally {
+            exec.shutdown();
+        }
+    }
+}
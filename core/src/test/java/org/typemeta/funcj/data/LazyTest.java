@@ -8,11 +8,12 @@
 
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.toList;
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 import static org.typemeta.funcj.util.Exceptions.wrap;
 
 @RunWith(JUnitQuickcheck.class)
@@ -92,6 +93,109 @@ public void testTSIsThreadSafe() throws InterruptedException {
                 .forEach(flzi -> wrap(() -> flzi.get()));
     }
 
+    @Test
+    public void testTSStress() throws InterruptedException {
+        final int N_LAZIES = 1000;
+        final int N_THREADS = 8;
+        final AtomicInteger calls = new AtomicInteger();
+        final List<Lazy<Integer>> lazies =
+                IntStream.range(0, N_LAZIES)
+                        .mapToObj(i -> Lazy.ofTS(() -> {
+                            calls.incrementAndGet();
+                            return i;
+                        }))
+                        .collect(toList());
+        final List<Lazy<Integer>> mapped =
+                lazies.stream()
+                        .map(lz -> lz.map(i -> {
+                            calls.incrementAndGet();
+                            return i * 2;
+                        }))
+                        .collect(toList());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(N_THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Callable<Boolean>> tasks =
+                IntStream.range(0, N_THREADS)
+                        .mapToObj(t -> callable(() -> {
+                            wrap(() -> start.await());
+                            for (int i = 0; i < N_LAZIES; ++i) {
+                                // Each thread visits the lazies in a different order.
+                                final int j = (i * (t + 1) * 7919) % N_LAZIES;
+                                if (mapped.get(j).apply() != j * 2 || lazies.get(j).apply() != j) {
+                                    return false;
+                                }
+                            }
+                            return true;
+                        }))
+                        .collect(toList());
+
+        final List<Future<Boolean>> results = tasks.stream().map(executor::submit).collect(toList());
+        start.countDown();
+        for (Future<Boolean> r : results) {
+            assertTrue(wrap(() -> r.get()));
+        }
+        executor.shutdown();
+
+        assertEquals("each supplier and function is invoked once", 2 * N_LAZIES, calls.get());
+    }
+
+    @Test
+    public void testLockFreeStress() throws InterruptedException {
+        final int N_LAZIES = 1000;
+        final int N_THREADS = 8;
+        final List<Lazy<Object>> lazies =
+                IntStream.range(0, N_LAZIES)
+                        .mapToObj(i -> Lazy.ofLockFree(Object::new))
+                        .collect(toList());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(N_THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Callable<List<Object>>> tasks =
+                IntStream.range(0, N_THREADS)
+                        .mapToObj(t -> callable(() -> {
+                            wrap(() -> start.await());
+                            return lazies.stream().map(Lazy::apply).collect(toList());
+                        }))
+                        .collect(toList());
+
+        final List<Future<List<Object>>> results = tasks.stream().map(executor::submit).collect(toList());
+        start.countDown();
+        final List<Object> first = wrap(() -> results.get(0).get());
+        for (Future<List<Object>> r : results) {
+            final List<Object> values = wrap(() -> r.get());
+            for (int i = 0; i < N_LAZIES; ++i) {
+                assertSame("every thread observes the same value", first.get(i), values.get(i));
+            }
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void testCombinators() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Lazy<Integer> l = Lazy.of(() -> {
+            calls.incrementAndGet();
+            return 10;
+        });
+        final Lazy<Integer> m = l.map(i -> i + 1);
+        final Lazy<Integer> fm = m.flatMap(i -> Lazy.of(() -> i * 2));
+        final Lazy<String> z = fm.zip(l, (a, b) -> a + ":" + b);
+        assertEquals(0, calls.get());
+        assertEquals("22:10", z.apply());
+        assertEquals(Integer.valueOf(11), m.apply());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testLongMapChainIsStackSafe() {
+        Lazy<Integer> l = Lazy.of(() -> 0);
+        for (int i = 0; i < 1000000; ++i) {
+            l = l.map(x -> x + 1);
+        }
+        assertEquals(Integer.valueOf(1000000), l.apply());
+    }
+
     private static <T> Lazy<Integer> delayedLazy(boolean threadSafe, int i) {
         final Functions.F0<Integer> res = new Delayed(i);
 
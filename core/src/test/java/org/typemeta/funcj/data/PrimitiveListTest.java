@@ -0,0 +1,153 @@
+package org.typemeta.funcj.data;
+
+import org.junit.Test;
+import org.typemeta.funcj.control.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+import static org.junit.Assert.*;
+
+public class PrimitiveListTest {
+
+    private static IntList build(int n) {
+        IntList l = IntList.empty();
+        for (int i = n - 1; i >= 0; --i) {
+            l = l.add(i);
+        }
+        return l;
+    }
+
+    @Test
+    public void testBasics() {
+        assertTrue(IntList.empty().isEmpty());
+        assertEquals(0, IntList.empty().size());
+        assertEquals("[]", IntList.empty().toString());
+
+        final IntList l = IntList.of(1, 2, 3, 4);
+        assertFalse(l.isEmpty());
+        assertEquals(4, l.size());
+        assertEquals(1, l.head());
+        assertEquals(IntList.of(2, 3, 4), l.tail());
+        assertEquals(3, l.get(2));
+        assertEquals("[1,2,3,4]", l.toString());
+        assertEquals(IntList.of(0, 1, 2, 3, 4), l.add(0));
+        assertEquals(IntList.of(1, 2, 3, 4, 5, 6), l.appendAll(IntList.of(5, 6)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testHeadOfEmpty() {
+        IntList.empty().head();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        IntList.of(1, 2).get(2);
+    }
+
+    @Test
+    public void testAddSpansChunks() {
+        for (int n : new int[]{1, 7, 8, 9, 100, 5000}) {
+            final IntList l = build(n);
+            assertEquals(n, l.size());
+            assertArrayEquals(IntStream.range(0, n).toArray(), l.toArray());
+            for (int i = 0; i < n; ++i) {
+                assertEquals(i, l.get(i));
+            }
+            int i = 0;
+            for (IntList t = l; !t.isEmpty(); t = t.tail()) {
+                assertEquals(i++, t.head());
+            }
+            assertEquals(n, i);
+        }
+    }
+
+    @Test
+    public void testSharedTails() {
+        final IntList base = IntList.of(3).add(2);
+        final IntList a = base.add(1);
+        final IntList b = base.add(-1);
+        assertEquals(IntList.of(1, 2, 3), a);
+        assertEquals(IntList.of(-1, 2, 3), b);
+        assertEquals(IntList.of(0, 1, 2, 3), a.add(0));
+        assertEquals(IntList.of(0, -1, 2, 3), b.add(0));
+        assertEquals(IntList.of(2, 3), base);
+    }
+
+    @Test
+    public void testConcurrentAddsToSharedList() throws Exception {
+        final IntList base = build(5);
+        final ExecutorService exec = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<IntList>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; ++t) {
+                final int id = t;
+                futures.add(exec.submit(() -> {
+                    IntList l = base;
+                    for (int i = 0; i < 1000; ++i) {
+                        l = l.add(id);
+                    }
+                    return l;
+                }));
+            }
+            for (int t = 0; t < futures.size(); ++t) {
+                final IntList l = futures.get(t).get();
+                assertEquals(1005, l.size());
+                final int id = t;
+                assertEquals(1000, l.stream().limit(1000).filter(x -> x == id).count());
+                assertArrayEquals(base.toArray(), Arrays.copyOfRange(l.toArray(), 1000, 1005));
+            }
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    public void testBulkOperations() {
+        final IntList l = build(1000);
+        assertEquals(IntList.ofStream(IntStream.range(0, 1000).map(x -> x * 2)), l.map(x -> x * 2));
+        assertEquals(IntList.ofStream(IntStream.range(0, 1000).filter(x -> x % 3 == 0)), l.filter(x -> x % 3 == 0));
+        assertEquals(999 * 1000 / 2, l.sum());
+        assertEquals(l.sum(), l.foldLeft(Integer::sum, 0));
+        assertEquals(-1000, l.foldLeft((acc, x) -> acc - 1, 0));
+        assertEquals(l.foldLeft((acc, x) -> x - acc, 0), l.reverse().foldRight((x, acc) -> x - acc, 0));
+        assertEquals(OptionInt.some(501), l.find(x -> x > 500));
+        assertEquals(OptionInt.none(), l.find(x -> x < 0));
+        assertArrayEquals(IntStream.range(0, 1000).map(x -> 999 - x).toArray(), l.reverse().toArray());
+        assertEquals(l.sum(), l.parallelStream().sum());
+    }
+
+    @Test
+    public void testBoxedConversions() {
+        final IntList l = build(100);
+        final IList<Integer> boxed = l.boxed();
+        assertEquals(IList.ofIterable(IntStream.range(0, 100).boxed().collect(Collectors.toList())), boxed);
+        assertEquals(l, IntList.ofIList(boxed));
+        assertEquals(boxed.hashCode(), l.hashCode());
+        assertEquals(l.mapToObj(Integer::toString), boxed.map(Object::toString));
+
+        final List<Integer> viaIterator = new ArrayList<>();
+        l.forEach(viaIterator::add);
+        assertEquals(boxed.toList(), viaIterator);
+    }
+
+    @Test
+    public void testLongAndDoubleLists() {
+        LongList ll = LongList.empty();
+        DoubleList dl = DoubleList.empty();
+        for (int i = 99; i >= 0; --i) {
+            ll = ll.add(i);
+            dl = dl.add(i / 2.0);
+        }
+        assertArrayEquals(LongStream.range(0, 100).toArray(), ll.toArray());
+        assertEquals(4950L, ll.sum());
+        assertEquals(LongList.ofIList(ll.boxed()), ll);
+        assertEquals(OptionLong.some(11L), ll.map(x -> x + 1).find(x -> x > 10));
+
+        assertEquals(2475.0, dl.sum(), 0.0);
+        assertEquals(DoubleList.ofIList(dl.boxed()), dl);
+        assertEquals(DoubleList.of(0.0, 0.5), dl.filter(x -> x < 1.0));
+        assertEquals(OptionDouble.none(), dl.find(Double::isNaN));
+    }
+}
@@ -0,0 +1,59 @@
+package org.typemeta.funcj.document;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+import org.typemeta.funcj.data.IList;
+
+import java.util.*;
+
+import static org.typemeta.funcj.document.API.*;
+
+/**
+ * Compares {@link DocFormat} against {@link StreamingDocFormat},
+ * for a document which is a list of records, each of which fits on a line.
+ */
+@State(Scope.Benchmark)
+public class JmhDocFormatTest {
+
+    @Param({"100", "1000", "5000"})
+    public int rows;
+
+    @Param({"40", "120"})
+    public int width;
+
+    private Document doc;
+
+    @Setup
+    public void setup() {
+        final List<Document> docs = new ArrayList<>();
+        for (int i = 0; i < rows; ++i) {
+            docs.add(enclose(
+                    text("{"), text(","), text("}"),
+                    IList.of(text("\"id\": " + i), text("\"name\": \"n" + i + "\""), text("\"flag\": true"))));
+        }
+        doc = enclose(text("["), text(","), text("]"), docs);
+    }
+
+    @Benchmark
+    public String docFormat() {
+        return DocFormat.format(width, doc);
+    }
+
+    @Benchmark
+    public String streamingDocFormat() {
+        return StreamingDocFormat.format(width, doc);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        final Options opt = new OptionsBuilder()
+                .include(JmhDocFormatTest.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,110 @@
+package org.typemeta.funcj.document;
+
+import org.junit.Test;
+import org.typemeta.funcj.data.IList;
+
+import java.io.StringWriter;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.typemeta.funcj.document.API.*;
+
+public class StreamingDocFormatTest {
+
+    private static final String[] WORDS = {"", " ", "a", "bb", "ccc ", "dddd", "  eeeee", "ffffffffffff", "\t"};
+
+    private static Document randomDoc(Random rng, int depth) {
+        final int choice = depth == 0 ? rng.nextInt(3) : rng.nextInt(7);
+        switch (choice) {
+            case 0:
+                return text(WORDS[rng.nextInt(WORDS.length)]);
+            case 1:
+                return lbreak;
+            case 2:
+                return rng.nextInt(4) == 0 ? empty : text(WORDS[rng.nextInt(WORDS.length)]);
+            case 3:
+                return group(randomDoc(rng, depth - 1));
+            case 4:
+                return nest(rng.nextInt(3), randomDoc(rng, depth - 1));
+            default: {
+                final List<Document> docs = new ArrayList<>();
+                final int n = rng.nextInt(6);
+                for (int i = 0; i < n; ++i) {
+                    docs.add(randomDoc(rng, depth - 1));
+                }
+                return rng.nextBoolean() ?
+                        concat(docs) :
+                        enclose(text("["), text(","), text("]"), IList.ofIterable(docs));
+            }
+        }
+    }
+
+    private static void check(Document doc, int indent, int width) {
+        assertEquals(
+                "indent=" + indent + ", width=" + width,
+                DocFormat.format(indent, width, doc),
+                StreamingDocFormat.format(indent, width, doc));
+    }
+
+    @Test
+    public void testRandomDocumentsMatchDocFormat() {
+        final Random rng = new Random(1234);
+        for (int i = 0; i < 2000; ++i) {
+            final Document doc = randomDoc(rng, 1 + rng.nextInt(7));
+            for (int width : new int[]{0, 1, 5, 10, 20, 40, 80}) {
+                check(doc, 1 + rng.nextInt(4), width);
+            }
+        }
+    }
+
+    @Test
+    public void testEnclosedLists() {
+        final IList<Document> elems = IList.of(text("1"), text("22"), text("333"), text("4444"));
+        final Document doc = concat(
+                text("x = "),
+                enclose(text("["), text(","), text("]"), elems.add(enclose(text("{"), text(","), text("}"), elems))),
+                text(";"));
+        for (int width = 0; width < 50; ++width) {
+            check(doc, 2, width);
+        }
+        assertEquals("x = [\n  {\n    1,\n    22,\n    333,\n    4444\n  },\n  1,\n  22,\n  333,\n  4444\n];",
+                StreamingDocFormat.format(2, 15, doc));
+        assertEquals("x = [{1,22,333,4444},1,22,333,4444];", StreamingDocFormat.format(2, 40, doc));
+    }
+
+    @Test
+    public void testOverflowOnlyAtEndOfDocument() {
+        final Document doc1 = group(concat(text("aaaa"), lbreak, text("bbbb")));
+        check(doc1, 4, 6);
+        check(concat(doc1, empty), 4, 6);
+        check(concat(text("ccccccc"), group(concat(lbreak, text("d")))), 4, 3);
+    }
+
+    @Test
+    public void testTrailingWhitespaceIsTrimmed() {
+        final Document doc = group(concat(text("a  "), nest(3, concat(lbreak, text(" "), lbreak, text("b \t"))), lbreak));
+        check(doc, 4, 0);
+        assertEquals("a\n\n            b\n", StreamingDocFormat.format(4, 0, doc));
+    }
+
+    @Test
+    public void testDeepIndentation() {
+        Document doc = text("x");
+        for (int i = 0; i < 100; ++i) {
+            doc = group(nest(1, concat(text("("), lbreak, doc, text(")"))));
+        }
+        check(doc, 4, 10);
+    }
+
+    @Test
+    public void testLargeDocument() {
+        final List<Document> rows = new ArrayList<>();
+        for (int i = 0; i < 20000; ++i) {
+            rows.add(enclose(text("{"), text(","), text("}"), IList.of(text("\"id\": " + i), text("\"name\": \"n" + i + "\""))));
+        }
+        final Document doc = enclose(text("["), text(","), text("]"), rows);
+        final StringWriter sw = new StringWriter();
+        StreamingDocFormat.format(sw, 4, 40, doc);
+        assertEquals(DocFormat.format(4, 40, doc), sw.toString());
+    }
+}
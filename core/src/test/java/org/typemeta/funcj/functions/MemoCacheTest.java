@@ -0,0 +1,277 @@
+package org.typemeta.funcj.functions;
+
+import org.junit.Test;
+import org.typemeta.funcj.tuples.Tuple2;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.junit.Assert.*;
+
+public class MemoCacheTest {
+
+    @Test
+    public void testMemoizeF() {
+        final AtomicInteger calls = new AtomicInteger();
+        final MemoCache<Integer, Integer> cache = MemoCache.<Integer, Integer>builder().build();
+        final Functions.F<Integer, Integer> f = Functions.F.memoize(i -> {
+            calls.incrementAndGet();
+            return i * 2;
+        }, cache);
+
+        assertEquals(Integer.valueOf(4), f.apply(2));
+        assertEquals(Integer.valueOf(4), f.apply(2));
+        assertEquals(Integer.valueOf(6), f.apply(3));
+        assertEquals(2, calls.get());
+
+        final MemoCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(2, stats.missCount());
+        assertEquals(Long.valueOf(1), stats.toMap().get("hits"));
+    }
+
+    @Test
+    public void testMemoizeF2() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Functions.F2<Integer, Integer, Integer> f = Functions.F2.memoize((a, b) -> {
+            calls.incrementAndGet();
+            return a - b;
+        });
+
+        assertEquals(Integer.valueOf(1), f.apply(3, 2));
+        assertEquals(Integer.valueOf(-1), f.apply(2, 3));
+        assertEquals(Integer.valueOf(1), f.apply(3, 2));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testMemoizeExDoesNotCacheFailures() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final FunctionsEx.F<Integer, Integer> f = FunctionsEx.F.memoize(i -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new Exception("first call fails");
+            }
+            return i + 1;
+        });
+
+        try {
+            f.apply(1);
+            fail("Expected exception");
+        } catch (Exception ex) {
+            assertEquals("first call fails", ex.getMessage());
+        }
+
+        assertEquals(Integer.valueOf(2), f.apply(1));
+        assertEquals(Integer.valueOf(2), f.apply(1));
+        assertEquals(2, calls.get());
+    }
+
+    static final class Fib {
+        static final Functions.F<Integer, Long> fib = Functions.F.memoize(n ->
+                n < 2 ? (long)n : Fib.fib.apply(n - 1) + Fib.fib.apply(n - 2)
+        );
+    }
+
+    @Test
+    public void testRecursiveMemoization() {
+        assertEquals(Long.valueOf(2880067194370816120L), Fib.fib.apply(90));
+    }
+
+    static final class Cyclic {
+        static final Functions.F<Integer, Integer> f = Functions.F.memoize(n -> Cyclic.f.apply(n));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSelfRecursionIsDetected() {
+        Cyclic.f.apply(1);
+    }
+
+    @Test(timeout = 10000)
+    public void testCrossThreadCycleIsDetected() throws Exception {
+        final CountDownLatch started = new CountDownLatch(2);
+        final MemoCache<Integer, Integer> cache = MemoCache.<Integer, Integer>builder().build();
+        final FunctionsGenEx.F<Integer, Integer, InterruptedException> f =
+                new FunctionsGenEx.F<Integer, Integer, InterruptedException>() {
+                    @Override
+                    public Integer apply(Integer k) throws InterruptedException {
+                        started.countDown();
+                        started.await();
+                        return cache.getEx(3 - k, this);
+                    }
+                };
+
+        final ExecutorService exec = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Integer> r1 = exec.submit(() -> cache.getEx(1, f));
+            final Future<Integer> r2 = exec.submit(() -> cache.getEx(2, f));
+            for (Future<Integer> r : Arrays.asList(r1, r2)) {
+                try {
+                    r.get();
+                    fail("Expected the cycle to be detected");
+                } catch (ExecutionException ex) {
+                    assertTrue(ex.getCause() instanceof IllegalStateException);
+                }
+            }
+        } finally {
+            exec.shutdown();
+        }
+
+        assertFalse(cache.getIfPresent(1).isPresent());
+        assertFalse(cache.getIfPresent(2).isPresent());
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        final int nThreads = 8;
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final MemoCache<String, Integer> cache = MemoCache.<String, Integer>builder().build();
+
+        final ExecutorService exec = Executors.newFixedThreadPool(nThreads);
+        try {
+            final List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < nThreads; ++i) {
+                results.add(exec.submit(() -> cache.getEx("key", k -> {
+                    calls.incrementAndGet();
+                    started.countDown();
+                    release.await();
+                    return 42;
+                })));
+            }
+
+            started.await();
+            release.countDown();
+
+            for (Future<Integer> r : results) {
+                assertEquals(Integer.valueOf(42), r.get());
+            }
+        } finally {
+            exec.shutdown();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.stats().missCount());
+        assertEquals(nThreads - 1, cache.stats().hitCount());
+    }
+
+    @Test
+    public void testLruEviction() {
+        final MemoCache<String, String> cache = MemoCache.<String, String>builder()
+                .maximumSize(2)
+                .eviction(MemoCache.Eviction.LRU)
+                .build();
+
+        cache.get("a", String::toUpperCase);
+        cache.get("b", String::toUpperCase);
+        cache.get("a", String::toUpperCase);
+        cache.get("c", String::toUpperCase);
+
+        assertTrue(cache.getIfPresent("a").isPresent());
+        assertFalse(cache.getIfPresent("b").isPresent());
+        assertTrue(cache.getIfPresent("c").isPresent());
+        assertEquals(1, cache.stats().evictionCount());
+    }
+
+    @Test
+    public void testLfuEviction() {
+        final MemoCache<String, String> cache = MemoCache.<String, String>builder()
+                .maximumSize(2)
+                .eviction(MemoCache.Eviction.LFU)
+                .build();
+
+        cache.get("a", String::toUpperCase);
+        cache.get("a", String::toUpperCase);
+        cache.get("a", String::toUpperCase);
+        cache.get("b", String::toUpperCase);
+        cache.get("b", String::toUpperCase);
+        cache.get("c", String::toUpperCase);
+        cache.get("d", String::toUpperCase);
+
+        // c evicts b (the least frequently used), then d evicts c.
+        assertTrue(cache.getIfPresent("a").isPresent());
+        assertFalse(cache.getIfPresent("b").isPresent());
+        assertFalse(cache.getIfPresent("c").isPresent());
+        assertTrue(cache.getIfPresent("d").isPresent());
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.stats().evictionCount());
+    }
+
+    @Test
+    public void testExpireAfterWrite() {
+        final AtomicLong time = new AtomicLong();
+        final AtomicInteger calls = new AtomicInteger();
+        final MemoCache<Integer, Integer> cache = MemoCache.<Integer, Integer>builder()
+                .expireAfterWrite(10, TimeUnit.NANOSECONDS)
+                .ticker(time::get)
+                .build();
+        final Functions.F<Integer, Integer> f = Functions.F.memoize(i -> calls.incrementAndGet(), cache);
+
+        assertEquals(Integer.valueOf(1), f.apply(0));
+        time.set(9);
+        assertEquals(Integer.valueOf(1), f.apply(0));
+        time.set(10);
+        assertEquals(Integer.valueOf(2), f.apply(0));
+        assertEquals(1, cache.stats().expirationCount());
+
+        time.set(20);
+        cache.cleanUp();
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.stats().expirationCount());
+    }
+
+    @Test
+    public void testWeakKeysCompareByEquality() {
+        final MemoCache<Tuple2<String, Integer>, String> cache =
+                MemoCache.<Tuple2<String, Integer>, String>builder().weakKeys().build();
+        final Tuple2<String, Integer> key = Tuple2.of("a", 1);
+
+        assertEquals("a1", cache.get(key, t -> t._1 + t._2));
+        assertEquals("a1", cache.get(Tuple2.of("a", 1), t -> "recomputed"));
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    public void testNullKeysAndValues() {
+        final MemoCache<String, String> cache = MemoCache.<String, String>builder().build();
+
+        assertNull(cache.get(null, k -> null));
+        assertNull(cache.get(null, k -> "recomputed"));
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    public void testConcurrentBoundedAccess() throws Exception {
+        final int max = 100;
+        final MemoCache<Integer, Integer> cache = MemoCache.<Integer, Integer>builder()
+                .maximumSize(max)
+                .eviction(MemoCache.Eviction.LFU)
+                .build();
+        final Functions.F<Integer, Integer> f = Functions.F.memoize(i -> i * i, cache);
+
+        final ExecutorService exec = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; ++t) {
+                final int seed = t;
+                futures.add(exec.submit(() -> {
+                    final Random rng = new Random(seed);
+                    for (int i = 0; i < 100000; ++i) {
+                        final int k = rng.nextInt(1000);
+                        assertEquals(Integer.valueOf(k * k), f.apply(k));
+                    }
+                }));
+            }
+            for (Future<?> fut : futures) {
+                fut.get();
+            }
+        } finally {
+            exec.shutdown();
+        }
+
+        assertTrue(cache.size() <= max);
+        final MemoCache.Stats stats = cache.stats();
+        assertEquals(400000, stats.hitCount() + stats.missCount());
+    }
+}
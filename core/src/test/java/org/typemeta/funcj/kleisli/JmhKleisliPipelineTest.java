@@ -0,0 +1,70 @@
+package org.typemeta.funcj.kleisli;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+import org.typemeta.funcj.control.Try;
+
+/**
+ * Compares a chain of {@link TryK} stages composed as nested closures
+ * with the same chain flattened into a {@link TryPipeline}.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class JmhKleisliPipelineTest {
+
+    @Param({"20"})
+    public int length;
+
+    private TryK<Integer, Integer> nested;
+    private TryK<Integer, Integer> flattened;
+
+    @Setup
+    public void setup() {
+        final TryK<Integer, Integer> stage = i -> i >= 0 ? Try.success(i + 1) : Try.failure(new RuntimeException("error"));
+
+        TryK<Integer, Integer> n = stage;
+        for (int i = 1; i < length; ++i) {
+            final TryK<Integer, Integer> prev = n;
+            n = t -> prev.apply(t).flatMap(stage::apply);
+        }
+        nested = n;
+
+        TryK<Integer, Integer> f = stage;
+        for (int i = 1; i < length; ++i) {
+            f = f.andThen(stage);
+        }
+        flattened = f;
+    }
+
+    @Benchmark
+    public Try<Integer> nested() {
+        return nested.apply(0);
+    }
+
+    @Benchmark
+    public Try<Integer> flattened() {
+        return flattened.apply(0);
+    }
+
+    @Benchmark
+    public Try<Integer> nestedFailed() {
+        return nested.apply(-1);
+    }
+
+    @Benchmark
+    public Try<Integer> flattenedFailed() {
+        return flattened.apply(-1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        final Options opt = new OptionsBuilder()
+                .include(JmhKleisliPipelineTest.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
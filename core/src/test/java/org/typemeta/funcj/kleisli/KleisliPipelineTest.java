@@ -0,0 +1,164 @@
+package org.typemeta.funcj.kleisli;
+
+import org.junit.Test;
+import org.typemeta.funcj.control.*;
+import org.typemeta.funcj.functions.MemoCache;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class KleisliPipelineTest {
+
+    private static TryK<Integer, Integer> positive(AtomicInteger calls) {
+        return i -> {
+            calls.incrementAndGet();
+            return i > 0 ? Try.success(i) : Try.failure(new IllegalArgumentException("Not positive: " + i));
+        };
+    }
+
+    @Test
+    public void testTryFlattened() {
+        TryK<Integer, Integer> k = i -> Try.success(i + 1);
+        for (int i = 1; i < 20; ++i) {
+            k = k.andThen(j -> Try.success(j + 1));
+        }
+
+        assertTrue(k instanceof TryPipeline);
+        assertEquals(20, ((TryPipeline<Integer, Integer>)k).size());
+        assertEquals(Integer.valueOf(20), k.apply(0).orElseThrow());
+    }
+
+    @Test
+    public void testTryEarlyExit() {
+        final AtomicInteger before = new AtomicInteger();
+        final AtomicInteger after = new AtomicInteger();
+        final TryK<Integer, Integer> k =
+                TryPipeline.<Integer>identity()
+                        .map(i -> i - 10)
+                        .andThen(positive(before))
+                        .andThen(positive(after));
+
+        assertEquals(Integer.valueOf(5), k.apply(15).orElseThrow());
+        assertFalse(k.apply(5).isSuccess());
+        assertEquals(2, before.get());
+        assertEquals(1, after.get());
+    }
+
+    @Test
+    public void testComposeAndSplice() {
+        final TryPipeline<Integer, Integer> inc = TryPipeline.of("inc", i -> Try.success(i + 1));
+        final TryPipeline<Integer, String> show = TryPipeline.of("show", i -> Try.success(i.toString()));
+        final TryPipeline<Integer, String> k = show.compose(inc).compose(inc);
+
+        assertEquals(3, k.size());
+        assertEquals("3", k.apply(1).orElseThrow());
+        assertEquals("4", inc.andThen(k).apply(1).orElseThrow());
+        assertEquals(4, inc.andThen(k).size());
+    }
+
+    @Test
+    public void testEither() {
+        final EitherK<String, String, Integer> parse = s -> {
+            try {
+                return Either.right(Integer.parseInt(s));
+            } catch (NumberFormatException ex) {
+                return Either.left("Not a number: " + s);
+            }
+        };
+        final EitherK<String, String, Integer> k =
+                parse.andThen(i -> i > 0 ? Either.right(i) : Either.left("Not positive: " + i))
+                        .map(i -> i * 2);
+
+        assertTrue(k instanceof EitherPipeline);
+        assertEquals(Either.right(84), k.apply("42"));
+        assertEquals(Either.left("Not a number: x"), k.apply("x"));
+        assertEquals(Either.left("Not positive: -1"), k.apply("-1"));
+    }
+
+    @Test
+    public void testOption() {
+        final OptionK<Integer, Integer> half = i -> i % 2 == 0 ? Option.some(i / 2) : Option.none();
+        final OptionK<Integer, Integer> k = half.andThen(half).andThen(half);
+
+        assertTrue(k instanceof OptionPipeline);
+        assertEquals(Option.some(1), k.apply(8));
+        assertEquals(Option.none(), k.apply(12));
+    }
+
+    @Test
+    public void testMapToNullThrows() {
+        final OptionK<Integer, Integer> ok = Option::some;
+        final OptionK<Integer, Integer> optK = ok.<Integer>map(i -> null).andThen(x -> Option.some(x == null ? -1 : x));
+        try {
+            optK.apply(1);
+            fail("Expected NullPointerException");
+        } catch (NullPointerException ex) {
+        }
+
+        final TryK<Integer, Integer> tk = Try::success;
+        try {
+            tk.<Integer>map(i -> null).apply(1);
+            fail("Expected NullPointerException");
+        } catch (NullPointerException ex) {
+        }
+
+        final EitherK<String, Integer, Integer> ek = Either::right;
+        try {
+            ek.<Integer>map(i -> null).apply(1);
+            fail("Expected NullPointerException");
+        } catch (NullPointerException ex) {
+        }
+    }
+
+    @Test
+    public void testMemoized() {
+        final AtomicInteger calls = new AtomicInteger();
+        final MemoCache<Integer, Try<Integer>> cache = MemoCache.<Integer, Try<Integer>>builder().build();
+        final TryPipeline<Integer, Integer> k =
+                TryPipeline.<Integer>identity()
+                        .map("mod", i -> i % 3)
+                        .andThenMemoized("positive", positive(calls), cache)
+                        .profiled();
+
+        for (int i = 0; i < 30; ++i) {
+            k.apply(i);
+        }
+
+        assertEquals(3, calls.get());
+        final StageStats stats = k.stats().get(1);
+        assertEquals("positive", stats.name());
+        assertEquals(30, stats.invocations());
+        assertEquals(10, stats.failures());
+        assertEquals(27, stats.cacheHits());
+    }
+
+    @Test
+    public void testProfiled() {
+        final AtomicInteger calls = new AtomicInteger();
+        final TryPipeline<Integer, Integer> plain =
+                TryPipeline.of("first", positive(calls))
+                        .map("dec", i -> i - 1);
+        final TryPipeline<Integer, Integer> k =
+                plain.profiled()
+                        .andThen("second", positive(calls));
+
+        assertTrue(plain.stats().isEmpty());
+
+        k.apply(2);
+        k.apply(1);
+        k.apply(0);
+
+        final List<StageStats> stats = k.stats();
+        assertEquals(3, stats.size());
+        assertEquals("first", stats.get(0).name());
+        assertEquals(3, stats.get(0).invocations());
+        assertEquals(1, stats.get(0).failures());
+        assertEquals(2, stats.get(1).invocations());
+        assertEquals("second", stats.get(2).name());
+        assertEquals(2, stats.get(2).invocations());
+        assertEquals(1, stats.get(2).failures());
+        assertEquals(0, stats.get(2).cacheHits());
+    }
+}
@@ -0,0 +1,85 @@
+package org.typemeta.funcj.util;
+
+import org.junit.Test;
+import org.typemeta.funcj.algebra.*;
+import org.typemeta.funcj.data.IList;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.Assert.*;
+import static org.typemeta.funcj.algebra.MonoidInstances.*;
+
+public class FoldsTest {
+
+    private static final int N = 100000;
+
+    private static IList<Integer> range(int n) {
+        return IList.ofIterable(() -> IntStream.range(0, n).iterator());
+    }
+
+    @Test
+    public void testFoldMap() {
+        final IList<Integer> l = IList.of(1, 2, 3);
+        assertEquals("123", Folds.foldMap(monoidString, Object::toString, l));
+        assertEquals("123", Folds.foldMap(monoidString, Object::toString, l.stream()));
+        assertEquals("123", Folds.foldMap(monoidString, Object::toString, new Integer[]{1, 2, 3}));
+        assertEquals("123", Folds.foldMap(monoidString, Object::toString, l.spliterator()));
+        assertEquals("", Folds.foldMap(monoidString, Object::toString, IList.<Integer>empty()));
+    }
+
+    @Test
+    public void testParFoldMapPreservesOrder() {
+        final IList<Integer> l = range(N);
+        final String expected = Folds.foldMap(monoidString, Object::toString, l);
+
+        assertEquals(expected, Folds.parFoldMap(monoidString, Object::toString, l));
+        assertEquals(expected, Folds.parFoldMap(monoidString, Object::toString, l.stream()));
+        assertEquals(expected, Folds.parFoldMap(monoidString, Object::toString, l.toList().toArray(new Integer[0])));
+        assertEquals(expected, Folds.parFoldMap(monoidString, Object::toString, l.spliterator(), 1));
+
+        final List<Integer> jl = l.toList();
+        assertEquals(jl, Folds.parFoldMap(MonoidInstances.<Integer>monoidList(), Collections::singletonList, jl));
+    }
+
+    @Test
+    public void testParFoldMapOverUnsizedSource() {
+        final Iterable<Integer> itb = () -> IntStream.range(0, N).iterator();
+        assertEquals(
+                Long.valueOf((long)N * (N - 1) / 2),
+                Folds.parFoldMap(monoidLong, Integer::longValue, itb));
+    }
+
+    @Test
+    public void testParFoldMapEmpty() {
+        assertEquals(Integer.valueOf(0), Folds.parFoldMap(monoidInteger, i -> i, IList.<Integer>empty()));
+        assertEquals(Integer.MAX_VALUE, Folds.parFoldMapInt(monoidIntMin, i -> i, IList.<Integer>empty()));
+    }
+
+    @Test
+    public void testPrimitiveFoldMaps() {
+        final IList<Integer> l = range(N);
+
+        assertEquals(N * (N - 1) / 2, Folds.foldMapInt(monoidIntSum, i -> i, l));
+        assertEquals(N * (N - 1) / 2, Folds.parFoldMapInt(monoidIntSum, i -> i, l));
+        assertEquals(0, Folds.parFoldMapInt(monoidIntMin, i -> i, l));
+        assertEquals(N - 1, Folds.parFoldMapInt(monoidIntMax, i -> i, l.spliterator(), 16));
+
+        assertEquals((long)N * N, Folds.foldMapLong(monoidLongSum, i -> (long)N, l));
+        assertEquals((long)N * N, Folds.parFoldMapLong(monoidLongSum, i -> (long)N, l));
+        assertEquals(-N + 1L, Folds.parFoldMapLong(monoidLongMin, i -> -(long)i, l));
+        assertEquals(0L, Folds.parFoldMapLong(monoidLongMax, i -> -(long)i, l));
+
+        assertEquals(N / 2.0, Folds.foldMapDouble(monoidDoubleSum, i -> 0.5, l), 1e-9);
+        assertEquals(N / 2.0, Folds.parFoldMapDouble(monoidDoubleSum, i -> 0.5, l), 1e-9);
+        assertEquals(-0.5, Folds.parFoldMapDouble(monoidDoubleMin, i -> i - 0.5, l), 0.0);
+        assertEquals(N - 1.5, Folds.parFoldMapDouble(monoidDoubleMax, i -> i - 0.5, l), 0.0);
+    }
+
+    @Test
+    public void testBoxedPrimitiveMonoid() {
+        final Monoid<Integer> m = monoidIntMax.boxed();
+        assertEquals(Integer.valueOf(Integer.MIN_VALUE), m.zero());
+        assertEquals(Integer.valueOf(3), m.combineAll(IList.of(1, 3, 2)));
+    }
+}
@@ -0,0 +1,165 @@
+package org.typemeta.funcj.util;
+
+import org.junit.*;
+import org.typemeta.funcj.control.State;
+import org.typemeta.funcj.data.IList;
+import org.typemeta.funcj.tuples.Tuple2;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.Assert.*;
+
+public class SplittableRNGTest {
+
+    private static final int N = 10000;
+
+    private static long[] draw(SplittableRNG rng, int n) {
+        final long[] arr = new long[n];
+        for (int i = 0; i < n; ++i) {
+            arr[i] = rng.peekLong();
+            rng = rng.advance();
+        }
+        return arr;
+    }
+
+    private static List<SplittableRNG> rngs() {
+        return Arrays.asList(SplittableRNG.splitMix64(1234), SplittableRNG.xoroshiro128PlusPlus(1234));
+    }
+
+    @Test
+    public void testSplitMix64MatchesSplittableRandom() {
+        final SplittableRandom sr = new SplittableRandom(5678);
+        final long[] expected = new long[100];
+        for (int i = 0; i < expected.length; ++i) {
+            expected[i] = sr.nextLong();
+        }
+        assertArrayEquals(expected, draw(SplittableRNG.splitMix64(5678), expected.length));
+
+        final SplittableRandom sr2 = new SplittableRandom(5678);
+        final SplittableRandom child = sr2.split();
+        final Tuple2<SplittableRNG, SplittableRNG> split = SplittableRNG.splitMix64(5678).split();
+        assertEquals(sr2.nextLong(), split._1.peekLong());
+        assertEquals(child.nextLong(), split._2.peekLong());
+        assertEquals(child.nextLong(), split._2.advance().peekLong());
+    }
+
+    @Test
+    public void testXoroshiro128PlusPlus() {
+        assertArrayEquals(
+                new long[]{-1690267358668702685L, 6098722386207918385L, -905081495677017275L},
+                draw(SplittableRNG.xoroshiro128PlusPlus(42), 3));
+    }
+
+    @Test
+    public void testBulkGenerationMatchesSingleDraws() {
+        for (SplittableRNG rng : rngs()) {
+            final long[] expected = draw(rng, N);
+
+            final long[] arr = new long[N];
+            final SplittableRNG next = rng.fill(arr);
+            assertArrayEquals(expected, arr);
+            assertEquals(rng.advance(N).peekLong(), next.peekLong());
+
+            assertArrayEquals(expected, rng.longs(N).toArray());
+
+            final double[] darr = new double[N];
+            rng.fill(darr);
+            assertArrayEquals(rng.doubles(N).toArray(), darr, 0.0);
+            for (double d : darr) {
+                assertTrue(0.0 <= d && d < 1.0);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelStreamIsDeterministic() {
+        final SplittableRNG rng = SplittableRNG.splitMix64(0);
+        assertArrayEquals(rng.longs(N).toArray(), rng.longs(N).parallel().toArray());
+    }
+
+    @Test
+    public void testSplitStreamsDiffer() {
+        for (SplittableRNG rng : rngs()) {
+            final Tuple2<SplittableRNG, SplittableRNG> t2 = rng.split();
+            final Set<Long> parent = LongStream.of(t2._1.longs(N).toArray()).boxed().collect(Collectors.toSet());
+            final long overlap = t2._2.longs(N).filter(parent::contains).count();
+            assertEquals(0, overlap);
+        }
+    }
+
+    private static void assertAllDistinct(List<SplittableRNG> gens) {
+        final Set<List<Long>> seqs = new HashSet<>();
+        for (SplittableRNG g : gens) {
+            final List<Long> seq = LongStream.of(draw(g, 4)).boxed().collect(Collectors.toList());
+            assertTrue("Duplicate generator " + seq, seqs.add(seq));
+        }
+    }
+
+    @Test
+    public void testRepeatedSplitsAreDistinct() {
+        for (SplittableRNG rng : rngs()) {
+            final List<SplittableRNG> gens = new ArrayList<>();
+            SplittableRNG next = rng;
+            for (int i = 0; i < 100; ++i) {
+                final Tuple2<SplittableRNG, SplittableRNG> t2 = next.split();
+                gens.add(t2._2);
+                next = t2._1;
+            }
+            gens.add(next);
+            assertAllDistinct(gens);
+        }
+    }
+
+    @Test
+    public void testRepeatedSplitStateProcessorsAreDistinct() {
+        final State<SplittableRNG, IList<SplittableRNG>> splits =
+                State.sequence(IList.of(
+                        SplittableRNG.nextSplit(),
+                        SplittableRNG.nextSplit(),
+                        SplittableRNG.nextSplit()));
+        for (SplittableRNG rng : rngs()) {
+            final Tuple2<SplittableRNG, IList<SplittableRNG>> t2 = splits.runState(rng).runT();
+            final List<SplittableRNG> gens = new ArrayList<>();
+            t2._2.forEach(gens::add);
+            gens.add(t2._1);
+            assertAllDistinct(gens);
+        }
+    }
+
+    @Test
+    public void testLongsWithMaxCount() {
+        for (SplittableRNG rng : rngs()) {
+            assertArrayEquals(draw(rng, 10), rng.longs(Long.MAX_VALUE).limit(10).toArray());
+        }
+    }
+
+    @Test
+    public void testStateProcessors() {
+        final State<SplittableRNG, String> st =
+                SplittableRNG.withDouble(d -> d)
+                        .flatMap(d -> SplittableRNG.withLong(l -> d + " : " + l));
+        final SplittableRNG rng = SplittableRNG.splitMix64(1234);
+        assertEquals(rng.peekDouble() + " : " + rng.advance().peekLong(), st.eval(rng));
+
+        final Tuple2<SplittableRNG, long[]> t2 = SplittableRNG.nextLongs(10).runState(rng).runT();
+        assertArrayEquals(draw(rng, 10), t2._2);
+        assertEquals(rng.advance(10).peekLong(), t2._1.peekLong());
+
+        final double[] ds = SplittableRNG.nextDoubles(N).eval(rng);
+        final double m = DoubleStream.of(ds).average().orElse(0.0);
+        assertEquals("Mean", 0.5, m, 0.01);
+
+        final IList<Double> viaRng = State.sequence(IList.of(RNG.nextDbl(), RNG.nextDbl())).eval(rng);
+        assertEquals(IList.of(rng.peekDouble(), rng.advance().peekDouble()), viaRng);
+    }
+
+    @Test
+    public void testSplitStateProcessor() {
+        final SplittableRNG rng = SplittableRNG.xoroshiro128PlusPlus(7);
+        final Tuple2<SplittableRNG, SplittableRNG> t2 = SplittableRNG.nextSplit().runState(rng).runT();
+        final Tuple2<SplittableRNG, SplittableRNG> expected = rng.split();
+        assertEquals(expected._1.peekLong(), t2._1.peekLong());
+        assertEquals(expected._2.peekLong(), t2._2.peekLong());
+    }
+}
@@ -0,0 +1,292 @@
+package org.typemeta.funcj.util;
+
+import org.junit.Test;
+import org.typemeta.funcj.control.Option;
+import org.typemeta.funcj.tuples.Tuple2;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+import static org.junit.Assert.*;
+
+public class StreamsTest {
+
+    private static final int[] SIZES = {0, 1, 2, 3, 7, 100, 1001, 10000};
+
+    private static List<Integer> range(int n) {
+        return IntStream.range(0, n).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * A SIZED and SUBSIZED source which splits off a third rather than a half,
+     * so that zipped sources split at different points.
+     */
+    private static <T> Stream<T> unevenStream(List<T> list) {
+        return StreamSupport.stream(new UnevenSpliterator<T>(list, 0, list.size()), false);
+    }
+
+    private static final class UnevenSpliterator<T> implements Spliterator<T> {
+        final List<T> list;
+        int lo;
+        final int hi;
+
+        UnevenSpliterator(List<T> list, int lo, int hi) {
+            this.list = list;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (lo < hi) {
+                action.accept(list.get(lo++));
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            final int mid = lo + (hi - lo) / 3;
+            if (mid == lo) {
+                return null;
+            } else {
+                final Spliterator<T> prefix = new UnevenSpliterator<T>(list, lo, mid);
+                lo = mid;
+                return prefix;
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return hi - lo;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+
+    /**
+     * The different kinds of source stream over the same elements: exactly splittable, unevenly splittable and unsized.
+     */
+    private static List<Supplier<Stream<Integer>>> sources(int n) {
+        final List<Integer> list = range(n);
+        return Arrays.asList(
+                list::stream,
+                () -> unevenStream(list),
+                () -> Stream.iterate(0, i -> i + 1).limit(n),
+                () -> StreamSupport.stream(Spliterators.spliteratorUnknownSize(list.iterator(), Spliterator.ORDERED), false)
+        );
+    }
+
+    private static <T> void check(List<T> expected, Supplier<Stream<T>> s) {
+        assertEquals(expected, s.get().collect(Collectors.toList()));
+        assertEquals(expected, s.get().parallel().collect(Collectors.toList()));
+        final Spliterator<T> spl = s.get().spliterator();
+        if (spl.hasCharacteristics(Spliterator.SIZED)) {
+            assertEquals(expected.size(), spl.getExactSizeIfKnown());
+        }
+    }
+
+    @Test
+    public void testZip() {
+        for (int n : SIZES) {
+            for (int m : new int[]{n, n / 2}) {
+                final List<Tuple2<Integer, Integer>> expected = new ArrayList<>();
+                for (int i = 0; i < Math.min(n, m); ++i) {
+                    expected.add(Tuple2.of(i, i));
+                }
+                for (Supplier<Stream<Integer>> sa : sources(n)) {
+                    for (Supplier<Stream<Integer>> sb : sources(m)) {
+                        check(expected, () -> Streams.zip(sa.get(), sb.get()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testZipIsSubsized() {
+        final Spliterator<Tuple2<Integer, Integer>> spl =
+                Streams.zip(range(1000).stream(), unevenStream(range(1000))).spliterator();
+        assertTrue(spl.hasCharacteristics(Spliterator.SUBSIZED));
+        final Spliterator<Tuple2<Integer, Integer>> prefix = spl.trySplit();
+        assertEquals(1000, prefix.getExactSizeIfKnown() + spl.getExactSizeIfKnown());
+        prefix.forEachRemaining(t2 -> assertEquals(t2._1, t2._2));
+        spl.forEachRemaining(t2 -> assertEquals(t2._1, t2._2));
+    }
+
+    @Test
+    public void testZipPrimitive() {
+        for (int n : SIZES) {
+            final int[] expected = IntStream.range(0, n).map(i -> i * i).toArray();
+            assertArrayEquals(expected, Streams.zip(IntStream.range(0, n), IntStream.range(0, n), (x, y) -> x * y).toArray());
+            assertArrayEquals(expected, Streams.zip(IntStream.range(0, n), IntStream.range(0, n + 5).parallel(), (x, y) -> x * y).toArray());
+            final long[] expectedL = LongStream.range(0, n).map(i -> i + i).toArray();
+            assertArrayEquals(expectedL, Streams.zip(LongStream.range(0, n), LongStream.range(0, n).parallel(), Long::sum).toArray());
+            final double[] expectedD = IntStream.range(0, n).asDoubleStream().map(i -> i * 2.0).toArray();
+            assertArrayEquals(
+                    expectedD,
+                    Streams.zip(IntStream.range(0, n).asDoubleStream(), IntStream.range(0, n).asDoubleStream().parallel(), Double::sum).toArray(),
+                    0.0);
+        }
+    }
+
+    @Test
+    public void testZipWithIndex() {
+        for (int n : SIZES) {
+            final List<Tuple2<Integer, Long>> expected = new ArrayList<>();
+            for (int i = 0; i < n; ++i) {
+                expected.add(Tuple2.of(i, (long)i));
+            }
+            for (Supplier<Stream<Integer>> s : sources(n)) {
+                check(expected, () -> Streams.zipWithIndex(s.get()));
+            }
+        }
+    }
+
+    @Test
+    public void testInterleave() {
+        for (int n : SIZES) {
+            for (int m : new int[]{n, n / 3}) {
+                final List<Integer> expected = new ArrayList<>();
+                for (int i = 0; i < Math.max(n, m); ++i) {
+                    if (i < n) {
+                        expected.add(i);
+                    }
+                    if (i < m) {
+                        expected.add(-i);
+                    }
+                }
+                for (Supplier<Stream<Integer>> sa : sources(n)) {
+                    for (Supplier<Stream<Integer>> sb : sources(m)) {
+                        check(expected, () -> Streams.interleave(sa.get(), sb.get().map(i -> -i)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testChunked() {
+        for (int n : SIZES) {
+            final List<Integer> list = range(n);
+            for (int size : new int[]{1, 2, 3, 10, 64}) {
+                final List<List<Integer>> expected = new ArrayList<>();
+                for (int i = 0; i < n; i += size) {
+                    expected.add(list.subList(i, Math.min(n, i + size)));
+                }
+                for (Supplier<Stream<Integer>> s : sources(n)) {
+                    check(expected, () -> Streams.chunked(s.get(), size));
+                }
+
+                final List<List<Integer>> actual =
+                        Streams.chunked(IntStream.range(0, n).parallel(), size)
+                                .map(arr -> IntStream.of(arr).boxed().collect(Collectors.toList()))
+                                .collect(Collectors.toList());
+                assertEquals(expected, actual);
+                assertEquals(
+                        expected.size(),
+                        Streams.chunked(LongStream.range(0, n).parallel(), size).count());
+                assertEquals(
+                        n,
+                        Streams.chunked(LongStream.range(0, n).asDoubleStream().parallel(), size).mapToInt(arr -> arr.length).sum());
+            }
+        }
+    }
+
+    @Test
+    public void testSliding() {
+        for (int n : SIZES) {
+            final List<Integer> list = range(n);
+            for (int size : new int[]{1, 2, 3, 10}) {
+                final List<List<Integer>> expected = new ArrayList<>();
+                for (int i = 0; i + size <= n; ++i) {
+                    expected.add(list.subList(i, i + size));
+                }
+                for (Supplier<Stream<Integer>> s : sources(n)) {
+                    check(expected, () -> Streams.sliding(s.get(), size));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTakeWhileAndDropWhile() {
+        for (int n : SIZES) {
+            final int k = n / 2;
+            for (Supplier<Stream<Integer>> s : sources(n)) {
+                check(range(k), () -> Streams.takeWhile(s.get(), i -> i < k));
+                check(range(n).subList(k, n), () -> Streams.dropWhile(s.get(), i -> i < k));
+            }
+            assertArrayEquals(
+                    IntStream.range(0, k).toArray(),
+                    Streams.takeWhile(IntStream.range(0, n).parallel(), i -> i < k).toArray());
+            assertArrayEquals(
+                    IntStream.range(k, n).toArray(),
+                    Streams.dropWhile(IntStream.range(0, n).parallel(), i -> i < k).toArray());
+            assertArrayEquals(
+                    LongStream.range(0, k).toArray(),
+                    Streams.takeWhile(LongStream.range(0, n).parallel(), i -> i < k).toArray());
+            assertArrayEquals(
+                    LongStream.range(k, n).toArray(),
+                    Streams.dropWhile(LongStream.range(0, n).parallel(), i -> i < k).toArray());
+            assertArrayEquals(
+                    LongStream.range(0, k).asDoubleStream().toArray(),
+                    Streams.takeWhile(LongStream.range(0, n).asDoubleStream().parallel(), i -> i < k).toArray(),
+                    0.0);
+            assertArrayEquals(
+                    LongStream.range(k, n).asDoubleStream().toArray(),
+                    Streams.dropWhile(LongStream.range(0, n).asDoubleStream().parallel(), i -> i < k).toArray(),
+                    0.0);
+        }
+    }
+
+    @Test
+    public void testUnfold() {
+        final Stream<Integer> s = Streams.unfold(1, i -> i > 10000 ? Option.none() : Option.some(Tuple2.of(i, i * 2)));
+        assertEquals(
+                Arrays.asList(1, 2, 4, 8, 16, 32, 64, 128, 256, 512, 1024, 2048, 4096, 8192),
+                s.collect(Collectors.toList()));
+
+        final List<Integer> expected = range(5000);
+        assertEquals(
+                expected,
+                Streams.<Integer, Integer>unfold(0, i -> i < 5000 ? Option.some(Tuple2.of(i, i + 1)) : Option.none())
+                        .parallel()
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testGroupRuns() {
+        for (int n : SIZES) {
+            final List<Integer> list = range(n);
+            final List<List<Integer>> expected = new ArrayList<>();
+            for (int i = 0; i < n; i += 7) {
+                expected.add(list.subList(i, Math.min(n, i + 7)));
+            }
+            for (Supplier<Stream<Integer>> s : sources(n)) {
+                check(expected, () -> Streams.groupAdjacent(s.get(), i -> i / 7));
+                check(expected, () -> Streams.groupRuns(s.get(), (x, y) -> y % 7 != 0));
+            }
+        }
+    }
+
+    @Test
+    public void testOnCloseClosesSources() {
+        final boolean[] closed = new boolean[2];
+        final Stream<Integer> sa = range(3).stream().onClose(() -> closed[0] = true);
+        final Stream<Integer> sb = range(3).stream().onClose(() -> closed[1] = true);
+        Streams.zip(sa, sb).close();
+        assertTrue(closed[0] && closed[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testChunkedRejectsNonPositiveSize() {
+        Streams.chunked(Stream.of(1, 2), 0);
+    }
+}
@@ -4,6 +4,7 @@
 import org.typemeta.funcj.json.model.Utils;
 import org.typemeta.funcj.json.model.*;
 
+import java.io.Writer;
 import java.util.*;
 
 import static java.util.stream.Collectors.toList;
@@ -19,7 +20,18 @@ public class JsonToDoc implements JsonAlg<Document> {
      * @return          the string representation of formatted JSON
      */
     public static String toString(JsValue jv, int indent, int width) {
-        return DocFormat.format(indent, width, jv.apply(JsonToDoc.INSTANCE));
+        return StreamingDocFormat.format(indent, width, jv.apply(JsonToDoc.INSTANCE));
+    }
+
+    /**
+     * Pretty-print a JSON value directly to a {@link Writer}.
+     * @param jv        the JSON value
+     * @param wtr       the writer to write the formatted JSON to
+     * @param indent    the indentation size
+     * @param width     the maximum line length
+     */
+    public static void format(JsValue jv, Writer wtr, int indent, int width) {
+        StreamingDocFormat.format(wtr, indent, width, jv.apply(JsonToDoc.INSTANCE));
     }
 
     @Override
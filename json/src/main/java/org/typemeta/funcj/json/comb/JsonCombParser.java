@@ -209,15 +209,14 @@ public static Result<Chr, JsValue> parse(Reader rdr) {
                 );
 
         final Parser<Chr, String> jstring =
-                tok(stringChar.many()
-                        .map(Chr::listToString)
+                tok(stringChar.many(chrsToString())
                         .between(dqChr, dqChr)
                 );
 
         jtext =
                 jstring.map(JSAPI::str);
 
-        jvalue = Parser.ref();
+        jvalue = Parser.ref("value");
 
         jarray =
                 jvalue.sepBy(tok(chr(',')))
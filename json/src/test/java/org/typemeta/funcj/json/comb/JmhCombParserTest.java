@@ -0,0 +1,53 @@
+package org.typemeta.funcj.json.comb;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+import org.typemeta.funcj.data.Chr;
+import org.typemeta.funcj.json.model.JsValue;
+import org.typemeta.funcj.parser.*;
+
+/**
+ * Compares the throughput of the interpreted, compiled and trampolined {@link JsonCombParser},
+ * on a shallow JSON document.
+ */
+@State(Scope.Benchmark)
+public class JmhCombParserTest {
+
+    private static final Parser<Chr, JsValue> compiled = JsonCombParser.parser.compile();
+
+    private final String json =
+            FileUtils.openResource("/example.json")
+                    .map(FileUtils::read)
+                    .orElseThrow();
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public JsValue interpreted() {
+        return JsonCombParser.parser.parse(Input.of(json)).getOrThrow();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public JsValue compiled() {
+        return compiled.parse(Input.of(json)).getOrThrow();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public JsValue trampolined() {
+        return JsonCombParser.parser.parseT(Input.of(json)).getOrThrow();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        final Options opt = new OptionsBuilder()
+                .include(JmhCombParserTest.class.getSimpleName())
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -57,6 +57,57 @@ private static void roundTrip(String json) {
         assertEquals("Round-tripped JSON", json, json2);
     }
 
+    @Test
+    public void testTrampolinedRoundTrip() {
+        for (String json : tests) {
+            final JsValue node = JsonCombParser.parser.parseT(Input.of(json)).getOrThrow();
+            assertEquals("Round-tripped JSON", json, node.toString());
+        }
+    }
+
+    @Test
+    public void testTrampolinedDeeplyNested() {
+        final int depth = 100000;
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; ++i) {
+            sb.append("[ ");
+        }
+        for (int i = 0; i < depth; ++i) {
+            sb.append("] ");
+        }
+
+        assertTrue(JsonCombParser.parser.parseT(Input.of(sb.toString())).isSuccess());
+
+        sb.setLength(sb.length() - 2);
+        assertFalse(JsonCombParser.parser.parseT(Input.of(sb.toString())).isSuccess());
+    }
+
+    @Test
+    public void testCompiledRoundTrip() {
+        final Parser<Chr, JsValue> compiled = JsonCombParser.parser.compile();
+        for (String json : tests) {
+            final JsValue node = compiled.parse(Input.of(json)).getOrThrow();
+            assertEquals("Round-tripped JSON", json, node.toString());
+        }
+    }
+
+    @Test
+    public void testCompiledJsonSuite() {
+        final Parser<Chr, JsValue> compiled = JsonCombParser.parser.compile();
+        FileUtils.openDir("json")
+                .orElseThrow()
+                .forEach(t2 -> t2.map2(FileUtils::read)
+                        .applyFrom((name, json) -> {
+                            final Result<Chr, JsValue> exp = JsonCombParser.parser.parse(Input.of(json));
+                            final Result<Chr, JsValue> act = compiled.parse(Input.of(json));
+                            assertEquals("Compiled parse of " + name, exp.isSuccess(), act.isSuccess());
+                            if (exp.isSuccess()) {
+                                assertEquals("Compiled parse of " + name, exp.getOrThrow(), act.getOrThrow());
+                            }
+                            return Unit.UNIT;
+                        }));
+    }
+
     private static final String json =
         FileUtils.openResource("/example.json")
             .map(FileUtils::read)
@@ -100,6 +100,11 @@ public static <I> Parser<I, I> satisfy(String name, Functions.Predicate<I> pred)
             public Result<I, I> apply(Input<I> in, SymSet<I> follow) {
                 return Result.success(in.get(), in.next());
             }
+
+            @Override
+            String name() {
+                return name;
+            }
         };
     }
 
@@ -67,70 +67,6 @@ static Input<Chr> of(Reader rdr) {
     Object position();
 }
 
-class StringInput implements Input<Chr> {
-
-    private final char[] data;
-    private int position;
-    private final StringInput other;
-
-    StringInput(char[] data) {
-        this.data = data;
-        this.position = 0;
-        this.other = new StringInput(this, data);
-    }
-
-    StringInput(StringInput other, char[] data) {
-        this.data = data;
-        this.position = 0;
-        this.other = other;
-    }
-
-    private StringInput setPosition(int position) {
-        this.position = position;
-        return this;
-    }
-
-    @Override
-    public String toString() {
-        final String dataStr = isEof() ? "EOF" : String.valueOf(data[position]);
-        return "StringInput{" + position + ",data=\"" + dataStr + "\"";
-    }
-
-    @Override
-    public boolean isEof() {
-        return position >= data.length;
-    }
-
-    @Override
-    public Chr get() {
-        return Chr.valueOf(data[position]);
-    }
-
-    @Override
-    public Input<Chr> next() {
-        return other.setPosition(position + 1);
-    }
-
-    @Override
-    public Object position() {
-        return position;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        StringInput that = (StringInput) o;
-        return position == that.position &&
-                data == that.data;
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(data, position);
-    }
-}
-
 class ReaderInput implements Input<Chr> {
 
     protected int position;
@@ -0,0 +1,649 @@
+package org.typemeta.funcj.parser;
+
+import org.typemeta.funcj.data.Chr;
+import org.typemeta.funcj.functions.Functions;
+
+import java.util.*;
+
+/**
+ * {@code Lexer} splits a stream of chars into a stream of {@link Token}s,
+ * which can then be consumed by parsers of type {@code Parser<Token<K>, A>}.
+ * <p>
+ * A lexer is constructed from an ordered list of token definitions,
+ * each of which is a {@link Pattern} built from char predicates and literals.
+ * The definitions are compiled into a single deterministic finite automaton,
+ * so lexing runs as one table-driven loop over the input chars.
+ * At each position the lexer selects the longest match,
+ * and, where two definitions match the same longest text, the one defined first.
+ * Text matched by a {@link Builder#skip(Pattern)} definition (e.g. whitespace) is discarded.
+ * <p>
+ * Lexer instances are immutable, and may be shared between threads.
+ * @param <K>       the token kind type
+ */
+public final class Lexer<K> {
+
+    /**
+     * Construct a builder for a lexer.
+     * @param <K>       the token kind type
+     * @return          the lexer builder
+     */
+    public static <K> Builder<K> builder() {
+        return new Builder<K>();
+    }
+
+    /**
+     * A parser that succeeds if the next token has the given kind, and returns the token.
+     * @param kind      the token kind
+     * @param <K>       the token kind type
+     * @return          a parser that succeeds if the next token has the given kind
+     */
+    public static <K> Parser<Token<K>, Token<K>> token(K kind) {
+        Objects.requireNonNull(kind);
+        return Combinators.satisfy(kind.toString(), t -> kind.equals(t.kind()));
+    }
+
+    /**
+     * A parser that succeeds if the next token has the given kind, and returns the token text.
+     * @param kind      the token kind
+     * @param <K>       the token kind type
+     * @return          a parser that succeeds if the next token has the given kind
+     */
+    public static <K> Parser<Token<K>, String> text(K kind) {
+        return token(kind).map(Token::text);
+    }
+
+    /**
+     * A lexical pattern, which matches a sequence of chars.
+     * Patterns are built from char predicates and literals,
+     * and combined via sequencing, alternation and repetition.
+     */
+    public static abstract class Pattern {
+        /**
+         * A pattern that matches a letter.
+         */
+        public static final Pattern alpha = satisfy("letter", Chr::isAlphabetic);
+
+        /**
+         * A pattern that matches a digit.
+         */
+        public static final Pattern digit = satisfy("digit", Chr::isDigit);
+
+        /**
+         * A pattern that matches a non-zero digit.
+         */
+        public static final Pattern nonZeroDigit = satisfy("nonZeroDigit", c -> c.charValue() != '0' && Chr.isDigit(c));
+
+        /**
+         * A pattern that matches a letter or a digit.
+         */
+        public static final Pattern alphaNum = satisfy("letterOrDigit", Chr::isLetterOrDigit);
+
+        /**
+         * A pattern that matches a whitespace char.
+         */
+        public static final Pattern ws = satisfy("ws", Chr::isWhitespace);
+
+        /**
+         * A pattern that matches the given char.
+         * @param c         the char
+         * @return          a pattern that matches the given char
+         */
+        public static Pattern chr(char c) {
+            return new Sym("'" + c + "'", x -> x.charValue() == c);
+        }
+
+        /**
+         * A pattern that matches any one of the given chars.
+         * @param cs        the chars
+         * @return          a pattern that matches any one of the given chars
+         */
+        public static Pattern oneOf(String cs) {
+            return new Sym("[" + cs + "]", x -> cs.indexOf(x.charValue()) != -1);
+        }
+
+        /**
+         * A pattern that matches the given string.
+         * @param s         the string
+         * @return          a pattern that matches the given string
+         */
+        public static Pattern string(String s) {
+            if (s.isEmpty()) {
+                throw new IllegalArgumentException("Literal string must be non-empty");
+            }
+            Pattern p = chr(s.charAt(0));
+            for (int i = 1; i < s.length(); ++i) {
+                p = p.and(chr(s.charAt(i)));
+            }
+            return p;
+        }
+
+        /**
+         * A pattern that matches a char which satisfies the given predicate.
+         * The predicate is evaluated for every char when the lexer is built,
+         * and therefore must be a pure function.
+         * @param name      a name for the pattern
+         * @param pred      the predicate
+         * @return          a pattern that matches a char which satisfies the predicate
+         */
+        public static Pattern satisfy(String name, Functions.Predicate<Chr> pred) {
+            return new Sym(name, Objects.requireNonNull(pred));
+        }
+
+        Pattern() {
+        }
+
+        /**
+         * Construct a pattern which matches this pattern followed by the given pattern.
+         * @param next      the next pattern
+         * @return          the sequence pattern
+         */
+        public Pattern and(Pattern next) {
+            return new Seq(this, next);
+        }
+
+        /**
+         * Construct a pattern which matches either this pattern or the given pattern.
+         * @param alt       the alternative pattern
+         * @return          the alternation pattern
+         */
+        public Pattern or(Pattern alt) {
+            return new Alt(this, alt);
+        }
+
+        /**
+         * Construct a pattern which matches zero or more repetitions of this pattern.
+         * @return          the repetition pattern
+         */
+        public Pattern many() {
+            return new Many(this);
+        }
+
+        /**
+         * Construct a pattern which matches one or more repetitions of this pattern.
+         * @return          the repetition pattern
+         */
+        public Pattern many1() {
+            return and(many());
+        }
+
+        /**
+         * Construct a pattern which optionally matches this pattern.
+         * @return          the optional pattern
+         */
+        public Pattern optional() {
+            return new Alt(this, Empty.INSTANCE);
+        }
+
+        /**
+         * Add the NFA states for this pattern to the NFA, starting at the given state.
+         * @return          the end state
+         */
+        abstract int build(Nfa nfa, int from);
+    }
+
+    static final class Sym extends Pattern {
+        final String name;
+        final Functions.Predicate<Chr> pred;
+
+        Sym(String name, Functions.Predicate<Chr> pred) {
+            this.name = name;
+            this.pred = pred;
+        }
+
+        @Override
+        int build(Nfa nfa, int from) {
+            final int a = nfa.newState();
+            final int b = nfa.newState();
+            nfa.epsilon(from, a);
+            nfa.symbol(a, nfa.symbolId(this), b);
+            return b;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static final class Seq extends Pattern {
+        final Pattern first;
+        final Pattern second;
+
+        Seq(Pattern first, Pattern second) {
+            this.first = Objects.requireNonNull(first);
+            this.second = Objects.requireNonNull(second);
+        }
+
+        @Override
+        int build(Nfa nfa, int from) {
+            return second.build(nfa, first.build(nfa, from));
+        }
+    }
+
+    static final class Alt extends Pattern {
+        final Pattern left;
+        final Pattern right;
+
+        Alt(Pattern left, Pattern right) {
+            this.left = Objects.requireNonNull(left);
+            this.right = Objects.requireNonNull(right);
+        }
+
+        @Override
+        int build(Nfa nfa, int from) {
+            final int l = left.build(nfa, from);
+            final int r = right.build(nfa, from);
+            final int end = nfa.newState();
+            nfa.epsilon(l, end);
+            nfa.epsilon(r, end);
+            return end;
+        }
+    }
+
+    static final class Many extends Pattern {
+        final Pattern p;
+
+        Many(Pattern p) {
+            this.p = Objects.requireNonNull(p);
+        }
+
+        @Override
+        int build(Nfa nfa, int from) {
+            final int loop = nfa.newState();
+            nfa.epsilon(from, loop);
+            nfa.epsilon(p.build(nfa, loop), loop);
+            return loop;
+        }
+    }
+
+    static final class Empty extends Pattern {
+        static final Empty INSTANCE = new Empty();
+
+        @Override
+        int build(Nfa nfa, int from) {
+            return from;
+        }
+    }
+
+    /**
+     * Builder for {@link Lexer}s.
+     * @param <K>       the token kind type
+     */
+    public static final class Builder<K> {
+        private final List<Pattern> patterns = new ArrayList<>();
+        private final List<K> kinds = new ArrayList<>();
+
+        Builder() {
+        }
+
+        /**
+         * Add a token definition.
+         * @param kind      the kind of the tokens produced by the definition
+         * @param pattern   the pattern which matches the token text
+         * @return          this builder
+         */
+        public Builder<K> token(K kind, Pattern pattern) {
+            patterns.add(Objects.requireNonNull(pattern));
+            kinds.add(Objects.requireNonNull(kind));
+            return this;
+        }
+
+        /**
+         * Add a token definition for a literal string, such as a keyword or a punctuation symbol.
+         * @param kind      the kind of the tokens produced by the definition
+         * @param s         the literal string
+         * @return          this builder
+         */
+        public Builder<K> literal(K kind, String s) {
+            return token(kind, Pattern.string(s));
+        }
+
+        /**
+         * Add a definition for text which is matched and then discarded, such as whitespace.
+         * @param pattern   the pattern which matches the text to be skipped
+         * @return          this builder
+         */
+        public Builder<K> skip(Pattern pattern) {
+            patterns.add(Objects.requireNonNull(pattern));
+            kinds.add(null);
+            return this;
+        }
+
+        /**
+         * Compile the definitions into a lexer.
+         * @return          the new lexer
+         * @throws IllegalArgumentException if any definition matches the empty string
+         */
+        public Lexer<K> build() {
+            return new Lexer<K>(new ArrayList<K>(kinds), Dfa.build(patterns));
+        }
+    }
+
+    /**
+     * A non-deterministic finite automaton,
+     * in which each state has epsilon transitions and at most one symbol transition.
+     */
+    static final class Nfa {
+        final List<int[]> epsilons = new ArrayList<>();
+        final List<Integer> epsilonCounts = new ArrayList<>();
+        final List<Integer> symbols = new ArrayList<>();
+        final List<Integer> symbolTargets = new ArrayList<>();
+        final List<Integer> accepts = new ArrayList<>();
+        final List<Sym> syms = new ArrayList<>();
+        final Map<Sym, Integer> symIds = new IdentityHashMap<>();
+
+        int newState() {
+            epsilons.add(new int[2]);
+            epsilonCounts.add(0);
+            symbols.add(-1);
+            symbolTargets.add(-1);
+            accepts.add(-1);
+            return epsilons.size() - 1;
+        }
+
+        int size() {
+            return epsilons.size();
+        }
+
+        void epsilon(int from, int to) {
+            int[] es = epsilons.get(from);
+            final int n = epsilonCounts.get(from);
+            if (n == es.length) {
+                es = Arrays.copyOf(es, n * 2);
+                epsilons.set(from, es);
+            }
+            es[n] = to;
+            epsilonCounts.set(from, n + 1);
+        }
+
+        void symbol(int from, int sym, int to) {
+            symbols.set(from, sym);
+            symbolTargets.set(from, to);
+        }
+
+        int symbolId(Sym sym) {
+            return symIds.computeIfAbsent(sym, s -> {
+                syms.add(s);
+                return syms.size() - 1;
+            });
+        }
+
+        void closure(BitSet states) {
+            final Deque<Integer> stack = new ArrayDeque<>();
+            states.stream().forEach(stack::push);
+            while (!stack.isEmpty()) {
+                final int s = stack.pop();
+                final int[] es = epsilons.get(s);
+                for (int i = 0, n = epsilonCounts.get(s); i < n; ++i) {
+                    if (!states.get(es[i])) {
+                        states.set(es[i]);
+                        stack.push(es[i]);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return          the earliest definition accepted by any of the states, or -1 if none
+         */
+        int accept(BitSet states) {
+            int acc = -1;
+            for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) {
+                final int a = accepts.get(s);
+                if (a != -1 && (acc == -1 || a < acc)) {
+                    acc = a;
+                }
+            }
+            return acc;
+        }
+    }
+
+    /**
+     * The deterministic finite automaton derived from the token definitions.
+     * Chars are first mapped to char classes, where all the chars in a class
+     * match exactly the same symbol predicates, which keeps the transition table small.
+     */
+    static final class Dfa {
+        static Dfa build(List<Pattern> patterns) {
+            final Nfa nfa = new Nfa();
+            final int start = nfa.newState();
+            for (int i = 0; i < patterns.size(); ++i) {
+                final int end = patterns.get(i).build(nfa, start);
+                nfa.accepts.set(end, i);
+            }
+
+            // Partition the chars into classes.
+            final int numSyms = nfa.syms.size();
+            final char[] classOf = new char[Character.MAX_VALUE + 1];
+            final Map<BitSet, Integer> classIds = new HashMap<>();
+            final List<BitSet> classSyms = new ArrayList<>();
+            for (int c = 0; c <= Character.MAX_VALUE; ++c) {
+                final Chr chr = Chr.valueOf((char)c);
+                final BitSet sig = new BitSet(numSyms);
+                for (int i = 0; i < numSyms; ++i) {
+                    if (nfa.syms.get(i).pred.test(chr)) {
+                        sig.set(i);
+                    }
+                }
+                Integer id = classIds.get(sig);
+                if (id == null) {
+                    id = classSyms.size();
+                    classIds.put(sig, id);
+                    classSyms.add(sig);
+                }
+                classOf[c] = (char)id.intValue();
+            }
+            final int numClasses = classSyms.size();
+
+            // Subset construction.
+            final BitSet startSet = new BitSet();
+            startSet.set(start);
+            nfa.closure(startSet);
+            final int startAccept = nfa.accept(startSet);
+            if (startAccept != -1) {
+                throw new IllegalArgumentException(
+                        "Definition " + startAccept + " matches the empty string");
+            }
+
+            final Map<BitSet, Integer> stateIds = new HashMap<>();
+            final List<BitSet> states = new ArrayList<>();
+            final List<int[]> trans = new ArrayList<>();
+            final List<Integer> accepts = new ArrayList<>();
+            stateIds.put(startSet, 0);
+            states.add(startSet);
+            accepts.add(-1);
+
+            for (int d = 0; d < states.size(); ++d) {
+                final BitSet set = states.get(d);
+                final int[] row = new int[numClasses];
+                for (int k = 0; k < numClasses; ++k) {
+                    final BitSet sig = classSyms.get(k);
+                    final BitSet next = new BitSet();
+                    for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1)) {
+                        final int sym = nfa.symbols.get(s);
+                        if (sym != -1 && sig.get(sym)) {
+                            next.set(nfa.symbolTargets.get(s));
+                        }
+                    }
+                    if (next.isEmpty()) {
+                        row[k] = -1;
+                    } else {
+                        nfa.closure(next);
+                        Integer id = stateIds.get(next);
+                        if (id == null) {
+                            id = states.size();
+                            stateIds.put(next, id);
+                            states.add(next);
+                            accepts.add(nfa.accept(next));
+                        }
+                        row[k] = id;
+                    }
+                }
+                trans.add(row);
+            }
+
+            final int numStates = states.size();
+            final int[] table = new int[numStates * numClasses];
+            final int[] accept = new int[numStates];
+            for (int d = 0; d < numStates; ++d) {
+                System.arraycopy(trans.get(d), 0, table, d * numClasses, numClasses);
+                accept[d] = accepts.get(d);
+            }
+
+            return new Dfa(classOf, numClasses, table, accept);
+        }
+
+        final char[] classOf;
+        final int numClasses;
+        final int[] trans;
+        final int[] accept;
+
+        private Dfa(char[] classOf, int numClasses, int[] trans, int[] accept) {
+            this.classOf = classOf;
+            this.numClasses = numClasses;
+            this.trans = trans;
+            this.accept = accept;
+        }
+    }
+
+    private final List<K> kinds;
+    private final Dfa dfa;
+
+    private Lexer(List<K> kinds, Dfa dfa) {
+        this.kinds = kinds;
+        this.dfa = dfa;
+    }
+
+    /**
+     * Split a string into tokens.
+     * @param s         the input string
+     * @return          the token stream
+     */
+    public Input<Token<K>> lex(String s) {
+        return lex(s.toCharArray());
+    }
+
+    /**
+     * Split a {@code char} array into tokens.
+     * @param data      the input data
+     * @return          the token stream
+     */
+    public Input<Token<K>> lex(char[] data) {
+        return new TokenInput<K>(tokens(data));
+    }
+
+    /**
+     * Split a {@code char} array into a list of tokens.
+     * @param data      the input data
+     * @return          the tokens
+     */
+    public List<Token<K>> tokens(char[] data) {
+        final char[] classOf = dfa.classOf;
+        final int numClasses = dfa.numClasses;
+        final int[] trans = dfa.trans;
+        final int[] accept = dfa.accept;
+
+        final List<Token<K>> tokens = new ArrayList<>();
+        final int n = data.length;
+        int pos = 0;
+        while (pos < n) {
+            int state = 0;
+            int lastAccept = -1;
+            int lastEnd = pos;
+            for (int i = pos; i < n; ) {
+                state = trans[state * numClasses + classOf[data[i]]];
+                if (state == -1) {
+                    break;
+                }
+                ++i;
+                final int acc = accept[state];
+                if (acc != -1) {
+                    lastAccept = acc;
+                    lastEnd = i;
+                }
+            }
+
+            if (lastAccept == -1) {
+                tokens.add(new Token<K>(null, String.valueOf(data[pos]), pos));
+                ++pos;
+            } else {
+                final K kind = kinds.get(lastAccept);
+                if (kind != null) {
+                    tokens.add(new Token<K>(kind, new String(data, pos, lastEnd - pos), pos));
+                }
+                pos = lastEnd;
+            }
+        }
+
+        return tokens;
+    }
+
+    /**
+     * An {@code Input} over a list of tokens.
+     * As with {@code StringInput}, a pair of instances are used alternately,
+     * so that stepping through the input does not allocate.
+     */
+    static final class TokenInput<K> implements Input<Token<K>> {
+        private final Token<?>[] tokens;
+        private int position;
+        private final TokenInput<K> other;
+
+        TokenInput(List<Token<K>> tokens) {
+            this.tokens = tokens.toArray(new Token<?>[0]);
+            this.position = 0;
+            this.other = new TokenInput<K>(this, this.tokens);
+        }
+
+        private TokenInput(TokenInput<K> other, Token<?>[] tokens) {
+            this.tokens = tokens;
+            this.position = 0;
+            this.other = other;
+        }
+
+        private TokenInput<K> setPosition(int position) {
+            this.position = position;
+            return this;
+        }
+
+        @Override
+        public boolean isEof() {
+            return position >= tokens.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Token<K> get() {
+            return (Token<K>)tokens[position];
+        }
+
+        @Override
+        public Input<Token<K>> next() {
+            return other.setPosition(position + 1);
+        }
+
+        @Override
+        public Object position() {
+            return position;
+        }
+
+        @Override
+        public String toString() {
+            final String tokStr = isEof() ? "EOF" : String.valueOf(tokens[position]);
+            return "TokenInput{" + position + ",token=" + tokStr + "}";
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            TokenInput<?> that = (TokenInput<?>) o;
+            return position == that.position &&
+                    tokens == that.tokens;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tokens, position);
+        }
+    }
+}
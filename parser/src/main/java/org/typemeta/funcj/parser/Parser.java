@@ -1,11 +1,16 @@
 package org.typemeta.funcj.parser;
 
+import org.typemeta.funcj.control.Trampoline;
 import org.typemeta.funcj.data.*;
 import org.typemeta.funcj.functions.Functions;
 import org.typemeta.funcj.functions.Functions.*;
 import org.typemeta.funcj.tuples.Tuple2;
 
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
 import java.util.stream.Stream;
 
 import static org.typemeta.funcj.parser.Parser.pure;
@@ -29,6 +34,18 @@ static <I, A> Ref<I, A> ref() {
         return new Ref<I, A>();
     }
 
+    /**
+     * Construct an uninitialised named parser reference object.
+     * The name identifies the reference in {@link Profiler} reports.
+     * @param name      the reference name
+     * @param <I>       the input stream symbol type
+     * @param <A>       the parser result type
+     * @return          the uninitialised parser reference
+     */
+    static <I, A> Ref<I, A> ref(String name) {
+        return new Ref<I, A>(name);
+    }
+
     /**
      * Construct a parser reference object from a parser.
      * @param <I>       the input stream symbol type
@@ -103,6 +120,38 @@ public Result<I, B> apply(Input<I> in, SymSet<I> follow) {
                     return ((Result.Failure<I, F<A, B>>) r).cast();
                 }
             }
+
+            @Override
+            public Trampoline<Result<I, B>> applyT(Input<I> in, SymSet<I> follow) {
+                final SymSet<I> followF =
+                        combine(
+                                pa.acceptsEmpty().apply(),
+                                pa.firstSet().apply(),
+                                follow);
+
+                return pf.applyT(in, followF).flatMap(r -> {
+                    if (r.isSuccess()) {
+                        final Result.Success<I, F<A, B>> succ = (Result.Success<I, F<A, B>>) r;
+                        final Input<I> next = succ.next();
+                        if (!pa.acceptsEmpty().apply()) {
+                            if (next.isEof()) {
+                                return Trampoline.done(failureEof(pa, next));
+                            } else if (!pa.firstSet().apply().matches(next.get())) {
+                                return Trampoline.done(failure(pa, next));
+                            }
+                        }
+
+                        return pa.applyT(next, follow).map(r2 -> r2.map(succ.value()));
+                    } else {
+                        return Trampoline.done(((Result.Failure<I, F<A, B>>) r).cast());
+                    }
+                });
+            }
+
+            @Override
+            Parser<I, B> compile(ParserCompiler compiler) {
+                return compiler.ap(this, pf, pa);
+            }
         };
     }
 
@@ -192,6 +241,29 @@ default Result<I, A> parse(Input<I> in) {
         }
     }
 
+    /**
+     * Apply this parser to the input stream, using the stack-safe trampolined execution mode.
+     * Fail if eof isn't reached.
+     * <p>
+     * This is the equivalent of {@link Parser#parse(Input)} for grammars which are deeply nested,
+     * e.g. deeply nested JSON arrays, where the direct execution mode would throw a {@link StackOverflowError}.
+     * The nesting depth is then limited only by the available heap.
+     * @param in        the input stream
+     * @return          the parser result
+     */
+    default Result<I, A> parseT(Input<I> in) {
+        final Parser<I, A> parserAndEof = this.andL(Combinators.eof());
+        if (acceptsEmpty().apply()) {
+            return parserAndEof.applyT(in, SymSet.empty()).runT();
+        } else if (in.isEof()) {
+            return failureEof(this, in);
+        } else if (firstSet().apply().matches(in.get())) {
+            return parserAndEof.applyT(in, SymSet.empty()).runT();
+        } else {
+            return failure(this, in);
+        }
+    }
+
     /**
      * Indicate whether this parser accepts the empty symbol.
      * @return          a lazy wrapper for true iff the parser accepts the empty symbol
@@ -225,6 +297,45 @@ default Result<I, A> apply(Input<I> in) {
         return this.apply(in, SymSet.empty());
     }
 
+    /**
+     * Apply this parser to the input stream, in the trampolined execution mode.
+     * <p>
+     * Parsers which apply other parsers override this method
+     * to return a {@link Trampoline} which defers the application of those parsers.
+     * Parsers which do not, such as the primitive symbol parsers,
+     * can rely on this default implementation, which simply wraps the result of {@link Parser#apply}.
+     * Note: If this parser is being used as a standalone parser,
+     * then call {@link Parser#parseT(Input)} to parse an input.
+     * @param in        the input stream
+     * @param follow    the dynamic follow set
+     * @return          the deferred parse result
+     */
+    default Trampoline<Result<I, A>> applyT(Input<I> in, SymSet<I> follow) {
+        return Trampoline.done(apply(in, follow));
+    }
+
+    /**
+     * Compile this parser into an equivalent specialised parser.
+     * <p>
+     * Grammars are typically constructed once and then applied many times.
+     * Compilation takes a fully constructed parser graph,
+     * in which all {@link Ref}s have been initialised,
+     * evaluates the static analysis of each parser up front,
+     * and replaces the combinators with specialised equivalents,
+     * which avoid much of the interpretive overhead of applying the graph.
+     * The compiled parser behaves exactly like this parser,
+     * provided any symbol predicates used in the grammar (e.g. via {@link Combinators#satisfy})
+     * are pure functions.
+     * <p>
+     * Compiled parsers use the direct execution mode,
+     * so should not be used with {@link Parser#parseT(Input)}.
+     * @return          the compiled parser
+     * @throws          RuntimeException if the graph contains an uninitialised {@code Ref}
+     */
+    default Parser<I, A> compile() {
+        return ParserCompiler.compileRoot(this);
+    }
+
     @SuppressWarnings("unchecked")
     default <B> Parser<I, B> cast() {
         return (Parser<I, B>)this;
@@ -247,6 +358,51 @@ default <B> Parser<I, B> map(F<A, B> f) {
             public Result<I, B> apply(Input<I> in, SymSet<I> follow) {
                 return Parser.this.apply(in, follow).map(f);
             }
+
+            @Override
+            public Trampoline<Result<I, B>> applyT(Input<I> in, SymSet<I> follow) {
+                return Parser.this.applyT(in, follow).map(r -> r.map(f));
+            }
+
+            @Override
+            Parser<I, B> compile(ParserCompiler compiler) {
+                return compiler.map(this, Parser.this, f);
+            }
+        };
+    }
+
+    /**
+     * Construct a parser which labels this parser with a name.
+     * The labelled parser behaves exactly like this parser,
+     * however the name identifies the parser in {@link Profiler} reports.
+     * Labels are removed when the parser is compiled.
+     * @param name      the label
+     * @return          a parser which labels this parser with a name
+     */
+    default Parser<I, A> label(String name) {
+        return new ParserImpl<I, A>(
+            Parser.this.acceptsEmpty(),
+            Parser.this.firstSet()
+        ) {
+            @Override
+            public Result<I, A> apply(Input<I> in, SymSet<I> follow) {
+                return Parser.this.apply(in, follow);
+            }
+
+            @Override
+            public Trampoline<Result<I, A>> applyT(Input<I> in, SymSet<I> follow) {
+                return Parser.this.applyT(in, follow);
+            }
+
+            @Override
+            String name() {
+                return name;
+            }
+
+            @Override
+            Parser<I, A> compile(ParserCompiler compiler) {
+                return compiler.compile(Parser.this);
+            }
         };
     }
 
@@ -289,6 +445,39 @@ public Result<I, A> apply(Input<I> in, SymSet<I> follow) {
                     return failure(this, in);
                 }
             }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Trampoline<Result<I, A>> applyT(Input<I> in, SymSet<I> follow) {
+                if (in.isEof()) {
+                    if (Parser.this.acceptsEmpty().apply()) {
+                        return Parser.this.applyT(in, follow);
+                    } else if (rhs.acceptsEmpty().apply()) {
+                        return rhs.applyT(in, follow).map(r -> (Result<I, A>)r);
+                    } else {
+                        return Trampoline.done(failureEof(this, in));
+                    }
+                } else {
+                    final I next = in.get();
+                    if (Parser.this.firstSet().apply().matches(next)) {
+                        return Parser.this.applyT(in, follow);
+                    } else if (rhs.firstSet().apply().matches(next)) {
+                        return rhs.applyT(in, follow).map(r -> (Result<I, A>)r);
+                    } else if (follow.matches(next)) {
+                        if (Parser.this.acceptsEmpty().apply()) {
+                            return Parser.this.applyT(in, follow);
+                        } else if (rhs.acceptsEmpty().apply()) {
+                            return rhs.applyT(in, follow).map(r -> (Result<I, A>)r);
+                        }
+                    }
+                    return Trampoline.done(failure(this, in));
+                }
+            }
+
+            @Override
+            Parser<I, A> compile(ParserCompiler compiler) {
+                return compiler.choice(this, Arrays.asList(Parser.this, rhs));
+            }
         };
     }
 
@@ -336,14 +525,7 @@ default <B> Parser<I, B> andR(Parser<I, B> pb) {
      * @return          a parser which applies this parser zero or more times until it fails
      */
     default Parser<I, IList<A>> many() {
-        // We want to provide an alert at construction time if the caller attempts to create a many
-        // parser from one that accepts empty (which would lead to an infinite loop at parsing time).
-        // But, an unitialise Ref will throw an exception if we call acceptsEmpty,
-        // so for that particular case we have to skip the check.
-        if (Utils.ifClass(Ref.class, this).map(Ref::initialised).orElse(true)
-                && acceptsEmpty().apply()) {
-            throw new RuntimeException("Cannot construct a many parser from one that accepts empty");
-        }
+        checkManyParser(this);
 
         // We use an iterative implementation, in favour of a more concise recursive solution,
         // for performance, and to avoid StackOverflowExceptions.
@@ -370,6 +552,59 @@ public Result<I, IList<A>> apply(Input<I> in, SymSet<I> follow) {
                     return Result.success(acc.reverse(), in);
                 }
             }
+
+            @Override
+            public Trampoline<Result<I, IList<A>>> applyT(Input<I> in, SymSet<I> follow) {
+                final SymSet<I> follow2 = follow.union(Parser.this.firstSet().apply());
+                return manyT(Parser.this, IList::add, IList.<A>of(), in, follow2)
+                        .map(r -> r.map(IList::reverse));
+            }
+
+            @Override
+            Parser<I, IList<A>> compile(ParserCompiler compiler) {
+                return compiler.many(this, Parser.this, IList::<A>of, IList::add, IList::reverse);
+            }
+        };
+    }
+
+    /**
+     * A parser which repeatedly applies this parser until it fails,
+     * and then returns the results accumulated by the {@link Collector}.
+     * If this parser fails on the first attempt then the parser succeeds,
+     * with the result of finishing an empty accumulation.
+     * <p>
+     * Unlike {@link Parser#many()}, the results are passed directly to the collector,
+     * so no intermediate {@code IList} is constructed.
+     * @param collector the collector used to accumulate the results
+     * @param <C>       the collector's mutable accumulation type
+     * @param <R>       the collector result type
+     * @return          a parser which applies this parser zero or more times until it fails
+     */
+    default <C, R> Parser<I, R> many(Collector<? super A, C, R> collector) {
+        checkManyParser(this);
+
+        final Supplier<C> supplier = collector.supplier();
+        final BiConsumer<C, ? super A> accumulator = collector.accumulator();
+        final Function<C, R> finisher = collector.finisher();
+
+        return new ParserImpl<I, R>(LTRUE, this.firstSet()) {
+            @Override
+            public Result<I, R> apply(Input<I> in, SymSet<I> follow) {
+                final SymSet<I> follow2 = follow.union(Parser.this.firstSet().apply());
+                return collectMany(Parser.this, supplier.get(), accumulator, in, follow2).map(finisher::apply);
+            }
+
+            @Override
+            public Trampoline<Result<I, R>> applyT(Input<I> in, SymSet<I> follow) {
+                final SymSet<I> follow2 = follow.union(Parser.this.firstSet().apply());
+                return manyT(Parser.this, accumulate(accumulator), supplier.get(), in, follow2)
+                        .map(r -> r.map(finisher::apply));
+            }
+
+            @Override
+            Parser<I, R> compile(ParserCompiler compiler) {
+                return compiler.many(this, Parser.this, supplier::get, accumulate(accumulator), finisher::apply);
+            }
         };
     }
 
@@ -415,6 +650,87 @@ public Result<I, IList<A>> apply(Input<I> in, SymSet<I> follow) {
                     return Result.success(acc.reverse(), in);
                 }
             }
+
+            @Override
+            public Trampoline<Result<I, IList<A>>> applyT(Input<I> in, SymSet<I> follow) {
+                final SymSet<I> follow2 = combine(end.acceptsEmpty().apply(), end.firstSet().apply(), follow);
+                return manyTillT(Parser.this, end, IList::add, IList.<A>of(), in, follow, follow2)
+                        .map(r -> r.map(IList::reverse));
+            }
+
+            @Override
+            Parser<I, IList<A>> compile(ParserCompiler compiler) {
+                return compiler.manyTill(this, Parser.this, end, IList::<A>of, IList::add, IList::reverse);
+            }
+        };
+    }
+
+    /**
+     * A parser which repeatedly applies this parser until the end parser succeeds,
+     * and then returns the results accumulated by the {@link Collector}.
+     * @param end       the end parser
+     * @param collector the collector used to accumulate the results
+     * @param <B>       the result type of the end parser
+     * @param <C>       the collector's mutable accumulation type
+     * @param <R>       the collector result type
+     * @return          a parser which applies this parser zero or more times until end succeeds
+     */
+    default <B, C, R> Parser<I, R> manyTill(Parser<I, B> end, Collector<? super A, C, R> collector) {
+        final Supplier<C> supplier = collector.supplier();
+        final BiConsumer<C, ? super A> accumulator = collector.accumulator();
+        final Function<C, R> finisher = collector.finisher();
+
+        return new ParserImpl<I, R>(
+                end.acceptsEmpty(),
+                union(Parser.this.firstSet(), end.firstSet())) {
+            @Override
+            public Result<I, R> apply(Input<I> in, SymSet<I> follow) {
+                final C acc = supplier.get();
+                final SymSet<I> follow2 = combine(end.acceptsEmpty().apply(), end.firstSet().apply(), follow);
+                while (true) {
+                    if (!in.isEof()) {
+                        final I i = in.get();
+                        if (end.firstSet().apply().matches(i)) {
+                            final Result<I, B> r = end.apply(in, follow);
+                            if (r.isSuccess()) {
+                                final Result.Success<I, B> succ = (Result.Success<I, B>) r;
+                                in = succ.next();
+                            } else {
+                                return ((Result.Failure<I, B>)r).cast();
+                            }
+                        } else if (Parser.this.firstSet().apply().matches(i)) {
+                            final Result<I, A> r = Parser.this.apply(in, follow2);
+                            if (r.isSuccess()) {
+                                final Result.Success<I, A> succ = (Result.Success<I, A>) r;
+                                accumulator.accept(acc, succ.value());
+                                in = succ.next();
+                                continue;
+                            } else {
+                                return ((Result.Failure<I, A>)r).cast();
+                            }
+                        }
+                    }
+                    return Result.success(finisher.apply(acc), in);
+                }
+            }
+
+            @Override
+            public Trampoline<Result<I, R>> applyT(Input<I> in, SymSet<I> follow) {
+                final SymSet<I> follow2 = combine(end.acceptsEmpty().apply(), end.firstSet().apply(), follow);
+                return manyTillT(Parser.this, end, accumulate(accumulator), supplier.get(), in, follow, follow2)
+                        .map(r -> r.map(finisher::apply));
+            }
+
+            @Override
+            Parser<I, R> compile(ParserCompiler compiler) {
+                return compiler.manyTill(
+                        this,
+                        Parser.this,
+                        end,
+                        supplier::get,
+                        accumulate(accumulator),
+                        finisher::apply);
+            }
         };
     }
 
@@ -460,6 +776,38 @@ public Result<I, A> apply(Input<I> in, SymSet<I> follow) {
                     return failure(this, in);
                 }
             }
+
+            @Override
+            public Trampoline<Result<I, A>> applyT(Input<I> in, SymSet<I> follow) {
+                if (in.isEof()) {
+                    for (Parser<I, A> p : ps) {
+                        if (p.acceptsEmpty().apply()) {
+                            return p.applyT(in, follow);
+                        }
+                    }
+                    return Trampoline.done(failureEof(this, in));
+                } else {
+                    final I next = in.get();
+                    for (Parser<I, A> p : ps) {
+                        if (p.firstSet().apply().matches(next)) {
+                            return p.applyT(in, follow);
+                        }
+                    }
+                    if (follow.matches(next)) {
+                        for (Parser<I, A> p : ps) {
+                            if (p.acceptsEmpty().apply()) {
+                                return p.applyT(in, follow);
+                            }
+                        }
+                    }
+                    return Trampoline.done(failure(this, in));
+                }
+            }
+
+            @Override
+            Parser<I, A> compile(ParserCompiler compiler) {
+                return compiler.choice(this, ps.toList());
+            }
         };
     }
 
@@ -492,6 +840,19 @@ default Parser<I, IList.NonEmpty<A>> many1() {
                 .map(a -> l -> l.add(a));
     }
 
+    /**
+     * A parser which applies this parser one or more times until it fails,
+     * and then returns the results accumulated by the {@link Collector}.
+     * Note, if this parser fails on the first attempt then the parser fails.
+     * @param collector the collector used to accumulate the results
+     * @param <C>       the collector's mutable accumulation type
+     * @param <R>       the collector result type
+     * @return          a parser which applies this parser repeatedly until it fails
+     */
+    default <C, R> Parser<I, R> many1(Collector<? super A, C, R> collector) {
+        return collectMany1(this, this, collector);
+    }
+
     /**
      * A parser which applies this parser zero or more times until it fails,
      * and throws away the results.
@@ -499,8 +860,7 @@ default Parser<I, IList.NonEmpty<A>> many1() {
      * @return          a parser which applies this parser repeatedly until it fails
      */
     default Parser<I, Unit> skipMany() {
-        return this.many()
-                .map(u -> Unit.UNIT);
+        return this.many(SKIP);
     }
 
     /**
@@ -532,6 +892,49 @@ default <SEP> Parser<I, IList.NonEmpty<A>> sepBy1(Parser<I, SEP> sep) {
                 .map(a -> l -> l.add(a));
     }
 
+    /**
+     * A parser which applies this parser zero or more times until it fails,
+     * alternating with calls to the {@code sep} parser.
+     * The results of this parser are accumulated by the {@link Collector}
+     * and returned by the parser.
+     * @param sep       the separator parser
+     * @param collector the collector used to accumulate the results
+     * @param <SEP>     the separator type
+     * @param <C>       the collector's mutable accumulation type
+     * @param <R>       the collector result type
+     * @return          a parser which applies this parser zero or more times alternated with {@code sep}
+     */
+    default <SEP, C, R> Parser<I, R> sepBy(Parser<I, SEP> sep, Collector<? super A, C, R> collector) {
+        final Supplier<C> supplier = collector.supplier();
+        final Function<C, R> finisher = collector.finisher();
+
+        // Each parse requires a fresh (possibly mutable) empty result, hence we can't use pure here.
+        final Parser<I, R> empty = new ParserImpl<I, R>(LTRUE, SymSet::empty) {
+            @Override
+            public Result<I, R> apply(Input<I> in, SymSet<I> follow) {
+                return Result.success(finisher.apply(supplier.get()), in);
+            }
+        };
+
+        return this.sepBy1(sep, collector).or(empty);
+    }
+
+    /**
+     * A parser which applies this parser one or more times until it fails,
+     * alternating with calls to the {@code sep} parser.
+     * The results of this parser are accumulated by the {@link Collector}
+     * and returned by the parser.
+     * @param sep       the separator parser
+     * @param collector the collector used to accumulate the results
+     * @param <SEP>     the separator type
+     * @param <C>       the collector's mutable accumulation type
+     * @param <R>       the collector result type
+     * @return          a parser which applies this parser one or more times alternated with {@code sep}
+     */
+    default <SEP, C, R> Parser<I, R> sepBy1(Parser<I, SEP> sep, Collector<? super A, C, R> collector) {
+        return collectMany1(this, sep.andR(this), collector);
+    }
+
     /**
      * A parser that applies this parser, and, if it succeeds,
      * returns the result wrapped in an {@link Optional},
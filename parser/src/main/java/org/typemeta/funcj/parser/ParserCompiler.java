@@ -0,0 +1,636 @@
+package org.typemeta.funcj.parser;
+
+import org.typemeta.funcj.data.Chr;
+import org.typemeta.funcj.functions.Functions.*;
+
+import java.util.*;
+
+import static org.typemeta.funcj.parser.Utils.*;
+
+/**
+ * {@code ParserCompiler} translates a fully constructed parser graph
+ * into an equivalent graph of specialised parsers.
+ * <p>
+ * The parsers constructed by the combinators evaluate their static properties
+ * (whether they accept empty, and their First Sets) lazily,
+ * and recompute the dynamic Follow Sets on each application.
+ * The compiled parsers instead evaluate the static properties once, at compile time,
+ * and hold them in fields. In addition:
+ * <ul>
+ *     <li>{@link Ref}s are resolved, so uninitialised references are reported at compile time;</li>
+ *     <li>First Set tests on {@link Chr} symbols are tabulated, for the ASCII range;</li>
+ *     <li>choices dispatch on the next symbol via a table, rather than testing each alternative in turn;</li>
+ *     <li>a {@code map} which feeds a sequencing step is fused into that step,
+ *     removing the intermediate {@link Result};</li>
+ *     <li>Follow Set unions are cached against the incoming Follow Set.</li>
+ * </ul>
+ * Primitive parsers, and any {@code Parser} implementations which are unknown to the compiler,
+ * are used as is.
+ */
+final class ParserCompiler {
+
+    /**
+     * The size of the tables used to tabulate symbol tests on {@code Chr} symbols.
+     */
+    private static final int TABLE_SIZE = 128;
+
+    static <I, A> Parser<I, A> compileRoot(Parser<I, A> p) {
+        return new ParserCompiler(null).compileRootImpl(p);
+    }
+
+    static <I, A> Parser<I, A> instrumentRoot(Parser<I, A> p, Profiler profiler) {
+        return new ParserCompiler(Objects.requireNonNull(profiler)).compileRootImpl(p);
+    }
+
+    private final Map<Parser<?, ?>, Parser<?, ?>> compiled = new IdentityHashMap<>();
+
+    private final Profiler profiler;
+
+    private ParserCompiler(Profiler profiler) {
+        this.profiler = profiler;
+    }
+
+    private <I, A> Parser<I, A> compileRootImpl(Parser<I, A> p) {
+        final Parser<I, A> root = compile(p);
+        final Parser<I, A> rootAndEof = compile(p.andL(Combinators.eof()));
+        return new Root<I, A>(p, root, rootAndEof);
+    }
+
+    /**
+     * If we are instrumenting, and the parser is named, then wrap the compiled parser in a probe.
+     */
+    private <I, A> Parser<I, A> probe(Parser<I, A> orig, String name, Parser<I, A> node) {
+        if (profiler == null || name == null) {
+            return node;
+        } else {
+            return new ProbeNode<I, A>(orig, node, profiler.stats(name));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    <I, A> Parser<I, A> compile(Parser<I, A> p) {
+        final Parser<I, A> cp = (Parser<I, A>)compiled.get(p);
+        if (cp != null) {
+            return cp;
+        } else if (p instanceof Ref) {
+            // Register the node before compiling the referenced parser, to terminate cycles.
+            final Ref<I, A> ref = (Ref<I, A>)p;
+            final RefNode<I, A> node = new RefNode<I, A>(p);
+            final Parser<I, A> probed = probe(p, ref.name(), node);
+            compiled.put(p, probed);
+            node.target = compile(ref.impl());
+            return probed;
+        } else if (p instanceof ParserImpl) {
+            final ParserImpl<I, A> pi = (ParserImpl<I, A>)p;
+            final Parser<I, A> node = probe(p, pi.name(), pi.compile(this));
+            compiled.put(p, node);
+            return node;
+        } else {
+            return p;
+        }
+    }
+
+    <I, A, B> Parser<I, B> map(Parser<I, B> orig, Parser<I, A> p, F<A, B> f) {
+        final Parser<I, A> cp = compile(p);
+        if (cp instanceof MapNode) {
+            return fuse(orig, (MapNode<I, ?, A>)cp, f);
+        } else {
+            return new MapNode<I, A, B>(orig, cp, f);
+        }
+    }
+
+    private static <I, X, A, B> Parser<I, B> fuse(Parser<I, B> orig, MapNode<I, X, A> mn, F<A, B> f) {
+        return new MapNode<I, X, B>(orig, mn.p, mn.f.andThen(f));
+    }
+
+    <I, A, B> Parser<I, B> ap(Parser<I, B> orig, Parser<I, F<A, B>> pf, Parser<I, A> pa) {
+        final Parser<I, F<A, B>> cpf = compile(pf);
+        final Parser<I, A> cpa = compile(pa);
+        if (cpf instanceof MapNode) {
+            return fuse(orig, (MapNode<I, ?, F<A, B>>)cpf, pa, cpa);
+        } else {
+            return new ApNode<I, F<A, B>, A, B>(orig, cpf, F.id(), pa, cpa);
+        }
+    }
+
+    private static <I, X, A, B> Parser<I, B> fuse(
+            Parser<I, B> orig,
+            MapNode<I, X, F<A, B>> mn,
+            Parser<I, A> pa,
+            Parser<I, A> cpa) {
+        return new ApNode<I, X, A, B>(orig, mn.p, mn.f, pa, cpa);
+    }
+
+    @SuppressWarnings("unchecked")
+    <I, A> Parser<I, A> choice(Parser<I, A> orig, List<? extends Parser<I, ? extends A>> ps) {
+        final List<Parser<I, A>> origs = new ArrayList<Parser<I, A>>(ps.size());
+        final List<Parser<I, A>> cps = new ArrayList<Parser<I, A>>(ps.size());
+        for (Parser<I, ? extends A> p : ps) {
+            origs.add((Parser<I, A>)p);
+            cps.add((Parser<I, A>)compile(p));
+        }
+        return new ChoiceNode<I, A>(orig, origs, cps);
+    }
+
+    <I, A, C, R> Parser<I, R> many(
+            Parser<I, R> orig,
+            Parser<I, A> p,
+            F0<C> init,
+            F2<C, A, C> step,
+            F<C, R> finish) {
+        return new ManyNode<I, A, C, R>(orig, p, compile(p), init, step, finish);
+    }
+
+    <I, A, C, R> Parser<I, R> many1(
+            Parser<I, R> orig,
+            Parser<I, A> first,
+            Parser<I, A> rest,
+            F0<C> init,
+            F2<C, A, C> step,
+            F<C, R> finish) {
+        return new Many1Node<I, A, C, R>(orig, compile(first), rest, compile(rest), init, step, finish);
+    }
+
+    <I, A, B, C, R> Parser<I, R> manyTill(
+            Parser<I, R> orig,
+            Parser<I, A> p,
+            Parser<I, B> end,
+            F0<C> init,
+            F2<C, A, C> step,
+            F<C, R> finish) {
+        return new ManyTillNode<I, A, B, C, R>(orig, p, compile(p), end, compile(end), init, step, finish);
+    }
+
+    /**
+     * A symbol test, which caches the results for {@code Chr} symbols in the ASCII range.
+     * The symbol set predicates are assumed to be pure functions.
+     */
+    static final class SymTable<I> {
+        private final SymSet<I> symSet;
+
+        // 0 = not yet known, 1 = matches, 2 = doesn't match.
+        private final byte[] table = new byte[TABLE_SIZE];
+
+        SymTable(SymSet<I> symSet) {
+            this.symSet = symSet;
+        }
+
+        boolean matches(I sym) {
+            if (sym instanceof Chr) {
+                final char c = ((Chr)sym).charValue();
+                if (c < TABLE_SIZE) {
+                    byte b = table[c];
+                    if (b == 0) {
+                        b = symSet.matches(sym) ? (byte)1 : (byte)2;
+                        table[c] = b;
+                    }
+                    return b == 1;
+                }
+            }
+            return symSet.matches(sym);
+        }
+    }
+
+    /**
+     * The union of a fixed symbol set with a Follow Set, cached against the last Follow Set seen.
+     */
+    static final class UnionCache<I> {
+        private static final class Entry<I> {
+            final SymSet<I> follow;
+            final SymSet<I> union;
+
+            Entry(SymSet<I> follow, SymSet<I> union) {
+                this.follow = follow;
+                this.union = union;
+            }
+        }
+
+        private final SymSet<I> symSet;
+        private final boolean symSetFirst;
+        private Entry<I> last;
+
+        UnionCache(SymSet<I> symSet, boolean symSetFirst) {
+            this.symSet = symSet;
+            this.symSetFirst = symSetFirst;
+        }
+
+        SymSet<I> union(SymSet<I> follow) {
+            final Entry<I> entry = last;
+            if (entry != null && entry.follow == follow) {
+                return entry.union;
+            } else {
+                final SymSet<I> union = symSetFirst ? symSet.union(follow) : follow.union(symSet);
+                last = new Entry<I>(follow, union);
+                return union;
+            }
+        }
+    }
+
+    /**
+     * Base class for compiled parsers.
+     * The static properties of the original parser are evaluated once, at construction.
+     */
+    abstract static class Node<I, A> extends ParserImpl<I, A> {
+        final boolean acceptsEmpty;
+        final SymSet<I> firstSet;
+        final SymTable<I> firstTable;
+
+        Node(Parser<I, A> orig) {
+            this(orig.acceptsEmpty().apply(), orig.firstSet().apply());
+        }
+
+        private Node(boolean acceptsEmpty, SymSet<I> firstSet) {
+            super(acceptsEmpty ? LTRUE : LFALSE, () -> firstSet);
+            this.acceptsEmpty = acceptsEmpty;
+            this.firstSet = firstSet;
+            this.firstTable = new SymTable<I>(firstSet);
+        }
+    }
+
+    static final class Root<I, A> extends Node<I, A> {
+        private final Parser<I, A> root;
+        private final Parser<I, A> rootAndEof;
+
+        Root(Parser<I, A> orig, Parser<I, A> root, Parser<I, A> rootAndEof) {
+            super(orig);
+            this.root = root;
+            this.rootAndEof = rootAndEof;
+        }
+
+        @Override
+        public Result<I, A> parse(Input<I> in) {
+            if (acceptsEmpty) {
+                return rootAndEof.apply(in, SymSet.empty());
+            } else if (in.isEof()) {
+                return Result.failureEof(in, firstSet);
+            } else if (firstTable.matches(in.get())) {
+                return rootAndEof.apply(in, SymSet.empty());
+            } else {
+                return Result.failure(in, firstSet);
+            }
+        }
+
+        @Override
+        public Result<I, A> apply(Input<I> in, SymSet<I> follow) {
+            return root.apply(in, follow);
+        }
+
+        @Override
+        public Parser<I, A> compile() {
+            return this;
+        }
+    }
+
+    static final class RefNode<I, A> extends Node<I, A> {
+        Parser<I, A> target;
+
+        RefNode(Parser<I, A> orig) {
+            super(orig);
+        }
+
+        @Override
+        public Result<I, A> apply(Input<I> in, SymSet<I> follow) {
+            return target.apply(in, follow);
+        }
+    }
+
+    /**
+     * Records the applications of a named parser.
+     */
+    static final class ProbeNode<I, A> extends Node<I, A> {
+        private final Parser<I, A> p;
+        private final Profiler.Stats stats;
+
+        ProbeNode(Parser<I, A> orig, Parser<I, A> p, Profiler.Stats stats) {
+            super(orig);
+            this.p = p;
+            this.stats = stats;
+        }
+
+        @Override
+        public Result<I, A> apply(Input<I> in, SymSet<I> follow) {
+            final Object start = in.position();
+            if (stats.sampleTiming()) {
+                final long t0 = System.nanoTime();
+                final Result<I, A> r = p.apply(in, follow);
+                stats.record(start, r, System.nanoTime() - t0);
+                return r;
+            } else {
+                final Result<I, A> r = p.apply(in, follow);
+                stats.record(start, r, -1);
+                return r;
+            }
+        }
+    }
+
+    static final class MapNode<I, A, B> extends Node<I, B> {
+        final Parser<I, A> p;
+        final F<A, B> f;
+
+        MapNode(Parser<I, B> orig, Parser<I, A> p, F<A, B> f) {
+            super(orig);
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        public Result<I, B> apply(Input<I> in, SymSet<I> follow) {
+            return p.apply(in, follow).map(f);
+        }
+    }
+
+    /**
+     * Compiled equivalent of {@code ap(pf.map(f), pa)}, where the function {@code f}
+     * is applied directly to the result of {@code pf}.
+     */
+    static final class ApNode<I, X, A, B> extends Node<I, B> {
+        private final Parser<I, X> pf;
+        private final F<X, F<A, B>> f;
+        private final Parser<I, A> pa;
+        private final boolean paAcceptsEmpty;
+        private final SymSet<I> paFirstSet;
+        private final SymTable<I> paFirstTable;
+        private final UnionCache<I> followCache;
+
+        ApNode(Parser<I, B> orig, Parser<I, X> pf, F<X, F<A, B>> f, Parser<I, A> origPa, Parser<I, A> pa) {
+            super(orig);
+            this.pf = pf;
+            this.f = f;
+            this.pa = pa;
+            this.paAcceptsEmpty = origPa.acceptsEmpty().apply();
+            this.paFirstSet = origPa.firstSet().apply();
+            this.paFirstTable = new SymTable<I>(paFirstSet);
+            this.followCache = new UnionCache<I>(paFirstSet, true);
+        }
+
+        @Override
+        public Result<I, B> apply(Input<I> in, SymSet<I> follow) {
+            final SymSet<I> followF = paAcceptsEmpty ? followCache.union(follow) : paFirstSet;
+
+            final Result<I, X> r = pf.apply(in, followF);
+
+            if (r.isSuccess()) {
+                final Result.Success<I, X> succ = (Result.Success<I, X>) r;
+                final F<A, B> g = f.apply(succ.value());
+                final Input<I> next = succ.next();
+                if (!paAcceptsEmpty) {
+                    if (next.isEof()) {
+                        return Result.failureEof(next, paFirstSet);
+                    } else if (!paFirstTable.matches(next.get())) {
+                        return Result.failure(next, paFirstSet);
+                    }
+                }
+
+                return pa.apply(next, follow).map(g);
+            } else {
+                return ((Result.Failure<I, X>) r).cast();
+            }
+        }
+    }
+
+    /**
+     * Compiled equivalent of {@code or} and {@code choice}.
+     */
+    static final class ChoiceNode<I, A> extends Node<I, A> {
+        private final Parser<I, A>[] ps;
+        private final SymSet<I>[] firstSets;
+        private final Parser<I, A> emptyP;
+
+        // 0 = not yet known, -1 = no match, otherwise 1 + the index of the parser to apply.
+        private final int[] table = new int[TABLE_SIZE];
+
+        @SuppressWarnings("unchecked")
+        ChoiceNode(Parser<I, A> orig, List<Parser<I, A>> origs, List<Parser<I, A>> ps) {
+            super(orig);
+            this.ps = (Parser<I, A>[])ps.toArray(new Parser<?, ?>[0]);
+            this.firstSets = (SymSet<I>[])new SymSet<?>[origs.size()];
+            Parser<I, A> emptyP = null;
+            for (int i = 0; i < this.ps.length; ++i) {
+                final Parser<I, A> p = origs.get(i);
+                firstSets[i] = p.firstSet().apply();
+                if (emptyP == null && p.acceptsEmpty().apply()) {
+                    emptyP = this.ps[i];
+                }
+            }
+            this.emptyP = emptyP;
+        }
+
+        private int find(I sym) {
+            for (int i = 0; i < firstSets.length; ++i) {
+                if (firstSets[i].matches(sym)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private Parser<I, A> select(I sym) {
+            if (sym instanceof Chr) {
+                final char c = ((Chr)sym).charValue();
+                if (c < TABLE_SIZE) {
+                    int k = table[c];
+                    if (k == 0) {
+                        final int i = find(sym);
+                        k = i == -1 ? -1 : i + 1;
+                        table[c] = k;
+                    }
+                    return k == -1 ? null : ps[k - 1];
+                }
+            }
+            final int i = find(sym);
+            return i == -1 ? null : ps[i];
+        }
+
+        @Override
+        public Result<I, A> apply(Input<I> in, SymSet<I> follow) {
+            if (in.isEof()) {
+                if (emptyP != null) {
+                    return emptyP.apply(in, follow);
+                } else {
+                    return Result.failureEof(in, firstSet);
+                }
+            } else {
+                final I next = in.get();
+                final Parser<I, A> p = select(next);
+                if (p != null) {
+                    return p.apply(in, follow);
+                } else if (emptyP != null && follow.matches(next)) {
+                    return emptyP.apply(in, follow);
+                } else {
+                    return Result.failure(in, firstSet);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compiled equivalent of the {@code many} combinators.
+     */
+    static final class ManyNode<I, A, C, R> extends Node<I, R> {
+        private final Parser<I, A> p;
+        private final SymTable<I> pFirstTable;
+        private final UnionCache<I> followCache;
+        private final F0<C> init;
+        private final F2<C, A, C> step;
+        private final F<C, R> finish;
+
+        ManyNode(
+                Parser<I, R> orig,
+                Parser<I, A> origP,
+                Parser<I, A> p,
+                F0<C> init,
+                F2<C, A, C> step,
+                F<C, R> finish) {
+            super(orig);
+            final SymSet<I> pFirstSet = origP.firstSet().apply();
+            this.p = p;
+            this.pFirstTable = new SymTable<I>(pFirstSet);
+            this.followCache = new UnionCache<I>(pFirstSet, false);
+            this.init = init;
+            this.step = step;
+            this.finish = finish;
+        }
+
+        @Override
+        public Result<I, R> apply(Input<I> in, SymSet<I> follow) {
+            final SymSet<I> follow2 = followCache.union(follow);
+            C acc = init.apply();
+            while (!in.isEof() && pFirstTable.matches(in.get())) {
+                final Result<I, A> r = p.apply(in, follow2);
+                if (r.isSuccess()) {
+                    final Result.Success<I, A> succ = (Result.Success<I, A>) r;
+                    acc = step.apply(acc, succ.value());
+                    in = succ.next();
+                } else {
+                    return ((Result.Failure<I, A>)r).cast();
+                }
+            }
+            return Result.success(finish.apply(acc), in);
+        }
+    }
+
+    /**
+     * Compiled equivalent of {@code first.and(rest.many())}.
+     */
+    static final class Many1Node<I, A, C, R> extends Node<I, R> {
+        private final Parser<I, A> first;
+        private final Parser<I, A> rest;
+        private final SymTable<I> restFirstTable;
+        private final UnionCache<I> followCache;
+        private final F0<C> init;
+        private final F2<C, A, C> step;
+        private final F<C, R> finish;
+
+        Many1Node(
+                Parser<I, R> orig,
+                Parser<I, A> first,
+                Parser<I, A> origRest,
+                Parser<I, A> rest,
+                F0<C> init,
+                F2<C, A, C> step,
+                F<C, R> finish) {
+            super(orig);
+            final SymSet<I> restFirstSet = origRest.firstSet().apply();
+            this.first = first;
+            this.rest = rest;
+            this.restFirstTable = new SymTable<I>(restFirstSet);
+            this.followCache = new UnionCache<I>(restFirstSet, false);
+            this.init = init;
+            this.step = step;
+            this.finish = finish;
+        }
+
+        @Override
+        public Result<I, R> apply(Input<I> in, SymSet<I> follow) {
+            final SymSet<I> follow2 = followCache.union(follow);
+            final Result<I, A> r = first.apply(in, follow2);
+            if (!r.isSuccess()) {
+                return ((Result.Failure<I, A>)r).cast();
+            }
+
+            Result.Success<I, A> succ = (Result.Success<I, A>) r;
+            C acc = step.apply(init.apply(), succ.value());
+            in = succ.next();
+
+            while (!in.isEof() && restFirstTable.matches(in.get())) {
+                final Result<I, A> r2 = rest.apply(in, follow2);
+                if (r2.isSuccess()) {
+                    succ = (Result.Success<I, A>) r2;
+                    acc = step.apply(acc, succ.value());
+                    in = succ.next();
+                } else {
+                    return ((Result.Failure<I, A>)r2).cast();
+                }
+            }
+            return Result.success(finish.apply(acc), in);
+        }
+    }
+
+    /**
+     * Compiled equivalent of the {@code manyTill} combinators.
+     */
+    static final class ManyTillNode<I, A, B, C, R> extends Node<I, R> {
+        private final Parser<I, A> p;
+        private final SymTable<I> pFirstTable;
+        private final Parser<I, B> end;
+        private final boolean endAcceptsEmpty;
+        private final SymSet<I> endFirstSet;
+        private final SymTable<I> endFirstTable;
+        private final UnionCache<I> followCache;
+        private final F0<C> init;
+        private final F2<C, A, C> step;
+        private final F<C, R> finish;
+
+        ManyTillNode(
+                Parser<I, R> orig,
+                Parser<I, A> origP,
+                Parser<I, A> p,
+                Parser<I, B> origEnd,
+                Parser<I, B> end,
+                F0<C> init,
+                F2<C, A, C> step,
+                F<C, R> finish) {
+            super(orig);
+            this.p = p;
+            this.pFirstTable = new SymTable<I>(origP.firstSet().apply());
+            this.end = end;
+            this.endAcceptsEmpty = origEnd.acceptsEmpty().apply();
+            this.endFirstSet = origEnd.firstSet().apply();
+            this.endFirstTable = new SymTable<I>(endFirstSet);
+            this.followCache = new UnionCache<I>(endFirstSet, true);
+            this.init = init;
+            this.step = step;
+            this.finish = finish;
+        }
+
+        @Override
+        public Result<I, R> apply(Input<I> in, SymSet<I> follow) {
+            C acc = init.apply();
+            final SymSet<I> follow2 = endAcceptsEmpty ? followCache.union(follow) : endFirstSet;
+            while (!in.isEof()) {
+                final I i = in.get();
+                if (endFirstTable.matches(i)) {
+                    final Result<I, B> r = end.apply(in, follow);
+                    if (r.isSuccess()) {
+                        in = ((Result.Success<I, B>) r).next();
+                        break;
+                    } else {
+                        return ((Result.Failure<I, B>)r).cast();
+                    }
+                } else if (pFirstTable.matches(i)) {
+                    final Result<I, A> r = p.apply(in, follow2);
+                    if (r.isSuccess()) {
+                        final Result.Success<I, A> succ = (Result.Success<I, A>) r;
+                        acc = step.apply(acc, succ.value());
+                        in = succ.next();
+                    } else {
+                        return ((Result.Failure<I, A>)r).cast();
+                    }
+                } else {
+                    break;
+                }
+            }
+            return Result.success(finish.apply(acc), in);
+        }
+    }
+}
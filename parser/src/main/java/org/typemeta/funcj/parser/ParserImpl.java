@@ -26,6 +26,28 @@ public Lazy<SymSet<I>> firstSet() {
         return firstSet;
     }
 
+    /**
+     * The name of this parser, if it has one.
+     * Named parsers are recorded individually by the {@link Profiler}.
+     * @return          the parser name, or null if it has none
+     */
+    String name() {
+        return null;
+    }
+
+    /**
+     * Construct the compiled equivalent of this parser (see {@link Parser#compile()}).
+     * Parsers which apply other parsers override this method
+     * to construct the compiled equivalent via the {@link ParserCompiler}.
+     * Primitive parsers can rely on this default implementation,
+     * as they are used as is.
+     * @param compiler  the compiler
+     * @return          the compiled parser
+     */
+    Parser<I, A> compile(ParserCompiler compiler) {
+        return this;
+    }
+
     @Override
     public String toString() {
         return "parser{" +
@@ -0,0 +1,265 @@
+package org.typemeta.funcj.parser;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code Profiler} records per-parser statistics for named parsers.
+ * <p>
+ * A parser is named if it was constructed by {@link Combinators#satisfy},
+ * {@link Text#manyChars}, {@link Text#many1Chars}, {@link Parser#label(String)}
+ * or {@link Parser#ref(String)}.
+ * {@link Profiler#instrument(Parser)} constructs a compiled copy of a parser,
+ * in which each named parser records its applications against this profiler.
+ * The original parser is left untouched,
+ * so uninstrumented parsers incur no profiling overhead.
+ * <p>
+ * For each name the profiler records the number of invocations, successes and failures,
+ * the number of backtracks (failures which occur after consuming input),
+ * the total number of input symbols consumed by successful applications,
+ * and the cumulative time spent in the parser.
+ * Times are inclusive of any nested named parsers,
+ * and, for recursive parsers, of nested applications of the same parser.
+ * The number of symbols consumed is only recorded for inputs whose
+ * {@link Input#position()} is an {@code Integer}.
+ * <p>
+ * Timing calls {@link System#nanoTime()} twice per application,
+ * which can dominate the cost of small parsers.
+ * With a timing sample rate of {@code n}, one in every {@code n} applications is timed (on average),
+ * and the recorded time is scaled accordingly.
+ * <p>
+ * A profiler may be shared between threads.
+ */
+public final class Profiler {
+
+    /**
+     * Construct a profiler which times every parser application.
+     * @return          the new profiler
+     */
+    public static Profiler create() {
+        return new Profiler(1);
+    }
+
+    /**
+     * Construct a profiler which times one in every {@code timingSampleRate} parser applications.
+     * @param timingSampleRate the timing sample rate
+     * @return          the new profiler
+     */
+    public static Profiler create(int timingSampleRate) {
+        if (timingSampleRate < 1) {
+            throw new IllegalArgumentException("timingSampleRate must be at least 1 - got " + timingSampleRate);
+        }
+        return new Profiler(timingSampleRate);
+    }
+
+    private final int timingSampleRate;
+
+    private final ConcurrentMap<String, Stats> stats = new ConcurrentHashMap<>();
+
+    private Profiler(int timingSampleRate) {
+        this.timingSampleRate = timingSampleRate;
+    }
+
+    /**
+     * Construct an instrumented copy of a parser,
+     * which records the applications of each named parser against this profiler.
+     * The instrumented parser is compiled (see {@link Parser#compile()}).
+     * @param parser    the parser to instrument
+     * @param <I>       the input stream symbol type
+     * @param <A>       the parser result type
+     * @return          the instrumented parser
+     */
+    public <I, A> Parser<I, A> instrument(Parser<I, A> parser) {
+        return ParserCompiler.instrumentRoot(parser, this);
+    }
+
+    Stats stats(String name) {
+        return stats.computeIfAbsent(name, n -> new Stats(n, timingSampleRate));
+    }
+
+    /**
+     * Return the statistics for the given parser name.
+     * @param name      the parser name
+     * @return          the statistics, if any have been recorded
+     */
+    public Optional<Stats> get(String name) {
+        return Optional.ofNullable(stats.get(name));
+    }
+
+    /**
+     * Return the statistics for all named parsers, ordered by descending time.
+     * @return          the statistics for all named parsers
+     */
+    public List<Stats> stats() {
+        final List<Stats> l = new ArrayList<>(stats.values());
+        l.sort(Comparator.comparingLong(Stats::timeNanos).reversed().thenComparing(Stats::name));
+        return l;
+    }
+
+    /**
+     * Clear the statistics for all named parsers.
+     */
+    public void reset() {
+        stats.values().forEach(Stats::reset);
+    }
+
+    /**
+     * Format the statistics for all named parsers as a flat table,
+     * ordered by descending time.
+     * @return          the formatted report
+     */
+    public String report() {
+        final List<Stats> l = stats();
+        int width = "name".length();
+        for (Stats s : l) {
+            width = Math.max(width, s.name().length());
+        }
+
+        final String fmt = "%-" + width + "s %12s %12s %12s %12s %12s %12s%n";
+        final StringBuilder sb = new StringBuilder();
+        final Formatter f = new Formatter(sb, Locale.ROOT);
+        f.format(fmt, "name", "invocations", "successes", "failures", "backtracks", "consumed", "time(ms)");
+        for (Stats s : l) {
+            f.format(
+                    fmt,
+                    s.name(),
+                    s.invocations(),
+                    s.successes(),
+                    s.failures(),
+                    s.backtracks(),
+                    s.consumed(),
+                    String.format(Locale.ROOT, "%.3f", s.timeNanos() / 1e6));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+
+    /**
+     * The statistics recorded for a named parser.
+     */
+    public static final class Stats {
+        private final String name;
+        private final int timingSampleRate;
+
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder backtracks = new LongAdder();
+        private final LongAdder consumed = new LongAdder();
+        private final LongAdder timed = new LongAdder();
+        private final LongAdder timedNanos = new LongAdder();
+
+        Stats(String name, int timingSampleRate) {
+            this.name = name;
+            this.timingSampleRate = timingSampleRate;
+        }
+
+        boolean sampleTiming() {
+            return timingSampleRate == 1 || ThreadLocalRandom.current().nextInt(timingSampleRate) == 0;
+        }
+
+        <I, A> void record(Object start, Result<I, A> r, long nanos) {
+            invocations.increment();
+            if (r.isSuccess()) {
+                successes.increment();
+                final Object end = ((Result.Success<I, A>)r).next().position();
+                if (start instanceof Integer && end instanceof Integer) {
+                    consumed.add((Integer)end - (Integer)start);
+                }
+            } else {
+                final Object end = ((Result.Failure<I, A>)r).input().position();
+                if (!start.equals(end)) {
+                    backtracks.increment();
+                }
+            }
+            if (nanos >= 0) {
+                timed.increment();
+                timedNanos.add(nanos);
+            }
+        }
+
+        void reset() {
+            invocations.reset();
+            successes.reset();
+            backtracks.reset();
+            consumed.reset();
+            timed.reset();
+            timedNanos.reset();
+        }
+
+        /**
+         * @return          the parser name
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * @return          the number of times the parser was applied
+         */
+        public long invocations() {
+            return invocations.sum();
+        }
+
+        /**
+         * @return          the number of successful applications
+         */
+        public long successes() {
+            return successes.sum();
+        }
+
+        /**
+         * @return          the number of failed applications
+         */
+        public long failures() {
+            return invocations() - successes();
+        }
+
+        /**
+         * @return          the number of failed applications which consumed input before failing
+         */
+        public long backtracks() {
+            return backtracks.sum();
+        }
+
+        /**
+         * @return          the total number of symbols consumed by successful applications
+         */
+        public long consumed() {
+            return consumed.sum();
+        }
+
+        /**
+         * Return the cumulative time spent in the parser, in nanoseconds.
+         * If timing is sampled then this is an estimate, scaled by the number of invocations.
+         * @return          the cumulative time spent in the parser
+         */
+        public long timeNanos() {
+            final long n = timed.sum();
+            final long t = timedNanos.sum();
+            if (n == 0) {
+                return 0;
+            } else {
+                final long inv = invocations();
+                return inv == n ? t : (long)((double)t * inv / n);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "name=" + name +
+                    ",invocations=" + invocations() +
+                    ",successes=" + successes() +
+                    ",failures=" + failures() +
+                    ",backtracks=" + backtracks() +
+                    ",consumed=" + consumed() +
+                    ",timeNanos=" + timeNanos() +
+                    "}";
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.typemeta.funcj.parser;
 
+import org.typemeta.funcj.control.Trampoline;
 import org.typemeta.funcj.data.Lazy;
 
 import java.util.Objects;
@@ -47,12 +48,29 @@ static <I, A> Parser<I, A> instance() {
 
     private Parser<I, A> impl;
 
+    private final String name;
+
     Ref(Parser<I, A> impl) {
         this.impl = Objects.requireNonNull(impl);
+        this.name = null;
+    }
+
+    Ref(String name) {
+        this.impl = Uninitialised.instance();
+        this.name = Objects.requireNonNull(name);
     }
 
     Ref() {
         this.impl = Uninitialised.instance();
+        this.name = null;
+    }
+
+    /**
+     * The name of this reference, if it has one.
+     * @return          the reference name, or null if it has none
+     */
+    String name() {
+        return name;
     }
 
     /**
@@ -63,6 +81,14 @@ public boolean initialised() {
         return impl != Uninitialised.instance();
     }
 
+    /**
+     * The referenced parser.
+     * @return          the referenced parser
+     */
+    Parser<I, A> impl() {
+        return impl;
+    }
+
     /**
      * Initialise this reference
      * @param impl      the parser
@@ -91,4 +117,15 @@ public Lazy<SymSet<I>> firstSet() {
     public Result<I, A> apply(Input<I> in, SymSet<I> follow) {
         return impl.apply(in, follow);
     }
+
+    /**
+     * Apply the referenced parser in the trampolined execution mode.
+     * References are the only means of constructing recursive grammars,
+     * so deferring the application here ensures the call stack depth is bounded
+     * by the size of the grammar rather than the nesting depth of the input.
+     */
+    @Override
+    public Trampoline<Result<I, A>> applyT(Input<I> in, SymSet<I> follow) {
+        return Trampoline.defer(() -> impl.applyT(in, follow));
+    }
 }
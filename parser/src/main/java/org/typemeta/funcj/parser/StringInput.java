@@ -0,0 +1,102 @@
+package org.typemeta.funcj.parser;
+
+import org.typemeta.funcj.data.Chr;
+import org.typemeta.funcj.functions.Functions;
+
+import java.util.Objects;
+
+class StringInput implements Input<Chr> {
+
+    private final char[] data;
+    private int position;
+    private final StringInput other;
+
+    StringInput(char[] data) {
+        this.data = data;
+        this.position = 0;
+        this.other = new StringInput(this, data);
+    }
+
+    StringInput(StringInput other, char[] data) {
+        this.data = data;
+        this.position = 0;
+        this.other = other;
+    }
+
+    private StringInput setPosition(int position) {
+        this.position = position;
+        return this;
+    }
+
+    /**
+     * Find the end of the longest run of chars, starting at the current position,
+     * which satisfy the predicate.
+     * @param pred      the predicate
+     * @return          the position immediately after the run
+     */
+    int scan(Functions.Predicate<Chr> pred) {
+        int end = position;
+        while (end < data.length && pred.test(Chr.valueOf(data[end]))) {
+            ++end;
+        }
+        return end;
+    }
+
+    /**
+     * Extract the chars from the current position up to (but excluding) the given end position.
+     * @param end       the end position
+     * @return          the chars as a {@code String}
+     */
+    String slice(int end) {
+        return new String(data, position, end - position);
+    }
+
+    /**
+     * Get the input position {@code end}, which is assumed to be at or after the current position.
+     * @param end       the end position
+     * @return          the input position
+     */
+    Input<Chr> advance(int end) {
+        return end == position ? this : other.setPosition(end);
+    }
+
+    @Override
+    public String toString() {
+        final String dataStr = isEof() ? "EOF" : String.valueOf(data[position]);
+        return "StringInput{" + position + ",data=\"" + dataStr + "\"";
+    }
+
+    @Override
+    public boolean isEof() {
+        return position >= data.length;
+    }
+
+    @Override
+    public Chr get() {
+        return Chr.valueOf(data[position]);
+    }
+
+    @Override
+    public Input<Chr> next() {
+        return other.setPosition(position + 1);
+    }
+
+    @Override
+    public Object position() {
+        return position;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        StringInput that = (StringInput) o;
+        return position == that.position &&
+                data == that.data;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(data, position);
+    }
+}
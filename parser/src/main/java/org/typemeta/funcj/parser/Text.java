@@ -1,6 +1,9 @@
 package org.typemeta.funcj.parser;
 
 import org.typemeta.funcj.data.Chr;
+import org.typemeta.funcj.functions.Functions;
+
+import java.util.stream.Collector;
 
 import static org.typemeta.funcj.parser.Combinators.*;
 
@@ -55,6 +58,82 @@ public static Parser<Chr, Chr> chr(char c) {
      */
     public static final Parser<Chr, Chr> ws = satisfy("ws", Chr::isWhitespace);
 
+    /**
+     * A {@link Collector} which accumulates {@code Chr}s into a {@code String}.
+     * Can be used with the collector variants of {@link Parser#many(Collector)} and friends
+     * in place of {@code many().map(Chr::listToString)}.
+     * @return          a {@code Collector} which accumulates {@code Chr}s into a {@code String}
+     */
+    public static Collector<Chr, StringBuilder, String> chrsToString() {
+        return Collector.of(
+                StringBuilder::new,
+                (sb, c) -> sb.append(c.charValue()),
+                StringBuilder::append,
+                StringBuilder::toString);
+    }
+
+    /**
+     * A parser which consumes zero or more input symbols which satisfy the predicate,
+     * and returns them as a {@code String}.
+     * Equivalent to {@code satisfy(name, pred).many().map(Chr::listToString)},
+     * but, where the input supports it, the result is sliced directly from the underlying input data.
+     * @param name      a name for the parser (used for error messages)
+     * @param pred      the predicate to be applied to the each input symbol
+     * @return          a parser that consumes zero or more input symbols that satisfy the given predicate
+     */
+    public static Parser<Chr, String> manyChars(String name, Functions.Predicate<Chr> pred) {
+        return chars(name, pred, true);
+    }
+
+    /**
+     * A parser which consumes one or more input symbols which satisfy the predicate,
+     * and returns them as a {@code String}.
+     * Equivalent to {@code satisfy(name, pred).many1().map(Chr::listToString)},
+     * but, where the input supports it, the result is sliced directly from the underlying input data.
+     * @param name      a name for the parser (used for error messages)
+     * @param pred      the predicate to be applied to the each input symbol
+     * @return          a parser that consumes one or more input symbols that satisfy the given predicate
+     */
+    public static Parser<Chr, String> many1Chars(String name, Functions.Predicate<Chr> pred) {
+        return chars(name, pred, false);
+    }
+
+    private static Parser<Chr, String> chars(String name, Functions.Predicate<Chr> pred, boolean acceptsEmpty) {
+        final SymSet<Chr> firstSet = SymSet.pred(name, pred);
+        return new ParserImpl<Chr, String>(acceptsEmpty ? Utils.LTRUE : Utils.LFALSE, () -> firstSet) {
+            @Override
+            public Result<Chr, String> apply(Input<Chr> in, SymSet<Chr> follow) {
+                final String s;
+                final Input<Chr> next;
+                if (in instanceof StringInput) {
+                    final StringInput sin = (StringInput)in;
+                    final int end = sin.scan(pred);
+                    s = sin.slice(end);
+                    next = sin.advance(end);
+                } else {
+                    final StringBuilder sb = new StringBuilder();
+                    while (!in.isEof() && pred.test(in.get())) {
+                        sb.append(in.get().charValue());
+                        in = in.next();
+                    }
+                    s = sb.toString();
+                    next = in;
+                }
+
+                if (!acceptsEmpty && s.isEmpty()) {
+                    return next.isEof() ? Utils.failureEof(this, next) : Utils.failure(this, next);
+                } else {
+                    return Result.success(s, next);
+                }
+            }
+
+            @Override
+            String name() {
+                return name;
+            }
+        };
+    }
+
     public static int digitToInt(Chr c) {
         return Chr.getNumericValue(c);
     }
@@ -0,0 +1,71 @@
+package org.typemeta.funcj.parser;
+
+import java.util.Objects;
+
+/**
+ * {@code Token} is a lexical token produced by a {@link Lexer}.
+ * <p>
+ * Input text which does not match any of the lexer token definitions is returned
+ * as an error token, which has a null kind,
+ * and which therefore won't match any {@link Lexer#token(Object)} parser.
+ * @param <K>       the token kind type
+ */
+public final class Token<K> {
+    private final K kind;
+    private final String text;
+    private final int offset;
+
+    Token(K kind, String text, int offset) {
+        this.kind = kind;
+        this.text = text;
+        this.offset = offset;
+    }
+
+    /**
+     * @return          the token kind, or null if this is an error token
+     */
+    public K kind() {
+        return kind;
+    }
+
+    /**
+     * @return          the text matched by the token
+     */
+    public String text() {
+        return text;
+    }
+
+    /**
+     * @return          the offset of the start of the token in the lexer input
+     */
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * @return          true if this token represents input which the lexer could not match
+     */
+    public boolean isError() {
+        return kind == null;
+    }
+
+    @Override
+    public String toString() {
+        return (kind == null ? "<error>" : kind.toString()) + "(\"" + text + "\"@" + offset + ")";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Token<?> that = (Token<?>) o;
+        return offset == that.offset &&
+                Objects.equals(kind, that.kind) &&
+                text.equals(that.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, text, offset);
+    }
+}
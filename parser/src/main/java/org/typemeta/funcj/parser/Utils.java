@@ -1,16 +1,25 @@
 package org.typemeta.funcj.parser;
 
+import org.typemeta.funcj.control.Trampoline;
 import org.typemeta.funcj.data.*;
 import org.typemeta.funcj.functions.*;
 import org.typemeta.funcj.tuples.Tuple2;
 
 import java.util.Optional;
+import java.util.function.*;
+import java.util.stream.Collector;
 
 abstract class Utils {
 
     static final Lazy<Boolean> LTRUE = () -> true;
     static final Lazy<Boolean> LFALSE = () -> false;
 
+    /**
+     * A collector which discards its inputs.
+     */
+    static final Collector<Object, Unit, Unit> SKIP =
+            Collector.of(() -> Unit.UNIT, (u, a) -> {}, (u1, u2) -> u1);
+
     static Lazy<Boolean> and(Lazy<Boolean> l, Lazy<Boolean> r) {
         return Lazy.of(() -> l.apply() && r.apply());
     }
@@ -51,6 +60,173 @@ static <I, A> Result<I, A> failureEof(Parser<I, ?> parser, Input<I> in) {
         return Result.failureEof(in, parser.firstSet().apply());
     }
 
+    static void checkManyParser(Parser<?, ?> p) {
+        // We want to provide an alert at construction time if the caller attempts to create a many
+        // parser from one that accepts empty (which would lead to an infinite loop at parsing time).
+        // But, an unitialise Ref will throw an exception if we call acceptsEmpty,
+        // so for that particular case we have to skip the check.
+        if (ifClass(Ref.class, p).map(Ref::initialised).orElse(true)
+                && p.acceptsEmpty().apply()) {
+            throw new RuntimeException("Cannot construct a many parser from one that accepts empty");
+        }
+    }
+
+    /**
+     * Repeatedly apply a parser until it fails, passing each result to the accumulator.
+     * We use an iterative implementation for performance, and to avoid StackOverflowExceptions.
+     */
+    static <I, A, C> Result<I, C> collectMany(
+            Parser<I, A> p,
+            C acc,
+            BiConsumer<C, ? super A> accumulator,
+            Input<I> in,
+            SymSet<I> follow) {
+        final SymSet<I> firstSet = p.firstSet().apply();
+        while (!in.isEof() && firstSet.matches(in.get())) {
+            final Result<I, A> r = p.apply(in, follow);
+            if (r.isSuccess()) {
+                final Result.Success<I, A> succ = (Result.Success<I, A>) r;
+                accumulator.accept(acc, succ.value());
+                in = succ.next();
+            } else {
+                return ((Result.Failure<I, A>)r).cast();
+            }
+        }
+        return Result.success(acc, in);
+    }
+
+    /**
+     * Construct a parser which applies {@code first} once, followed by {@code rest} zero or more times,
+     * with the results accumulated by the collector.
+     * This is equivalent to {@code first.and(rest.many())}, without the intermediate {@code IList}.
+     */
+    static <I, A, C, R> Parser<I, R> collectMany1(
+            Parser<I, A> first,
+            Parser<I, A> rest,
+            Collector<? super A, C, R> collector) {
+        checkManyParser(rest);
+
+        final Supplier<C> supplier = collector.supplier();
+        final BiConsumer<C, ? super A> accumulator = collector.accumulator();
+        final Function<C, R> finisher = collector.finisher();
+
+        return new ParserImpl<I, R>(
+                first.acceptsEmpty(),
+                combine(first.acceptsEmpty(), first.firstSet(), rest.firstSet())
+        ) {
+            @Override
+            public Result<I, R> apply(Input<I> in, SymSet<I> follow) {
+                final SymSet<I> follow2 = follow.union(rest.firstSet().apply());
+                final Result<I, A> r = first.apply(in, follow2);
+                if (r.isSuccess()) {
+                    final Result.Success<I, A> succ = (Result.Success<I, A>) r;
+                    final C acc = supplier.get();
+                    accumulator.accept(acc, succ.value());
+                    return collectMany(rest, acc, accumulator, succ.next(), follow2).map(finisher::apply);
+                } else {
+                    return ((Result.Failure<I, A>)r).cast();
+                }
+            }
+
+            @Override
+            public Trampoline<Result<I, R>> applyT(Input<I> in, SymSet<I> follow) {
+                final SymSet<I> follow2 = follow.union(rest.firstSet().apply());
+                return first.applyT(in, follow2).flatMap(r -> {
+                    if (r.isSuccess()) {
+                        final Result.Success<I, A> succ = (Result.Success<I, A>) r;
+                        final C acc = supplier.get();
+                        accumulator.accept(acc, succ.value());
+                        return manyT(rest, accumulate(accumulator), acc, succ.next(), follow2)
+                                .map(r2 -> r2.map(finisher::apply));
+                    } else {
+                        return Trampoline.done(((Result.Failure<I, A>)r).cast());
+                    }
+                });
+            }
+
+            @Override
+            Parser<I, R> compile(ParserCompiler compiler) {
+                return compiler.many1(
+                        this,
+                        first,
+                        rest,
+                        supplier::get,
+                        accumulate(accumulator),
+                        finisher::apply);
+            }
+        };
+    }
+
+    /**
+     * Adapt a collector accumulator into a fold step function.
+     */
+    static <A, C> Functions.F2<C, A, C> accumulate(BiConsumer<C, ? super A> accumulator) {
+        return (acc, a) -> {
+            accumulator.accept(acc, a);
+            return acc;
+        };
+    }
+
+    /**
+     * Trampolined equivalent of {@link Utils#collectMany}, where the results are folded using {@code step}.
+     */
+    static <I, A, C> Trampoline<Result<I, C>> manyT(
+            Parser<I, A> p,
+            Functions.F2<C, A, C> step,
+            C acc,
+            Input<I> in,
+            SymSet<I> follow) {
+        if (!in.isEof() && p.firstSet().apply().matches(in.get())) {
+            return p.applyT(in, follow).flatMap(r -> {
+                if (r.isSuccess()) {
+                    final Result.Success<I, A> succ = (Result.Success<I, A>) r;
+                    return manyT(p, step, step.apply(acc, succ.value()), succ.next(), follow);
+                } else {
+                    return Trampoline.done(((Result.Failure<I, A>)r).cast());
+                }
+            });
+        } else {
+            return Trampoline.done(Result.success(acc, in));
+        }
+    }
+
+    /**
+     * Trampolined equivalent of the {@link Parser#manyTill(Parser)} loop,
+     * where the results are folded using {@code step}.
+     */
+    static <I, A, B, C> Trampoline<Result<I, C>> manyTillT(
+            Parser<I, A> p,
+            Parser<I, B> end,
+            Functions.F2<C, A, C> step,
+            C acc,
+            Input<I> in,
+            SymSet<I> follow,
+            SymSet<I> follow2) {
+        if (!in.isEof()) {
+            final I i = in.get();
+            if (end.firstSet().apply().matches(i)) {
+                return end.applyT(in, follow).map(r -> {
+                    if (r.isSuccess()) {
+                        final Result.Success<I, B> succ = (Result.Success<I, B>) r;
+                        return Result.success(acc, succ.next());
+                    } else {
+                        return ((Result.Failure<I, B>)r).cast();
+                    }
+                });
+            } else if (p.firstSet().apply().matches(i)) {
+                return p.applyT(in, follow2).flatMap(r -> {
+                    if (r.isSuccess()) {
+                        final Result.Success<I, A> succ = (Result.Success<I, A>) r;
+                        return manyTillT(p, end, step, step.apply(acc, succ.value()), succ.next(), follow, follow2);
+                    } else {
+                        return Trampoline.done(((Result.Failure<I, A>)r).cast());
+                    }
+                });
+            }
+        }
+        return Trampoline.done(Result.success(acc, in));
+    }
+
     static <A> A reduce(A a, IList<Tuple2<Functions.Op2<A>, A>> lopA) {
         return lopA.match(
                 nel -> nel.head()._1.apply(a, reduce(nel.head()._2, nel.tail())),
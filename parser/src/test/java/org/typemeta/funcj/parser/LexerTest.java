@@ -0,0 +1,96 @@
+package org.typemeta.funcj.parser;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.typemeta.funcj.parser.Lexer.Pattern.*;
+
+public class LexerTest {
+
+    enum Kind {IF, IDENT, NUM, PLUS, TIMES, LPAREN, RPAREN}
+
+    private static final Lexer<Kind> lexer =
+            Lexer.<Kind>builder()
+                    .literal(Kind.IF, "if")
+                    .token(Kind.IDENT, alpha.and(alphaNum.many()))
+                    .token(Kind.NUM, chr('0').or(nonZeroDigit.and(digit.many())))
+                    .literal(Kind.PLUS, "+")
+                    .literal(Kind.TIMES, "*")
+                    .literal(Kind.LPAREN, "(")
+                    .literal(Kind.RPAREN, ")")
+                    .skip(ws.many1())
+                    .build();
+
+    private static List<Token<Kind>> tokens(String s) {
+        return lexer.tokens(s.toCharArray());
+    }
+
+    @Test
+    public void testLongestMatchAndPriority() {
+        assertEquals(
+                Arrays.asList(
+                        new Token<>(Kind.IF, "if", 0),
+                        new Token<>(Kind.IDENT, "iffy", 3),
+                        new Token<>(Kind.IDENT, "x1", 8),
+                        new Token<>(Kind.NUM, "123", 11)
+                ),
+                tokens("if iffy x1 123"));
+    }
+
+    @Test
+    public void testSkipsWhitespace() {
+        assertEquals(
+                Arrays.asList(
+                        new Token<>(Kind.NUM, "1", 2),
+                        new Token<>(Kind.PLUS, "+", 4),
+                        new Token<>(Kind.NUM, "0", 6)
+                ),
+                tokens(" \t1\n+ 0\r\n"));
+        assertTrue(tokens("   ").isEmpty());
+        assertTrue(tokens("").isEmpty());
+    }
+
+    @Test
+    public void testUnmatchedInputProducesErrorTokens() {
+        final List<Token<Kind>> toks = tokens("1 ? 2");
+        assertEquals(3, toks.size());
+        assertTrue(toks.get(1).isError());
+        assertEquals("?", toks.get(1).text());
+        assertEquals(2, toks.get(1).offset());
+        assertEquals(new Token<>(Kind.NUM, "2", 4), toks.get(2));
+    }
+
+    @Test
+    public void testNonAsciiInput() {
+        assertEquals(
+                Arrays.asList(new Token<>(Kind.IDENT, "été", 0)),
+                tokens("été"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyMatchIsRejected() {
+        Lexer.<Kind>builder().token(Kind.NUM, digit.many()).build();
+    }
+
+    private static Parser<Token<Kind>, Integer> expr() {
+        final Ref<Token<Kind>, Integer> expr = Parser.ref();
+        final Parser<Token<Kind>, Integer> atom =
+                Lexer.text(Kind.NUM).map(Integer::parseInt)
+                        .or(expr.between(Lexer.token(Kind.LPAREN), Lexer.token(Kind.RPAREN)));
+        final Parser<Token<Kind>, Integer> term =
+                atom.sepBy1(Lexer.token(Kind.TIMES)).map(l -> l.foldLeft((x, y) -> x * y, 1));
+        return expr.set(term.sepBy1(Lexer.token(Kind.PLUS)).map(l -> l.foldLeft((x, y) -> x + y, 0)));
+    }
+
+    @Test
+    public void testParseTokens() {
+        final Parser<Token<Kind>, Integer> p = expr();
+        assertEquals(Integer.valueOf(7), p.parse(lexer.lex("1 + 2 * 3")).getOrThrow());
+        assertEquals(Integer.valueOf(9), p.parse(lexer.lex("(1 + 2) * 3")).getOrThrow());
+        assertEquals(Integer.valueOf(9), p.compile().parse(lexer.lex(" ( 1+2 )*3 ")).getOrThrow());
+        assertFalse(p.parse(lexer.lex("1 + ? 3")).isSuccess());
+        assertFalse(p.parse(lexer.lex("1 +")).isSuccess());
+    }
+}
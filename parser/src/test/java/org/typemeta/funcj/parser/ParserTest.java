@@ -195,6 +195,75 @@ public void many1FailsOnNonEmptyInput() {
                 .fails();
     }
 
+    @Property
+    public void manyCollectMatchesMany(char c1, char c2) {
+        Assume.assumeThat(c1, not(c2));
+
+        final String s = "" + c1 + c1 + c1 + c1;
+        final char[] ca = (s + c2).toCharArray();
+
+        final Parser<Chr, String> parser =
+                Text.chr(c1).many(Text.chrsToString())
+                        .andL(Text.chr(c2));
+
+        TestUtils.ParserCheck.parser(parser)
+                .withInput(Input.of(ca))
+                .succeedsWithResult(s, Input.of(ca).next().next().next().next().next());
+    }
+
+    @Property
+    public void manyTillCollectMatches(char c1, char c2) {
+        Assume.assumeThat(c1, not(c2));
+
+        final String s = "" + c1 + c1 + c1 + c1;
+        final char[] ca = (s + c2).toCharArray();
+
+        final Parser<Chr, String> parser =
+                Text.chr(c1).manyTill(Text.chr(c2), Text.chrsToString());
+
+        TestUtils.ParserCheck.parser(parser)
+                .withInput(Input.of(ca))
+                .succeedsWithResult(s, Input.of(ca).next().next().next().next().next());
+    }
+
+    @Property
+    public void many1CollectMatchesMany1(char c1, char c2) {
+        final String s = "" + c1 + c2;
+        final char[] ca = s.toCharArray();
+
+        final Parser<Chr, String> parser = any(Chr.class).many1(Text.chrsToString());
+
+        TestUtils.ParserCheck.parser(parser)
+                .withInput(Input.of(ca))
+                .succeedsWithResult(s, Input.of(ca).next().next());
+
+        TestUtils.ParserCheck.parser(parser)
+                .withInput(Input.of(""))
+                .fails();
+    }
+
+    @Test
+    public void sepByCollectMatchesSepBy() {
+        final Parser<Chr, java.util.List<Integer>> parser =
+                intr.sepBy(Text.chr(','), java.util.stream.Collectors.toList());
+
+        for (String s : new String[]{"", "1", "1,2", "1,-2,3"}) {
+            assertEquals(
+                    s,
+                    intr.sepBy(Text.chr(',')).parse(Input.of(s)).getOrThrow().toList(),
+                    parser.parse(Input.of(s)).getOrThrow());
+        }
+
+        // Each parse should yield a distinct result container.
+        Assert.assertNotSame(
+                parser.parse(Input.of("")).getOrThrow(),
+                parser.parse(Input.of("")).getOrThrow());
+
+        TestUtils.ParserCheck.parser(parser)
+                .withInput(Input.of("1,"))
+                .fails();
+    }
+
     @Test
     public void testUninitialisedRefManyDoesNotThrow() {
         final Ref<Chr, Chr> r = Parser.ref();
@@ -215,6 +284,89 @@ public void testInitialisedRefManyDoesThrow() {
         Parser<Chr, IList<Chr>> rs = ref.many();
     }
 
+    private static Parser<Chr, Integer> nested() {
+        final Ref<Chr, Integer> ref = Parser.ref();
+        return ref.set(
+                Text.chr('(')
+                        .andR(ref)
+                        .andL(Text.chr(')'))
+                        .map(i -> i + 1)
+                        .or(Text.chr('x').map(x -> 0)));
+    }
+
+    private static String nestedInput(int depth) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; ++i) {
+            sb.append('(');
+        }
+        sb.append('x');
+        for (int i = 0; i < depth; ++i) {
+            sb.append(')');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testParseTMatchesParse() {
+        final Parser<Chr, Integer> parser = nested();
+        for (int depth = 0; depth < 10; ++depth) {
+            final String s = nestedInput(depth);
+            assertEquals(s, parser.parse(Input.of(s)).getOrThrow(), parser.parseT(Input.of(s)).getOrThrow());
+        }
+
+        final Parser<Chr, IList<Integer>> listParser = intr.sepBy(Text.chr(','));
+        assertEquals(IList.of(1, 2, 3), listParser.parseT(Input.of("1,2,3")).getOrThrow());
+        Assert.assertFalse(listParser.parseT(Input.of("1,2,")).isSuccess());
+    }
+
+    @Test
+    public void testParseTIsStackSafe() {
+        final int depth = 100000;
+        assertEquals(depth, nested().parseT(Input.of(nestedInput(depth))).getOrThrow().intValue());
+    }
+
+    @Test
+    public void testCompiledMatchesInterpreted() {
+        final Parser<Chr, Integer> parser = nested();
+        final Parser<Chr, Integer> compiled = parser.compile();
+        for (int depth = 0; depth < 10; ++depth) {
+            final String s = nestedInput(depth);
+            assertEquals(s, parser.parse(Input.of(s)).getOrThrow(), compiled.parse(Input.of(s)).getOrThrow());
+        }
+
+        for (String s : new String[]{"", "x)", "(x", "((x)", "(y)"}) {
+            assertEquals(s, parser.parse(Input.of(s)).isSuccess(), compiled.parse(Input.of(s)).isSuccess());
+        }
+
+        final Parser<Chr, Integer> chain = intr.chainl(subtr, Z);
+        final Parser<Chr, Integer> chainC = chain.compile();
+        for (String s : new String[]{"", "1", "1-2", "1-2-3", "1-", "-1--2"}) {
+            assertEquals(s, chain.parse(Input.of(s)).isSuccess(), chainC.parse(Input.of(s)).isSuccess());
+            if (chain.parse(Input.of(s)).isSuccess()) {
+                assertEquals(s, chain.parse(Input.of(s)).getOrThrow(), chainC.parse(Input.of(s)).getOrThrow());
+            }
+        }
+
+        final Parser<Chr, String> till =
+                Text.chr('a').manyTill(Text.chr('b'))
+                        .map(Chr::listToString)
+                        .and(Text.alpha.many1(Text.chrsToString()))
+                        .map((x, y) -> x + "|" + y);
+        final Parser<Chr, String> tillC = till.compile();
+        for (String s : new String[]{"aaabcd", "bcd", "aaa", "aac"}) {
+            assertEquals(s, till.parse(Input.of(s)).isSuccess(), tillC.parse(Input.of(s)).isSuccess());
+            if (till.parse(Input.of(s)).isSuccess()) {
+                assertEquals(s, till.parse(Input.of(s)).getOrThrow(), tillC.parse(Input.of(s)).getOrThrow());
+            }
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testCompileUninitialisedRefThrows() {
+        final Ref<Chr, Chr> ref = Parser.ref();
+        Text.chr('x').andR(ref).compile();
+    }
+
     private static void assertEvaluate(Parser<Chr, Integer> parser, String s, int expected) {
         assertEquals(s, expected, parser.parse(Input.of(s)).getOrThrow().intValue());
     }
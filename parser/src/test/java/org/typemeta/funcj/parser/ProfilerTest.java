@@ -0,0 +1,97 @@
+package org.typemeta.funcj.parser;
+
+import org.junit.Test;
+import org.typemeta.funcj.data.*;
+
+import static org.junit.Assert.*;
+import static org.typemeta.funcj.parser.Text.*;
+
+public class ProfilerTest {
+
+    private static final Parser<Chr, Integer> num =
+            many1Chars("digits", Chr::isDigit).map(Integer::parseInt);
+
+    private static Parser<Chr, IList<Object>> nested() {
+        final Ref<Chr, IList<Object>> list = Parser.ref("list");
+        final Parser<Chr, Object> elem = Combinators.<Chr, Object>choice(
+                num.map(i -> (Object)i),
+                list.map(l -> (Object)l)
+        ).label("elem");
+        list.set(chr('[').andR(elem.sepBy(chr(','))).andL(chr(']')));
+        return list;
+    }
+
+    private static Profiler.Stats stats(Profiler profiler, String name) {
+        return profiler.get(name).orElseThrow(() -> new AssertionError("No stats for " + name));
+    }
+
+    @Test
+    public void testInstrumentedMatchesOriginal() {
+        final Parser<Chr, IList<Object>> p = nested();
+        final Parser<Chr, IList<Object>> ip = Profiler.create().instrument(p);
+        for (String s : new String[]{"[]", "[1]", "[1,[2,[]],33]", "[1,", "[[1]", "[a]"}) {
+            final Result<Chr, IList<Object>> exp = p.parse(Input.of(s));
+            final Result<Chr, IList<Object>> act = ip.parse(Input.of(s));
+            assertEquals(s, exp.isSuccess(), act.isSuccess());
+            if (exp.isSuccess()) {
+                assertEquals(s, exp.getOrThrow(), act.getOrThrow());
+            }
+        }
+    }
+
+    @Test
+    public void testCounts() {
+        final Profiler profiler = Profiler.create();
+        final Parser<Chr, IList<Object>> p = profiler.instrument(nested());
+
+        p.parse(Input.of("[1,[22,[]],333]")).getOrThrow();
+
+        final Profiler.Stats list = stats(profiler, "list");
+        assertEquals(3, list.invocations());
+        assertEquals(3, list.successes());
+        assertEquals(0, list.failures());
+        assertEquals(15 + 7 + 2, list.consumed());
+
+        final Profiler.Stats elem = stats(profiler, "elem");
+        assertEquals(5, elem.invocations());
+        assertEquals(5, elem.successes());
+
+        final Profiler.Stats digits = stats(profiler, "digits");
+        assertEquals(3, digits.invocations());
+        assertEquals(6, digits.consumed());
+    }
+
+    @Test
+    public void testFailuresAndBacktracks() {
+        final Profiler profiler = Profiler.create();
+        final Parser<Chr, IList<Object>> p = profiler.instrument(nested());
+
+        assertFalse(p.parse(Input.of("[1,[2")).isSuccess());
+
+        final Profiler.Stats list = stats(profiler, "list");
+        assertEquals(2, list.invocations());
+        assertEquals(2, list.failures());
+        assertEquals(2, list.backtracks());
+    }
+
+    @Test
+    public void testReset() {
+        final Profiler profiler = Profiler.create(4);
+        final Parser<Chr, IList<Object>> p = profiler.instrument(nested());
+
+        p.parse(Input.of("[1,2,3]")).getOrThrow();
+        assertEquals(3, stats(profiler, "digits").invocations());
+        assertTrue(profiler.report().contains("digits"));
+
+        profiler.reset();
+        assertEquals(0, stats(profiler, "digits").invocations());
+        assertEquals(0, stats(profiler, "digits").timeNanos());
+    }
+
+    @Test
+    public void testLabelIsTransparent() {
+        final Parser<Chr, Integer> p = num.label("num");
+        assertEquals(Integer.valueOf(42), p.parse(Input.of("42")).getOrThrow());
+        assertFalse(p.parse(Input.of("x")).isSuccess());
+    }
+}
@@ -3,6 +3,7 @@
 import com.pholser.junit.quickcheck.Property;
 import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
 import org.junit.Assert;
+import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.typemeta.funcj.data.Chr;
 
@@ -143,6 +144,39 @@ public void testString(String s) {
         final Result<Chr, String> r = p.parse(Input.of(s));
         assertEquals("string(" + s + ").parse(" + s + ")", s, r.getOrThrow());
     }
+
+    @Property
+    public void testManyChars(String s) {
+        final Parser<Chr, String> p = Text.manyChars("letterOrDigit", Chr::isLetterOrDigit);
+        final Parser<Chr, String> exp = Text.alphaNum.many().map(Chr::listToString);
+
+        final Result.Success<Chr, String> expRes = (Result.Success<Chr, String>)exp.apply(Input.of(s));
+        final Result.Success<Chr, String> res = (Result.Success<Chr, String>)p.apply(Input.of(s));
+        assertEquals(expRes.value(), res.value());
+        assertEquals(expRes.next().position(), res.next().position());
+        assertEquals(expRes.value(), p.apply(Input.of(new StringReader(s))).getOrThrow());
+    }
+
+    @Property
+    public void testMany1Chars(String s) {
+        final Parser<Chr, String> p = Text.many1Chars("digit", Chr::isDigit);
+        final boolean expSuccess = !s.isEmpty() && Character.isDigit(s.charAt(0));
+
+        assertEquals(expSuccess, p.apply(Input.of(s)).isSuccess());
+        assertEquals(expSuccess, p.apply(Input.of(new StringReader(s))).isSuccess());
+    }
+
+    @Test
+    public void testManyCharsFollowedBy() {
+        final Parser<Chr, String> p =
+                Text.many1Chars("letter", Chr::isAlphabetic)
+                        .andL(Text.chr('='))
+                        .and(Text.manyChars("digit", Chr::isDigit))
+                        .map((k, v) -> k + ":" + v);
+        parseSuccess(p, "abc=123", "abc:123");
+        parseSuccess(p, "abc=", "abc:");
+        parseFailure(p, "=123");
+    }
 //
 //    private static <T> Parser<Chr, T> manyTill(Parser<Chr, T> end) {
 //